@@ -0,0 +1,105 @@
+package hu.mudlee.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Caps the frame rate by waiting out the rest of each frame's time budget, and keeps pacing
+ * statistics over the most recent frames.
+ *
+ * <p>Waiting parks the thread for most of the remaining budget and busy-waits only the last
+ * stretch, because {@link LockSupport#parkNanos(long)} may wake up late by up to the OS timer
+ * resolution. The length of that stretch adapts to the oversleep actually observed, so on a
+ * platform with a precise timer the loop spends almost no time spinning.
+ *
+ * <p>Deadlines advance by exactly one frame, so an occasional late frame is absorbed by the next
+ * one instead of shifting every later frame. After a long stall the schedule restarts from now
+ * rather than rushing through the missed frames.
+ */
+final class FrameLimiter {
+
+    private static final int WINDOW = 120;
+    private static final long MIN_SPIN_NANOS = 200_000L;
+    private static final long MAX_SPIN_NANOS = 4_000_000L;
+
+    private final long[] frameNanos = new long[WINDOW];
+    private long frameNanosSum;
+    private double frameNanosSquareSum;
+    private int frameCount;
+    private int nextFrame;
+
+    private long targetFrameNanos;
+    private long deadline;
+    private long spinNanos = 1_000_000L;
+
+    /** {@code 0} disables limiting. */
+    void setTargetFramesPerSecond(int fps) {
+        if (fps < 0) {
+            throw new IllegalArgumentException("Target FPS must not be negative: " + fps);
+        }
+        targetFrameNanos = fps == 0 ? 0L : 1_000_000_000L / fps;
+        deadline = 0L;
+    }
+
+    int getTargetFramesPerSecond() {
+        return targetFrameNanos == 0L ? 0 : (int) Math.round(1e9 / targetFrameNanos);
+    }
+
+    /** Blocks until the current frame's budget is used up. Returns immediately when disabled. */
+    void waitForNextFrame() {
+        if (targetFrameNanos == 0L) {
+            return;
+        }
+        var now = System.nanoTime();
+        if (deadline == 0L) {
+            deadline = now + targetFrameNanos;
+        }
+
+        var remaining = deadline - now;
+        while (remaining > spinNanos) {
+            var sleep = remaining - spinNanos;
+            var before = System.nanoTime();
+            LockSupport.parkNanos(sleep);
+            var after = System.nanoTime();
+            adaptSpin(after - before - sleep);
+            remaining = deadline - after;
+        }
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        deadline += targetFrameNanos;
+        now = System.nanoTime();
+        if (now - deadline > targetFrameNanos) {
+            deadline = now + targetFrameNanos;
+        }
+    }
+
+    /** Adds a measured frame time to the statistics window and publishes them to {@code gameTime}. */
+    void record(long nanos, GameTime gameTime) {
+        if (frameCount == WINDOW) {
+            var old = frameNanos[nextFrame];
+            frameNanosSum -= old;
+            frameNanosSquareSum -= (double) old * old;
+        } else {
+            frameCount++;
+        }
+        frameNanos[nextFrame] = nanos;
+        frameNanosSum += nanos;
+        frameNanosSquareSum += (double) nanos * nanos;
+        nextFrame = (nextFrame + 1) % WINDOW;
+
+        var max = 0L;
+        for (int i = 0; i < frameCount; i++) {
+            max = Math.max(max, frameNanos[i]);
+        }
+        var mean = (double) frameNanosSum / frameCount;
+        var variance = Math.max(0.0, frameNanosSquareSum / frameCount - mean * mean);
+        gameTime.setPacing((float) (mean * 1e-9), (float) (Math.sqrt(variance) * 1e-9), max * 1e-9f);
+    }
+
+    /** Moves the spin window towards the observed park overshoot, keeping some safety margin. */
+    private void adaptSpin(long overshoot) {
+        var wanted = Math.clamp(overshoot * 2, MIN_SPIN_NANOS, MAX_SPIN_NANOS);
+        spinNanos = wanted > spinNanos ? wanted : spinNanos - (spinNanos - wanted) / 16;
+    }
+}
@@ -1,8 +1,12 @@
 package hu.mudlee.core;
 
 import hu.mudlee.core.content.ContentManager;
+import hu.mudlee.core.diagnostics.FrameProfiler;
+import hu.mudlee.core.events.EventBus;
 import hu.mudlee.core.input.InputSystem;
+import hu.mudlee.core.jobs.JobSystem;
 import hu.mudlee.core.render.Renderer;
+import hu.mudlee.core.render.texture.TextureResidency;
 import hu.mudlee.core.scene.SceneManager;
 import hu.mudlee.core.settings.Antialiasing;
 import hu.mudlee.core.settings.WindowPreferences;
@@ -16,13 +20,28 @@ import org.slf4j.LoggerFactory;
 public abstract class Game implements WindowEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(Game.class);
-    private static final float TARGET_ELAPSED_SECONDS = 1f / 60f;
+    private static final float DEFAULT_TARGET_ELAPSED_SECONDS = 1f / 60f;
+    private static final int DEFAULT_MAX_UPDATES_PER_FRAME = 5;
+    private static final int INPUT_STAGE = FrameProfiler.register("Input");
+    private static final int SCENE_UPDATE_STAGE = FrameProfiler.register("SceneManager.update");
+    private static final int GAME_UPDATE_STAGE = FrameProfiler.register("Game.update");
+    private static final int GAME_DRAW_STAGE = FrameProfiler.register("Game.draw");
+    private static final int SWAP_STAGE = FrameProfiler.register("Renderer.swapBuffers");
+    private static final int LIMITER_STAGE = FrameProfiler.register("FrameLimiter.wait");
+    private static final int JOBS_STAGE = FrameProfiler.register("JobSystem.completeAll");
+    private static final int EVENTS_STAGE = FrameProfiler.register("EventBus.dispatch");
 
     protected GraphicsDeviceManager gdm;
     protected GraphicsDevice graphicsDevice;
     protected ContentManager content;
     public final List<GameService> components = new ArrayList<>();
 
+    private final FrameLimiter frameLimiter = new FrameLimiter();
+    private boolean fixedTimeStep;
+    private float targetElapsedSeconds = DEFAULT_TARGET_ELAPSED_SECONDS;
+    private int maxUpdatesPerFrame = DEFAULT_MAX_UPDATES_PER_FRAME;
+    private int jobWorkerCount;
+
     protected Game() {}
 
     public final void run() {
@@ -46,17 +65,20 @@ public abstract class Game implements WindowEventListener {
 
         Window.create();
         graphicsDevice = new GraphicsDevice();
+        TextureResidency.setBudget(gdm.getTextureMemoryBudget());
 
         if (content == null) {
             content = new ContentManager("");
         }
 
+        JobSystem.start(jobWorkerCount > 0 ? jobWorkerCount : JobSystem.defaultWorkerCount());
         initialize();
         loadContent();
 
         loop();
 
         log.info("Game is shutting down");
+        JobSystem.shutdown();
         Renderer.waitForGPU();
         unloadContent();
         for (var component : components) {
@@ -72,6 +94,77 @@ public abstract class Game implements WindowEventListener {
         Window.close();
     }
 
+    /**
+     * With a fixed time step, {@link #update} runs zero or more times per frame, each time with
+     * exactly {@link #getTargetElapsedSeconds()} elapsed, and {@link #draw} runs once with {@link
+     * GameTime#interpolationAlpha()} set to how far the frame is between the last two updates.
+     * Otherwise (the default) update and draw run once per frame with the measured frame time.
+     */
+    public final void setFixedTimeStep(boolean fixedTimeStep) {
+        this.fixedTimeStep = fixedTimeStep;
+    }
+
+    public final boolean isFixedTimeStep() {
+        return fixedTimeStep;
+    }
+
+    /** Length of one update step in fixed time step mode; also the "running slowly" threshold. */
+    public final void setTargetElapsedSeconds(float seconds) {
+        if (seconds <= 0f) {
+            throw new IllegalArgumentException("Target elapsed time must be positive: " + seconds);
+        }
+        this.targetElapsedSeconds = seconds;
+    }
+
+    public final float getTargetElapsedSeconds() {
+        return targetElapsedSeconds;
+    }
+
+    /**
+     * Upper bound of fixed updates run in a single frame. When a frame falls further behind than
+     * this, the remaining simulation time is dropped instead of being caught up, so a slow update
+     * cannot make the next frame even slower.
+     */
+    public final void setMaxUpdatesPerFrame(int maxUpdatesPerFrame) {
+        if (maxUpdatesPerFrame < 1) {
+            throw new IllegalArgumentException("Max updates per frame must be at least 1: " + maxUpdatesPerFrame);
+        }
+        this.maxUpdatesPerFrame = maxUpdatesPerFrame;
+    }
+
+    public final int getMaxUpdatesPerFrame() {
+        return maxUpdatesPerFrame;
+    }
+
+    /**
+     * Caps the frame rate by sleeping, then briefly spinning, until each frame's budget is used up.
+     * Useful with vSync off, where the loop would otherwise keep a core fully busy. {@code 0} (the
+     * default) disables the limiter. Pacing statistics are reported through {@link GameTime} either
+     * way.
+     */
+    public final void setTargetFramesPerSecond(int fps) {
+        frameLimiter.setTargetFramesPerSecond(fps);
+    }
+
+    public final int getTargetFramesPerSecond() {
+        return frameLimiter.getTargetFramesPerSecond();
+    }
+
+    /**
+     * Number of {@link JobSystem} worker threads, applied when the game starts. {@code 0} (the
+     * default) uses {@link JobSystem#defaultWorkerCount()}.
+     */
+    public final void setJobWorkerCount(int workers) {
+        if (workers < 0) {
+            throw new IllegalArgumentException("Job worker count must not be negative: " + workers);
+        }
+        this.jobWorkerCount = workers;
+    }
+
+    public final int getJobWorkerCount() {
+        return jobWorkerCount;
+    }
+
     @Override
     public void onWindowResized(int width, int height) {
         SceneManager.onWindowResized(width, height);
@@ -91,34 +184,107 @@ public abstract class Game implements WindowEventListener {
     protected void unloadContent() {}
 
     private void loop() {
-        var beginTime = Time.getTime();
-        var totalTime = 0f;
-        float endTime;
-        var deltaTime = 0f;
         var gameTime = new GameTime(0f, 0f, false);
+        var beginNanos = System.nanoTime();
+        var frameNanos = 0L;
+        var totalNanos = 0L;
+        var accumulatorNanos = 0L;
 
         while (!Window.shouldClose()) {
+            FrameProfiler.beginFrame();
+            FrameProfiler.begin(INPUT_STAGE);
             InputSystem.update();
             Window.pollEvents();
+            FrameProfiler.end(INPUT_STAGE);
 
-            if (deltaTime >= 0f) {
-                totalTime += deltaTime;
-                gameTime.set(deltaTime, totalTime, deltaTime > TARGET_ELAPSED_SECONDS);
-                SceneManager.onUpdate(gameTime);
-                update(gameTime);
-                for (var component : components) {
-                    component.update(gameTime);
+            if (fixedTimeStep) {
+                // Integer nanoseconds keep the step count exact over long sessions
+                var stepNanos = (long) (targetElapsedSeconds * 1e9);
+                var step = stepNanos * 1e-9f;
+                accumulatorNanos += frameNanos;
+                var steps = 0;
+                while (accumulatorNanos >= stepNanos && steps < maxUpdatesPerFrame) {
+                    totalNanos += stepNanos;
+                    accumulatorNanos -= stepNanos;
+                    steps++;
+                    gameTime.set(step, totalNanos * 1e-9f, steps > 1);
+                    runUpdate(gameTime);
                 }
-                draw(gameTime);
-                for (var component : components) {
-                    component.draw(gameTime);
+                if (accumulatorNanos >= stepNanos) {
+                    accumulatorNanos %= stepNanos;
+                    gameTime.set(step, totalNanos * 1e-9f, true);
                 }
+                gameTime.setInterpolationAlpha((float) accumulatorNanos / stepNanos);
+            } else {
+                var deltaTime = frameNanos * 1e-9f;
+                totalNanos += frameNanos;
+                gameTime.set(deltaTime, totalNanos * 1e-9f, deltaTime > targetElapsedSeconds);
+                gameTime.setInterpolationAlpha(1f);
+                runUpdate(gameTime);
             }
 
-            Renderer.swapBuffers(deltaTime);
-            endTime = Time.getTime();
-            deltaTime = endTime - beginTime;
-            beginTime = endTime;
+            FrameProfiler.begin(GAME_DRAW_STAGE);
+            draw(gameTime);
+            FrameProfiler.end(GAME_DRAW_STAGE);
+            for (int i = 0; i < components.size(); i++) {
+                var component = components.get(i);
+                if (component.drawStage < 0) {
+                    component.drawStage = FrameProfiler.register(stageName(component, "draw"));
+                }
+                FrameProfiler.begin(component.drawStage);
+                component.draw(gameTime);
+                FrameProfiler.end(component.drawStage);
+            }
+            completeJobs();
+
+            FrameProfiler.begin(SWAP_STAGE);
+            Renderer.swapBuffers(frameNanos * 1e-9f);
+            FrameProfiler.end(SWAP_STAGE);
+            FrameProfiler.begin(LIMITER_STAGE);
+            frameLimiter.waitForNextFrame();
+            FrameProfiler.end(LIMITER_STAGE);
+            var endNanos = System.nanoTime();
+            frameNanos = endNanos - beginNanos;
+            beginNanos = endNanos;
+            frameLimiter.record(frameNanos, gameTime);
+            FrameProfiler.endFrame();
+        }
+    }
+
+    private void runUpdate(GameTime gameTime) {
+        dispatchEvents();
+        FrameProfiler.begin(SCENE_UPDATE_STAGE);
+        SceneManager.onUpdate(gameTime);
+        FrameProfiler.end(SCENE_UPDATE_STAGE);
+        FrameProfiler.begin(GAME_UPDATE_STAGE);
+        update(gameTime);
+        FrameProfiler.end(GAME_UPDATE_STAGE);
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            if (component.updateStage < 0) {
+                component.updateStage = FrameProfiler.register(stageName(component, "update"));
+            }
+            FrameProfiler.begin(component.updateStage);
+            component.update(gameTime);
+            FrameProfiler.end(component.updateStage);
         }
+        completeJobs();
+        dispatchEvents();
+    }
+
+    private static void dispatchEvents() {
+        FrameProfiler.begin(EVENTS_STAGE);
+        EventBus.dispatch();
+        FrameProfiler.end(EVENTS_STAGE);
+    }
+
+    private static void completeJobs() {
+        FrameProfiler.begin(JOBS_STAGE);
+        JobSystem.completeAll();
+        FrameProfiler.end(JOBS_STAGE);
+    }
+
+    private static String stageName(GameService service, String method) {
+        return service.getClass().getSimpleName() + "." + method;
     }
 }
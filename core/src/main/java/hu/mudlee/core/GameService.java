@@ -12,6 +12,10 @@ package hu.mudlee.core;
  */
 public abstract class GameService {
 
+    // Profiler stage ids, registered by Game the first time this service runs
+    int updateStage = -1;
+    int drawStage = -1;
+
     public void update(GameTime gameTime) {}
 
     public void draw(GameTime gameTime) {}
@@ -7,18 +7,29 @@ package hu.mudlee.core;
  */
 public final class GameTime {
 
-    /** Seconds elapsed since the previous frame. */
+    /** Seconds elapsed since the previous update; the step length with a fixed time step. */
     private float elapsedSeconds;
 
     /** Total seconds elapsed since the game loop started. */
     private float totalSeconds;
 
     /**
-     * {@code true} when the previous frame took longer than the target frame time (1/60 s),
-     * indicating the game is struggling to maintain the desired update rate.
+     * {@code true} when the previous frame took longer than the target frame time (1/60 s by
+     * default), or with a fixed time step when updates had to catch up, indicating the game is
+     * struggling to maintain the desired update rate.
      */
     private boolean runningSlowly;
 
+    /**
+     * Fraction of a fixed update step that has elapsed since the last update, in {@code [0, 1)}.
+     * Always {@code 1} without a fixed time step.
+     */
+    private float interpolationAlpha = 1f;
+
+    private float averageFrameSeconds;
+    private float frameJitterSeconds;
+    private float maxFrameSeconds;
+
     public GameTime(float elapsedSeconds, float totalSeconds, boolean runningSlowly) {
         this.elapsedSeconds = elapsedSeconds;
         this.totalSeconds = totalSeconds;
@@ -31,6 +42,16 @@ public final class GameTime {
         this.runningSlowly = runningSlowly;
     }
 
+    void setInterpolationAlpha(float interpolationAlpha) {
+        this.interpolationAlpha = interpolationAlpha;
+    }
+
+    void setPacing(float averageFrameSeconds, float frameJitterSeconds, float maxFrameSeconds) {
+        this.averageFrameSeconds = averageFrameSeconds;
+        this.frameJitterSeconds = frameJitterSeconds;
+        this.maxFrameSeconds = maxFrameSeconds;
+    }
+
     public float elapsedSeconds() {
         return elapsedSeconds;
     }
@@ -42,4 +63,27 @@ public final class GameTime {
     public boolean isRunningSlowly() {
         return runningSlowly;
     }
+
+    /**
+     * How far the current draw is between the previous and the latest fixed update, for blending
+     * simulated state, e.g. {@link hu.mudlee.core.gameobject.Transform2D#getInterpolatedPosition}.
+     */
+    public float interpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    /** Mean wall-clock frame time over the last 120 frames. */
+    public float averageFrameSeconds() {
+        return averageFrameSeconds;
+    }
+
+    /** Standard deviation of the frame time over the last 120 frames; low values mean even pacing. */
+    public float frameJitterSeconds() {
+        return frameJitterSeconds;
+    }
+
+    /** Longest frame time over the last 120 frames. */
+    public float maxFrameSeconds() {
+        return maxFrameSeconds;
+    }
 }
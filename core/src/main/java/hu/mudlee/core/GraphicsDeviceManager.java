@@ -14,6 +14,7 @@ public class GraphicsDeviceManager {
     private boolean vSync = true;
     private boolean fullscreen = false;
     private RenderBackend preferredBackend = RenderBackend.VULKAN;
+    private long textureMemoryBudget = 0;
 
     public GraphicsDeviceManager setPreferredBackBufferWidth(int width) {
         this.preferredBackBufferWidth = width;
@@ -45,6 +46,15 @@ public class GraphicsDeviceManager {
         return this;
     }
 
+    /**
+     * GPU memory in bytes that textures may occupy before the least recently bound ones are evicted.
+     * {@code 0} (the default) keeps every texture resident.
+     */
+    public GraphicsDeviceManager setTextureMemoryBudget(long bytes) {
+        this.textureMemoryBudget = bytes;
+        return this;
+    }
+
     int getPreferredBackBufferWidth() {
         return preferredBackBufferWidth;
     }
@@ -68,4 +78,8 @@ public class GraphicsDeviceManager {
     RenderBackend getPreferredBackend() {
         return preferredBackend;
     }
+
+    long getTextureMemoryBudget() {
+        return textureMemoryBudget;
+    }
 }
@@ -1,14 +1,21 @@
 package hu.mudlee.core.content;
 
 import hu.mudlee.core.Disposable;
+import hu.mudlee.core.render.font.SpriteFont;
 import hu.mudlee.core.render.texture.Texture2D;
+import hu.mudlee.core.render.texture.TextureAtlas;
+import hu.mudlee.core.render.texture.TextureAtlasBuilder;
+import hu.mudlee.core.render.texture.TextureRegion;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ContentManager {
 
     private final String rootDirectory;
     private final Map<String, Object> cache = new HashMap<>();
+    private final List<TextureAtlas> atlases = new ArrayList<>();
 
     public ContentManager(String rootDirectory) {
         this.rootDirectory = rootDirectory;
@@ -26,6 +33,42 @@ public class ContentManager {
         return asset;
     }
 
+    /**
+     * Packs the given texture assets into a {@link TextureAtlas} and caches it under
+     * {@code atlasName}. Regions are named after their asset names and can also be fetched later via
+     * {@code load(TextureRegion.class, assetName)}.
+     */
+    public TextureAtlas loadAtlas(String atlasName, String... assetNames) {
+        var key = TextureAtlas.class.getName() + ":" + atlasName;
+        var cached = cache.get(key);
+        if (cached != null) {
+            return (TextureAtlas) cached;
+        }
+        var builder = new TextureAtlasBuilder();
+        for (var assetName : assetNames) {
+            builder.add(assetName, buildPath(assetName, ".png"));
+        }
+        var atlas = builder.build();
+        cache.put(key, atlas);
+        atlases.add(atlas);
+        return atlas;
+    }
+
+    /**
+     * Loads a TrueType font ({@code .ttf}) rendered at {@code pixelHeight}. Each size is a separate
+     * {@link SpriteFont} with its own glyph cache.
+     */
+    public SpriteFont loadFont(String assetName, float pixelHeight) {
+        var key = SpriteFont.class.getName() + ":" + assetName + "@" + pixelHeight;
+        var cached = cache.get(key);
+        if (cached != null) {
+            return (SpriteFont) cached;
+        }
+        var font = new SpriteFont(buildPath(assetName, ".ttf"), pixelHeight);
+        cache.put(key, font);
+        return font;
+    }
+
     public void unload() {
         for (var asset : cache.values()) {
             if (asset instanceof Disposable d) {
@@ -33,12 +76,22 @@ public class ContentManager {
             }
         }
         cache.clear();
+        atlases.clear();
     }
 
     private <T> T resolve(Class<T> type, String assetName) {
         if (type == Texture2D.class) {
             return type.cast(Texture2D.create(buildPath(assetName, ".png")));
         }
+        if (type == TextureRegion.class) {
+            for (var atlas : atlases) {
+                var region = atlas.findRegion(assetName);
+                if (region != null) {
+                    return type.cast(region);
+                }
+            }
+            throw new IllegalArgumentException("No loaded atlas contains region: " + assetName);
+        }
         throw new IllegalArgumentException("Unsupported content type: " + type.getName());
     }
 
@@ -0,0 +1,128 @@
+package hu.mudlee.core.diagnostics;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Heap bytes allocated by the game loop thread, per frame and per {@link FrameProfiler} stage.
+ *
+ * <p>Readings come from {@link ThreadMXBean#getCurrentThreadAllocatedBytes()}, sampled at the frame
+ * boundaries and whenever a profiler scope begins or ends; the stage tree is the same one the
+ * profiler times, whether or not timing is enabled. Stage values are inclusive of nested scopes.
+ *
+ * <p>In strict mode every frame that allocates more than {@link #setFrameBudget(long)} bytes is
+ * logged together with the stages that allocated, each with the bytes allocated directly in it (not
+ * in nested scopes), so the offender can be found without a heap profiler. The default budget is
+ * {@code 0}: a steady-state frame should not allocate at all.
+ *
+ * <pre>
+ * AllocationMonitor.setEnabled(true);
+ * AllocationMonitor.setStrict(true);
+ * ...
+ * var bytes = AllocationMonitor.getLastFrameBytes();
+ * </pre>
+ */
+public final class AllocationMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationMonitor.class);
+    private static final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static boolean enabled;
+    private static boolean strict;
+    private static long frameBudget;
+    private static long framesOverBudget;
+    private static long totalBytes;
+
+    private AllocationMonitor() {}
+
+    /** Takes effect at the next frame. */
+    public static void setEnabled(boolean enabled) {
+        if (enabled) {
+            if (!threadBean.isThreadAllocatedMemorySupported()) {
+                throw new IllegalStateException("This JVM does not support per-thread allocation tracking");
+            }
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        AllocationMonitor.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Logs every frame that allocates more than the budget. */
+    public static void setStrict(boolean strict) {
+        AllocationMonitor.strict = strict;
+    }
+
+    public static boolean isStrict() {
+        return strict;
+    }
+
+    /** Bytes a frame may allocate before it counts as over budget. Defaults to {@code 0}. */
+    public static void setFrameBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Allocation budget must not be negative: " + bytes);
+        }
+        frameBudget = bytes;
+    }
+
+    public static long getFrameBudget() {
+        return frameBudget;
+    }
+
+    /** Bytes allocated during the most recently completed frame. */
+    public static long getLastFrameBytes() {
+        return FrameProfiler.lastBytes(FrameProfiler.FRAME);
+    }
+
+    /** Bytes allocated inside {@code stage}, including nested scopes, during the last frame. */
+    public static long getLastBytes(int stage) {
+        return FrameProfiler.lastBytes(stage);
+    }
+
+    /** Frames over budget since monitoring was enabled or {@link #reset()} was called. */
+    public static long getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    /** Bytes allocated by all monitored frames since monitoring was enabled or {@link #reset()}. */
+    public static long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public static void reset() {
+        framesOverBudget = 0;
+        totalBytes = 0;
+    }
+
+    static long threadBytes() {
+        return threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    static void frameEnded(long frame, long bytes, long[] exclusiveBytes, int stageCount) {
+        totalBytes += bytes;
+        if (bytes <= frameBudget) {
+            return;
+        }
+        framesOverBudget++;
+        if (!strict) {
+            return;
+        }
+        var offenders = new StringBuilder();
+        for (int i = 0; i < stageCount; i++) {
+            if (exclusiveBytes[i] > 0) {
+                if (!offenders.isEmpty()) {
+                    offenders.append(", ");
+                }
+                offenders
+                        .append(i == FrameProfiler.FRAME ? "<outside any stage>" : FrameProfiler.getStageName(i))
+                        .append(": ")
+                        .append(exclusiveBytes[i]);
+            }
+        }
+        log.warn("Frame {} allocated {} bytes (budget {}): {}", frame, bytes, frameBudget, offenders);
+    }
+}
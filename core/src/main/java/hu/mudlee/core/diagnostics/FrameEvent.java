@@ -0,0 +1,18 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("hu.mudlee.Frame")
+@Label("Frame")
+@Category({JfrEvents.CATEGORY, "Frame"})
+@Description("One iteration of the game loop")
+@StackTrace(false)
+final class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Frame Number")
+    long frame;
+}
@@ -0,0 +1,340 @@
+package hu.mudlee.core.diagnostics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * CPU time per frame stage, kept for the most recent frames.
+ *
+ * <p>{@link hu.mudlee.core.Game} times the built-in stages: input, scene update, {@code Game}
+ * update/draw, every {@link hu.mudlee.core.GameService} update/draw, buffer swap and the frame
+ * limiter. Game code adds its own, possibly nested, scopes:
+ *
+ * <pre>
+ * private static final int PATHFINDING = FrameProfiler.register("AI.pathfinding");
+ *
+ * FrameProfiler.begin(PATHFINDING);
+ * planPaths();
+ * FrameProfiler.end(PATHFINDING);
+ * </pre>
+ *
+ * <p>A stage entered several times in one frame (e.g. fixed-step updates) records the sum. Times
+ * are inclusive: a scope's time contains the scopes nested in it. Every stage keeps one sample per
+ * frame in a preallocated ring of {@link #getHistorySize()} frames, so recording never allocates.
+ * Percentiles are computed on demand from that history. {@link AllocationMonitor} samples the
+ * thread's allocated bytes at the same scope boundaries.
+ *
+ * <p>Profiling is off by default; while off, {@link #begin(int)} and {@link #end(int)} return
+ * immediately. Toggling takes effect at the next frame. Independently of that, every frame and
+ * scope is also reported as a JFR event when {@link JfrEvents#ENABLED} is set. All methods must be
+ * called from the game loop thread.
+ */
+public final class FrameProfiler {
+
+    /** Stage id of the whole frame, from the start of input handling to the end of the frame. */
+    public static final int FRAME = 0;
+
+    private static final int MAX_STAGES = 256;
+    private static final int MAX_DEPTH = 64;
+    private static final int DEFAULT_HISTORY_SIZE = 1024;
+
+    private static final String[] names = new String[MAX_STAGES];
+    private static final long[][] history = new long[MAX_STAGES][];
+    private static final long[] frameNanos = new long[MAX_STAGES];
+    private static final int[] openStages = new int[MAX_DEPTH];
+    private static final long[] openStarts = new long[MAX_DEPTH];
+    private static final StageEvent[] openEvents = new StageEvent[MAX_DEPTH];
+
+    // Allocation tracking for AllocationMonitor; childBytes[d] sums the scopes directly under depth d
+    private static final long[] frameBytes = new long[MAX_STAGES];
+    private static final long[] exclusiveBytes = new long[MAX_STAGES];
+    private static final long[] lastFrameBytes = new long[MAX_STAGES];
+    private static final long[] openBytes = new long[MAX_DEPTH];
+    private static final long[] childBytes = new long[MAX_DEPTH + 1];
+
+    private static int historySize = DEFAULT_HISTORY_SIZE;
+    private static long[] sortScratch = new long[DEFAULT_HISTORY_SIZE];
+    // Global frame number of each history slot
+    private static long[] frameOfSlot = new long[DEFAULT_HISTORY_SIZE];
+    private static int stageCount;
+    private static int depth;
+    private static long recordedFrames;
+    private static long frameStart;
+    private static long frameStartBytes;
+    private static long frameNumber;
+    private static FrameEvent frameEvent;
+    private static boolean enabled;
+    private static boolean recording;
+    private static boolean tracking;
+    private static boolean frameOpen;
+
+    static {
+        register("Frame");
+    }
+
+    private FrameProfiler() {}
+
+    public static void setEnabled(boolean enabled) {
+        FrameProfiler.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Resizes the per-stage history. Clears every recorded sample. */
+    public static void setHistorySize(int frames) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("History size must be at least 1 frame: " + frames);
+        }
+        historySize = frames;
+        sortScratch = new long[frames];
+        frameOfSlot = new long[frames];
+        for (int i = 0; i < stageCount; i++) {
+            history[i] = new long[frames];
+        }
+        recordedFrames = 0;
+    }
+
+    public static int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Returns the id of the stage called {@code name}, registering it on first use. Look ids up once
+     * (e.g. into a static final field) and pass them to {@link #begin(int)}/{@link #end(int)}.
+     */
+    public static int register(String name) {
+        for (int i = 0; i < stageCount; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        if (stageCount == MAX_STAGES) {
+            throw new IllegalStateException("Too many profiler stages (max " + MAX_STAGES + "): " + name);
+        }
+        names[stageCount] = name;
+        history[stageCount] = new long[historySize];
+        return stageCount++;
+    }
+
+    /** Called by the game loop at the start of every frame. */
+    public static void beginFrame() {
+        frameNumber++;
+        recording = enabled;
+        tracking = AllocationMonitor.isEnabled();
+        frameOpen = recording || tracking || JfrEvents.ENABLED;
+        if (!frameOpen) {
+            return;
+        }
+        depth = 0;
+        if (JfrEvents.ENABLED) {
+            frameEvent = new FrameEvent();
+            frameEvent.frame = frameNumber;
+            frameEvent.begin();
+        }
+        Arrays.fill(frameNanos, 0, stageCount, 0L);
+        if (tracking) {
+            Arrays.fill(frameBytes, 0, stageCount, 0L);
+            Arrays.fill(exclusiveBytes, 0, stageCount, 0L);
+            childBytes[0] = 0L;
+            frameStartBytes = AllocationMonitor.threadBytes();
+        }
+        frameStart = System.nanoTime();
+    }
+
+    /** Called by the game loop at the end of every frame; stores each stage's sample. */
+    public static void endFrame() {
+        if (!frameOpen) {
+            return;
+        }
+        if (depth != 0) {
+            throw new IllegalStateException("Profiler scope '" + names[openStages[depth - 1]] + "' was never ended");
+        }
+        frameOpen = false;
+        if (tracking) {
+            var bytes = AllocationMonitor.threadBytes() - frameStartBytes;
+            frameBytes[FRAME] = bytes;
+            exclusiveBytes[FRAME] = bytes - childBytes[0];
+            System.arraycopy(frameBytes, 0, lastFrameBytes, 0, stageCount);
+            AllocationMonitor.frameEnded(frameNumber, bytes, exclusiveBytes, stageCount);
+        }
+        if (JfrEvents.ENABLED) {
+            frameEvent.commit();
+            frameEvent = null;
+        }
+        if (!recording) {
+            return;
+        }
+        frameNanos[FRAME] = System.nanoTime() - frameStart;
+        var slot = (int) (recordedFrames % historySize);
+        for (int i = 0; i < stageCount; i++) {
+            history[i][slot] = frameNanos[i];
+        }
+        frameOfSlot[slot] = frameNumber;
+        recordedFrames++;
+    }
+
+    public static void begin(int stage) {
+        if (!frameOpen) {
+            return;
+        }
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("Profiler scopes nested deeper than " + MAX_DEPTH);
+        }
+        openStages[depth] = stage;
+        if (JfrEvents.ENABLED) {
+            var event = new StageEvent();
+            event.stage = names[stage];
+            event.begin();
+            openEvents[depth] = event;
+        }
+        if (tracking) {
+            childBytes[depth + 1] = 0L;
+            openBytes[depth] = AllocationMonitor.threadBytes();
+        }
+        openStarts[depth] = System.nanoTime();
+        depth++;
+    }
+
+    public static void end(int stage) {
+        if (!frameOpen) {
+            return;
+        }
+        if (depth == 0 || openStages[depth - 1] != stage) {
+            throw new IllegalStateException("Profiler scope '" + names[stage] + "' ended out of order");
+        }
+        depth--;
+        frameNanos[stage] += System.nanoTime() - openStarts[depth];
+        if (tracking) {
+            var bytes = AllocationMonitor.threadBytes() - openBytes[depth];
+            frameBytes[stage] += bytes;
+            exclusiveBytes[stage] += bytes - childBytes[depth + 1];
+            childBytes[depth] += bytes;
+        }
+        if (JfrEvents.ENABLED) {
+            openEvents[depth].commit();
+            openEvents[depth] = null;
+        }
+    }
+
+    static long lastBytes(int stage) {
+        return lastFrameBytes[stage];
+    }
+
+    public static int getStageCount() {
+        return stageCount;
+    }
+
+    public static String getStageName(int stage) {
+        return names[stage];
+    }
+
+    /** Number of frames recorded since profiling started or the history was last cleared. */
+    public static long getRecordedFrames() {
+        return recordedFrames;
+    }
+
+    /** Number of samples currently held per stage: the recorded frames, capped at the history size. */
+    public static int getSampleCount() {
+        return (int) Math.min(recordedFrames, historySize);
+    }
+
+    /** The most recent frame's time for {@code stage}, in nanoseconds. */
+    public static long getLastNanos(int stage) {
+        if (recordedFrames == 0) {
+            return 0;
+        }
+        return history[stage][(int) ((recordedFrames - 1) % historySize)];
+    }
+
+    public static long getMaxNanos(int stage) {
+        var max = 0L;
+        var samples = history[stage];
+        for (int i = 0, n = getSampleCount(); i < n; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * The {@code percentile} (0-100) of {@code stage}'s frame times in the history, in nanoseconds,
+     * using the nearest-rank method.
+     */
+    public static long getPercentileNanos(int stage, double percentile) {
+        var n = getSampleCount();
+        if (n == 0) {
+            return 0;
+        }
+        System.arraycopy(history[stage], 0, sortScratch, 0, n);
+        Arrays.sort(sortScratch, 0, n);
+        var rank = (int) Math.ceil(percentile / 100.0 * n);
+        return sortScratch[Math.clamp(rank - 1, 0, n - 1)];
+    }
+
+    /** Forgets every recorded sample but keeps the registered stages. */
+    public static void clear() {
+        recordedFrames = 0;
+    }
+
+    /**
+     * Writes one row per recorded frame, oldest first: the global frame number followed by each
+     * stage's time in nanoseconds. The frame number keeps counting across dumps, so periodic dumps
+     * from a soak test can be merged on it.
+     */
+    public static void dumpCsv(Path file) {
+        try (var out = Files.newBufferedWriter(file)) {
+            out.write("frame");
+            for (int i = 0; i < stageCount; i++) {
+                out.write(',');
+                writeCsvField(out, names[i]);
+            }
+            out.write('\n');
+            var n = getSampleCount();
+            for (long frame = recordedFrames - n; frame < recordedFrames; frame++) {
+                var slot = (int) (frame % historySize);
+                out.write(Long.toString(frameOfSlot[slot]));
+                for (int i = 0; i < stageCount; i++) {
+                    out.write(',');
+                    out.write(Long.toString(history[i][slot]));
+                }
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /** Writes p50/p95/p99/max in milliseconds for every stage. */
+    public static void dumpSummaryCsv(Path file) {
+        try (var out = Files.newBufferedWriter(file)) {
+            out.write("stage,p50_ms,p95_ms,p99_ms,max_ms\n");
+            for (int i = 0; i < stageCount; i++) {
+                writeCsvField(out, names[i]);
+                out.write(String.format(
+                        Locale.ROOT,
+                        ",%.3f,%.3f,%.3f,%.3f\n",
+                        getPercentileNanos(i, 50) / 1e6,
+                        getPercentileNanos(i, 95) / 1e6,
+                        getPercentileNanos(i, 99) / 1e6,
+                        getMaxNanos(i) / 1e6));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
@@ -0,0 +1,29 @@
+package hu.mudlee.core.diagnostics;
+
+/**
+ * Switch for the engine's JDK Flight Recorder events ({@code hu.mudlee.*}).
+ *
+ * <p>Events are only created when the JVM is started with {@code -Dmudlee.jfr=true}. The flag is a
+ * {@code static final} constant, so with it off the JIT removes every emitting branch and the JFR
+ * event classes are never initialised. With it on, the events are enabled in JFR's default settings
+ * and show up in any recording, e.g. {@code -XX:StartFlightRecording=filename=game.jfr}, next to GC
+ * and allocation events:
+ *
+ * <ul>
+ *   <li>{@link FrameEvent} and {@link StageEvent} mirror the {@link FrameProfiler} stages
+ *   <li>{@link SpriteBatchFlushEvent} for every {@link hu.mudlee.core.render.SpriteBatch2D} draw call
+ *   <li>{@link TextureLoadEvent} for every decoded image
+ *   <li>{@link SwapchainRecreateEvent} and {@link PipelineCreateEvent} from the Vulkan backend
+ * </ul>
+ *
+ * <p>Frame and stage events allocate one small object per scope while recording, so leave the flag
+ * off when measuring allocation rates of the engine itself.
+ */
+public final class JfrEvents {
+
+    public static final boolean ENABLED = Boolean.getBoolean("mudlee.jfr");
+
+    static final String CATEGORY = "Mudlee Engine";
+
+    private JfrEvents() {}
+}
@@ -0,0 +1,22 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("hu.mudlee.PipelineCreate")
+@Label("Pipeline Creation")
+@Category({JfrEvents.CATEGORY, "Vulkan"})
+@Description("VkPipeline compiled for a shader, vertex layout and topology")
+public final class PipelineCreateEvent extends jdk.jfr.Event {
+
+    @Label("Shader")
+    public String shader;
+
+    @Label("Topology")
+    public String topology;
+
+    @Label("Vertex Stride")
+    public int vertexStride;
+}
@@ -0,0 +1,25 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("hu.mudlee.SpriteBatchFlush")
+@Label("SpriteBatch2D Flush")
+@Category({JfrEvents.CATEGORY, "Rendering"})
+@Description("Vertex upload and draw call issued by SpriteBatch2D")
+@StackTrace(false)
+public final class SpriteBatchFlushEvent extends jdk.jfr.Event {
+
+    public static final String REASON_END = "end";
+    public static final String REASON_FULL = "batch full";
+    public static final String REASON_TEXTURE = "texture change";
+
+    @Label("Sprites")
+    public int sprites;
+
+    @Label("Reason")
+    public String reason;
+}
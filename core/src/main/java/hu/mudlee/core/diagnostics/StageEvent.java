@@ -0,0 +1,18 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("hu.mudlee.FrameStage")
+@Label("Frame Stage")
+@Category({JfrEvents.CATEGORY, "Frame"})
+@Description("A built-in or user-defined FrameProfiler scope")
+@StackTrace(false)
+final class StageEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    String stage;
+}
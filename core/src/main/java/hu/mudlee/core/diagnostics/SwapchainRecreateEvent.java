@@ -0,0 +1,19 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("hu.mudlee.SwapchainRecreate")
+@Label("Swapchain Recreation")
+@Category({JfrEvents.CATEGORY, "Vulkan"})
+@Description("Vulkan swapchain rebuilt after a resize or an out-of-date present")
+public final class SwapchainRecreateEvent extends jdk.jfr.Event {
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+}
@@ -0,0 +1,31 @@
+package hu.mudlee.core.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("hu.mudlee.TextureLoad")
+@Label("Texture Load")
+@Category({JfrEvents.CATEGORY, "Content"})
+@Description("Image decoded by TextureLoader; the duration is the decode time")
+public final class TextureLoadEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("File Size")
+    @DataAmount
+    public long fileBytes;
+
+    @Label("Decoded Size")
+    @DataAmount
+    public long decodedBytes;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+}
@@ -0,0 +1,93 @@
+package hu.mudlee.core.ecs;
+
+import java.util.Arrays;
+
+/**
+ * The set of entities that have exactly the same component types, stored as a table of columns.
+ *
+ * <p>Each field of each component type is one primitive array indexed by row, and the entities
+ * occupy rows {@code [0, size())} without gaps. Systems fetch the columns they need once per
+ * archetype and loop over the rows:
+ *
+ * <pre>
+ * for (int a = 0; a &lt; query.archetypeCount(); a++) {
+ *     var archetype = query.archetype(a);
+ *     var x = archetype.floats(Components2D.POSITION, Components2D.POSITION_X);
+ *     var vx = archetype.floats(Components2D.VELOCITY, Components2D.VELOCITY_X);
+ *     for (int row = 0, n = archetype.size(); row &lt; n; row++) {
+ *         x[row] += vx[row] * dt;
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>Column arrays are replaced when the table grows, so they must be fetched again after creating
+ * entities. Entities created while the {@link World} runs its systems are staged and join the table
+ * once the systems are done.
+ */
+public final class Archetype {
+
+    final World world;
+    final int id;
+    final long mask;
+    final ComponentType[] types;
+    final int[] slots = new int[ComponentType.MAX_TYPES];
+    final Table table;
+    final Table staging;
+    final Archetype[] addEdges = new Archetype[ComponentType.MAX_TYPES];
+    final Archetype[] removeEdges = new Archetype[ComponentType.MAX_TYPES];
+
+    Archetype(World world, int id, long mask, ComponentType[] types) {
+        this.world = world;
+        this.id = id;
+        this.mask = mask;
+        this.types = types;
+        Arrays.fill(slots, -1);
+        for (int slot = 0; slot < types.length; slot++) {
+            slots[types[slot].id] = slot;
+        }
+        this.table = new Table(this);
+        this.staging = new Table(this);
+    }
+
+    /** Number of entities in this archetype. */
+    public int size() {
+        return table.size;
+    }
+
+    /** The entity stored in {@code row}. */
+    public int entity(int row) {
+        return table.entities[row];
+    }
+
+    public boolean has(ComponentType type) {
+        return (mask & type.bit) != 0;
+    }
+
+    public int getTypeCount() {
+        return types.length;
+    }
+
+    public ComponentType getType(int index) {
+        return types[index];
+    }
+
+    /** The column of a {@link FieldType#FLOAT} field, indexed by row. */
+    public float[] floats(ComponentType type, int field) {
+        return (float[]) table.column(type, field);
+    }
+
+    /** The column of an {@link FieldType#INT} field, indexed by row. */
+    public int[] ints(ComponentType type, int field) {
+        return (int[]) table.column(type, field);
+    }
+
+    /** The column of an {@link FieldType#OBJECT} field, indexed by row. */
+    public Object[] objects(ComponentType type, int field) {
+        return (Object[]) table.column(type, field);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(types);
+    }
+}
@@ -0,0 +1,162 @@
+package hu.mudlee.core.ecs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes an ECS component as a list of named primitive or reference fields.
+ *
+ * <p>Component types hold no data themselves. Each {@link Archetype} that contains the type stores
+ * every field in its own column, e.g. a {@code float[]} of all x coordinates, so systems iterate
+ * plain arrays instead of objects. Fields are addressed by their declaration index; keep the
+ * indices in constants next to the type:
+ *
+ * <pre>
+ * public static final ComponentType HEALTH = ComponentType.builder("Health")
+ *         .floatField("current", 100f)
+ *         .floatField("max", 100f)
+ *         .build();
+ * public static final int HEALTH_CURRENT = 0;
+ * public static final int HEALTH_MAX = 1;
+ * </pre>
+ *
+ * <p>Types are global and identified by a dense id, which lets an archetype's type set be a single
+ * {@code long} bitmask. At most {@link #MAX_TYPES} types can be created.
+ */
+public final class ComponentType {
+
+    public static final int MAX_TYPES = Long.SIZE;
+
+    private static final ComponentType[] registry = new ComponentType[MAX_TYPES];
+    private static int registered;
+
+    final int id;
+    final long bit;
+
+    private final String name;
+    private final String[] fieldNames;
+    private final FieldType[] fieldTypes;
+    private final float[] floatDefaults;
+    private final int[] intDefaults;
+
+    private ComponentType(Builder builder) {
+        this.name = builder.name;
+        this.id = register(this);
+        this.bit = 1L << id;
+        var count = builder.fieldNames.size();
+        this.fieldNames = builder.fieldNames.toArray(new String[0]);
+        this.fieldTypes = builder.fieldTypes.toArray(new FieldType[0]);
+        this.floatDefaults = new float[count];
+        this.intDefaults = new int[count];
+        for (int i = 0; i < count; i++) {
+            floatDefaults[i] = builder.defaults.get(i).floatValue();
+            intDefaults[i] = builder.defaults.get(i).intValue();
+        }
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getFieldCount() {
+        return fieldNames.length;
+    }
+
+    public String getFieldName(int field) {
+        return fieldNames[field];
+    }
+
+    public FieldType getFieldType(int field) {
+        return fieldTypes[field];
+    }
+
+    /** Index of the field called {@code fieldName}. */
+    public int field(String fieldName) {
+        for (int i = 0; i < fieldNames.length; i++) {
+            if (fieldNames[i].equals(fieldName)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Component type " + name + " has no field '" + fieldName + "'");
+    }
+
+    float floatDefault(int field) {
+        return floatDefaults[field];
+    }
+
+    int intDefault(int field) {
+        return intDefaults[field];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    static synchronized ComponentType byId(int id) {
+        return registry[id];
+    }
+
+    private static synchronized int register(ComponentType type) {
+        if (registered == MAX_TYPES) {
+            throw new IllegalStateException("Too many component types (max " + MAX_TYPES + "): " + type.name);
+        }
+        registry[registered] = type;
+        return registered++;
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final List<String> fieldNames = new ArrayList<>();
+        private final List<FieldType> fieldTypes = new ArrayList<>();
+        private final List<Number> defaults = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder floatField(String fieldName) {
+            return floatField(fieldName, 0f);
+        }
+
+        /** A {@code float} field that new rows start with {@code defaultValue} in. */
+        public Builder floatField(String fieldName, float defaultValue) {
+            return field(fieldName, FieldType.FLOAT, defaultValue);
+        }
+
+        public Builder intField(String fieldName) {
+            return intField(fieldName, 0);
+        }
+
+        public Builder intField(String fieldName, int defaultValue) {
+            return field(fieldName, FieldType.INT, defaultValue);
+        }
+
+        /** A reference field; new rows start with {@code null}. */
+        public Builder objectField(String fieldName) {
+            return field(fieldName, FieldType.OBJECT, 0);
+        }
+
+        public ComponentType build() {
+            return new ComponentType(this);
+        }
+
+        private Builder field(String fieldName, FieldType type, Number defaultValue) {
+            if (fieldNames.contains(fieldName)) {
+                throw new IllegalArgumentException("Duplicate field '" + fieldName + "' in component type " + name);
+            }
+            fieldNames.add(fieldName);
+            fieldTypes.add(type);
+            defaults.add(defaultValue);
+            return this;
+        }
+    }
+}
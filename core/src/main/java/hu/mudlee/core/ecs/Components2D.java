@@ -0,0 +1,43 @@
+package hu.mudlee.core.ecs;
+
+/**
+ * Component types understood by the built-in systems, with their field indices.
+ *
+ * <ul>
+ *   <li>{@link #POSITION}: world position of the sprite's bottom-left corner
+ *   <li>{@link #VELOCITY}: world units per second, applied by {@link MovementSystem}
+ *   <li>{@link #SPRITE}: a {@link hu.mudlee.core.render.texture.TextureRegion}, its size in world
+ *       units and a tint, drawn by {@link SpriteRenderSystem}
+ * </ul>
+ */
+public final class Components2D {
+
+    public static final ComponentType POSITION =
+            ComponentType.builder("Position").floatField("x").floatField("y").build();
+    public static final int POSITION_X = 0;
+    public static final int POSITION_Y = 1;
+
+    public static final ComponentType VELOCITY =
+            ComponentType.builder("Velocity").floatField("x").floatField("y").build();
+    public static final int VELOCITY_X = 0;
+    public static final int VELOCITY_Y = 1;
+
+    public static final ComponentType SPRITE = ComponentType.builder("Sprite")
+            .objectField("region")
+            .floatField("width")
+            .floatField("height")
+            .floatField("r", 1f)
+            .floatField("g", 1f)
+            .floatField("b", 1f)
+            .floatField("a", 1f)
+            .build();
+    public static final int SPRITE_REGION = 0;
+    public static final int SPRITE_WIDTH = 1;
+    public static final int SPRITE_HEIGHT = 2;
+    public static final int SPRITE_R = 3;
+    public static final int SPRITE_G = 4;
+    public static final int SPRITE_B = 5;
+    public static final int SPRITE_A = 6;
+
+    private Components2D() {}
+}
@@ -0,0 +1,39 @@
+package hu.mudlee.core.ecs;
+
+/**
+ * Helpers for entity ids.
+ *
+ * <p>An entity is a plain {@code int}: the low {@link #INDEX_BITS} bits index the {@link World}'s
+ * entity slots, the bits above hold the slot's generation. Destroying an entity bumps its slot's
+ * generation, so a stale id kept by game code is detected by {@link World#isAlive(int)} instead of
+ * silently addressing the slot's next occupant.
+ */
+public final class Entity {
+
+    /** An id that never refers to a live entity. */
+    public static final int NULL = -1;
+
+    public static final int INDEX_BITS = 20;
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+
+    static final int INDEX_MASK = MAX_ENTITIES - 1;
+    static final int GENERATION_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    private Entity() {}
+
+    public static int index(int entity) {
+        return entity & INDEX_MASK;
+    }
+
+    public static int generation(int entity) {
+        return entity >>> INDEX_BITS;
+    }
+
+    static int of(int index, int generation) {
+        return (generation << INDEX_BITS) | index;
+    }
+
+    public static String toString(int entity) {
+        return entity == NULL ? "Entity(null)" : "Entity(" + index(entity) + "v" + generation(entity) + ")";
+    }
+}
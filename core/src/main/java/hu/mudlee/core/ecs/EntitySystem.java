@@ -0,0 +1,48 @@
+package hu.mudlee.core.ecs;
+
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.render.SpriteBatch2D;
+
+/**
+ * Logic that runs over the entities of a {@link World} every frame.
+ *
+ * <p>Systems look up their {@link Query queries} in {@link #start(World)} and loop over the matching
+ * archetypes' columns in {@link #update} or {@link #draw}. They run in the order they were added.
+ *
+ * <pre>
+ * public class LifetimeSystem extends EntitySystem {
+ *     private Query query;
+ *
+ *     &#064;Override
+ *     public void start(World world) {
+ *         query = world.query(LIFETIME);
+ *     }
+ *
+ *     &#064;Override
+ *     public void update(World world, GameTime gameTime) {
+ *         for (int a = 0; a &lt; query.archetypeCount(); a++) {
+ *             var archetype = query.archetype(a);
+ *             var left = archetype.floats(LIFETIME, LIFETIME_LEFT);
+ *             for (int row = 0, n = archetype.size(); row &lt; n; row++) {
+ *                 if ((left[row] -= gameTime.elapsedSeconds()) &lt;= 0f) {
+ *                     world.destroy(archetype.entity(row));
+ *                 }
+ *             }
+ *         }
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class EntitySystem {
+
+    /** Called once when the system is added to {@code world}. */
+    public void start(World world) {}
+
+    public void update(World world, GameTime gameTime) {}
+
+    /** Called between {@code batch.begin()} and {@code batch.end()}. */
+    public void draw(World world, GameTime gameTime, SpriteBatch2D batch) {}
+
+    /** Called when the system is removed or its world is disposed. */
+    public void dispose() {}
+}
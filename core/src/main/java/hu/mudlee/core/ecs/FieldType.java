@@ -0,0 +1,11 @@
+package hu.mudlee.core.ecs;
+
+/** Storage type of a {@link ComponentType} field, and so of its column in every {@link Archetype}. */
+public enum FieldType {
+    /** Stored in a {@code float[]} column. */
+    FLOAT,
+    /** Stored in an {@code int[]} column. */
+    INT,
+    /** Stored in an {@code Object[]} column, for references such as a texture region. */
+    OBJECT
+}
@@ -0,0 +1,68 @@
+package hu.mudlee.core.ecs;
+
+import static hu.mudlee.core.ecs.Components2D.POSITION;
+import static hu.mudlee.core.ecs.Components2D.POSITION_X;
+import static hu.mudlee.core.ecs.Components2D.POSITION_Y;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY_X;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY_Y;
+
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.jobs.JobSystem;
+import hu.mudlee.core.jobs.RangeJob;
+
+/**
+ * Moves every entity with {@link Components2D#POSITION} and {@link Components2D#VELOCITY} by its
+ * velocity. Large archetypes are split across the {@link JobSystem} workers.
+ */
+public final class MovementSystem extends EntitySystem {
+
+    private static final int PARALLEL_THRESHOLD = 16_384;
+    private static final int PARALLEL_BATCH_SIZE = 4096;
+
+    private final RangeJob integrate = this::integrate;
+    private Query query;
+
+    // Columns of the archetype being integrated, read by the parallel chunks
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float dt;
+
+    @Override
+    public void start(World world) {
+        query = world.query(POSITION, VELOCITY);
+    }
+
+    @Override
+    public void update(World world, GameTime gameTime) {
+        dt = gameTime.elapsedSeconds();
+        for (int a = 0; a < query.archetypeCount(); a++) {
+            var archetype = query.archetype(a);
+            var n = archetype.size();
+            x = archetype.floats(POSITION, POSITION_X);
+            y = archetype.floats(POSITION, POSITION_Y);
+            vx = archetype.floats(VELOCITY, VELOCITY_X);
+            vy = archetype.floats(VELOCITY, VELOCITY_Y);
+            if (n >= PARALLEL_THRESHOLD && JobSystem.isRunning()) {
+                JobSystem.complete(JobSystem.parallelFor(n, PARALLEL_BATCH_SIZE, integrate));
+            } else {
+                integrate(0, n);
+            }
+        }
+        x = y = vx = vy = null;
+    }
+
+    private void integrate(int start, int end) {
+        var x = this.x;
+        var y = this.y;
+        var vx = this.vx;
+        var vy = this.vy;
+        var dt = this.dt;
+        for (int row = start; row < end; row++) {
+            x[row] += vx[row] * dt;
+            y[row] += vy[row] * dt;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package hu.mudlee.core.ecs;
+
+import java.util.Arrays;
+
+/**
+ * The archetypes containing all of a set of component types and none of another.
+ *
+ * <p>Obtained from {@link World#query}. The matching archetypes are cached and kept up to date as
+ * the world creates new archetypes, so iterating a query never searches.
+ */
+public final class Query {
+
+    final long required;
+    final long excluded;
+
+    private Archetype[] archetypes = new Archetype[8];
+    private int archetypeCount;
+
+    Query(long required, long excluded) {
+        this.required = required;
+        this.excluded = excluded;
+    }
+
+    public int archetypeCount() {
+        return archetypeCount;
+    }
+
+    public Archetype archetype(int index) {
+        return archetypes[index];
+    }
+
+    /** Number of entities across every matching archetype. */
+    public int entityCount() {
+        var count = 0;
+        for (int i = 0; i < archetypeCount; i++) {
+            count += archetypes[i].size();
+        }
+        return count;
+    }
+
+    boolean matches(long mask) {
+        return (mask & required) == required && (mask & excluded) == 0;
+    }
+
+    void add(Archetype archetype) {
+        if (archetypeCount == archetypes.length) {
+            archetypes = Arrays.copyOf(archetypes, archetypeCount * 2);
+        }
+        archetypes[archetypeCount++] = archetype;
+    }
+}
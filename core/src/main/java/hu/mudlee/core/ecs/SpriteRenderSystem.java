@@ -0,0 +1,52 @@
+package hu.mudlee.core.ecs;
+
+import static hu.mudlee.core.ecs.Components2D.POSITION;
+import static hu.mudlee.core.ecs.Components2D.POSITION_X;
+import static hu.mudlee.core.ecs.Components2D.POSITION_Y;
+import static hu.mudlee.core.ecs.Components2D.SPRITE;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_A;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_B;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_G;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_HEIGHT;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_R;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_REGION;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_WIDTH;
+
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.render.SpriteBatch2D;
+import hu.mudlee.core.render.texture.TextureRegion;
+
+/**
+ * Draws every entity with {@link Components2D#POSITION} and {@link Components2D#SPRITE} through the
+ * scene's {@link SpriteBatch2D}. Entities without a region are skipped.
+ */
+public final class SpriteRenderSystem extends EntitySystem {
+
+    private Query query;
+
+    @Override
+    public void start(World world) {
+        query = world.query(POSITION, SPRITE);
+    }
+
+    @Override
+    public void draw(World world, GameTime gameTime, SpriteBatch2D batch) {
+        for (int a = 0; a < query.archetypeCount(); a++) {
+            var archetype = query.archetype(a);
+            var x = archetype.floats(POSITION, POSITION_X);
+            var y = archetype.floats(POSITION, POSITION_Y);
+            var regions = archetype.objects(SPRITE, SPRITE_REGION);
+            var width = archetype.floats(SPRITE, SPRITE_WIDTH);
+            var height = archetype.floats(SPRITE, SPRITE_HEIGHT);
+            var r = archetype.floats(SPRITE, SPRITE_R);
+            var g = archetype.floats(SPRITE, SPRITE_G);
+            var b = archetype.floats(SPRITE, SPRITE_B);
+            var alpha = archetype.floats(SPRITE, SPRITE_A);
+            for (int row = 0, n = archetype.size(); row < n; row++) {
+                if (regions[row] instanceof TextureRegion region) {
+                    batch.draw(region, x[row], y[row], width[row], height[row], r[row], g[row], b[row], alpha[row]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package hu.mudlee.core.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Row storage of one {@link Archetype}: an entity column plus one primitive column per component
+ * field. Rows are kept dense; removing a row moves the last row into its place.
+ */
+final class Table {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    final Archetype archetype;
+    final Object[][] columns; // [component slot][field]
+    int[] entities = new int[INITIAL_CAPACITY];
+    int size;
+
+    Table(Archetype archetype) {
+        this.archetype = archetype;
+        var types = archetype.types;
+        columns = new Object[types.length][];
+        for (int slot = 0; slot < types.length; slot++) {
+            var type = types[slot];
+            columns[slot] = new Object[type.getFieldCount()];
+            for (int field = 0; field < type.getFieldCount(); field++) {
+                columns[slot][field] = switch (type.getFieldType(field)) {
+                    case FLOAT -> new float[INITIAL_CAPACITY];
+                    case INT -> new int[INITIAL_CAPACITY];
+                    case OBJECT -> new Object[INITIAL_CAPACITY];
+                };
+            }
+        }
+    }
+
+    /** Appends a row for {@code entity} holding every field's default value. */
+    int add(int entity) {
+        if (size == entities.length) {
+            grow(size * 2);
+        }
+        var row = size++;
+        entities[row] = entity;
+        var types = archetype.types;
+        for (int slot = 0; slot < types.length; slot++) {
+            var type = types[slot];
+            var fields = columns[slot];
+            for (int field = 0; field < fields.length; field++) {
+                var column = fields[field];
+                if (column instanceof float[] floats) {
+                    floats[row] = type.floatDefault(field);
+                } else if (column instanceof int[] ints) {
+                    ints[row] = type.intDefault(field);
+                } else {
+                    ((Object[]) column)[row] = null;
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Removes {@code row} by moving the last row into it. Returns the entity that now occupies
+     * {@code row}, or {@link Entity#NULL} when the removed row was the last one.
+     */
+    int remove(int row) {
+        var last = --size;
+        var moved = Entity.NULL;
+        if (row != last) {
+            moved = entities[last];
+            entities[row] = moved;
+            for (var fields : columns) {
+                for (var column : fields) {
+                    System.arraycopy(column, last, column, row, 1);
+                }
+            }
+        }
+        for (var fields : columns) {
+            for (var column : fields) {
+                if (column instanceof Object[] objects) {
+                    objects[last] = null;
+                }
+            }
+        }
+        return moved;
+    }
+
+    /** Copies the fields of every component both tables have from {@code row} to {@code dst}. */
+    void copyRow(int row, Table dst, int dstRow) {
+        var types = archetype.types;
+        for (int slot = 0; slot < types.length; slot++) {
+            var dstSlot = dst.archetype.slots[types[slot].id];
+            if (dstSlot < 0) {
+                continue;
+            }
+            var src = columns[slot];
+            var target = dst.columns[dstSlot];
+            for (int field = 0; field < src.length; field++) {
+                System.arraycopy(src[field], row, target[field], dstRow, 1);
+            }
+        }
+    }
+
+    void clear() {
+        for (var fields : columns) {
+            for (var column : fields) {
+                if (column instanceof Object[] objects) {
+                    Arrays.fill(objects, 0, size, null);
+                }
+            }
+        }
+        size = 0;
+    }
+
+    Object column(ComponentType type, int field) {
+        var slot = archetype.slots[type.id];
+        if (slot < 0) {
+            throw new IllegalArgumentException("Archetype " + archetype + " has no " + type + " component");
+        }
+        return columns[slot][field];
+    }
+
+    private void grow(int capacity) {
+        entities = Arrays.copyOf(entities, capacity);
+        for (var fields : columns) {
+            for (int field = 0; field < fields.length; field++) {
+                var column = fields[field];
+                if (column instanceof float[] floats) {
+                    fields[field] = Arrays.copyOf(floats, capacity);
+                } else if (column instanceof int[] ints) {
+                    fields[field] = Arrays.copyOf(ints, capacity);
+                } else {
+                    fields[field] = Arrays.copyOf((Object[]) column, capacity);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package hu.mudlee.core.ecs;
+
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.render.SpriteBatch2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entities, their components and the systems that process them.
+ *
+ * <p>An entity is an {@code int} id (see {@link Entity}). Its components live in the table of the
+ * {@link Archetype} matching its exact component set: adding or removing a component moves the
+ * entity's row to another archetype, found through cached edges after the first move. This keeps
+ * every component of a kind in dense primitive columns, so systems stream through memory instead of
+ * chasing references to individual objects as {@link hu.mudlee.core.gameobject.GameObject}s do.
+ *
+ * <pre>
+ * var bullet = world.archetype(Components2D.POSITION, Components2D.VELOCITY, Components2D.SPRITE);
+ * var entity = world.create(bullet);
+ * world.setFloat(entity, Components2D.VELOCITY, Components2D.VELOCITY_Y, 600f);
+ * </pre>
+ *
+ * <p>While systems run, structural changes are held back so that the tables a system is iterating
+ * stay put: {@link #create} stages the new entity, whose fields can be set right away, and {@link
+ * #destroy} only marks the entity; both take effect once every system has run. Adding and removing
+ * components is not allowed at that time. {@link hu.mudlee.core.gameobject.GameScene2D} owns a world
+ * and drives it after its game objects. All methods must be called from the game loop thread.
+ */
+public final class World {
+
+    private static final int INITIAL_ENTITY_CAPACITY = 1024;
+
+    private final List<Archetype> archetypes = new ArrayList<>();
+    private final Map<Long, Archetype> archetypesByMask = new HashMap<>();
+    private final List<Query> queries = new ArrayList<>();
+    private final List<EntitySystem> systems = new ArrayList<>();
+    private final Archetype emptyArchetype;
+
+    private Table[] entityTables = new Table[INITIAL_ENTITY_CAPACITY];
+    private int[] entityRows = new int[INITIAL_ENTITY_CAPACITY];
+    private int[] generations = new int[INITIAL_ENTITY_CAPACITY];
+    private int[] freeIndices = new int[INITIAL_ENTITY_CAPACITY];
+    private int freeCount;
+    private int nextIndex;
+    private int entityCount;
+
+    private Archetype[] stagedArchetypes = new Archetype[8];
+    private int stagedCount;
+    private int[] pendingDestroys = new int[64];
+    private int pendingDestroyCount;
+    private boolean locked;
+
+    public World() {
+        emptyArchetype = createArchetype(0L);
+    }
+
+    /**
+     * The archetype with exactly {@code types}. Look it up once and create entities from it with
+     * {@link #create(Archetype)}.
+     */
+    public Archetype archetype(ComponentType... types) {
+        return archetypeOf(maskOf(types));
+    }
+
+    /** Creates an entity without components. */
+    public int create() {
+        return create(emptyArchetype);
+    }
+
+    /** Creates an entity with the components of {@code archetype}, each field at its default. */
+    public int create(Archetype archetype) {
+        if (archetype.world != this) {
+            throw new IllegalArgumentException("Archetype " + archetype + " belongs to another world");
+        }
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            if (nextIndex == Entity.MAX_ENTITIES) {
+                throw new IllegalStateException("Too many entities (max " + Entity.MAX_ENTITIES + ")");
+            }
+            index = nextIndex++;
+            if (index == entityTables.length) {
+                growEntities(index * 2);
+            }
+        }
+        var entity = Entity.of(index, generations[index]);
+        var table = locked ? stage(archetype) : archetype.table;
+        entityTables[index] = table;
+        entityRows[index] = table.add(entity);
+        entityCount++;
+        return entity;
+    }
+
+    /** Destroys {@code entity}; while systems run, at the end of the update. */
+    public void destroy(int entity) {
+        checkAlive(entity);
+        if (locked) {
+            if (pendingDestroyCount == pendingDestroys.length) {
+                pendingDestroys = Arrays.copyOf(pendingDestroys, pendingDestroyCount * 2);
+            }
+            pendingDestroys[pendingDestroyCount++] = entity;
+            return;
+        }
+        var index = Entity.index(entity);
+        removeRow(entityTables[index], entityRows[index]);
+        entityTables[index] = null;
+        generations[index] = (generations[index] + 1) & Entity.GENERATION_MASK;
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        entityCount--;
+    }
+
+    public boolean isAlive(int entity) {
+        if (entity < 0) {
+            return false;
+        }
+        var index = Entity.index(entity);
+        return index < nextIndex && entityTables[index] != null && generations[index] == Entity.generation(entity);
+    }
+
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /** Adds {@code type} to {@code entity} with default field values. Does nothing if present. */
+    public void add(int entity, ComponentType type) {
+        checkAlive(entity);
+        var archetype = entityTables[Entity.index(entity)].archetype;
+        if (archetype.has(type)) {
+            return;
+        }
+        var target = archetype.addEdges[type.id];
+        if (target == null) {
+            target = archetypeOf(archetype.mask | type.bit);
+            archetype.addEdges[type.id] = target;
+            target.removeEdges[type.id] = archetype;
+        }
+        move(entity, target);
+    }
+
+    /** Removes {@code type} and its field values from {@code entity}. Does nothing if absent. */
+    public void remove(int entity, ComponentType type) {
+        checkAlive(entity);
+        var archetype = entityTables[Entity.index(entity)].archetype;
+        if (!archetype.has(type)) {
+            return;
+        }
+        var target = archetype.removeEdges[type.id];
+        if (target == null) {
+            target = archetypeOf(archetype.mask & ~type.bit);
+            archetype.removeEdges[type.id] = target;
+            target.addEdges[type.id] = archetype;
+        }
+        move(entity, target);
+    }
+
+    public boolean has(int entity, ComponentType type) {
+        checkAlive(entity);
+        return entityTables[Entity.index(entity)].archetype.has(type);
+    }
+
+    public Archetype getArchetype(int entity) {
+        checkAlive(entity);
+        return entityTables[Entity.index(entity)].archetype;
+    }
+
+    public float getFloat(int entity, ComponentType type, int field) {
+        var index = locate(entity);
+        return ((float[]) entityTables[index].column(type, field))[entityRows[index]];
+    }
+
+    public void setFloat(int entity, ComponentType type, int field, float value) {
+        var index = locate(entity);
+        ((float[]) entityTables[index].column(type, field))[entityRows[index]] = value;
+    }
+
+    public int getInt(int entity, ComponentType type, int field) {
+        var index = locate(entity);
+        return ((int[]) entityTables[index].column(type, field))[entityRows[index]];
+    }
+
+    public void setInt(int entity, ComponentType type, int field, int value) {
+        var index = locate(entity);
+        ((int[]) entityTables[index].column(type, field))[entityRows[index]] = value;
+    }
+
+    public Object getObject(int entity, ComponentType type, int field) {
+        var index = locate(entity);
+        return ((Object[]) entityTables[index].column(type, field))[entityRows[index]];
+    }
+
+    public void setObject(int entity, ComponentType type, int field, Object value) {
+        var index = locate(entity);
+        ((Object[]) entityTables[index].column(type, field))[entityRows[index]] = value;
+    }
+
+    /** The cached query over archetypes that contain every type in {@code required}. */
+    public Query query(ComponentType... required) {
+        return query(required, new ComponentType[0]);
+    }
+
+    /** The cached query over archetypes with every type in {@code required} and none in {@code excluded}. */
+    public Query query(ComponentType[] required, ComponentType[] excluded) {
+        var requiredMask = maskOf(required);
+        var excludedMask = maskOf(excluded);
+        for (var query : queries) {
+            if (query.required == requiredMask && query.excluded == excludedMask) {
+                return query;
+            }
+        }
+        var query = new Query(requiredMask, excludedMask);
+        for (var archetype : archetypes) {
+            if (query.matches(archetype.mask)) {
+                query.add(archetype);
+            }
+        }
+        queries.add(query);
+        return query;
+    }
+
+    public void addSystem(EntitySystem system) {
+        systems.add(system);
+        system.start(this);
+    }
+
+    public void removeSystem(EntitySystem system) {
+        if (systems.remove(system)) {
+            system.dispose();
+        }
+    }
+
+    /** Runs every system's update, then applies the creations and destructions they made. */
+    public void update(GameTime gameTime) {
+        locked = true;
+        try {
+            for (int i = 0; i < systems.size(); i++) {
+                systems.get(i).update(this, gameTime);
+            }
+        } finally {
+            locked = false;
+        }
+        applyDeferred();
+    }
+
+    /** Runs every system's draw. Must be called between {@code batch.begin()} and {@code batch.end()}. */
+    public void draw(GameTime gameTime, SpriteBatch2D batch) {
+        locked = true;
+        try {
+            for (int i = 0; i < systems.size(); i++) {
+                systems.get(i).draw(this, gameTime, batch);
+            }
+        } finally {
+            locked = false;
+        }
+        applyDeferred();
+    }
+
+    /** Disposes every system. */
+    public void dispose() {
+        for (int i = systems.size() - 1; i >= 0; i--) {
+            systems.get(i).dispose();
+        }
+        systems.clear();
+    }
+
+    private void move(int entity, Archetype target) {
+        if (locked) {
+            throw new IllegalStateException("Components cannot be added or removed while systems run");
+        }
+        var index = Entity.index(entity);
+        var source = entityTables[index];
+        var row = entityRows[index];
+        var newRow = target.table.add(entity);
+        source.copyRow(row, target.table, newRow);
+        removeRow(source, row);
+        entityTables[index] = target.table;
+        entityRows[index] = newRow;
+    }
+
+    private void removeRow(Table table, int row) {
+        var moved = table.remove(row);
+        if (moved != Entity.NULL) {
+            entityRows[Entity.index(moved)] = row;
+        }
+    }
+
+    private Table stage(Archetype archetype) {
+        if (archetype.staging.size == 0) {
+            if (stagedCount == stagedArchetypes.length) {
+                stagedArchetypes = Arrays.copyOf(stagedArchetypes, stagedCount * 2);
+            }
+            stagedArchetypes[stagedCount++] = archetype;
+        }
+        return archetype.staging;
+    }
+
+    private void applyDeferred() {
+        for (int i = 0; i < stagedCount; i++) {
+            var archetype = stagedArchetypes[i];
+            var staging = archetype.staging;
+            for (int row = 0; row < staging.size; row++) {
+                var entity = staging.entities[row];
+                var index = Entity.index(entity);
+                var newRow = archetype.table.add(entity);
+                staging.copyRow(row, archetype.table, newRow);
+                entityTables[index] = archetype.table;
+                entityRows[index] = newRow;
+            }
+            staging.clear();
+            stagedArchetypes[i] = null;
+        }
+        stagedCount = 0;
+        for (int i = 0; i < pendingDestroyCount; i++) {
+            // An entity may have been destroyed twice in the same update
+            if (isAlive(pendingDestroys[i])) {
+                destroy(pendingDestroys[i]);
+            }
+        }
+        pendingDestroyCount = 0;
+    }
+
+    private int locate(int entity) {
+        checkAlive(entity);
+        return Entity.index(entity);
+    }
+
+    private void checkAlive(int entity) {
+        if (!isAlive(entity)) {
+            throw new IllegalArgumentException(Entity.toString(entity) + " is not alive");
+        }
+    }
+
+    private Archetype archetypeOf(long mask) {
+        var archetype = archetypesByMask.get(mask);
+        return archetype != null ? archetype : createArchetype(mask);
+    }
+
+    private Archetype createArchetype(long mask) {
+        var types = new ComponentType[Long.bitCount(mask)];
+        var count = 0;
+        for (var bits = mask; bits != 0; bits &= bits - 1) {
+            types[count++] = ComponentType.byId(Long.numberOfTrailingZeros(bits));
+        }
+        var archetype = new Archetype(this, archetypes.size(), mask, types);
+        archetypes.add(archetype);
+        archetypesByMask.put(mask, archetype);
+        for (var query : queries) {
+            if (query.matches(mask)) {
+                query.add(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    private long maskOf(ComponentType[] types) {
+        var mask = 0L;
+        for (var type : types) {
+            mask |= type.bit;
+        }
+        return mask;
+    }
+
+    private void growEntities(int capacity) {
+        entityTables = Arrays.copyOf(entityTables, capacity);
+        entityRows = Arrays.copyOf(entityRows, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+    }
+}
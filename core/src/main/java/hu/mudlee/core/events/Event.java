@@ -0,0 +1,27 @@
+package hu.mudlee.core.events;
+
+/**
+ * Base class for events sent through the {@link EventBus}.
+ *
+ * <p>Events are mutable slots owned by their {@link EventChannel}: a publisher fills one in, and
+ * after delivery it is {@link #reset()} and reused. Listeners must copy what they need and not keep
+ * the event itself.
+ *
+ * <pre>
+ * public final class DamageEvent extends Event {
+ *     public GameObject target;
+ *     public float amount;
+ *
+ *     &#064;Override
+ *     protected void reset() {
+ *         target = null;
+ *         amount = 0f;
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class Event {
+
+    /** Called after delivery, before the slot is reused. Clear references here. */
+    protected void reset() {}
+}
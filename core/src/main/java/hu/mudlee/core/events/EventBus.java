@@ -0,0 +1,67 @@
+package hu.mudlee.core.events;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Engine-wide typed messaging between gameplay code that should not hold references to each other.
+ *
+ * <p>Every event type has an {@link EventChannel} with a pool of preallocated mutable events, the
+ * events published since the last dispatch and an array of listeners. Publishing takes an event from
+ * the pool and queues it; the {@link hu.mudlee.core.Game} loop delivers all queued events, type by
+ * type in the order the channels were created, before and after every update. Nothing is allocated
+ * per publish or per delivery once the pools and queues have grown to their working size.
+ *
+ * <pre>
+ * private static final EventChannel&lt;DamageEvent&gt; DAMAGE = EventBus.channel(DamageEvent.class, DamageEvent::new);
+ *
+ * private final EventListener&lt;DamageEvent&gt; onDamage = this::onDamage;
+ *
+ * DAMAGE.subscribe(onDamage);           // e.g. in start()
+ * DAMAGE.unsubscribe(onDamage);         // e.g. in dispose(), with the same instance
+ *
+ * var event = DAMAGE.obtain();          // while updating
+ * event.target = enemy;
+ * event.amount = 12f;
+ * DAMAGE.publish(event);
+ * </pre>
+ *
+ * <p>Channels are for the main thread. Worker threads post through an {@link EventQueue} created
+ * with {@link EventChannel#createQueue(int)}.
+ */
+public final class EventBus {
+
+    private static final Map<Class<?>, EventChannel<?>> channelsByType = new HashMap<>();
+    private static EventChannel<?>[] channels = new EventChannel<?>[0];
+
+    private EventBus() {}
+
+    /** The channel for {@code type}, created with {@code factory} on first use. */
+    @SuppressWarnings("unchecked")
+    public static <T extends Event> EventChannel<T> channel(Class<T> type, Supplier<T> factory) {
+        var channel = (EventChannel<T>) channelsByType.get(type);
+        if (channel == null) {
+            channel = new EventChannel<>(type, factory);
+            channelsByType.put(type, channel);
+            channels = Arrays.copyOf(channels, channels.length + 1);
+            channels[channels.length - 1] = channel;
+        }
+        return channel;
+    }
+
+    /** Delivers every pending event. Called by the game loop around each update. */
+    public static void dispatch() {
+        for (var channel : channels) {
+            channel.dispatch();
+        }
+    }
+
+    /** Drops every pending event and listener, for example between levels. */
+    public static void clear() {
+        for (var channel : channels) {
+            channel.clear();
+        }
+    }
+}
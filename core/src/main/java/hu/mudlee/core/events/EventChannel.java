@@ -0,0 +1,153 @@
+package hu.mudlee.core.events;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The pool, pending events and listeners of one event type, see {@link EventBus}. Main thread only,
+ * except for the {@link EventQueue}s it creates.
+ */
+public final class EventChannel<T extends Event> {
+
+    private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+    private static final EventQueue<?>[] NO_QUEUES = new EventQueue<?>[0];
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private Event[] free = new Event[16];
+    private int freeCount;
+    private Event[] pending = new Event[16];
+    private int pendingCount;
+    // Replaced, never modified, so listeners can subscribe and unsubscribe during delivery
+    private EventListener<? super T>[] listeners = listenerArray(0);
+    private EventQueue<?>[] queues = NO_QUEUES;
+
+    EventChannel(Class<T> type, Supplier<T> factory) {
+        this.type = type;
+        this.factory = factory;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /** A cleared event from the pool, to fill in and {@link #publish}. */
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (freeCount > 0) {
+            var event = free[--freeCount];
+            free[freeCount] = null;
+            return (T) event;
+        }
+        return factory.get();
+    }
+
+    /** Fills the pool up to {@code count} idle events, so publishing does not allocate later. */
+    public void prewarm(int count) {
+        while (freeCount < count) {
+            push(factory.get());
+        }
+    }
+
+    /** Queues {@code event}, which must come from {@link #obtain()}, for the next dispatch point. */
+    public void publish(T event) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        }
+        pending[pendingCount++] = event;
+    }
+
+    public void subscribe(EventListener<? super T> listener) {
+        var grown = Arrays.copyOf(listeners, listeners.length + 1);
+        grown[listeners.length] = listener;
+        listeners = grown;
+    }
+
+    /** Removes {@code listener}, compared by reference: pass the instance that was subscribed. */
+    public void unsubscribe(EventListener<? super T> listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                var shrunk = listenerArray(listeners.length - 1);
+                System.arraycopy(listeners, 0, shrunk, 0, i);
+                System.arraycopy(listeners, i + 1, shrunk, i, listeners.length - i - 1);
+                listeners = shrunk;
+                return;
+            }
+        }
+    }
+
+    public int getListenerCount() {
+        return listeners.length;
+    }
+
+    /** Events waiting for the next dispatch point, not counting those in worker queues. */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * A queue for posting this type from one worker thread, drained at every dispatch point. Create
+     * it on the main thread, one per producing thread.
+     */
+    public EventQueue<T> createQueue(int capacity) {
+        var queue = new EventQueue<>(capacity, factory);
+        queues = Arrays.copyOf(queues, queues.length + 1);
+        queues[queues.length - 1] = queue;
+        return queue;
+    }
+
+    /**
+     * Delivers the worker queues' events, then the events published before this call; events
+     * published by listeners wait for the next dispatch point.
+     */
+    @SuppressWarnings("unchecked")
+    void dispatch() {
+        for (var queue : queues) {
+            ((EventQueue<T>) queue).drain(this);
+        }
+        var count = pendingCount;
+        if (count == 0) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            var event = (T) pending[i];
+            deliver(event);
+            event.reset();
+            push(event);
+        }
+        var published = pendingCount - count;
+        System.arraycopy(pending, count, pending, 0, published);
+        Arrays.fill(pending, published, pendingCount, null);
+        pendingCount = published;
+    }
+
+    void deliver(T event) {
+        var current = listeners;
+        for (var listener : current) {
+            listener.onEvent(event);
+        }
+    }
+
+    /** Drops pending events and listeners; queues stay registered. */
+    void clear() {
+        for (int i = 0; i < pendingCount; i++) {
+            pending[i].reset();
+            push(pending[i]);
+            pending[i] = null;
+        }
+        pendingCount = 0;
+        listeners = listenerArray(0);
+    }
+
+    private void push(Event event) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = event;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Event> EventListener<? super T>[] listenerArray(int length) {
+        return (EventListener<? super T>[]) (length == 0 ? NO_LISTENERS : new EventListener<?>[length]);
+    }
+}
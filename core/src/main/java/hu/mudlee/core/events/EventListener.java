@@ -0,0 +1,7 @@
+package hu.mudlee.core.events;
+
+@FunctionalInterface
+public interface EventListener<T extends Event> {
+
+    void onEvent(T event);
+}
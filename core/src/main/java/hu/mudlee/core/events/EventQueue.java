@@ -0,0 +1,91 @@
+package hu.mudlee.core.events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free single-producer, single-consumer ring of preallocated events, for posting from one
+ * worker thread to the main thread. The producer claims a slot, fills it in and publishes it; the
+ * {@link EventBus} drains the queue on the main thread at its next dispatch point and delivers the
+ * events ahead of the ones published on the main thread.
+ *
+ * <pre>
+ * var queue = pathFound.createQueue(256); // once, on the main thread
+ * ...
+ * var event = queue.claim();              // on the worker
+ * if (event != null) {
+ *     event.agent = agent;
+ *     queue.publish();
+ * }
+ * </pre>
+ *
+ * <p>Each queue must have exactly one producing thread. Neither side blocks: {@link #claim()}
+ * returns {@code null} when the ring is full.
+ */
+public final class EventQueue<T extends Event> {
+
+    private final Event[] slots;
+    private final int mask;
+    // Written by the producer, read by the consumer, and the other way round
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long cachedTail;
+    private boolean claimed;
+
+    EventQueue(int capacity, Supplier<T> factory) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Queue capacity must be a power of two: " + capacity);
+        }
+        slots = new Event[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = factory.get();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * The next free slot, or {@code null} if the consumer has not caught up. Producer thread only;
+     * the slot belongs to the producer until {@link #publish()}.
+     */
+    @SuppressWarnings("unchecked")
+    public T claim() {
+        if (claimed) {
+            throw new IllegalStateException("The claimed slot has not been published");
+        }
+        var h = head.getPlain();
+        if (h - cachedTail == slots.length) {
+            cachedTail = tail.getAcquire();
+            if (h - cachedTail == slots.length) {
+                return null;
+            }
+        }
+        claimed = true;
+        return (T) slots[(int) h & mask];
+    }
+
+    /** Hands the claimed slot to the consumer. Producer thread only. */
+    public void publish() {
+        if (!claimed) {
+            throw new IllegalStateException("No slot has been claimed");
+        }
+        claimed = false;
+        head.setRelease(head.getPlain() + 1);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /** Delivers every published event to {@code channel}'s listeners and frees the slots. */
+    @SuppressWarnings("unchecked")
+    void drain(EventChannel<T> channel) {
+        var t = tail.getPlain();
+        var h = head.getAcquire();
+        for (; t < h; t++) {
+            var event = (T) slots[(int) t & mask];
+            channel.deliver(event);
+            event.reset();
+        }
+        tail.setRelease(t);
+    }
+}
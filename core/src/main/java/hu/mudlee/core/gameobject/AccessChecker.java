@@ -0,0 +1,135 @@
+package hu.mudlee.core.gameobject;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Debug check for parallel component updates: fingerprints every component a batch is not allowed to
+ * write, before and after the batch runs, and reports the ones that changed. A component may be
+ * written when the batch declares writing its type and has a component on the same object; anything
+ * else is an undeclared write, typically to another object. While checking, the batches of a
+ * parallel group run one after the other so each change is attributed to the right batch.
+ *
+ * <p>{@link Transform2D} is fingerprinted by its position, rotation and scale. Other components by
+ * their non-static, non-{@code transient} fields, read reflectively, so the package of a user
+ * component has to be open to this module; mark caches {@code transient} to leave them out.
+ */
+final class AccessChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessChecker.class);
+    private static final Field[] NO_FIELDS = new Field[0];
+
+    private static final ClassValue<Field[]> fields = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            var result = new ArrayList<Field>();
+            for (var c = type; c != Component.class; c = c.getSuperclass()) {
+                for (var field : c.getDeclaredFields()) {
+                    var modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                        continue;
+                    }
+                    if (!field.trySetAccessible()) {
+                        log.warn("Cannot check writes to {}: open its package to hu.mudlee.core", type.getName());
+                        return NO_FIELDS;
+                    }
+                    result.add(field);
+                }
+            }
+            return result.toArray(NO_FIELDS);
+        }
+    };
+
+    private long[] fingerprints = new long[256];
+    private final Set<String> reported = new HashSet<>();
+
+    void before(GameObject[] objects, int count, ComponentBatch batch) {
+        var n = 0;
+        for (int i = 0; i < count; i++) {
+            var go = objects[i];
+            n = record(go, go.transform, batch, n);
+            for (int c = 0; c < go.componentCount(); c++) {
+                n = record(go, go.componentAt(c), batch, n);
+            }
+        }
+    }
+
+    void after(GameObject[] objects, int count, ComponentBatch batch) {
+        var n = 0;
+        for (int i = 0; i < count; i++) {
+            var go = objects[i];
+            n = verify(go, go.transform, batch, n);
+            for (int c = 0; c < go.componentCount(); c++) {
+                n = verify(go, go.componentAt(c), batch, n);
+            }
+        }
+    }
+
+    private int record(GameObject go, Component component, ComponentBatch batch, int n) {
+        if (n == fingerprints.length) {
+            fingerprints = Arrays.copyOf(fingerprints, n * 2);
+        }
+        fingerprints[n] = mayWrite(go, component, batch) ? 0 : fingerprint(component);
+        return n + 1;
+    }
+
+    private int verify(GameObject go, Component component, ComponentBatch batch, int n) {
+        if (!mayWrite(go, component, batch) && fingerprint(component) != fingerprints[n]) {
+            var type = component.getClass().getSimpleName();
+            var writer = ComponentId.typeOf(batch.typeId).getSimpleName();
+            if (reported.add(type + "/" + writer)) {
+                log.warn("Undeclared write to {} of '{}' while updating {} in parallel", type, go.name, writer);
+            }
+        }
+        return n + 1;
+    }
+
+    private static boolean mayWrite(GameObject go, Component component, ComponentBatch batch) {
+        if (!go.hasComponentType(batch.typeId)) {
+            return false;
+        }
+        for (var id : component.typeIds) {
+            if (batch.access.writesType(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long fingerprint(Component component) {
+        if (component instanceof Transform2D transform) {
+            var hash = (long) transform.position.hashCode();
+            hash = hash * 31 + Float.floatToIntBits(transform.rotation);
+            return hash * 31 + transform.scale.hashCode();
+        }
+        var hash = 1L;
+        for (var field : fields.get(component.getClass())) {
+            hash = hash * 31 + valueHash(field, component);
+        }
+        return hash;
+    }
+
+    private static long valueHash(Field field, Component component) {
+        try {
+            var value = field.get(component);
+            if (value == null) {
+                return 0;
+            }
+            // Primitives and JOML vectors compare by value; anything else, immutable colours included, by reference
+            if (field.getType().isPrimitive()
+                    || value instanceof String
+                    || value.getClass().getName().startsWith("org.joml.")) {
+                return value.hashCode();
+            }
+            return System.identityHashCode(value);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,11 +18,19 @@ import hu.mudlee.core.render.SpriteBatch2D;
  *   <li>{@link #dispose()} — when the component or its {@code GameObject} is destroyed
  * </ol>
  *
+ * <p>A {@code GameObject} obtained from a {@link GameObjectPool} is not disposed when it leaves its
+ * scene: {@link #reset()} is called instead, and {@link #start()} runs again on its next spawn.
+ *
  * <p>Override only the methods you need; all have empty default implementations.
  */
 public abstract class Component {
 
     GameObject gameObject;
+    // Slot in the scene's batch for this type while the scene runs batched updates
+    int batchIndex = -1;
+    private boolean enabled = true;
+    private boolean sleeping;
+    final int[] typeIds = ComponentId.hierarchyOf(getClass());
 
     /** Called once when {@link GameObject#start()} is invoked. */
     public void start() {}
@@ -36,6 +44,46 @@ public abstract class Component {
     /** Called when this component is removed or its {@link GameObject} is destroyed. */
     public void dispose() {}
 
+    /**
+     * Called when the pooled {@link GameObject} this component belongs to is returned to its {@link
+     * GameObjectPool}. Restore the state a freshly constructed component would have.
+     */
+    public void reset() {}
+
+    /**
+     * A disabled component is neither updated nor drawn; it leaves its object's component arrays
+     * rather than being skipped each frame. Has no effect on the {@link Transform2D}.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            stateChanged();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Stops updating this component while it keeps being drawn, until {@link #wake()}. */
+    public void sleep() {
+        if (!sleeping) {
+            sleeping = true;
+            stateChanged();
+        }
+    }
+
+    public void wake() {
+        if (sleeping) {
+            sleeping = false;
+            stateChanged();
+        }
+    }
+
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
     public GameObject getGameObject() {
         return gameObject;
     }
@@ -47,4 +95,23 @@ public abstract class Component {
         }
         return gameObject.getComponent(type);
     }
+
+    /** Convenience shorthand for {@code gameObject.getComponent(id)}. */
+    protected <T extends Component> T getComponent(ComponentId<T> id) {
+        if (gameObject == null) {
+            return null;
+        }
+        return gameObject.getComponent(id);
+    }
+
+    void resetState() {
+        enabled = true;
+        sleeping = false;
+    }
+
+    private void stateChanged() {
+        if (gameObject != null && gameObject.transform != this) {
+            gameObject.componentStateChanged(this);
+        }
+    }
 }
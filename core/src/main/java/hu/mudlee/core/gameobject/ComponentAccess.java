@@ -0,0 +1,113 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.Arrays;
+
+/**
+ * The component data a component type's {@code update} reads and writes, declared with {@link
+ * GameScene2D#setUpdateAccess(Class, ComponentAccess)} so the scene can update non-conflicting types
+ * at the same time on the {@link hu.mudlee.core.jobs.JobSystem} workers.
+ *
+ * <p>Declarations are per object: "writes {@code Transform2D}" means each component writes the
+ * transform of its own object. A type always writes its own data. Two types conflict when one
+ * writes data the other reads or writes; declaring a type covers its subclasses and superclasses
+ * too.
+ *
+ * <pre>
+ * setUpdateAccess(Steering.class, ComponentAccess.builder()
+ *         .reads(Transform2D.class)
+ *         .writes(Velocity.class)
+ *         .build());
+ * </pre>
+ */
+public final class ComponentAccess {
+
+    private final long[] reads;
+    private final long[] writes;
+
+    private ComponentAccess(long[] reads, long[] writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean reads(ComponentId<?> id) {
+        return has(reads, id.id());
+    }
+
+    public boolean writes(ComponentId<?> id) {
+        return has(writes, id.id());
+    }
+
+    /** Whether updating the two types at the same time could race. */
+    public boolean conflictsWith(ComponentAccess other) {
+        return intersects(writes, other.writes) || intersects(writes, other.reads) || intersects(reads, other.writes);
+    }
+
+    boolean writesType(int typeId) {
+        return has(writes, typeId);
+    }
+
+    /** A copy that also writes {@code type} and its superclasses. */
+    ComponentAccess withWrite(Class<? extends Component> type) {
+        return new ComponentAccess(reads, add(writes, type));
+    }
+
+    private static boolean has(long[] mask, int id) {
+        var word = id >>> 6;
+        return word < mask.length && (mask[word] & (1L << id)) != 0;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] add(long[] mask, Class<? extends Component> type) {
+        var result = mask;
+        for (var id : ComponentId.hierarchyOf(type)) {
+            var word = id >>> 6;
+            if (word >= result.length) {
+                result = Arrays.copyOf(result, word + 1);
+            } else if (result == mask) {
+                result = mask.clone();
+            }
+            result[word] |= 1L << id;
+        }
+        return result;
+    }
+
+    public static final class Builder {
+
+        private long[] reads = new long[0];
+        private long[] writes = new long[0];
+
+        private Builder() {}
+
+        @SafeVarargs
+        public final Builder reads(Class<? extends Component>... types) {
+            for (var type : types) {
+                reads = add(reads, type);
+            }
+            return this;
+        }
+
+        @SafeVarargs
+        public final Builder writes(Class<? extends Component>... types) {
+            for (var type : types) {
+                writes = add(writes, type);
+            }
+            return this;
+        }
+
+        public ComponentAccess build() {
+            return new ComponentAccess(reads.clone(), writes.clone());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package hu.mudlee.core.gameobject;
+
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.jobs.RangeJob;
+import java.util.Arrays;
+
+/**
+ * The components of one concrete type in a {@link GameScene2D} running batched updates, updated
+ * together so the same {@code update} implementation runs back to back. Removal only clears the
+ * slot; the batch is compacted before its next update, which keeps the remaining components in the
+ * order they were added.
+ *
+ * <p>A batch with declared {@link ComponentAccess} can be updated in ranges on the job workers; the
+ * slots are not changed while that runs.
+ */
+final class ComponentBatch {
+
+    final int typeId;
+    final int sequence;
+    UpdateStage stage = UpdateStage.UPDATE;
+    int order;
+    ComponentAccess access;
+    final RangeJob updateRange = this::updateRange;
+    private GameTime gameTime;
+
+    private Component[] components = new Component[16];
+    private int size;
+    private boolean hasHoles;
+
+    ComponentBatch(int typeId, int sequence) {
+        this.typeId = typeId;
+        this.sequence = sequence;
+    }
+
+    void add(Component component) {
+        if (size == components.length) {
+            components = Arrays.copyOf(components, size * 2);
+        }
+        component.batchIndex = size;
+        components[size++] = component;
+    }
+
+    void remove(Component component) {
+        components[component.batchIndex] = null;
+        component.batchIndex = -1;
+        hasHoles = true;
+    }
+
+    void update(GameTime gameTime) {
+        compact();
+        // Components added by an update in this batch are updated this frame as well
+        for (int i = 0; i < size; i++) {
+            var component = components[i];
+            if (component != null) {
+                component.update(gameTime);
+            }
+        }
+    }
+
+    /** Compacts the batch and records the time for {@link #updateRange}. Returns the size. */
+    int prepare(GameTime gameTime) {
+        compact();
+        this.gameTime = gameTime;
+        return size;
+    }
+
+    void updateRange(int start, int end) {
+        for (int i = start; i < end; i++) {
+            components[i].update(gameTime);
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            if (components[i] != null) {
+                components[i].batchIndex = -1;
+            }
+        }
+        Arrays.fill(components, 0, size, null);
+        size = 0;
+        hasHoles = false;
+    }
+
+    /** Runs before {@code other} if its stage is earlier, then by order, then by creation. */
+    boolean runsBefore(ComponentBatch other) {
+        if (stage != other.stage) {
+            return stage.ordinal() < other.stage.ordinal();
+        }
+        if (order != other.order) {
+            return order < other.order;
+        }
+        return sequence < other.sequence;
+    }
+
+    private void compact() {
+        if (!hasHoles) {
+            return;
+        }
+        var kept = 0;
+        for (int i = 0; i < size; i++) {
+            var component = components[i];
+            if (component != null) {
+                component.batchIndex = kept;
+                components[kept++] = component;
+            }
+        }
+        Arrays.fill(components, kept, size, null);
+        size = kept;
+        hasHoles = false;
+    }
+}
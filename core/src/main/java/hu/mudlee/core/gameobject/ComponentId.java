@@ -0,0 +1,101 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer id of a {@link Component} class, used for constant-time lookups.
+ *
+ * <p>Every component class, and every superclass between it and {@code Component}, gets the next
+ * free id the first time it is seen. A {@link GameObject} keeps its components in an array indexed
+ * by these ids plus a bitmask of the ids present, so {@link GameObject#getComponent(ComponentId)} is
+ * an array read and a lookup by superclass finds subclass instances just like {@link
+ * Class#isInstance(Object)} would. Keep ids in static constants on hot paths:
+ *
+ * <pre>
+ * private static final ComponentId&lt;Animator2D&gt; ANIMATOR = ComponentId.of(Animator2D.class);
+ *
+ * var animator = getComponent(ANIMATOR);
+ * </pre>
+ */
+public final class ComponentId<T extends Component> {
+
+    private static final Map<Class<?>, ComponentId<?>> registry = new HashMap<>();
+    private static final List<ComponentId<?>> byId = new ArrayList<>();
+    private static final ClassValue<ComponentId<?>> ids = new ClassValue<>() {
+        @Override
+        protected ComponentId<?> computeValue(Class<?> type) {
+            return register(type);
+        }
+    };
+    private static final ClassValue<int[]> hierarchies = new ClassValue<>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            var result = new int[0];
+            for (var c = type; c != Component.class; c = c.getSuperclass()) {
+                result = Arrays.copyOf(result, result.length + 1);
+                result[result.length - 1] = ids.get(c).id;
+            }
+            return result;
+        }
+    };
+
+    private final Class<T> type;
+    private final int id;
+
+    private ComponentId(Class<T> type, int id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends Component> ComponentId<T> of(Class<T> type) {
+        return (ComponentId<T>) ids.get(type);
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return type.getSimpleName() + "#" + id;
+    }
+
+    /** Ids of {@code type} and its superclasses below {@link Component}, most derived first. */
+    static int[] hierarchyOf(Class<? extends Component> type) {
+        return hierarchies.get(type);
+    }
+
+    static synchronized Class<?> typeOf(int id) {
+        return byId.get(id).type;
+    }
+
+    /** Number of ids handed out so far; every id is below this. */
+    static synchronized int count() {
+        return byId.size();
+    }
+
+    // ClassValue may compute a value more than once under contention; the map keeps ids unique
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static synchronized ComponentId<?> register(Class<?> type) {
+        if (!Component.class.isAssignableFrom(type) || type == Component.class) {
+            throw new IllegalArgumentException(type.getName() + " is not a Component subclass");
+        }
+        var existing = registry.get(type);
+        if (existing != null) {
+            return existing;
+        }
+        var componentId = new ComponentId(type, byId.size());
+        registry.put(type, componentId);
+        byId.add(componentId);
+        return componentId;
+    }
+}
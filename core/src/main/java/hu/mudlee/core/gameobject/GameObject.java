@@ -3,12 +3,13 @@ package hu.mudlee.core.gameobject;
 import hu.mudlee.core.GameTime;
 import hu.mudlee.core.render.SpriteBatch2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A named container of {@link Component} instances.
  *
- * <p>Every {@code GameObject} owns a {@link Transform} that is always present and cannot be
+ * <p>Every {@code GameObject} owns a {@link Transform2D} that is always present and cannot be
  * removed. Additional components are attached via {@link #addComponent} and retrieved via
  * {@link #getComponent}.
  *
@@ -19,13 +20,56 @@ import java.util.List;
  *       .addComponent(new Animator());
  * player.start();
  * </pre>
+ *
+ * <p>Components are also indexed by their {@link ComponentId}: a bitmask records which component
+ * types are present and an array holds the first component of each type, so lookups do not scan
+ * the component list. Components that cache references to their siblings can compare {@link
+ * #getComponentVersion()} to detect additions and removals.
+ *
+ * <p>A disabled object is neither updated nor drawn; a sleeping one is drawn but not updated. Both
+ * states take the object out of the sets its scene iterates rather than being checked each frame,
+ * so dormant objects cost nothing. Components can be disabled or put to sleep individually in the
+ * same way. A scene can also wake and sleep objects by their distance to the camera, see {@link
+ * GameScene2D#setCameraSleepDistance(float, float)}.
  */
 public final class GameObject {
 
+    private static final Component[] NO_COMPONENTS = new Component[0];
+    private static final int[] NO_POSITIONS = new int[0];
+
     public final String name;
     public final Transform2D transform = new Transform2D();
 
     private final List<Component> components = new ArrayList<>(8);
+    private Component[] componentsByType = NO_COMPONENTS;
+    private long[] typeMask = new long[1];
+    private int componentVersion;
+
+    // Enabled, awake components in insertion order, rebuilt when a component changes state
+    private Component[] updateComponents = NO_COMPONENTS;
+    private int updateComponentCount;
+    private Component[] drawComponents = NO_COMPONENTS;
+    private int drawComponentCount;
+    private boolean componentsDirty;
+    private boolean iteratingComponents;
+
+    private boolean enabled = true;
+    private boolean sleeping;
+    private boolean autoSleep;
+
+    // Owning scene and this object's slot in the scene's object array and in each of its type indexes
+    GameScene2D scene;
+    int sceneIndex = -1;
+    int updateIndex = -1;
+    int drawIndex = -1;
+    int spatialId = -1;
+    private int[] indexPositions = NO_POSITIONS;
+
+    // Pending scene commands and the pool this object returns to when destroyed
+    boolean spawnQueued;
+    boolean destroyQueued;
+    boolean stateQueued;
+    GameObjectPool pool;
 
     public GameObject(String name) {
         this.name = name;
@@ -41,31 +85,137 @@ public final class GameObject {
     public GameObject addComponent(Component component) {
         component.gameObject = this;
         components.add(component);
+        for (var id : component.typeIds) {
+            if (id >= componentsByType.length) {
+                componentsByType = Arrays.copyOf(componentsByType, Math.max(id + 1, componentsByType.length * 2));
+            }
+            if (componentsByType[id] == null) {
+                componentsByType[id] = component;
+                setType(id);
+            }
+        }
+        componentVersion++;
+        if (scene != null) {
+            scene.componentAdded(component);
+        }
+        componentStateChanged(component);
         return this;
     }
 
     /**
-     * Returns the first component matching {@code type}, or {@code null} if none is found.
-     * Uses a linear scan — fine for the expected component count per entity (&lt; 10).
+     * Removes and disposes {@code component}. Returns {@code false} if it is not attached to this
+     * {@code GameObject}.
      */
-    public <T extends Component> T getComponent(Class<T> type) {
-        for (int i = 0; i < components.size(); i++) {
-            var component = components.get(i);
-            if (type.isInstance(component)) {
-                return type.cast(component);
+    public boolean removeComponent(Component component) {
+        if (!components.remove(component)) {
+            return false;
+        }
+        if (scene != null) {
+            scene.componentRemoved(component);
+        }
+        rebuildComponents();
+        for (var id : component.typeIds) {
+            if (componentsByType[id] == component) {
+                var replacement = findComponent(ComponentId.typeOf(id));
+                componentsByType[id] = replacement;
+                if (replacement == null) {
+                    clearType(id);
+                }
             }
         }
-        return null;
+        componentVersion++;
+        component.dispose();
+        component.gameObject = null;
+        return true;
+    }
+
+    /** Returns the first component matching {@code type}, or {@code null} if none is found. */
+    public <T extends Component> T getComponent(Class<T> type) {
+        return getComponent(ComponentId.of(type));
+    }
+
+    /** Returns the first component matching {@code id}, or {@code null} if none is found. */
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T getComponent(ComponentId<T> id) {
+        var index = id.id();
+        return index < componentsByType.length ? (T) componentsByType[index] : null;
     }
 
     /** Returns {@code true} if this {@code GameObject} has a component of the given type. */
     public <T extends Component> boolean hasComponent(Class<T> type) {
-        for (int i = 0; i < components.size(); i++) {
-            if (type.isInstance(components.get(i))) {
-                return true;
-            }
+        return hasComponent(ComponentId.of(type));
+    }
+
+    public boolean hasComponent(ComponentId<?> id) {
+        return hasComponentType(id.id());
+    }
+
+    /**
+     * A disabled object is neither updated nor drawn. Within a scene the change takes effect at the
+     * next frame point when made during an update or draw, immediately otherwise.
+     */
+    public void setEnabled(boolean enabled) {
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            stateChanged();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Stops updating this object while it keeps being drawn, until {@link #wake()}. */
+    public void sleep() {
+        if (!sleeping) {
+            sleeping = true;
+            transform.resetInterpolation();
+            stateChanged();
         }
-        return false;
+    }
+
+    /**
+     * Resumes updating a sleeping object. Call it from whatever should rouse the object, such as a
+     * collision or a message; the transform's interpolation is reset so nothing is blended across
+     * the sleep.
+     */
+    public void wake() {
+        if (sleeping) {
+            sleeping = false;
+            transform.resetInterpolation();
+            stateChanged();
+        }
+    }
+
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /** Enabled and awake, so updated every frame. */
+    public boolean isUpdating() {
+        return enabled && !sleeping;
+    }
+
+    /**
+     * Lets the scene's distance-to-camera rule put this object to sleep and wake it, see {@link
+     * GameScene2D#setCameraSleepDistance(float, float)}.
+     */
+    public void setAutoSleep(boolean autoSleep) {
+        this.autoSleep = autoSleep;
+    }
+
+    public boolean isAutoSleep() {
+        return autoSleep;
+    }
+
+    /** The scene this object is in, or {@code null}. */
+    public GameScene2D getScene() {
+        return scene;
+    }
+
+    /** Incremented whenever a component is added or removed. */
+    public int getComponentVersion() {
+        return componentVersion;
     }
 
     /** Calls {@link Component#start()} on the transform and every attached component. */
@@ -76,25 +226,171 @@ public final class GameObject {
         }
     }
 
-    /** Calls {@link Component#update(GameTime)} on every attached component. */
+    /**
+     * Records the transform's pre-update state for interpolation, then calls {@link
+     * Component#update(GameTime)} on every enabled, awake component.
+     */
     public void update(GameTime gameTime) {
-        for (int i = 0; i < components.size(); i++) {
-            components.get(i).update(gameTime);
+        transform.resetInterpolation();
+        iteratingComponents = true;
+        try {
+            for (int i = 0; i < updateComponentCount; i++) {
+                updateComponents[i].update(gameTime);
+            }
+        } finally {
+            endIteration();
         }
     }
 
-    /** Calls {@link Component#draw(GameTime, SpriteBatch2D)} on every attached component. */
+    /** Calls {@link Component#draw(GameTime, SpriteBatch2D)} on every enabled component. */
     public void draw(GameTime gameTime, SpriteBatch2D batch) {
-        for (int i = 0; i < components.size(); i++) {
-            components.get(i).draw(gameTime, batch);
+        iteratingComponents = true;
+        try {
+            for (int i = 0; i < drawComponentCount; i++) {
+                drawComponents[i].draw(gameTime, batch);
+            }
+        } finally {
+            endIteration();
         }
     }
 
-    /** Disposes all components. Called when this {@code GameObject} is destroyed. */
+    /**
+     * Disposes all components. Called when this {@code GameObject} is destroyed. The transform is
+     * detached from its parent, and its children become roots.
+     */
     public void dispose() {
+        transform.dispose();
         for (int i = components.size() - 1; i >= 0; i--) {
             components.get(i).dispose();
         }
         components.clear();
+        rebuildComponents();
+        Arrays.fill(componentsByType, null);
+        for (int word = 0; word < typeMask.length; word++) {
+            for (var bits = typeMask[word]; bits != 0; bits &= bits - 1) {
+                clearType(word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        componentVersion++;
+    }
+
+    /**
+     * Enables and wakes the object and its components, then calls {@link Component#reset()} on the
+     * transform and every attached component.
+     */
+    void reset() {
+        enabled = true;
+        sleeping = false;
+        autoSleep = false;
+        transform.reset();
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            component.resetState();
+            component.reset();
+        }
+        rebuildComponents();
+    }
+
+    /** Called by a component whose enabled or sleeping state changed, and for added components. */
+    void componentStateChanged(Component component) {
+        if (scene != null) {
+            scene.syncBatch(component);
+        }
+        rebuildComponents();
+    }
+
+    int componentCount() {
+        return components.size();
+    }
+
+    Component componentAt(int index) {
+        return components.get(index);
+    }
+
+    boolean hasComponentType(int typeId) {
+        var word = typeId >>> 6;
+        return word < typeMask.length && (typeMask[word] & (1L << typeId)) != 0;
+    }
+
+    long[] typeMask() {
+        return typeMask;
+    }
+
+    int getIndexPosition(int typeId) {
+        return indexPositions[typeId];
+    }
+
+    void setIndexPosition(int typeId, int position) {
+        if (typeId >= indexPositions.length) {
+            indexPositions = Arrays.copyOf(indexPositions, Math.max(typeId + 1, indexPositions.length * 2));
+        }
+        indexPositions[typeId] = position;
+    }
+
+    private void stateChanged() {
+        if (scene != null) {
+            scene.objectStateChanged(this);
+        }
+    }
+
+    private void endIteration() {
+        iteratingComponents = false;
+        if (componentsDirty) {
+            rebuildComponents();
+        }
+    }
+
+    // Deferred while the component arrays are being iterated; components are few, so a full rebuild is cheap
+    private void rebuildComponents() {
+        if (iteratingComponents) {
+            componentsDirty = true;
+            return;
+        }
+        componentsDirty = false;
+        if (updateComponents.length < components.size()) {
+            updateComponents = new Component[Math.max(4, components.size())];
+            drawComponents = new Component[updateComponents.length];
+        }
+        Arrays.fill(updateComponents, null);
+        Arrays.fill(drawComponents, null);
+        updateComponentCount = 0;
+        drawComponentCount = 0;
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            if (component.isEnabled()) {
+                drawComponents[drawComponentCount++] = component;
+                if (!component.isSleeping()) {
+                    updateComponents[updateComponentCount++] = component;
+                }
+            }
+        }
+    }
+
+    private Component findComponent(Class<?> type) {
+        for (int i = 0; i < components.size(); i++) {
+            var component = components.get(i);
+            if (type.isInstance(component)) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private void setType(int id) {
+        var word = id >>> 6;
+        if (word >= typeMask.length) {
+            typeMask = Arrays.copyOf(typeMask, word + 1);
+        }
+        typeMask[word] |= 1L << id;
+        if (scene != null) {
+            scene.indexAdd(this, id);
+        }
+    }
+
+    private void clearType(int id) {
+        typeMask[id >>> 6] &= ~(1L << id);
+        if (scene != null) {
+            scene.indexRemove(this, id);
+        }
     }
 }
@@ -0,0 +1,106 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Recycles {@link GameObject}s that are spawned and destroyed often, such as bullets and effects.
+ *
+ * <p>{@link #obtain()} hands out an idle object, or builds one with the factory when none is left.
+ * When a pooled object is destroyed by its {@link GameScene2D} it is not disposed: its transform
+ * and components are {@link Component#reset() reset} and it goes back to the pool, keeping its
+ * components, textures and buffers. Objects beyond the pool's capacity are disposed as usual.
+ *
+ * <pre>
+ * var bullets = new GameObjectPool(() -&gt; new GameObject("Bullet")
+ *         .addComponent(new SpriteRenderer2D())
+ *         .addComponent(new BulletController()), 256);
+ * bullets.prewarm(64);
+ *
+ * var bullet = bullets.obtain();
+ * bullet.transform.position.set(x, y);
+ * spawn(bullet);
+ * ...
+ * destroy(bullet); // back to the pool at the end of the update
+ * </pre>
+ */
+public final class GameObjectPool {
+
+    private final Supplier<GameObject> factory;
+    private final int capacity;
+    private GameObject[] idle = new GameObject[16];
+    private int idleCount;
+
+    /** {@code capacity} is the most idle objects kept; extra released objects are disposed. */
+    public GameObjectPool(Supplier<GameObject> factory, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative: " + capacity);
+        }
+        this.factory = factory;
+        this.capacity = capacity;
+    }
+
+    /** An idle object from the pool, or a new one from the factory. */
+    public GameObject obtain() {
+        if (idleCount > 0) {
+            var go = idle[--idleCount];
+            idle[idleCount] = null;
+            return go;
+        }
+        var go = factory.get();
+        go.pool = this;
+        return go;
+    }
+
+    /** Builds objects up front, up to {@code count} idle ones, so the first spawns do not allocate. */
+    public void prewarm(int count) {
+        while (idleCount < Math.min(count, capacity)) {
+            var go = factory.get();
+            go.pool = this;
+            push(go);
+        }
+    }
+
+    /**
+     * Resets {@code go} and keeps it for reuse. Scenes call this for pooled objects they destroy;
+     * call it directly only for objects that never made it into a scene.
+     */
+    public void free(GameObject go) {
+        if (go.pool != this) {
+            throw new IllegalArgumentException("GameObject '" + go.name + "' does not belong to this pool");
+        }
+        if (go.scene != null) {
+            throw new IllegalStateException("GameObject '" + go.name + "' is still in a scene");
+        }
+        if (idleCount >= capacity) {
+            go.dispose();
+            return;
+        }
+        go.reset();
+        push(go);
+    }
+
+    public int getIdleCount() {
+        return idleCount;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Disposes every idle object. */
+    public void clear() {
+        for (int i = 0; i < idleCount; i++) {
+            idle[i].dispose();
+            idle[i] = null;
+        }
+        idleCount = 0;
+    }
+
+    private void push(GameObject go) {
+        if (idleCount == idle.length) {
+            idle = Arrays.copyOf(idle, idleCount * 2);
+        }
+        idle[idleCount++] = go;
+    }
+}
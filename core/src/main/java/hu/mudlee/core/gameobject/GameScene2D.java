@@ -5,19 +5,59 @@ import hu.mudlee.core.Game;
 import hu.mudlee.core.GameTime;
 import hu.mudlee.core.GraphicsDevice;
 import hu.mudlee.core.Screen;
+import hu.mudlee.core.ecs.World;
+import hu.mudlee.core.jobs.Job;
+import hu.mudlee.core.jobs.JobSystem;
+import hu.mudlee.core.physics.Collider2D;
+import hu.mudlee.core.physics.CollisionSystem2D;
+import hu.mudlee.core.physics.PhysicsWorld2D;
+import hu.mudlee.core.physics.Rigidbody2D;
 import hu.mudlee.core.render.SpriteBatch2D;
 import hu.mudlee.core.render.camera.Camera2D;
 import hu.mudlee.core.render.camera.OrthographicCamera2D;
-import java.util.ArrayList;
+import hu.mudlee.core.tween.TweenManager;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * A {@link Screen} that manages a flat list of {@link GameObject} instances and drives
  * their lifecycle each frame.
  *
+ * <p>Objects spawned or destroyed while the scene is updating, for example by a component, are
+ * recorded in a command buffer and applied at the next frame point: after the objects' updates and
+ * before the transform pass, and again at the start of the next update. Outside updates {@link
+ * #addGameObject} and {@link #removeGameObject} apply immediately. Every object stores its slot in
+ * the scene, so removal is a constant-time swap with the last object; the update and draw order of
+ * the remaining objects is therefore not the order they were added in.
+ *
+ * <p>Only enabled, awake objects are updated and only enabled ones are drawn: the scene keeps both
+ * sets, and {@link GameObject#setEnabled}, {@link GameObject#sleep()} and {@link GameObject#wake()}
+ * move objects in and out of them with a swap-remove. Objects marked with {@link
+ * GameObject#setAutoSleep(boolean)} can also follow a distance-to-camera rule, see {@link
+ * #setCameraSleepDistance(float, float)}; {@link #wakeInRadius} wakes them for events such as an
+ * explosion. Objects from a {@link
+ * GameObjectPool} are reset and returned to their pool instead of being disposed.
+ *
  * <p>Integrates directly with {@link hu.mudlee.core.ScreenManager} — push or set a
  * {@code GameScene2D} just like any other {@code Screen}.
  *
+ * <p>Each scene also owns an ECS {@link World} for entities that come in large numbers, such as
+ * crowds or bullets. Its systems update after the game objects and draw on top of them through the
+ * same {@link SpriteBatch2D}.
+ *
+ * <p>With {@link #setBatchedUpdates(boolean)} the scene updates components grouped by concrete
+ * type instead of object by object: all components of one class form a batch, and batches run
+ * by {@link UpdateStage}, then by the order given to {@link #setUpdateStage}, then in the order the
+ * types first appeared in the scene. Running one type's {@code update} back to back keeps the
+ * virtual call predictable and its code and data hot. Types that declare their data access with
+ * {@link #setUpdateAccess} are updated on the {@link JobSystem} workers, alongside neighbouring
+ * types in the same stage they do not conflict with.
+ *
+ * <p>The scene indexes its objects by component type, so {@link #findGameObjects(ComponentId,
+ * ComponentId, List)} answers "every object with components A and B" without visiting the others,
+ * and by position in a {@link SpatialHash2D}, kept current after every update, for range and
+ * nearest-neighbour queries.
+ *
  * <pre>
  * public class PlayerScene extends GameScene2D {
  *     public PlayerScene(Game game, GraphicsDevice gd) { super(game, gd); }
@@ -32,12 +72,51 @@ import java.util.List;
  * </pre>
  */
 public abstract class GameScene2D implements Screen {
+    private static final float DEFAULT_SPATIAL_CELL_SIZE = 128f;
+    // Batches smaller than this are updated on the calling thread while the larger ones run in parallel
+    private static final int PARALLEL_THRESHOLD = 64;
+    private static final int PARALLEL_BATCH_SIZE = 32;
+
     protected final Game game;
     protected final GraphicsDevice graphicsDevice;
     protected Camera2D camera;
     protected SpriteBatch2D spriteBatch;
+    protected final World world = new World();
 
-    private final List<GameObject> gameObjects = new ArrayList<>();
+    private GameObject[] gameObjects = new GameObject[64];
+    private int gameObjectCount;
+    private GameObject[] spawnQueue = new GameObject[16];
+    private int spawnQueueSize;
+    private GameObject[] destroyQueue = new GameObject[16];
+    private int destroyQueueSize;
+    private boolean iterating;
+    private GameObject[] updateSet = new GameObject[64];
+    private int updateCount;
+    private GameObject[] drawSet = new GameObject[64];
+    private int drawCount;
+    private GameObject[] stateQueue = new GameObject[16];
+    private int stateQueueSize;
+    private boolean cameraSleep;
+    private float cameraWakeDistance;
+    private float cameraSleepDistance;
+    private GameObject[] queryBuffer = new GameObject[64];
+    private boolean batchedUpdates;
+    private ComponentBatch[] batchesByType = new ComponentBatch[0];
+    private ComponentBatch[] batchOrder = new ComponentBatch[8];
+    private int batchCount;
+    private boolean batchOrderDirty;
+    private ComponentBatch[] group = new ComponentBatch[8];
+    private int[] groupCounts = new int[8];
+    private Job[] groupJobs = new Job[8];
+    private int groupSize;
+    private boolean parallelUpdating;
+    private AccessChecker accessChecker;
+    private TypeIndex[] typeIndexes = new TypeIndex[0];
+    private final TransformHierarchy transforms = new TransformHierarchy();
+    private final SpatialHash2D spatialHash = new SpatialHash2D(DEFAULT_SPATIAL_CELL_SIZE);
+    private final CollisionSystem2D collisions = new CollisionSystem2D();
+    private final PhysicsWorld2D physics = new PhysicsWorld2D(collisions);
+    private final TweenManager tweens = new TweenManager();
 
     protected GameScene2D(Game game, GraphicsDevice graphicsDevice) {
         this.game = game;
@@ -50,17 +129,301 @@ public abstract class GameScene2D implements Screen {
      */
     protected abstract void onShow();
 
-    /** Adds a {@link GameObject} to the scene and calls {@link GameObject#start()} on it. */
+    /**
+     * Adds a {@link GameObject} to the scene and calls {@link GameObject#start()} on it. During an
+     * update this is deferred like {@link #spawn(GameObject)}.
+     */
     protected void addGameObject(GameObject go) {
-        gameObjects.add(go);
-        go.start();
+        if (iterating) {
+            spawn(go);
+        } else {
+            checkSpawnable(go);
+            add(go);
+        }
     }
 
-    /** Removes and disposes a {@link GameObject} from the scene. */
+    /**
+     * Removes and disposes a {@link GameObject} from the scene, or returns it to its pool. During an
+     * update this is deferred like {@link #destroy(GameObject)}.
+     */
     protected void removeGameObject(GameObject go) {
-        if (gameObjects.remove(go)) {
-            go.dispose();
+        if (go.scene != this) {
+            return;
+        }
+        if (iterating) {
+            destroy(go);
+        } else {
+            remove(go);
+        }
+    }
+
+    /** Queues {@code go} to be added to the scene and started at the next frame point. */
+    public void spawn(GameObject go) {
+        checkNotParallel();
+        checkSpawnable(go);
+        go.spawnQueued = true;
+        spawnQueue = enqueue(spawnQueue, spawnQueueSize++, go);
+    }
+
+    /**
+     * Queues {@code go} to be removed at the next frame point, where it is disposed or, if it came
+     * from a {@link GameObjectPool}, reset and returned to the pool. Destroying an object twice is
+     * harmless.
+     */
+    public void destroy(GameObject go) {
+        checkNotParallel();
+        if (go.scene != this && !(go.spawnQueued && isQueuedHere(go))) {
+            throw new IllegalArgumentException("GameObject '" + go.name + "' is not in this scene");
+        }
+        if (go.destroyQueued) {
+            return;
+        }
+        go.destroyQueued = true;
+        destroyQueue = enqueue(destroyQueue, destroyQueueSize++, go);
+    }
+
+    /**
+     * Switches between updating object by object, each object's components in the order they were
+     * added, and updating component batches by stage. Cannot be changed during an update.
+     */
+    protected void setBatchedUpdates(boolean batched) {
+        if (iterating) {
+            throw new IllegalStateException("Cannot change the update mode during an update");
+        }
+        if (batched == batchedUpdates) {
+            return;
+        }
+        batchedUpdates = batched;
+        for (int i = 0; i < gameObjectCount; i++) {
+            var go = gameObjects[i];
+            for (int c = 0; c < go.componentCount(); c++) {
+                syncBatch(go.componentAt(c));
+            }
+        }
+    }
+
+    public boolean isBatchedUpdates() {
+        return batchedUpdates;
+    }
+
+    /**
+     * Runs the components of exactly {@code type} in {@code stage} when updates are batched. Within
+     * a stage lower {@code order} runs first; types with the same order run in the order they first
+     * appeared in the scene.
+     *
+     * <pre>
+     * setBatchedUpdates(true);
+     * setUpdateStage(Animator2D.class, UpdateStage.PRE_UPDATE, 0);
+     * setUpdateStage(CameraFollow.class, UpdateStage.LATE_UPDATE, 0);
+     * </pre>
+     */
+    public void setUpdateStage(Class<? extends Component> type, UpdateStage stage, int order) {
+        var batch = batch(ComponentId.of(type).id());
+        batch.stage = stage;
+        batch.order = order;
+        batchOrderDirty = true;
+    }
+
+    /**
+     * Wakes {@link GameObject#setAutoSleep(boolean) auto-sleep} objects within {@code wakeDistance} of
+     * the camera and puts those farther than {@code sleepDistance} to sleep, checked at the start of
+     * every update. Waking uses the {@linkplain #getSpatialHash() spatial hash}, so sleeping objects
+     * are never visited one by one. {@code sleepDistance} must be at least {@code wakeDistance}; a gap
+     * between the two keeps objects near the edge from flipping every frame.
+     */
+    public void setCameraSleepDistance(float wakeDistance, float sleepDistance) {
+        if (!(wakeDistance >= 0f) || !(sleepDistance >= wakeDistance)) {
+            throw new IllegalArgumentException(
+                    "Sleep distance " + sleepDistance + " must not be below wake distance " + wakeDistance);
+        }
+        cameraSleep = true;
+        cameraWakeDistance = wakeDistance;
+        cameraSleepDistance = sleepDistance;
+    }
+
+    /** Turns off the distance-to-camera rule; objects stay in their current state. */
+    public void clearCameraSleepDistance() {
+        cameraSleep = false;
+    }
+
+    /** Wakes every sleeping object whose bounds are within {@code radius} of ({@code x}, {@code y}). */
+    public void wakeInRadius(float x, float y, float radius) {
+        var found = queryRadius(x, y, radius);
+        for (int i = 0; i < found; i++) {
+            queryBuffer[i].wake();
+            queryBuffer[i] = null;
+        }
+    }
+
+    /**
+     * Declares what the {@code update} of components of exactly {@code type} reads and writes, which
+     * lets batched updates run it on the job workers, split across its components and next to other
+     * declared types of the same stage it does not conflict with. Conflicting or undeclared types
+     * still run one after the other in stage order. {@code null} makes the type sequential again.
+     *
+     * <p>Such an update must only touch the declared data of its own object, read the transform's
+     * local fields rather than {@link Transform2D#getWorldMatrix()}, which may rebuild shared caches,
+     * and must not add, remove, enable, sleep or wake objects or components; the scene throws {@link
+     * IllegalStateException} for the latter. {@link #setAccessChecks(boolean)} catches writes that
+     * were not declared.
+     */
+    public void setUpdateAccess(Class<? extends Component> type, ComponentAccess access) {
+        batch(ComponentId.of(type).id()).access = access == null ? null : access.withWrite(type);
+    }
+
+    /**
+     * Debug aid: fingerprints components around every parallel group and logs writes the group's
+     * declared access does not allow. Slow; leave it off in release builds.
+     */
+    public void setAccessChecks(boolean enabled) {
+        accessChecker = enabled ? new AccessChecker() : null;
+    }
+
+    /** Number of objects in the scene, not counting queued spawns. */
+    public int getGameObjectCount() {
+        return gameObjectCount;
+    }
+
+    public GameObject getGameObject(int index) {
+        if (index >= gameObjectCount) {
+            throw new IndexOutOfBoundsException("GameObject " + index + " of " + gameObjectCount);
+        }
+        return gameObjects[index];
+    }
+
+    /**
+     * Replaces the contents of {@code result} with the objects that have a component of type {@code
+     * id}, read from an index the scene keeps up to date as components come and go. The order is
+     * unspecified. Returns {@code result}.
+     */
+    public List<GameObject> findGameObjects(ComponentId<?> id, List<GameObject> result) {
+        result.clear();
+        var index = typeIndex(id.id());
+        if (index != null) {
+            index.copyTo(result);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the contents of {@code result} with the objects that have components of both types.
+     * Only the smaller of the two type indexes is scanned. Returns {@code result}.
+     */
+    public List<GameObject> findGameObjects(ComponentId<?> a, ComponentId<?> b, List<GameObject> result) {
+        result.clear();
+        var indexA = typeIndex(a.id());
+        var indexB = typeIndex(b.id());
+        if (indexA == null || indexB == null) {
+            return result;
+        }
+        var smaller = indexA.size() <= indexB.size() ? indexA : indexB;
+        var other = smaller == indexA ? b : a;
+        for (int i = 0; i < smaller.size(); i++) {
+            var go = smaller.get(i);
+            if (go.hasComponent(other)) {
+                result.add(go);
+            }
+        }
+        return result;
+    }
+
+    /** Number of objects that have a component of type {@code id}. */
+    public int countGameObjects(ComponentId<?> id) {
+        var index = typeIndex(id.id());
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Positional index of the scene's objects, updated after the transform pass each frame. Use its
+     * {@code query*} and {@code nearest} methods for "what is near here" questions.
+     */
+    public SpatialHash2D getSpatialHash() {
+        return spatialHash;
+    }
+
+    /** Puts {@code component} in or takes it out of its batch to match its and its object's state. */
+    void syncBatch(Component component) {
+        checkNotParallel();
+        var wanted = batchedUpdates
+                && component.gameObject.updateIndex >= 0
+                && component.isEnabled()
+                && !component.isSleeping();
+        if (wanted && component.batchIndex < 0) {
+            batch(component.typeIds[0]).add(component);
+        } else if (!wanted && component.batchIndex >= 0) {
+            batchesByType[component.typeIds[0]].remove(component);
+        }
+    }
+
+    void objectStateChanged(GameObject go) {
+        checkNotParallel();
+        if (!iterating) {
+            syncState(go);
+        } else if (!go.stateQueued) {
+            go.stateQueued = true;
+            stateQueue = enqueue(stateQueue, stateQueueSize++, go);
+        }
+    }
+
+    void componentAdded(Component component) {
+        if (component instanceof Collider2D collider) {
+            collisions.add(collider);
+        } else if (component instanceof Rigidbody2D body) {
+            physics.add(body);
+        }
+    }
+
+    void componentRemoved(Component component) {
+        checkNotParallel();
+        if (component instanceof Collider2D collider) {
+            collisions.remove(collider);
+        } else if (component instanceof Rigidbody2D body) {
+            physics.remove(body);
+        }
+        if (component.batchIndex >= 0) {
+            batchesByType[component.typeIds[0]].remove(component);
+        }
+    }
+
+    /**
+     * Overlap tests between the {@link Collider2D}s of the scene's objects, updated after the
+     * transforms each frame. Listeners run as part of the update, so objects they spawn or destroy
+     * are applied right after. Also answers raycasts, shape casts and overlap queries against the
+     * colliders.
+     */
+    public CollisionSystem2D getCollisions() {
+        return collisions;
+    }
+
+    /**
+     * Moves the {@link Rigidbody2D}s of the scene's objects in fixed steps, after the object updates
+     * and before the transforms, so collisions and drawing see the new positions the same frame.
+     */
+    public PhysicsWorld2D getPhysics() {
+        return physics;
+    }
+
+    /**
+     * Tweens advanced right after the object updates, so the values they write are seen by physics,
+     * transforms and drawing the same frame, and objects their callbacks spawn or destroy are applied
+     * right after. Cleared when the scene is disposed.
+     */
+    public TweenManager getTweens() {
+        return tweens;
+    }
+
+    void indexAdd(GameObject go, int typeId) {
+        if (typeId >= typeIndexes.length) {
+            typeIndexes = Arrays.copyOf(typeIndexes, Math.max(typeId + 1, typeIndexes.length * 2));
         }
+        if (typeIndexes[typeId] == null) {
+            typeIndexes[typeId] = new TypeIndex(typeId);
+        }
+        typeIndexes[typeId].add(go);
+    }
+
+    void indexRemove(GameObject go, int typeId) {
+        typeIndexes[typeId].remove(go);
     }
 
     @Override
@@ -72,27 +435,417 @@ public abstract class GameScene2D implements Screen {
 
     @Override
     public void update(GameTime gameTime) {
-        for (GameObject gameObject : gameObjects) {
-            gameObject.update(gameTime);
+        applyCommands();
+        if (cameraSleep && camera != null) {
+            applyCameraSleep();
         }
+        iterating = true;
+        try {
+            if (batchedUpdates) {
+                updateBatches(gameTime);
+            } else {
+                for (int i = 0; i < updateCount; i++) {
+                    updateSet[i].update(gameTime);
+                }
+            }
+            tweens.update(gameTime.elapsedSeconds());
+        } finally {
+            iterating = false;
+        }
+        applyCommands();
+        physics.update(gameTime.elapsedSeconds());
+        transforms.update(gameObjects, gameObjectCount, this);
+        spatialHash.update();
+        iterating = true;
+        try {
+            collisions.update();
+        } finally {
+            iterating = false;
+        }
+        applyCommands();
+        world.update(gameTime);
     }
 
     @Override
     public void draw(GameTime gameTime) {
         graphicsDevice.clear(Color.BLACK);
         spriteBatch.begin(camera.getTransformMatrix());
-        for (GameObject gameObject : gameObjects) {
-            gameObject.draw(gameTime, spriteBatch);
+        iterating = true;
+        try {
+            for (int i = 0; i < drawCount; i++) {
+                drawSet[i].draw(gameTime, spriteBatch);
+            }
+        } finally {
+            iterating = false;
         }
+        world.draw(gameTime, spriteBatch);
         spriteBatch.end();
     }
 
     @Override
     public void dispose() {
-        for (int i = gameObjects.size() - 1; i >= 0; i--) {
-            gameObjects.get(i).dispose();
+        // Queued spawns never made it into the scene, so they are released here rather than below
+        for (int i = 0; i < spawnQueueSize; i++) {
+            var go = spawnQueue[i];
+            go.spawnQueued = false;
+            go.destroyQueued = false;
+            if (go.pool != null) {
+                go.pool.free(go);
+            } else {
+                go.dispose();
+            }
+        }
+        for (int i = 0; i < destroyQueueSize; i++) {
+            destroyQueue[i].destroyQueued = false;
         }
-        gameObjects.clear();
+        for (int i = 0; i < stateQueueSize; i++) {
+            stateQueue[i].stateQueued = false;
+        }
+        Arrays.fill(stateQueue, 0, stateQueueSize, null);
+        stateQueueSize = 0;
+        Arrays.fill(updateSet, 0, updateCount, null);
+        Arrays.fill(drawSet, 0, drawCount, null);
+        updateCount = 0;
+        drawCount = 0;
+        Arrays.fill(spawnQueue, 0, spawnQueueSize, null);
+        Arrays.fill(destroyQueue, 0, destroyQueueSize, null);
+        spawnQueueSize = 0;
+        destroyQueueSize = 0;
+        for (int i = gameObjectCount - 1; i >= 0; i--) {
+            var go = gameObjects[i];
+            spatialHash.remove(go);
+            go.dispose();
+            go.scene = null;
+            go.sceneIndex = -1;
+            go.updateIndex = -1;
+            go.drawIndex = -1;
+            gameObjects[i] = null;
+        }
+        gameObjectCount = 0;
+        tweens.clear();
+        physics.clear();
+        collisions.clear();
+        for (int i = 0; i < batchCount; i++) {
+            batchOrder[i].clear();
+        }
+        Arrays.fill(typeIndexes, null);
+        world.dispose();
         spriteBatch.dispose();
     }
+
+    /** Applies queued spawns, then queued destroys, including any queued while applying. */
+    private void applyCommands() {
+        for (int i = 0; i < spawnQueueSize; i++) {
+            var go = spawnQueue[i];
+            spawnQueue[i] = null;
+            go.spawnQueued = false;
+            add(go);
+        }
+        spawnQueueSize = 0;
+        for (int i = 0; i < stateQueueSize; i++) {
+            var go = stateQueue[i];
+            stateQueue[i] = null;
+            go.stateQueued = false;
+            if (go.scene == this) {
+                syncState(go);
+            }
+        }
+        stateQueueSize = 0;
+        for (int i = 0; i < destroyQueueSize; i++) {
+            var go = destroyQueue[i];
+            destroyQueue[i] = null;
+            go.destroyQueued = false;
+            if (go.scene == this) {
+                remove(go);
+            }
+        }
+        destroyQueueSize = 0;
+    }
+
+    private void add(GameObject go) {
+        if (gameObjectCount == gameObjects.length) {
+            gameObjects = Arrays.copyOf(gameObjects, gameObjectCount * 2);
+        }
+        go.sceneIndex = gameObjectCount;
+        gameObjects[gameObjectCount++] = go;
+        go.scene = this;
+        transforms.invalidate();
+        spatialHash.insert(go);
+        for (int c = 0; c < go.componentCount(); c++) {
+            componentAdded(go.componentAt(c));
+        }
+        syncState(go);
+        var mask = go.typeMask();
+        for (int word = 0; word < mask.length; word++) {
+            for (var bits = mask[word]; bits != 0; bits &= bits - 1) {
+                indexAdd(go, word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+            }
+        }
+        go.start();
+    }
+
+    private void remove(GameObject go) {
+        var index = go.sceneIndex;
+        var last = gameObjects[--gameObjectCount];
+        gameObjects[index] = last;
+        last.sceneIndex = index;
+        gameObjects[gameObjectCount] = null;
+        go.sceneIndex = -1;
+        removeFromSets(go);
+        spatialHash.remove(go);
+        transforms.invalidate();
+        for (int c = 0; c < go.componentCount(); c++) {
+            componentRemoved(go.componentAt(c));
+        }
+        if (go.pool != null) {
+            // Leave the type indexes but keep the components for the next spawn
+            var mask = go.typeMask();
+            for (int word = 0; word < mask.length; word++) {
+                for (var bits = mask[word]; bits != 0; bits &= bits - 1) {
+                    indexRemove(go, word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                }
+            }
+            go.scene = null;
+            go.pool.free(go);
+        } else {
+            go.dispose();
+            go.scene = null;
+        }
+    }
+
+    /** Moves {@code go} in or out of the update and draw sets, and its components' batches. */
+    private void syncState(GameObject go) {
+        var updates = go.isUpdating();
+        if (updates && go.updateIndex < 0) {
+            if (updateCount == updateSet.length) {
+                updateSet = Arrays.copyOf(updateSet, updateCount * 2);
+            }
+            go.updateIndex = updateCount;
+            updateSet[updateCount++] = go;
+        } else if (!updates && go.updateIndex >= 0) {
+            var last = updateSet[--updateCount];
+            updateSet[go.updateIndex] = last;
+            last.updateIndex = go.updateIndex;
+            updateSet[updateCount] = null;
+            go.updateIndex = -1;
+        }
+        var draws = go.isEnabled();
+        if (draws && go.drawIndex < 0) {
+            if (drawCount == drawSet.length) {
+                drawSet = Arrays.copyOf(drawSet, drawCount * 2);
+            }
+            go.drawIndex = drawCount;
+            drawSet[drawCount++] = go;
+        } else if (!draws && go.drawIndex >= 0) {
+            var last = drawSet[--drawCount];
+            drawSet[go.drawIndex] = last;
+            last.drawIndex = go.drawIndex;
+            drawSet[drawCount] = null;
+            go.drawIndex = -1;
+        }
+        for (int c = 0; c < go.componentCount(); c++) {
+            syncBatch(go.componentAt(c));
+        }
+    }
+
+    private void removeFromSets(GameObject go) {
+        if (go.updateIndex >= 0) {
+            var last = updateSet[--updateCount];
+            updateSet[go.updateIndex] = last;
+            last.updateIndex = go.updateIndex;
+            updateSet[updateCount] = null;
+            go.updateIndex = -1;
+        }
+        if (go.drawIndex >= 0) {
+            var last = drawSet[--drawCount];
+            drawSet[go.drawIndex] = last;
+            last.drawIndex = go.drawIndex;
+            drawSet[drawCount] = null;
+            go.drawIndex = -1;
+        }
+    }
+
+    private void applyCameraSleep() {
+        var x = camera.position.x;
+        var y = camera.position.y;
+        var found = queryRadius(x, y, cameraWakeDistance);
+        for (int i = 0; i < found; i++) {
+            var go = queryBuffer[i];
+            queryBuffer[i] = null;
+            if (go.isAutoSleep()) {
+                go.wake();
+            }
+        }
+        // Backwards, as a sleeping object is swapped with the last one, which was already checked
+        var sleepDistanceSquared = cameraSleepDistance * cameraSleepDistance;
+        for (int i = updateCount - 1; i >= 0; i--) {
+            var go = updateSet[i];
+            if (go.isAutoSleep() && spatialHash.distanceSquared(go, x, y) > sleepDistanceSquared) {
+                go.sleep();
+            }
+        }
+    }
+
+    // Grows the shared buffer until it holds every result
+    private int queryRadius(float x, float y, float radius) {
+        var found = spatialHash.queryRadius(x, y, radius, queryBuffer);
+        while (found == queryBuffer.length) {
+            queryBuffer = new GameObject[queryBuffer.length * 2];
+            found = spatialHash.queryRadius(x, y, radius, queryBuffer);
+        }
+        return found;
+    }
+
+    private void updateBatches(GameTime gameTime) {
+        for (int i = 0; i < updateCount; i++) {
+            updateSet[i].transform.resetInterpolation();
+        }
+        if (batchOrderDirty) {
+            sortBatches();
+        }
+        for (int i = 0; i < batchCount; i++) {
+            var batch = batchOrder[i];
+            if (batch.access == null || !JobSystem.isRunning()) {
+                runGroup(gameTime);
+                batch.update(gameTime);
+                continue;
+            }
+            if (groupSize > 0 && (batch.stage != group[0].stage || conflictsWithGroup(batch))) {
+                runGroup(gameTime);
+            }
+            if (groupSize == group.length) {
+                group = Arrays.copyOf(group, groupSize * 2);
+                groupCounts = Arrays.copyOf(groupCounts, groupSize * 2);
+                groupJobs = Arrays.copyOf(groupJobs, groupSize * 2);
+            }
+            group[groupSize++] = batch;
+        }
+        runGroup(gameTime);
+    }
+
+    private boolean conflictsWithGroup(ComponentBatch batch) {
+        for (int i = 0; i < groupSize; i++) {
+            if (batch.access.conflictsWith(group[i].access)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Updates the grouped batches at the same time: large ones on the workers, small ones here. */
+    private void runGroup(GameTime gameTime) {
+        if (groupSize == 0) {
+            return;
+        }
+        if (accessChecker != null) {
+            runGroupChecked(gameTime);
+            return;
+        }
+        var jobs = 0;
+        parallelUpdating = true;
+        try {
+            for (int i = 0; i < groupSize; i++) {
+                groupCounts[i] = group[i].prepare(gameTime);
+                if (groupCounts[i] >= PARALLEL_THRESHOLD) {
+                    groupJobs[jobs++] =
+                            JobSystem.parallelFor(groupCounts[i], PARALLEL_BATCH_SIZE, group[i].updateRange);
+                }
+            }
+            for (int i = 0; i < groupSize; i++) {
+                if (groupCounts[i] < PARALLEL_THRESHOLD) {
+                    group[i].updateRange(0, groupCounts[i]);
+                }
+            }
+        } finally {
+            // Failures surface at the game loop's job join point
+            for (int i = 0; i < jobs; i++) {
+                JobSystem.complete(groupJobs[i]);
+                groupJobs[i] = null;
+            }
+            parallelUpdating = false;
+        }
+        Arrays.fill(group, 0, groupSize, null);
+        groupSize = 0;
+    }
+
+    // One batch at a time, so the checker can tell which batch made a write
+    private void runGroupChecked(GameTime gameTime) {
+        for (int i = 0; i < groupSize; i++) {
+            var batch = group[i];
+            group[i] = null;
+            accessChecker.before(gameObjects, gameObjectCount, batch);
+            parallelUpdating = true;
+            try {
+                var count = batch.prepare(gameTime);
+                JobSystem.complete(JobSystem.parallelFor(count, PARALLEL_BATCH_SIZE, batch.updateRange));
+            } finally {
+                parallelUpdating = false;
+            }
+            accessChecker.after(gameObjects, gameObjectCount, batch);
+        }
+        groupSize = 0;
+    }
+
+    private ComponentBatch batch(int typeId) {
+        if (typeId >= batchesByType.length) {
+            batchesByType = Arrays.copyOf(batchesByType, Math.max(typeId + 1, batchesByType.length * 2));
+        }
+        var batch = batchesByType[typeId];
+        if (batch == null) {
+            batch = batchesByType[typeId] = new ComponentBatch(typeId, batchCount);
+            if (batchCount == batchOrder.length) {
+                batchOrder = Arrays.copyOf(batchOrder, batchCount * 2);
+            }
+            batchOrder[batchCount++] = batch;
+            batchOrderDirty = true;
+        }
+        return batch;
+    }
+
+    // Insertion sort: there are few batches and the order is usually already sorted
+    private void sortBatches() {
+        for (int i = 1; i < batchCount; i++) {
+            var batch = batchOrder[i];
+            var j = i - 1;
+            while (j >= 0 && batch.runsBefore(batchOrder[j])) {
+                batchOrder[j + 1] = batchOrder[j];
+                j--;
+            }
+            batchOrder[j + 1] = batch;
+        }
+        batchOrderDirty = false;
+    }
+
+    private void checkNotParallel() {
+        if (parallelUpdating) {
+            throw new IllegalStateException("Objects and components cannot change during a parallel component update");
+        }
+    }
+
+    private void checkSpawnable(GameObject go) {
+        if (go.scene != null || go.spawnQueued) {
+            throw new IllegalStateException("GameObject '" + go.name + "' is already in a scene");
+        }
+    }
+
+    private boolean isQueuedHere(GameObject go) {
+        for (int i = 0; i < spawnQueueSize; i++) {
+            if (spawnQueue[i] == go) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TypeIndex typeIndex(int typeId) {
+        return typeId < typeIndexes.length ? typeIndexes[typeId] : null;
+    }
+
+    private static GameObject[] enqueue(GameObject[] queue, int index, GameObject go) {
+        if (index == queue.length) {
+            queue = Arrays.copyOf(queue, index * 2);
+        }
+        queue[index] = go;
+        return queue;
+    }
 }
@@ -0,0 +1,396 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial hash over the {@link GameObject}s of a {@link GameScene2D}.
+ *
+ * <p>Each object occupies the rectangle from its world position to position + bounds size (a point
+ * when no bounds were set, see {@link #setBounds}). The grid cells it overlaps are hashed into a
+ * fixed table of buckets holding plain {@code int} entry ids. The scene keeps the grid current:
+ * objects are inserted and removed with the scene, and after every update only objects that
+ * crossed into different cells are moved between buckets.
+ *
+ * <p>Queries write into caller-supplied arrays and return the number of objects found, capped at
+ * the array length, so they never allocate:
+ *
+ * <pre>
+ * private final GameObject[] nearby = new GameObject[64];
+ *
+ * var count = spatialHash.queryRadius(x, y, 200f, nearby);
+ * for (int i = 0; i &lt; count; i++) {
+ *     aggro(nearby[i]);
+ * }
+ * </pre>
+ *
+ * <p>Cells that hash to the same bucket share it, so candidates are always checked against their
+ * exact rectangle, and every object is reported once per query.
+ */
+public final class SpatialHash2D {
+
+    private static final int DEFAULT_BUCKET_COUNT = 4096;
+    private static final int INITIAL_ENTRY_CAPACITY = 256;
+
+    private final int bucketMask;
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private float cellSize;
+    private float inverseCellSize;
+
+    // Entries by id; freed ids are reused
+    private GameObject[] objects = new GameObject[INITIAL_ENTRY_CAPACITY];
+    private float[] minX = new float[INITIAL_ENTRY_CAPACITY];
+    private float[] minY = new float[INITIAL_ENTRY_CAPACITY];
+    private float[] width = new float[INITIAL_ENTRY_CAPACITY];
+    private float[] height = new float[INITIAL_ENTRY_CAPACITY];
+    private int[] cellMinX = new int[INITIAL_ENTRY_CAPACITY];
+    private int[] cellMinY = new int[INITIAL_ENTRY_CAPACITY];
+    private int[] cellMaxX = new int[INITIAL_ENTRY_CAPACITY];
+    private int[] cellMaxY = new int[INITIAL_ENTRY_CAPACITY];
+    private int[] stamps = new int[INITIAL_ENTRY_CAPACITY];
+    private int[] freeIds = new int[INITIAL_ENTRY_CAPACITY];
+    private int freeCount;
+    private int idCount;
+    private int size;
+    private int stamp;
+
+    // Cell range ever occupied, bounding the queries and the nearest-neighbour ring search
+    private int occupiedMinX = Integer.MAX_VALUE;
+    private int occupiedMinY = Integer.MAX_VALUE;
+    private int occupiedMaxX = Integer.MIN_VALUE;
+    private int occupiedMaxY = Integer.MIN_VALUE;
+
+    public SpatialHash2D(float cellSize) {
+        this(cellSize, DEFAULT_BUCKET_COUNT);
+    }
+
+    /** {@code bucketCount} is rounded up to a power of two. */
+    public SpatialHash2D(float cellSize, int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("Bucket count must be positive: " + bucketCount);
+        }
+        var count = Integer.highestOneBit(bucketCount - 1) << 1;
+        count = Math.max(1, count);
+        bucketMask = count - 1;
+        buckets = new int[count][];
+        bucketSizes = new int[count];
+        setCellSizeValue(cellSize);
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /** Changes the cell size and re-buckets every object. Best set once, close to typical query sizes. */
+    public void setCellSize(float cellSize) {
+        setCellSizeValue(cellSize);
+        Arrays.fill(bucketSizes, 0);
+        resetOccupied();
+        for (int id = 0; id < idCount; id++) {
+            if (objects[id] != null) {
+                computeCells(id);
+                addToCells(id);
+            }
+        }
+    }
+
+    /** Number of objects in the grid. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gives {@code go} a rectangle of {@code width} × {@code height} extending right and up from its
+     * position, for objects larger than a cell. Takes effect at the next update.
+     */
+    public void setBounds(GameObject go, float width, float height) {
+        if (width < 0f || height < 0f) {
+            throw new IllegalArgumentException("Bounds must not be negative: " + width + "x" + height);
+        }
+        var id = go.spatialId;
+        if (id < 0) {
+            throw new IllegalArgumentException("GameObject '" + go.name + "' is not in this spatial hash");
+        }
+        this.width[id] = width;
+        this.height[id] = height;
+    }
+
+    /** Objects whose rectangle overlaps {@code [minX, maxX] × [minY, maxY]}. */
+    public int queryRect(float minX, float minY, float maxX, float maxY, GameObject[] result) {
+        if (size == 0 || result.length == 0) {
+            return 0;
+        }
+        var found = 0;
+        var queryStamp = ++stamp;
+        // Cells outside the occupied range are empty, and huge or infinite rectangles stay cheap
+        var x0 = Math.max(cell(minX), occupiedMinX);
+        var y0 = Math.max(cell(minY), occupiedMinY);
+        var x1 = Math.min(cell(maxX), occupiedMaxX);
+        var y1 = Math.min(cell(maxY), occupiedMaxY);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                var bucket = bucket(cx, cy);
+                var items = buckets[bucket];
+                for (int i = 0, n = bucketSizes[bucket]; i < n; i++) {
+                    var id = items[i];
+                    if (stamps[id] == queryStamp) {
+                        continue;
+                    }
+                    stamps[id] = queryStamp;
+                    if (this.minX[id] <= maxX
+                            && this.minX[id] + width[id] >= minX
+                            && this.minY[id] <= maxY
+                            && this.minY[id] + height[id] >= minY) {
+                        result[found++] = objects[id];
+                        if (found == result.length) {
+                            return found;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /** Objects whose rectangle is within {@code radius} of ({@code x}, {@code y}). */
+    public int queryRadius(float x, float y, float radius, GameObject[] result) {
+        if (size == 0 || result.length == 0) {
+            return 0;
+        }
+        var found = 0;
+        var queryStamp = ++stamp;
+        var radiusSquared = radius * radius;
+        var x0 = Math.max(cell(x - radius), occupiedMinX);
+        var y0 = Math.max(cell(y - radius), occupiedMinY);
+        var x1 = Math.min(cell(x + radius), occupiedMaxX);
+        var y1 = Math.min(cell(y + radius), occupiedMaxY);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                var bucket = bucket(cx, cy);
+                var items = buckets[bucket];
+                for (int i = 0, n = bucketSizes[bucket]; i < n; i++) {
+                    var id = items[i];
+                    if (stamps[id] == queryStamp) {
+                        continue;
+                    }
+                    stamps[id] = queryStamp;
+                    if (distanceSquared(id, x, y) <= radiusSquared) {
+                        result[found++] = objects[id];
+                        if (found == result.length) {
+                            return found;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The object closest to ({@code x}, {@code y}) within {@code maxRadius}, other than {@code
+     * exclude}, or {@code null}. Searches rings of cells outwards from the point and stops as soon
+     * as no farther ring can hold a closer object.
+     */
+    public GameObject nearest(float x, float y, float maxRadius, GameObject exclude) {
+        if (size == 0) {
+            return null;
+        }
+        var queryStamp = ++stamp;
+        var best = -1;
+        var bestDistanceSquared = maxRadius * maxRadius;
+        var centerX = cell(x);
+        var centerY = cell(y);
+        var maxRing = Math.max(
+                Math.max(centerX - occupiedMinX, occupiedMaxX - centerX),
+                Math.max(centerY - occupiedMinY, occupiedMaxY - centerY));
+        if (maxRadius < Float.POSITIVE_INFINITY) {
+            maxRing = Math.min(maxRing, (int) Math.ceil(maxRadius * inverseCellSize) + 1);
+        }
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // Every cell of this ring is at least (ring - 1) cells away from the point
+            var ringDistance = Math.max(0, ring - 1) * cellSize;
+            if (best >= 0 && ringDistance * ringDistance > bestDistanceSquared) {
+                break;
+            }
+            for (int cy = centerY - ring; cy <= centerY + ring; cy++) {
+                var edgeRow = cy == centerY - ring || cy == centerY + ring;
+                var step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (int cx = centerX - ring; cx <= centerX + ring; cx += step) {
+                    var bucket = bucket(cx, cy);
+                    var items = buckets[bucket];
+                    for (int i = 0, n = bucketSizes[bucket]; i < n; i++) {
+                        var id = items[i];
+                        if (stamps[id] == queryStamp) {
+                            continue;
+                        }
+                        stamps[id] = queryStamp;
+                        if (objects[id] == exclude) {
+                            continue;
+                        }
+                        var distanceSquared = distanceSquared(id, x, y);
+                        if (distanceSquared <= bestDistanceSquared) {
+                            best = id;
+                            bestDistanceSquared = distanceSquared;
+                        }
+                    }
+                }
+            }
+        }
+        return best >= 0 ? objects[best] : null;
+    }
+
+    /** Squared distance from ({@code x}, {@code y}) to the rectangle of {@code go}, which must be in the grid. */
+    float distanceSquared(GameObject go, float x, float y) {
+        return distanceSquared(go.spatialId, x, y);
+    }
+
+    void insert(GameObject go) {
+        if (go.spatialId >= 0) {
+            throw new IllegalStateException("GameObject '" + go.name + "' is already in a spatial hash");
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (idCount == objects.length) {
+                growEntries(idCount * 2);
+            }
+            id = idCount++;
+        }
+        go.spatialId = id;
+        objects[id] = go;
+        width[id] = 0f;
+        height[id] = 0f;
+        readPosition(id);
+        computeCells(id);
+        addToCells(id);
+        size++;
+    }
+
+    void remove(GameObject go) {
+        var id = go.spatialId;
+        if (id < 0) {
+            return;
+        }
+        removeFromCells(id);
+        objects[id] = null;
+        go.spatialId = -1;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+        size--;
+    }
+
+    /** Re-reads every object's world position and moves those that changed cells. */
+    void update() {
+        for (int id = 0; id < idCount; id++) {
+            if (objects[id] == null) {
+                continue;
+            }
+            readPosition(id);
+            var x0 = cell(minX[id]);
+            var y0 = cell(minY[id]);
+            var x1 = cell(minX[id] + width[id]);
+            var y1 = cell(minY[id] + height[id]);
+            if (x0 != cellMinX[id] || y0 != cellMinY[id] || x1 != cellMaxX[id] || y1 != cellMaxY[id]) {
+                removeFromCells(id);
+                computeCells(id);
+                addToCells(id);
+            }
+        }
+    }
+
+    private void readPosition(int id) {
+        var m = objects[id].transform.getWorldMatrix();
+        minX[id] = m.m20();
+        minY[id] = m.m21();
+    }
+
+    private void computeCells(int id) {
+        cellMinX[id] = cell(minX[id]);
+        cellMinY[id] = cell(minY[id]);
+        cellMaxX[id] = cell(minX[id] + width[id]);
+        cellMaxY[id] = cell(minY[id] + height[id]);
+    }
+
+    private void addToCells(int id) {
+        for (int cy = cellMinY[id]; cy <= cellMaxY[id]; cy++) {
+            for (int cx = cellMinX[id]; cx <= cellMaxX[id]; cx++) {
+                var bucket = bucket(cx, cy);
+                var items = buckets[bucket];
+                var n = bucketSizes[bucket];
+                if (items == null) {
+                    items = buckets[bucket] = new int[4];
+                } else if (n == items.length) {
+                    items = buckets[bucket] = Arrays.copyOf(items, n * 2);
+                }
+                items[n] = id;
+                bucketSizes[bucket] = n + 1;
+            }
+        }
+        occupiedMinX = Math.min(occupiedMinX, cellMinX[id]);
+        occupiedMinY = Math.min(occupiedMinY, cellMinY[id]);
+        occupiedMaxX = Math.max(occupiedMaxX, cellMaxX[id]);
+        occupiedMaxY = Math.max(occupiedMaxY, cellMaxY[id]);
+    }
+
+    private void removeFromCells(int id) {
+        for (int cy = cellMinY[id]; cy <= cellMaxY[id]; cy++) {
+            for (int cx = cellMinX[id]; cx <= cellMaxX[id]; cx++) {
+                var bucket = bucket(cx, cy);
+                var items = buckets[bucket];
+                var n = bucketSizes[bucket];
+                for (int i = 0; i < n; i++) {
+                    if (items[i] == id) {
+                        items[i] = items[n - 1];
+                        bucketSizes[bucket] = n - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private float distanceSquared(int id, float x, float y) {
+        var dx = Math.max(0f, Math.max(minX[id] - x, x - (minX[id] + width[id])));
+        var dy = Math.max(0f, Math.max(minY[id] - y, y - (minY[id] + height[id])));
+        return dx * dx + dy * dy;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private int bucket(int cx, int cy) {
+        return ((cx * 73_856_093) ^ (cy * 19_349_663)) & bucketMask;
+    }
+
+    private void setCellSizeValue(float cellSize) {
+        if (!(cellSize > 0f)) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+    }
+
+    private void resetOccupied() {
+        occupiedMinX = Integer.MAX_VALUE;
+        occupiedMinY = Integer.MAX_VALUE;
+        occupiedMaxX = Integer.MIN_VALUE;
+        occupiedMaxY = Integer.MIN_VALUE;
+    }
+
+    private void growEntries(int capacity) {
+        objects = Arrays.copyOf(objects, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        cellMinX = Arrays.copyOf(cellMinX, capacity);
+        cellMinY = Arrays.copyOf(cellMinY, capacity);
+        cellMaxX = Arrays.copyOf(cellMaxX, capacity);
+        cellMaxY = Arrays.copyOf(cellMaxY, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+}
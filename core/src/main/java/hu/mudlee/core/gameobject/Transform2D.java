@@ -1,5 +1,8 @@
 package hu.mudlee.core.gameobject;
 
+import java.util.Arrays;
+import org.joml.Matrix3x2f;
+import org.joml.Matrix3x2fc;
 import org.joml.Vector2f;
 
 /**
@@ -8,12 +11,221 @@ import org.joml.Vector2f;
  * <p>Every {@link GameObject} always has exactly one {@code Transform2D}; it is created
  * automatically in the {@code GameObject} constructor and cannot be removed.
  *
- * <p>{@code Transform2D} is pure data — it overrides no lifecycle methods. Other components
- * read and write its fields directly via {@code gameObject.transform}.
+ * <p>{@code Transform2D} is plain data. Other components read and write its fields directly via
+ * {@code gameObject.transform}.
+ *
+ * <p>The state at the start of the latest update is kept as well, so that with a fixed time step
+ * renderers can draw between the last two simulation steps using {@link
+ * hu.mudlee.core.GameTime#interpolationAlpha()}. Call {@link #resetInterpolation()} after a
+ * teleport to avoid drawing a smear between the old and the new position.
+ *
+ * <p>Transforms can be parented with {@link #setParent(Transform2D)}; {@link #position}, {@link
+ * #rotation} and {@link #scale} are then relative to the parent. The local-to-world matrix is
+ * cached and only recomputed when it is out of date. Because the fields are written directly, a
+ * change is detected by comparing them with the values the cached matrix was built from; the
+ * transform and its whole subtree are then flagged dirty. {@link GameScene2D} brings every world
+ * matrix up to date after each update in a single pass over its transforms in breadth-first order,
+ * so parents are always computed before their children. In between, {@link #getWorldMatrix()}
+ * refreshes just the transform and its ancestors.
  */
 public final class Transform2D extends Component {
 
+    private static final Transform2D[] NO_CHILDREN = new Transform2D[0];
+
+    // Bumped on every parent change so scenes know to rebuild their update order
+    static int structureVersion;
+
     public final Vector2f position = new Vector2f();
     public float rotation;
     public final Vector2f scale = new Vector2f(1f, 1f);
+
+    private final Vector2f previousPosition = new Vector2f();
+    private float previousRotation;
+    private final Vector2f previousScale = new Vector2f(1f, 1f);
+
+    private Transform2D parent;
+    private Transform2D[] children = NO_CHILDREN;
+    private int childCount;
+
+    // Local values the cached world matrix was built from. A dirty transform implies a dirty subtree.
+    private final Matrix3x2f worldMatrix = new Matrix3x2f();
+    private final Vector2f builtPosition = new Vector2f();
+    private float builtRotation;
+    private final Vector2f builtScale = new Vector2f(1f, 1f);
+    private boolean dirty = true;
+
+    /** Writes the position blended from the previous to the current update into {@code dest}. */
+    public Vector2f getInterpolatedPosition(float alpha, Vector2f dest) {
+        return previousPosition.lerp(position, alpha, dest);
+    }
+
+    public float getInterpolatedRotation(float alpha) {
+        return previousRotation + (rotation - previousRotation) * alpha;
+    }
+
+    public Vector2f getInterpolatedScale(float alpha, Vector2f dest) {
+        return previousScale.lerp(scale, alpha, dest);
+    }
+
+    /** Makes the current state the previous one too, so nothing is blended until the next update. */
+    public void resetInterpolation() {
+        previousPosition.set(position);
+        previousRotation = rotation;
+        previousScale.set(scale);
+    }
+
+    /**
+     * Attaches this transform to {@code parent}, or detaches it with {@code null}. The local fields
+     * are kept as they are, so the world placement changes to follow the new parent.
+     */
+    public void setParent(Transform2D parent) {
+        if (parent == this.parent) {
+            return;
+        }
+        for (var p = parent; p != null; p = p.parent) {
+            if (p == this) {
+                throw new IllegalArgumentException("A transform cannot be parented to its own descendant");
+            }
+        }
+        if (this.parent != null) {
+            this.parent.removeChild(this);
+        }
+        this.parent = parent;
+        if (parent != null) {
+            parent.addChild(this);
+        }
+        structureVersion++;
+        markDirty();
+    }
+
+    public Transform2D getParent() {
+        return parent;
+    }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public Transform2D getChild(int index) {
+        if (index >= childCount) {
+            throw new IndexOutOfBoundsException("Child " + index + " of " + childCount);
+        }
+        return children[index];
+    }
+
+    /**
+     * The local-to-world matrix, recomputed first if this transform or one of its ancestors changed
+     * since it was last built.
+     */
+    public Matrix3x2fc getWorldMatrix() {
+        if (parent != null) {
+            parent.getWorldMatrix();
+        }
+        detectChange();
+        if (dirty) {
+            rebuild();
+        }
+        return worldMatrix;
+    }
+
+    /** Writes the world-space position of this transform's origin into {@code dest}. */
+    public Vector2f getWorldPosition(Vector2f dest) {
+        var m = getWorldMatrix();
+        return dest.set(m.m20(), m.m21());
+    }
+
+    /**
+     * Writes the local-to-world matrix blended between the previous and the current update into
+     * {@code dest}, composing the interpolated state of every ancestor.
+     */
+    public Matrix3x2f getInterpolatedWorldMatrix(float alpha, Matrix3x2f dest) {
+        if (parent != null) {
+            parent.getInterpolatedWorldMatrix(alpha, dest);
+        } else {
+            dest.identity();
+        }
+        var x = previousPosition.x + (position.x - previousPosition.x) * alpha;
+        var y = previousPosition.y + (position.y - previousPosition.y) * alpha;
+        var sx = previousScale.x + (scale.x - previousScale.x) * alpha;
+        var sy = previousScale.y + (scale.y - previousScale.y) * alpha;
+        return dest.translate(x, y).rotate(getInterpolatedRotation(alpha)).scale(sx, sy);
+    }
+
+    @Override
+    public void start() {
+        resetInterpolation();
+    }
+
+    @Override
+    public void dispose() {
+        setParent(null);
+        while (childCount > 0) {
+            children[childCount - 1].setParent(null);
+        }
+    }
+
+    /** Detaches the transform like {@link #dispose()} and returns it to the origin with unit scale. */
+    @Override
+    public void reset() {
+        dispose();
+        position.zero();
+        rotation = 0f;
+        scale.set(1f, 1f);
+        resetInterpolation();
+    }
+
+    /** Flags the subtree dirty if the local fields differ from the ones the matrix was built from. */
+    void detectChange() {
+        if (!dirty && (!position.equals(builtPosition) || rotation != builtRotation || !scale.equals(builtScale))) {
+            markDirty();
+        }
+    }
+
+    /** Recomputes the world matrix if dirty. The parent must already be up to date. */
+    void updateWorldMatrix() {
+        detectChange();
+        if (dirty) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        builtPosition.set(position);
+        builtRotation = rotation;
+        builtScale.set(scale);
+        if (parent != null) {
+            worldMatrix.set(parent.worldMatrix);
+        } else {
+            worldMatrix.identity();
+        }
+        worldMatrix.translate(position.x, position.y).rotate(rotation).scale(scale.x, scale.y);
+        dirty = false;
+    }
+
+    private void markDirty() {
+        if (dirty) {
+            return; // the subtree is already dirty
+        }
+        dirty = true;
+        for (int i = 0; i < childCount; i++) {
+            children[i].markDirty();
+        }
+    }
+
+    private void addChild(Transform2D child) {
+        if (childCount == children.length) {
+            children = Arrays.copyOf(children, Math.max(4, childCount * 2));
+        }
+        children[childCount++] = child;
+    }
+
+    private void removeChild(Transform2D child) {
+        for (int i = 0; i < childCount; i++) {
+            if (children[i] == child) {
+                System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+                children[--childCount] = null;
+                return;
+            }
+        }
+    }
 }
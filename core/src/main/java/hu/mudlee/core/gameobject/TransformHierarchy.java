@@ -0,0 +1,62 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.Arrays;
+
+/**
+ * The transforms of a {@link GameScene2D} flattened in breadth-first order, so that updating every
+ * world matrix is one linear pass in which each parent comes before its children. The order is
+ * rebuilt only after objects are added or removed or a parent changes.
+ */
+final class TransformHierarchy {
+
+    private Transform2D[] order = new Transform2D[64];
+    private int size;
+    private int rootCount;
+    private int builtVersion = -1;
+    private boolean stale = true;
+
+    void invalidate() {
+        stale = true;
+    }
+
+    void update(GameObject[] gameObjects, int count, GameScene2D scene) {
+        if (stale || builtVersion != Transform2D.structureVersion) {
+            rebuild(gameObjects, count, scene);
+        }
+        // Roots may have a parent outside the scene, which has to be refreshed first
+        for (int i = 0; i < rootCount; i++) {
+            order[i].getWorldMatrix();
+        }
+        for (int i = rootCount; i < size; i++) {
+            order[i].updateWorldMatrix();
+        }
+    }
+
+    private void rebuild(GameObject[] gameObjects, int count, GameScene2D scene) {
+        if (order.length < count) {
+            order = new Transform2D[Math.max(count, order.length * 2)];
+        }
+        size = 0;
+        // Roots: transforms without a parent in this scene. Parents elsewhere are refreshed in update().
+        for (int i = 0; i < count; i++) {
+            var transform = gameObjects[i].transform;
+            var parent = transform.getParent();
+            if (parent == null || parent.gameObject.scene != scene) {
+                order[size++] = transform;
+            }
+        }
+        rootCount = size;
+        for (int i = 0; i < size; i++) {
+            var transform = order[i];
+            for (int c = 0; c < transform.getChildCount(); c++) {
+                var child = transform.getChild(c);
+                if (child.gameObject.scene == scene) {
+                    order[size++] = child;
+                }
+            }
+        }
+        Arrays.fill(order, size, order.length, null);
+        builtVersion = Transform2D.structureVersion;
+        stale = false;
+    }
+}
@@ -0,0 +1,49 @@
+package hu.mudlee.core.gameobject;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The game objects of a {@link GameScene2D} that have a component of one type. Each object stores
+ * its position in the index, so removal is a constant-time swap with the last entry.
+ */
+final class TypeIndex {
+
+    private final int typeId;
+    private GameObject[] objects = new GameObject[16];
+    private int size;
+
+    TypeIndex(int typeId) {
+        this.typeId = typeId;
+    }
+
+    int size() {
+        return size;
+    }
+
+    GameObject get(int index) {
+        return objects[index];
+    }
+
+    void add(GameObject go) {
+        if (size == objects.length) {
+            objects = Arrays.copyOf(objects, size * 2);
+        }
+        go.setIndexPosition(typeId, size);
+        objects[size++] = go;
+    }
+
+    void remove(GameObject go) {
+        var position = go.getIndexPosition(typeId);
+        var last = objects[--size];
+        objects[position] = last;
+        last.setIndexPosition(typeId, position);
+        objects[size] = null;
+    }
+
+    void copyTo(List<GameObject> result) {
+        for (int i = 0; i < size; i++) {
+            result.add(objects[i]);
+        }
+    }
+}
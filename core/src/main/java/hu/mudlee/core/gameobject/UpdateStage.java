@@ -0,0 +1,15 @@
+package hu.mudlee.core.gameobject;
+
+/**
+ * Stages of a batched {@link GameScene2D} update, run in declaration order. Every component type is
+ * assigned to one stage with {@link GameScene2D#setUpdateStage(Class, UpdateStage, int)}; types
+ * that are not assigned run in {@link #UPDATE}.
+ */
+public enum UpdateStage {
+    /** Work the rest of the frame reads, such as advancing animations or sampling input. */
+    PRE_UPDATE,
+    /** Gameplay logic. */
+    UPDATE,
+    /** Work that follows gameplay, such as cameras tracking their targets. */
+    LATE_UPDATE
+}
@@ -0,0 +1,252 @@
+package hu.mudlee.core.gameobject.components;
+
+import hu.mudlee.core.Color;
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.gameobject.Component;
+import hu.mudlee.core.jobs.JobSystem;
+import hu.mudlee.core.jobs.RangeJob;
+import hu.mudlee.core.render.SpriteBatch2D;
+import hu.mudlee.core.render.texture.TextureRegion;
+import org.joml.Vector2f;
+
+/**
+ * Emits, simulates and draws simple 2D particles from the owning
+ * {@link hu.mudlee.core.gameobject.GameObject}'s position.
+ *
+ * <p>Particle state is stored as parallel {@code float[]} columns sized to the capacity given at
+ * construction; there is no object per particle. Dead particles are removed by moving the last live
+ * particle into their slot, so live particles always occupy {@code [0, count)}. Colour and size are
+ * interpolated over each particle's lifetime during {@link #update(GameTime)}, and {@link
+ * #draw(GameTime, SpriteBatch2D)} only reads the columns. Neither method allocates.
+ *
+ * <p>Large systems are simulated with a {@link JobSystem#parallelFor(int, int, RangeJob)} over the
+ * live particles; expired ones are compacted afterwards on the calling thread.
+ *
+ * <pre>
+ * var sparks = new ParticleSystem2D(2000);
+ * sparks.region = sheet.getRegion(0, 0);
+ * sparks.emissionRate = 400f;
+ * sparks.gravity.set(0f, -200f);
+ * sparks.startColor = Color.WHITE;
+ * sparks.endColor = Color.TRANSPARENT;
+ * emitter.addComponent(sparks);
+ * </pre>
+ */
+public final class ParticleSystem2D extends Component {
+
+    private static final float TWO_PI = (float) (Math.PI * 2);
+    private static final int PARALLEL_THRESHOLD = 8192;
+    private static final int PARALLEL_BATCH_SIZE = 2048;
+
+    /** Region drawn for every particle. Nothing is drawn while {@code null}. */
+    public TextureRegion region;
+
+    /** Particles spawned per second while {@link #emitting}. */
+    public float emissionRate = 50f;
+
+    public boolean emitting = true;
+    public float minLifetime = 1f;
+    public float maxLifetime = 2f;
+    public float minSpeed = 50f;
+    public float maxSpeed = 100f;
+
+    /** Centre of the emission cone in radians, 0 pointing along +x. */
+    public float direction = (float) (Math.PI / 2);
+
+    /** Full opening angle of the emission cone in radians. {@code 2π} emits in every direction. */
+    public float spread = TWO_PI;
+
+    /** Offset of the spawn point from the owner's position. */
+    public final Vector2f offset = new Vector2f();
+
+    /** Constant acceleration applied to every particle, in world units per second squared. */
+    public final Vector2f gravity = new Vector2f();
+
+    public float startSize = 8f;
+    public float endSize = 0f;
+    public Color startColor = Color.WHITE;
+    public Color endColor = Color.WHITE;
+
+    private final int capacity;
+    private final float[] posX;
+    private final float[] posY;
+    private final float[] velX;
+    private final float[] velY;
+    private final float[] age;
+    private final float[] lifetime;
+    private final float[] size;
+    private final float[] colorR;
+    private final float[] colorG;
+    private final float[] colorB;
+    private final float[] colorA;
+    private final RangeJob simulate = this::simulate;
+    private float stepSeconds;
+    private int count;
+    private float emitDebt;
+    private int seed = 0x9E3779B9;
+
+    public ParticleSystem2D(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Particle capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        posX = new float[capacity];
+        posY = new float[capacity];
+        velX = new float[capacity];
+        velY = new float[capacity];
+        age = new float[capacity];
+        lifetime = new float[capacity];
+        size = new float[capacity];
+        colorR = new float[capacity];
+        colorG = new float[capacity];
+        colorB = new float[capacity];
+        colorA = new float[capacity];
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Number of live particles. */
+    public int getCount() {
+        return count;
+    }
+
+    /** Spawns up to {@code amount} particles immediately, regardless of {@link #emitting}. */
+    public void burst(int amount) {
+        var t = getGameObject().transform;
+        var x = t.position.x + offset.x;
+        var y = t.position.y + offset.y;
+        var spawn = Math.min(amount, capacity - count);
+        for (int i = 0; i < spawn; i++) {
+            spawn(x, y);
+        }
+    }
+
+    /** Removes every live particle. */
+    public void clear() {
+        count = 0;
+        emitDebt = 0f;
+    }
+
+    @Override
+    public void update(GameTime gameTime) {
+        var dt = gameTime.elapsedSeconds();
+
+        if (emitting && emissionRate > 0f) {
+            emitDebt += emissionRate * dt;
+            var due = (int) emitDebt;
+            emitDebt -= due;
+            burst(due);
+        }
+
+        stepSeconds = dt;
+        if (count >= PARALLEL_THRESHOLD && JobSystem.isRunning()) {
+            JobSystem.complete(JobSystem.parallelFor(count, PARALLEL_BATCH_SIZE, simulate));
+        } else {
+            simulate(0, count);
+        }
+
+        var i = 0;
+        while (i < count) {
+            if (age[i] >= lifetime[i]) {
+                removeAt(i);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    @Override
+    public void draw(GameTime gameTime, SpriteBatch2D batch) {
+        if (region == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            var s = size[i];
+            var half = s * 0.5f;
+            batch.draw(region, posX[i] - half, posY[i] - half, s, s, colorR[i], colorG[i], colorB[i], colorA[i]);
+        }
+    }
+
+    /** Ages and moves the particles in {@code [start, end)}; expired ones are only aged. */
+    private void simulate(int start, int end) {
+        var dt = stepSeconds;
+        var gx = gravity.x * dt;
+        var gy = gravity.y * dt;
+        var sr = startColor.r;
+        var sg = startColor.g;
+        var sb = startColor.b;
+        var sa = startColor.a;
+        var dr = endColor.r - sr;
+        var dg = endColor.g - sg;
+        var db = endColor.b - sb;
+        var da = endColor.a - sa;
+        var ds = endSize - startSize;
+
+        for (int i = start; i < end; i++) {
+            var a = age[i] + dt;
+            age[i] = a;
+            if (a >= lifetime[i]) {
+                continue;
+            }
+            velX[i] += gx;
+            velY[i] += gy;
+            posX[i] += velX[i] * dt;
+            posY[i] += velY[i] * dt;
+
+            var k = a / lifetime[i];
+            size[i] = startSize + ds * k;
+            colorR[i] = sr + dr * k;
+            colorG[i] = sg + dg * k;
+            colorB[i] = sb + db * k;
+            colorA[i] = sa + da * k;
+        }
+    }
+
+    private void spawn(float x, float y) {
+        var i = count++;
+        var angle = direction + (nextFloat() - 0.5f) * spread;
+        var speed = minSpeed + (maxSpeed - minSpeed) * nextFloat();
+        posX[i] = x;
+        posY[i] = y;
+        velX[i] = (float) Math.cos(angle) * speed;
+        velY[i] = (float) Math.sin(angle) * speed;
+        age[i] = 0f;
+        lifetime[i] = Math.max(1e-4f, minLifetime + (maxLifetime - minLifetime) * nextFloat());
+        size[i] = startSize;
+        colorR[i] = startColor.r;
+        colorG[i] = startColor.g;
+        colorB[i] = startColor.b;
+        colorA[i] = startColor.a;
+    }
+
+    /** Swap-remove: the last live particle takes the place of {@code i}. */
+    private void removeAt(int i) {
+        var last = --count;
+        if (i == last) {
+            return;
+        }
+        posX[i] = posX[last];
+        posY[i] = posY[last];
+        velX[i] = velX[last];
+        velY[i] = velY[last];
+        age[i] = age[last];
+        lifetime[i] = lifetime[last];
+        size[i] = size[last];
+        colorR[i] = colorR[last];
+        colorG[i] = colorG[last];
+        colorB[i] = colorB[last];
+        colorA[i] = colorA[last];
+    }
+
+    /** Xorshift32 in [0, 1): cheaper than {@link java.util.Random} and free of atomic updates. */
+    private float nextFloat() {
+        var x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        return (x >>> 8) * 0x1.0p-24f;
+    }
+}
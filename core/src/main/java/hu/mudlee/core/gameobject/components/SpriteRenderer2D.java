@@ -3,9 +3,11 @@ package hu.mudlee.core.gameobject.components;
 import hu.mudlee.core.Color;
 import hu.mudlee.core.GameTime;
 import hu.mudlee.core.gameobject.Component;
+import hu.mudlee.core.gameobject.ComponentId;
 import hu.mudlee.core.render.SpriteBatch2D;
 import hu.mudlee.core.render.texture.TextureRegion;
-import org.joml.Vector2f;
+import org.joml.Matrix3x2f;
+import org.joml.Vector4f;
 
 /**
  * Renders a single sprite or animation frame via {@link SpriteBatch2D}.
@@ -14,6 +16,11 @@ import org.joml.Vector2f;
  * the current animation frame is used automatically. Otherwise the statically assigned
  * {@link #region} is rendered.
  *
+ * <p>The sprite is drawn through the transform's world matrix, so it follows parent transforms and
+ * non-uniform scale; with a fixed time step the interpolated world matrix is used. The {@link
+ * #color} is multiplied by {@link #tint}, which can be changed every frame, e.g. by a tween, without
+ * creating {@link Color} instances.
+ *
  * <pre>
  * var sr = new SpriteRenderer2D();
  * sr.scale = 8f;
@@ -22,10 +29,16 @@ import org.joml.Vector2f;
  */
 public final class SpriteRenderer2D extends Component {
 
-    private static final Vector2f ORIGIN = new Vector2f();
+    private static final ComponentId<Animator2D> ANIMATOR = ComponentId.of(Animator2D.class);
 
+    private final Matrix3x2f drawMatrix = new Matrix3x2f();
     private TextureRegion region;
+    private Animator2D animator;
+    private int animatorVersion = -1;
     public Color color = Color.WHITE;
+    /** RGBA multiplier of {@link #color}. */
+    public final Vector4f tint = new Vector4f(1f, 1f, 1f, 1f);
+
     public float scale = 1f;
     public boolean flipX;
     public boolean flipY;
@@ -42,12 +55,30 @@ public final class SpriteRenderer2D extends Component {
 
     @Override
     public void draw(GameTime gameTime, SpriteBatch2D batch) {
-        var animator = getComponent(Animator2D.class);
+        var go = getGameObject();
+        if (animatorVersion != go.getComponentVersion()) {
+            animator = go.getComponent(ANIMATOR);
+            animatorVersion = go.getComponentVersion();
+        }
         var frame = (animator != null) ? animator.getCurrentFrame() : region;
         if (frame == null) {
             return;
         }
-        var t = getGameObject().transform;
-        batch.draw(frame, t.position, color, t.rotation, ORIGIN, scale * t.scale.x, flipX, flipY);
+        var t = go.transform;
+        var alpha = gameTime.interpolationAlpha();
+        if (alpha == 1f) {
+            drawMatrix.set(t.getWorldMatrix());
+        } else {
+            t.getInterpolatedWorldMatrix(alpha, drawMatrix);
+        }
+        batch.draw(
+                frame,
+                drawMatrix.scale(scale),
+                color.r * tint.x,
+                color.g * tint.y,
+                color.b * tint.z,
+                color.a * tint.w,
+                flipX,
+                flipY);
     }
 }
@@ -37,9 +37,12 @@ public final class InputAction {
     private final String name;
     private final ActionType type;
     private final List<InputBinding> bindings = new ArrayList<>();
+    private final List<InputBinding> bindingsView = Collections.unmodifiableList(bindings);
     private final List<Consumer<InputActionContext>> startedCallbacks = new ArrayList<>();
     private final List<Consumer<InputActionContext>> performedCallbacks = new ArrayList<>();
     private final List<Consumer<InputActionContext>> canceledCallbacks = new ArrayList<>();
+    private final InputActionContext context = new InputActionContext(this);
+    private final Vector2f vector2 = new Vector2f();
 
     private ActionPhase phase = ActionPhase.DISABLED;
     private boolean enabled;
@@ -144,23 +147,37 @@ public final class InputAction {
     /**
      * Reads the current 2D vector value of this action. Only meaningful for
      * {@link ActionType#VECTOR2} actions with a {@link InputBinding.Vector2CompositeBinding}.
+     *
+     * <p>The returned vector belongs to this action and is overwritten by the next read; copy it to
+     * keep the value, or use {@link #readVector2(Vector2f)}.
      */
     public Vector2f readVector2() {
-        return InputSystem.readVector2(this);
+        return InputSystem.readVector2(this, vector2);
+    }
+
+    /** Writes the current 2D vector value of this action into {@code dest} and returns it. */
+    public Vector2f readVector2(Vector2f dest) {
+        return InputSystem.readVector2(this, dest);
     }
 
     List<InputBinding> bindings() {
-        return Collections.unmodifiableList(bindings);
+        return bindingsView;
     }
 
     void transitionTo(ActionPhase newPhase) {
         this.phase = newPhase;
-        var ctx = new InputActionContext(this, newPhase);
+        context.setPhase(newPhase);
         switch (newPhase) {
-            case STARTED -> startedCallbacks.forEach(cb -> cb.accept(ctx));
-            case PERFORMED -> performedCallbacks.forEach(cb -> cb.accept(ctx));
-            case CANCELED -> canceledCallbacks.forEach(cb -> cb.accept(ctx));
+            case STARTED -> notify(startedCallbacks);
+            case PERFORMED -> notify(performedCallbacks);
+            case CANCELED -> notify(canceledCallbacks);
             default -> {}
         }
     }
+
+    private void notify(List<Consumer<InputActionContext>> callbacks) {
+        for (int i = 0; i < callbacks.size(); i++) {
+            callbacks.get(i).accept(context);
+        }
+    }
 }
@@ -5,6 +5,9 @@ import org.joml.Vector2f;
 /**
  * Context object passed to {@link InputAction} phase callbacks (started, performed, canceled).
  *
+ * <p>Each action reuses a single context for all of its callbacks, so a context is only valid
+ * during the callback it was passed to; read the values you need instead of keeping it.
+ *
  * <p>Usage:
  *
  * <pre>
@@ -21,10 +24,13 @@ import org.joml.Vector2f;
 public final class InputActionContext {
 
     private final InputAction action;
-    private final ActionPhase phase;
+    private ActionPhase phase;
 
-    InputActionContext(InputAction action, ActionPhase phase) {
+    InputActionContext(InputAction action) {
         this.action = action;
+    }
+
+    void setPhase(ActionPhase phase) {
         this.phase = phase;
     }
 
@@ -16,6 +16,9 @@ public final class InputSystem {
 
     private static final boolean[] KEY_STATE = new boolean[Keys.values().length];
     private static final boolean[] MOUSE_STATE = new boolean[MouseButton.values().length];
+    // KeyboardState only wraps KEY_STATE, so one instance serves every getState() call
+    private static final KeyboardState KEYBOARD_STATE = new KeyboardState(KEY_STATE);
+    private static final Vector2f VECTOR2_SCRATCH = new Vector2f();
 
     private static float mouseX;
     private static float mouseY;
@@ -27,7 +30,7 @@ public final class InputSystem {
     private InputSystem() {}
 
     static KeyboardState getKeyboardState() {
-        return new KeyboardState(KEY_STATE);
+        return KEYBOARD_STATE;
     }
 
     static MouseState getMouseState() {
@@ -48,8 +51,8 @@ public final class InputSystem {
         return 0f;
     }
 
-    static Vector2f readVector2(InputAction action) {
-        return computeVector2(action);
+    static Vector2f readVector2(InputAction action, Vector2f dest) {
+        return computeVector2(action, dest);
     }
 
     static void register(InputAction action) {
@@ -110,9 +113,7 @@ public final class InputSystem {
                 if (phase != ActionPhase.STARTED && phase != ActionPhase.PERFORMED) {
                     continue;
                 }
-                var boundToThisKey = action.bindings().stream()
-                        .anyMatch(b -> b instanceof InputBinding.KeyBinding kb && kb.key() == key);
-                if (boundToThisKey && !isAnyBindingActive(action)) {
+                if (isBoundTo(action, key) && !isAnyBindingActive(action)) {
                     action.transitionTo(ActionPhase.CANCELED);
                     action.transitionTo(ActionPhase.WAITING);
                 }
@@ -151,9 +152,7 @@ public final class InputSystem {
                 if (phase != ActionPhase.STARTED && phase != ActionPhase.PERFORMED) {
                     continue;
                 }
-                var boundToThisButton = action.bindings().stream()
-                        .anyMatch(b -> b instanceof InputBinding.MouseButtonBinding mb && mb.button() == button);
-                if (boundToThisButton && !isAnyBindingActive(action)) {
+                if (isBoundTo(action, button) && !isAnyBindingActive(action)) {
                     action.transitionTo(ActionPhase.CANCELED);
                     action.transitionTo(ActionPhase.WAITING);
                 }
@@ -174,7 +173,7 @@ public final class InputSystem {
     }
 
     private static void updateVector2Action(InputAction action) {
-        var vec = computeVector2(action);
+        var vec = computeVector2(action, VECTOR2_SCRATCH);
         var active = vec.x != 0f || vec.y != 0f;
         var phase = action.getPhase();
         if (active && phase == ActionPhase.WAITING) {
@@ -186,7 +185,7 @@ public final class InputSystem {
         }
     }
 
-    private static Vector2f computeVector2(InputAction action) {
+    private static Vector2f computeVector2(InputAction action, Vector2f dest) {
         for (var binding : action.bindings()) {
             if (!(binding instanceof InputBinding.Vector2CompositeBinding composite)) {
                 continue;
@@ -205,9 +204,27 @@ public final class InputSystem {
             if (composite.down() != null && KEY_STATE[composite.down().ordinal()]) {
                 y -= 1f;
             }
-            return new Vector2f(x, y);
+            return dest.set(x, y);
         }
-        return new Vector2f(0f, 0f);
+        return dest.set(0f, 0f);
+    }
+
+    private static boolean isBoundTo(InputAction action, Keys key) {
+        for (var binding : action.bindings()) {
+            if (binding instanceof InputBinding.KeyBinding kb && kb.key() == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBoundTo(InputAction action, MouseButton button) {
+        for (var binding : action.bindings()) {
+            if (binding instanceof InputBinding.MouseButtonBinding mb && mb.button() == button) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private static boolean isAnyBindingActive(InputAction action) {
@@ -1,10 +1,10 @@
 package hu.mudlee.core.input;
 
 /**
- * An immutable snapshot of the keyboard state for the current frame.
+ * A read-only view of the keyboard state for the current frame.
  *
- * <p>Obtain via {@link Keyboard#getState()}. Snapshots are lightweight — query them freely within
- * {@code update()}.
+ * <p>Obtain via {@link Keyboard#getState()}. The view is shared and always reflects the keys as of
+ * the latest event poll — query it freely within {@code update()}.
  *
  * <pre>
  * var kb = Keyboard.getState();
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 import org.lwjgl.system.MemoryStack;
+import org.lwjgl.system.MemoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +46,23 @@ public class ResourceLoader {
         }
     }
 
+    /**
+     * Loads a resource into an off-heap buffer that outlives any {@link MemoryStack} frame, for data
+     * native code keeps referencing (e.g. font files). Release it with {@link MemoryUtil#memFree}.
+     */
+    public static ByteBuffer loadToDirectBuffer(String path) {
+        log.debug("Loading resource {}", path);
+        try (var in = ResourceLoader.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new RuntimeException("Resource not found: " + path);
+            }
+            var bytes = in.readAllBytes();
+            return MemoryUtil.memAlloc(bytes.length).put(bytes).flip();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static String load(String path) {
         log.debug("Loading resource {}", path);
         final var in = ResourceLoader.class.getResourceAsStream(path);
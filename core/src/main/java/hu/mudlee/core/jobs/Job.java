@@ -0,0 +1,187 @@
+package hu.mudlee.core.jobs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle of a job scheduled on the {@link JobSystem}, usable as a dependency of later jobs.
+ *
+ * <p>Handles are pooled in the job system's frame arena and recycled at the next join point, so a
+ * handle must not be kept past {@link JobSystem#completeAll()}.
+ */
+public final class Job {
+
+    final Task task = new Task();
+
+    private final AtomicInteger pendingDependencies = new AtomicInteger();
+    private Job[] dependents = new Job[4];
+    private int dependentCount;
+    private Job[] chunks = new Job[0];
+    private int chunkCount;
+
+    private Runnable work;
+    private RangeJob rangeWork;
+    private int start;
+    private int end;
+    private boolean counted;
+    private boolean finished; // guarded by this
+    private volatile boolean dependencyFailed;
+    private volatile boolean done;
+    private volatile Throwable failure;
+
+    Job() {}
+
+    /** Whether the job has run, including jobs skipped because a dependency failed. */
+    public boolean isDone() {
+        return done;
+    }
+
+    void set(Runnable work) {
+        this.work = work;
+        counted = true;
+        pendingDependencies.set(1);
+    }
+
+    void setRange(RangeJob rangeWork, int start, int end) {
+        this.rangeWork = rangeWork;
+        this.start = start;
+        this.end = end;
+    }
+
+    void setChunks(int count) {
+        if (chunks.length < count) {
+            chunks = Arrays.copyOf(chunks, count);
+        }
+        chunkCount = count;
+        counted = true;
+        pendingDependencies.set(1);
+    }
+
+    void setChunk(int index, Job chunk) {
+        chunks[index] = chunk;
+    }
+
+    /** Makes this job wait for {@code dependency}, unless it has already finished. */
+    void addDependency(Job dependency) {
+        synchronized (dependency) {
+            if (dependency.finished) {
+                if (dependency.failed()) {
+                    dependencyFailed = true;
+                }
+                return;
+            }
+            if (dependency.dependentCount == dependency.dependents.length) {
+                dependency.dependents = Arrays.copyOf(dependency.dependents, dependency.dependentCount * 2);
+            }
+            dependency.dependents[dependency.dependentCount++] = this;
+            pendingDependencies.incrementAndGet();
+        }
+    }
+
+    /** Drops one outstanding dependency, or the scheduler's own hold; the last one submits the job. */
+    void release() {
+        if (pendingDependencies.decrementAndGet() == 0) {
+            JobSystem.submit(this);
+        }
+    }
+
+    Throwable getFailure() {
+        return failure;
+    }
+
+    void reset() {
+        task.reinitialize();
+        Arrays.fill(dependents, 0, dependentCount, null);
+        Arrays.fill(chunks, 0, chunkCount, null);
+        dependentCount = 0;
+        chunkCount = 0;
+        work = null;
+        rangeWork = null;
+        counted = false;
+        finished = false;
+        dependencyFailed = false;
+        done = false;
+        failure = null;
+    }
+
+    private void run() {
+        try {
+            if (dependencyFailed) {
+                skipChunks();
+                return;
+            }
+            if (work != null) {
+                work.run();
+            } else if (chunkCount > 0) {
+                runChunks();
+            } else if (rangeWork != null) {
+                rangeWork.execute(start, end);
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            finish();
+        }
+    }
+
+    /** Runs on a worker: forks every chunk but the first, runs that one inline, then helps join. */
+    private void runChunks() {
+        for (int i = chunkCount - 1; i > 0; i--) {
+            chunks[i].task.fork();
+        }
+        chunks[0].task.invoke();
+        for (int i = 1; i < chunkCount; i++) {
+            chunks[i].task.quietlyJoin();
+        }
+        for (int i = 0; i < chunkCount && failure == null; i++) {
+            failure = chunks[i].failure;
+        }
+    }
+
+    /** Finishes the chunks without running them, so the join point does not wait for them forever. */
+    private void skipChunks() {
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i].dependencyFailed = true;
+            chunks[i].task.invoke();
+        }
+    }
+
+    private void finish() {
+        synchronized (this) {
+            finished = true;
+        }
+        var failed = failed();
+        for (int i = 0; i < dependentCount; i++) {
+            var dependent = dependents[i];
+            if (failed) {
+                dependent.dependencyFailed = true;
+            }
+            dependent.release();
+        }
+        done = true;
+        JobSystem.finished(this, counted);
+    }
+
+    private boolean failed() {
+        return failure != null || dependencyFailed;
+    }
+
+    @SuppressWarnings("serial")
+    final class Task extends ForkJoinTask<Void> {
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void value) {}
+
+        @Override
+        protected boolean exec() {
+            run();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package hu.mudlee.core.jobs;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs game work on a fixed pool of work-stealing worker threads.
+ *
+ * <p>The game loop thread schedules jobs during the update phase, keeps doing its own work and
+ * meets the jobs again at the join point: {@link hu.mudlee.core.Game} calls {@link #completeAll()}
+ * after every update step and after draw, so no job outlives the phase that scheduled it and draw
+ * always sees finished results.
+ *
+ * <pre>
+ * private final Runnable animate = this::animate;
+ * private final RangeJob integrate = this::integrate;
+ *
+ * var animation = JobSystem.schedule(animate);
+ * var physics = JobSystem.parallelFor(bodyCount, 256, integrate, animation);
+ * ...
+ * JobSystem.complete(physics); // only needed to use the results before the join point
+ * </pre>
+ *
+ * <p>A job starts once all its dependencies have finished. {@link #parallelFor(int, int, RangeJob)}
+ * splits an index range into chunks that idle workers steal from each other. Job handles come from a
+ * per-frame arena that is recycled at the join point, so scheduling does not allocate once the arena
+ * has grown to the frame's job count; keep the {@link Runnable}/{@link RangeJob} instances in fields
+ * rather than creating lambdas per frame.
+ *
+ * <p>A job that throws does not stop the others. Jobs depending on it are skipped, and the first
+ * failure is rethrown by {@link #completeAll()}. Scheduling and joining must happen on the game loop
+ * thread; job bodies run on the workers.
+ */
+public final class JobSystem {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSystem.class);
+    private static final int INITIAL_ARENA_SIZE = 256;
+    private static final int CHUNKS_PER_WORKER = 4;
+    private static final int SPINS_BEFORE_PARK = 1_000;
+
+    private static final AtomicInteger outstanding = new AtomicInteger();
+    private static ForkJoinPool pool;
+    private static int workerCount;
+    private static Job[] arena = new Job[0];
+    private static int arenaUsed;
+    private static volatile Thread waiter;
+
+    private JobSystem() {}
+
+    /** One worker per core, leaving a core to the game loop thread. */
+    public static int defaultWorkerCount() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public static void start(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Job system needs at least 1 worker: " + workers);
+        }
+        if (pool != null) {
+            throw new IllegalStateException("Job system is already running");
+        }
+        pool = new ForkJoinPool(
+                workers,
+                p -> {
+                    var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                    thread.setName("Job worker " + thread.getPoolIndex());
+                    return thread;
+                },
+                null,
+                false);
+        workerCount = workers;
+        if (arena.length == 0) {
+            growArena(INITIAL_ARENA_SIZE);
+        }
+        log.info("Job system started with {} workers", workers);
+    }
+
+    /** Completes the outstanding jobs and stops the workers. */
+    public static void shutdown() {
+        if (pool == null) {
+            return;
+        }
+        try {
+            completeAll();
+        } finally {
+            pool.shutdown();
+            pool = null;
+            workerCount = 0;
+        }
+    }
+
+    public static boolean isRunning() {
+        return pool != null;
+    }
+
+    public static int getWorkerCount() {
+        return workerCount;
+    }
+
+    public static Job schedule(Runnable work) {
+        var job = acquire();
+        job.set(work);
+        return submit(job, null, null);
+    }
+
+    public static Job schedule(Runnable work, Job dependency) {
+        var job = acquire();
+        job.set(work);
+        return submit(job, dependency, null);
+    }
+
+    public static Job schedule(Runnable work, Job dependency1, Job dependency2) {
+        var job = acquire();
+        job.set(work);
+        return submit(job, dependency1, dependency2);
+    }
+
+    /** Schedules {@code work} to start after the first {@code count} jobs of {@code dependencies}. */
+    public static Job schedule(Runnable work, Job[] dependencies, int count) {
+        var job = acquire();
+        job.set(work);
+        outstanding.incrementAndGet();
+        for (int i = 0; i < count; i++) {
+            addDependency(job, dependencies[i]);
+        }
+        job.release();
+        return job;
+    }
+
+    /**
+     * Runs {@code body} over {@code [0, count)} in chunks of at least {@code batchSize} indices. The
+     * returned job finishes when every chunk has.
+     */
+    public static Job parallelFor(int count, int batchSize, RangeJob body) {
+        return parallelFor(count, batchSize, body, null);
+    }
+
+    public static Job parallelFor(int count, int batchSize, RangeJob body, Job dependency) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Parallel-for count must not be negative: " + count);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Parallel-for batch size must be at least 1: " + batchSize);
+        }
+        var job = acquire();
+        var chunkCount = Math.min((count + batchSize - 1) / batchSize, workerCount * CHUNKS_PER_WORKER);
+        job.setChunks(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            var chunk = acquire();
+            chunk.setRange(body, (int) ((long) count * i / chunkCount), (int) ((long) count * (i + 1) / chunkCount));
+            job.setChunk(i, chunk);
+        }
+        return submit(job, dependency, null);
+    }
+
+    /** Blocks the calling thread until {@code job} has finished. Failures are reported at the join point. */
+    public static void complete(Job job) {
+        await(job);
+    }
+
+    /**
+     * The join point: waits for every scheduled job, recycles the frame arena and rethrows the first
+     * job failure, if any. Called by the game loop; returns immediately when nothing was scheduled.
+     */
+    public static void completeAll() {
+        if (arenaUsed == 0) {
+            return;
+        }
+        await(null);
+        Throwable failure = null;
+        for (int i = 0; i < arenaUsed; i++) {
+            var job = arena[i];
+            // A worker marks the task done just after the job reports itself finished
+            while (!job.task.isDone()) {
+                Thread.onSpinWait();
+            }
+            if (failure == null) {
+                failure = job.getFailure();
+            }
+            job.reset();
+        }
+        arenaUsed = 0;
+        if (failure != null) {
+            throw new RuntimeException("Job failed", failure);
+        }
+    }
+
+    static void submit(Job job) {
+        if (Thread.currentThread() instanceof ForkJoinWorkerThread worker && worker.getPool() == pool) {
+            job.task.fork();
+        } else {
+            pool.execute(job.task);
+        }
+    }
+
+    static void finished(Job job, boolean counted) {
+        if (counted) {
+            outstanding.decrementAndGet();
+        }
+        var thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private static Job submit(Job job, Job dependency1, Job dependency2) {
+        outstanding.incrementAndGet();
+        addDependency(job, dependency1);
+        addDependency(job, dependency2);
+        job.release();
+        return job;
+    }
+
+    private static void addDependency(Job job, Job dependency) {
+        if (dependency != null) {
+            job.addDependency(dependency);
+        }
+    }
+
+    private static Job acquire() {
+        if (pool == null) {
+            throw new IllegalStateException("Job system is not running");
+        }
+        if (arenaUsed == arena.length) {
+            growArena(arena.length * 2);
+        }
+        return arena[arenaUsed++];
+    }
+
+    private static void growArena(int size) {
+        var old = arena.length;
+        arena = Arrays.copyOf(arena, size);
+        for (int i = old; i < size; i++) {
+            arena[i] = new Job();
+        }
+    }
+
+    /** Waits for {@code job}, or for every counted job when it is {@code null}. */
+    private static void await(Job job) {
+        for (int i = 0; i < SPINS_BEFORE_PARK; i++) {
+            if (isComplete(job)) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        waiter = Thread.currentThread();
+        try {
+            while (!isComplete(job)) {
+                LockSupport.park(JobSystem.class);
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    private static boolean isComplete(Job job) {
+        return job == null ? outstanding.get() == 0 : job.isDone();
+    }
+}
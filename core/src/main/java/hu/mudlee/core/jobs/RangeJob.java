@@ -0,0 +1,11 @@
+package hu.mudlee.core.jobs;
+
+/**
+ * Body of a {@link JobSystem#parallelFor(int, int, RangeJob)}: processes the indices {@code [start,
+ * end)}. Invoked concurrently for disjoint ranges, so it must not write state shared between
+ * indices without synchronisation.
+ */
+@FunctionalInterface
+public interface RangeJob {
+    void execute(int start, int end);
+}
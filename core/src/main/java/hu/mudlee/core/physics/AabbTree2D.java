@@ -0,0 +1,579 @@
+package hu.mudlee.core.physics;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic bounding volume tree of axis-aligned boxes, for ray, shape and overlap queries that only
+ * visit the part of the world they can touch.
+ *
+ * <p>Leaves hold a box enlarged by a margin on every side, so an entry that moves a little stays in
+ * its leaf and {@link #move} costs a containment check. Entries that leave their fat box are removed
+ * and reinserted next to the sibling that grows the tree's perimeter least; the ancestors on the way
+ * up are refitted and rebalanced with tree rotations, so the tree stays shallow however entries are
+ * added and moved. Every node also carries the union of the layer bits below it, so queries with a
+ * layer mask skip whole subtrees.
+ *
+ * <p>Nodes live in parallel primitive arrays and queries traverse with an internal stack, so nothing
+ * allocates once the arrays have grown. Queries are not thread-safe.
+ *
+ * <pre>
+ * var tree = new AabbTree2D(4f);
+ * var proxy = tree.add(minX, minY, maxX, maxY, 1 &lt;&lt; layer, entityId);
+ * tree.move(proxy, minX + dx, minY + dy, maxX + dx, maxY + dy);
+ * var count = tree.query(x - 64f, y - 64f, x + 64f, y + 64f, -1, found);
+ * </pre>
+ */
+public final class AabbTree2D {
+
+    private static final int NULL = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float MISS = Float.POSITIVE_INFINITY;
+
+    /** Exact test of one leaf hit by {@link #raycast}. */
+    @FunctionalInterface
+    public interface RayCallback {
+        /**
+         * Tests the entry with {@code userData} against the ray, which the caller knows. Returns
+         * {@code maxFraction} to ignore the entry, a smaller fraction of the ray to clip it there, or
+         * {@code 0} to stop.
+         */
+        float hit(int userData, float maxFraction);
+    }
+
+    private final float margin;
+
+    // minX, minY, maxX, maxY of each node next to each other, so a node test touches one cache line
+    private float[] bounds = new float[INITIAL_CAPACITY * 4];
+    // Parent, or the next free node while free
+    private int[] parent = new int[INITIAL_CAPACITY];
+    private int[] child1 = new int[INITIAL_CAPACITY];
+    private int[] child2 = new int[INITIAL_CAPACITY];
+    // Leaves are 0, free nodes -1
+    private int[] height = new int[INITIAL_CAPACITY];
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private int[] userData = new int[INITIAL_CAPACITY];
+    private int root = NULL;
+    private int nodeCapacityUsed;
+    private int freeList = NULL;
+    private int leafCount;
+    private int[] stack = new int[INITIAL_CAPACITY];
+    // Leaves being partitioned by rebuild()
+    private int[] scratch = new int[0];
+    // Entry fraction of each stacked node, during raycasts
+    private float[] entries = new float[INITIAL_CAPACITY];
+    private float rayX;
+    private float rayY;
+    private float rayDx;
+    private float rayDy;
+    private float rayInverseX;
+    private float rayInverseY;
+    private float rayExtentX;
+    private float rayExtentY;
+
+    /** {@code margin} is added to every side of a leaf's box; larger margins mean fewer reinserts. */
+    public AabbTree2D(float margin) {
+        if (!(margin >= 0f)) {
+            throw new IllegalArgumentException("Margin must not be negative: " + margin);
+        }
+        this.margin = margin;
+    }
+
+    /** Adds a box and returns its proxy id, stable until {@link #remove}d. */
+    public int add(float minX, float minY, float maxX, float maxY, int layerBits, int userData) {
+        var leaf = allocate();
+        setFat(leaf, minX, minY, maxX, maxY);
+        child1[leaf] = NULL;
+        child2[leaf] = NULL;
+        height[leaf] = 0;
+        layers[leaf] = layerBits;
+        this.userData[leaf] = userData;
+        insertLeaf(leaf);
+        leafCount++;
+        return leaf;
+    }
+
+    public void remove(int proxy) {
+        checkLeaf(proxy);
+        removeLeaf(proxy);
+        release(proxy);
+        leafCount--;
+    }
+
+    /**
+     * Updates the box of {@code proxy}. Returns {@code true} if it had left its fat box and was
+     * reinserted, {@code false} if the tree did not change.
+     */
+    public boolean move(int proxy, float minX, float minY, float maxX, float maxY) {
+        checkLeaf(proxy);
+        if (bounds[proxy * 4] <= minX
+                && bounds[proxy * 4 + 1] <= minY
+                && bounds[proxy * 4 + 2] >= maxX
+                && bounds[proxy * 4 + 3] >= maxY) {
+            return false;
+        }
+        removeLeaf(proxy);
+        setFat(proxy, minX, minY, maxX, maxY);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    public void setLayers(int proxy, int layerBits) {
+        checkLeaf(proxy);
+        if (layers[proxy] == layerBits) {
+            return;
+        }
+        layers[proxy] = layerBits;
+        for (var node = parent[proxy]; node != NULL; node = parent[node]) {
+            layers[node] = layers[child1[node]] | layers[child2[node]];
+        }
+    }
+
+    public int getUserData(int proxy) {
+        checkLeaf(proxy);
+        return userData[proxy];
+    }
+
+    /** Number of boxes in the tree. */
+    public int size() {
+        return leafCount;
+    }
+
+    /** Levels below the root; 0 for a single box or an empty tree. */
+    public int getHeight() {
+        return root == NULL ? 0 : height[root];
+    }
+
+    /**
+     * Rebuilds the tree top-down, splitting the boxes at the median of their centres along the longer
+     * axis, keeping the proxy ids. Inserting one box at a time keeps the tree balanced, but sibling
+     * boxes come to overlap more and more, so queries visit more nodes; a rebuilt tree is typically
+     * visited in half as many steps or fewer. Worth calling after adding many boxes at once, or once
+     * a good share of the boxes has been reinserted.
+     */
+    public void rebuild() {
+        if (leafCount < 3) {
+            return;
+        }
+        if (scratch.length < leafCount) {
+            scratch = new int[leafCount];
+        }
+        var n = 0;
+        for (int node = 0; node < nodeCapacityUsed; node++) {
+            if (height[node] == 0) {
+                scratch[n++] = node;
+            } else if (height[node] > 0) {
+                release(node);
+            }
+        }
+        root = build(0, n);
+        parent[root] = NULL;
+    }
+
+    public void clear() {
+        root = NULL;
+        nodeCapacityUsed = 0;
+        freeList = NULL;
+        leafCount = 0;
+    }
+
+    /**
+     * User data of the boxes whose fat box overlaps {@code [minX, maxX] × [minY, maxY]} and whose
+     * layer bits meet {@code layerMask}. Returns the number found, capped at the array length; fat
+     * boxes make this a superset, so test the exact bounds when it matters.
+     */
+    public int query(float minX, float minY, float maxX, float maxY, int layerMask, int[] result) {
+        if (root == NULL) {
+            return 0;
+        }
+        var count = 0;
+        var top = 0;
+        stack[top++] = root;
+        while (top > 0 && count < result.length) {
+            var node = stack[--top];
+            if ((layers[node] & layerMask) == 0
+                    || bounds[node * 4] > maxX
+                    || bounds[node * 4 + 2] < minX
+                    || bounds[node * 4 + 1] > maxY
+                    || bounds[node * 4 + 3] < minY) {
+                continue;
+            }
+            if (height[node] == 0) {
+                result[count++] = userData[node];
+            } else {
+                top = push(top, child1[node], child2[node]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Passes the boxes the segment from ({@code x0}, {@code y0}) to ({@code x1}, {@code y1}) may hit
+     * to {@code callback}, clipping the segment by the fractions it returns. Non-zero {@code extentX}/{@code extentY} grow every box by that much
+     * on each side, which turns the ray into a box sweep of that half size.
+     */
+    public void raycast(
+            float x0, float y0, float x1, float y1, float extentX, float extentY, int layerMask, RayCallback callback) {
+        if (root == NULL || (layers[root] & layerMask) == 0) {
+            return;
+        }
+        rayX = x0;
+        rayY = y0;
+        rayDx = x1 - x0;
+        rayDy = y1 - y0;
+        rayInverseX = 1f / rayDx;
+        rayInverseY = 1f / rayDy;
+        rayExtentX = extentX;
+        rayExtentY = extentY;
+        var maxFraction = 1f;
+        var entry = entry(root, maxFraction);
+        if (entry == MISS) {
+            return;
+        }
+        stack[0] = root;
+        entries[0] = entry;
+        var top = 1;
+        while (top > 0) {
+            top--;
+            if (entries[top] > maxFraction) {
+                continue;
+            }
+            var node = stack[top];
+            if (height[node] == 0) {
+                var fraction = callback.hit(userData[node], maxFraction);
+                if (fraction == 0f) {
+                    return;
+                }
+                maxFraction = Math.min(maxFraction, fraction);
+                continue;
+            }
+            // Push the nearer child last so it is visited first and clips the ray for the other
+            var a = child1[node];
+            var b = child2[node];
+            var entryA = (layers[a] & layerMask) != 0 ? entry(a, maxFraction) : MISS;
+            var entryB = (layers[b] & layerMask) != 0 ? entry(b, maxFraction) : MISS;
+            if (top + 2 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+                entries = Arrays.copyOf(entries, stack.length);
+            }
+            if (entryA > entryB) {
+                top = pushEntry(top, a, entryA);
+                top = pushEntry(top, b, entryB);
+            } else {
+                top = pushEntry(top, b, entryB);
+                top = pushEntry(top, a, entryA);
+            }
+        }
+    }
+
+    private int push(int top, int a, int b) {
+        if (top + 2 > stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+            entries = Arrays.copyOf(entries, stack.length);
+        }
+        stack[top] = a;
+        stack[top + 1] = b;
+        return top + 2;
+    }
+
+    private int pushEntry(int top, int node, float entry) {
+        if (entry == MISS) {
+            return top;
+        }
+        stack[top] = node;
+        entries[top] = entry;
+        return top + 1;
+    }
+
+    /** Fraction at which the current ray enters the grown box of {@code node}, or {@link #MISS}. */
+    private float entry(int node, float maxFraction) {
+        var enter = 0f;
+        var exit = maxFraction;
+        if (rayDx == 0f) {
+            if (rayX < bounds[node * 4] - rayExtentX || rayX > bounds[node * 4 + 2] + rayExtentX) {
+                return MISS;
+            }
+        } else {
+            var t1 = (bounds[node * 4] - rayExtentX - rayX) * rayInverseX;
+            var t2 = (bounds[node * 4 + 2] + rayExtentX - rayX) * rayInverseX;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (rayDy == 0f) {
+            if (rayY < bounds[node * 4 + 1] - rayExtentY || rayY > bounds[node * 4 + 3] + rayExtentY) {
+                return MISS;
+            }
+        } else {
+            var t1 = (bounds[node * 4 + 1] - rayExtentY - rayY) * rayInverseY;
+            var t2 = (bounds[node * 4 + 3] + rayExtentY - rayY) * rayInverseY;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        return enter <= exit ? enter : MISS;
+    }
+
+    private int build(int from, int to) {
+        if (to - from == 1) {
+            return scratch[from];
+        }
+        var lowX = Float.POSITIVE_INFINITY;
+        var lowY = Float.POSITIVE_INFINITY;
+        var highX = Float.NEGATIVE_INFINITY;
+        var highY = Float.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            var x = centre(scratch[i], 0);
+            var y = centre(scratch[i], 1);
+            lowX = Math.min(lowX, x);
+            lowY = Math.min(lowY, y);
+            highX = Math.max(highX, x);
+            highY = Math.max(highY, y);
+        }
+        var axis = highX - lowX >= highY - lowY ? 0 : 1;
+        var middle = (from + to) >>> 1;
+        select(from, to - 1, middle, axis);
+        var a = build(from, middle);
+        var b = build(middle, to);
+        var node = allocate();
+        child1[node] = a;
+        child2[node] = b;
+        userData[node] = NULL;
+        parent[a] = node;
+        parent[b] = node;
+        refit(node);
+        return node;
+    }
+
+    /** Reorders {@code scratch[low..high]} so that index {@code k} holds the box with the k-th centre. */
+    private void select(int low, int high, int k, int axis) {
+        while (low < high) {
+            var pivot = centre(scratch[(low + high) >>> 1], axis);
+            var i = low;
+            var j = high;
+            while (i <= j) {
+                while (centre(scratch[i], axis) < pivot) {
+                    i++;
+                }
+                while (centre(scratch[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    var swap = scratch[i];
+                    scratch[i++] = scratch[j];
+                    scratch[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /** Twice the centre of {@code node} on {@code axis}, 0 for x and 1 for y. */
+    private float centre(int node, int axis) {
+        return bounds[node * 4 + axis] + bounds[node * 4 + 2 + axis];
+    }
+
+    private void setFat(int node, float minX, float minY, float maxX, float maxY) {
+        bounds[node * 4] = minX - margin;
+        bounds[node * 4 + 1] = minY - margin;
+        bounds[node * 4 + 2] = maxX + margin;
+        bounds[node * 4 + 3] = maxY + margin;
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+        // Walk down to the sibling whose union with the leaf adds the least perimeter
+        var index = root;
+        while (height[index] > 0) {
+            var perimeter = perimeter(index);
+            var combined = unionPerimeter(index, leaf);
+            var cost = 2f * combined;
+            var inheritance = 2f * (combined - perimeter);
+            var cost1 = descendCost(child1[index], leaf) + inheritance;
+            var cost2 = descendCost(child2[index], leaf) + inheritance;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1[index] : child2[index];
+        }
+        var sibling = index;
+        var oldParent = parent[sibling];
+        var newParent = allocate();
+        parent[newParent] = oldParent;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        userData[newParent] = NULL;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        if (oldParent == NULL) {
+            root = newParent;
+        } else if (child1[oldParent] == sibling) {
+            child1[oldParent] = newParent;
+        } else {
+            child2[oldParent] = newParent;
+        }
+        refitUpwards(newParent);
+    }
+
+    private float descendCost(int child, int leaf) {
+        var cost = unionPerimeter(child, leaf);
+        return height[child] == 0 ? cost : cost - perimeter(child);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        var oldParent = parent[leaf];
+        var grandParent = parent[oldParent];
+        var sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+        release(oldParent);
+        if (grandParent == NULL) {
+            root = sibling;
+            parent[sibling] = NULL;
+            return;
+        }
+        if (child1[grandParent] == oldParent) {
+            child1[grandParent] = sibling;
+        } else {
+            child2[grandParent] = sibling;
+        }
+        parent[sibling] = grandParent;
+        refitUpwards(grandParent);
+    }
+
+    private void refitUpwards(int node) {
+        while (node != NULL) {
+            refit(node);
+            node = parent[balance(node)];
+        }
+    }
+
+    /** Recomputes the box, height and layers of {@code node} from its children. */
+    private void refit(int node) {
+        var a = child1[node];
+        var b = child2[node];
+        bounds[node * 4] = Math.min(bounds[a * 4], bounds[b * 4]);
+        bounds[node * 4 + 1] = Math.min(bounds[a * 4 + 1], bounds[b * 4 + 1]);
+        bounds[node * 4 + 2] = Math.max(bounds[a * 4 + 2], bounds[b * 4 + 2]);
+        bounds[node * 4 + 3] = Math.max(bounds[a * 4 + 3], bounds[b * 4 + 3]);
+        height[node] = 1 + Math.max(height[a], height[b]);
+        layers[node] = layers[a] | layers[b];
+    }
+
+    /**
+     * Rotates the taller grandchild of {@code a} up when its children's heights differ by more than
+     * one, and returns the node now at {@code a}'s place.
+     */
+    private int balance(int a) {
+        if (height[a] < 2) {
+            return a;
+        }
+        var b = child1[a];
+        var c = child2[a];
+        var difference = height[c] - height[b];
+        if (difference > 1) {
+            var f = child1[c];
+            var g = child2[c];
+            replaceChild(a, c);
+            child1[c] = a;
+            parent[a] = c;
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+            }
+            refit(a);
+            refit(c);
+            return c;
+        }
+        if (difference < -1) {
+            var d = child1[b];
+            var e = child2[b];
+            replaceChild(a, b);
+            child1[b] = a;
+            parent[a] = b;
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+            }
+            refit(a);
+            refit(b);
+            return b;
+        }
+        return a;
+    }
+
+    /** Puts {@code replacement} where {@code node} hangs from its parent. */
+    private void replaceChild(int node, int replacement) {
+        var up = parent[node];
+        parent[replacement] = up;
+        if (up == NULL) {
+            root = replacement;
+        } else if (child1[up] == node) {
+            child1[up] = replacement;
+        } else {
+            child2[up] = replacement;
+        }
+    }
+
+    private float perimeter(int node) {
+        return (bounds[node * 4 + 2] - bounds[node * 4]) + (bounds[node * 4 + 3] - bounds[node * 4 + 1]);
+    }
+
+    private float unionPerimeter(int a, int b) {
+        return (Math.max(bounds[a * 4 + 2], bounds[b * 4 + 2]) - Math.min(bounds[a * 4], bounds[b * 4]))
+                + (Math.max(bounds[a * 4 + 3], bounds[b * 4 + 3]) - Math.min(bounds[a * 4 + 1], bounds[b * 4 + 1]));
+    }
+
+    private int allocate() {
+        if (freeList != NULL) {
+            var node = freeList;
+            freeList = parent[node];
+            return node;
+        }
+        if (nodeCapacityUsed == parent.length) {
+            grow(nodeCapacityUsed * 2);
+        }
+        return nodeCapacityUsed++;
+    }
+
+    private void release(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        freeList = node;
+    }
+
+    private void checkLeaf(int proxy) {
+        if (proxy < 0 || proxy >= nodeCapacityUsed || height[proxy] != 0) {
+            throw new IllegalArgumentException("Not a proxy of this tree: " + proxy);
+        }
+    }
+
+    private void grow(int capacity) {
+        bounds = Arrays.copyOf(bounds, capacity * 4);
+        parent = Arrays.copyOf(parent, capacity);
+        child1 = Arrays.copyOf(child1, capacity);
+        child2 = Arrays.copyOf(child2, capacity);
+        height = Arrays.copyOf(height, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        userData = Arrays.copyOf(userData, capacity);
+    }
+}
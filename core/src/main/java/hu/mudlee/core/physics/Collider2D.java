@@ -0,0 +1,76 @@
+package hu.mudlee.core.physics;
+
+import hu.mudlee.core.gameobject.Component;
+import org.joml.Vector2f;
+
+/**
+ * An axis-aligned box or a circle attached to a {@link hu.mudlee.core.gameobject.GameObject},
+ * tested for overlaps by the {@link CollisionSystem2D} of the scene the object is in.
+ *
+ * <p>The shape is centred on the transform's world position plus {@link #offset}; the transform's
+ * rotation and scale are not applied. Two colliders are tested only if each one's {@link
+ * #layerMask} includes the other's {@link #layer}.
+ *
+ * <pre>
+ * var enemy = new GameObject("Enemy")
+ *         .addComponent(Collider2D.circle(16f));
+ * var wall = new GameObject("Wall")
+ *         .addComponent(Collider2D.box(256f, 32f));
+ * </pre>
+ */
+public final class Collider2D extends Component {
+
+    public enum Shape {
+        BOX,
+        CIRCLE
+    }
+
+    public final Vector2f offset = new Vector2f();
+    /** Box size; ignored by circles. */
+    public float width;
+
+    public float height;
+    /** Circle radius; ignored by boxes. */
+    public float radius;
+    /** Layer index, 0 to 31. */
+    public int layer;
+    /** Bit {@code n} set: collides with layer {@code n}. */
+    public int layerMask = -1;
+
+    private final Shape shape;
+
+    // Slot in the collision system, or -1
+    int proxy = -1;
+
+    private Collider2D(Shape shape) {
+        this.shape = shape;
+    }
+
+    public static Collider2D box(float width, float height) {
+        if (width < 0f || height < 0f) {
+            throw new IllegalArgumentException("Box size must not be negative: " + width + "x" + height);
+        }
+        var collider = new Collider2D(Shape.BOX);
+        collider.width = width;
+        collider.height = height;
+        return collider;
+    }
+
+    public static Collider2D circle(float radius) {
+        if (radius < 0f) {
+            throw new IllegalArgumentException("Circle radius must not be negative: " + radius);
+        }
+        var collider = new Collider2D(Shape.CIRCLE);
+        collider.radius = radius;
+        return collider;
+    }
+
+    public Shape getShape() {
+        return shape;
+    }
+
+    /** Whether this collider and {@code other} may collide according to their layers. */
+    public boolean collidesWith(Collider2D other) {
+        return (layerMask & (1 << other.layer)) != 0 && (other.layerMask & (1 << layer)) != 0;
+    }
+}
@@ -0,0 +1,8 @@
+package hu.mudlee.core.physics;
+
+/** Receives the pairs that started, kept or stopped touching in one {@link CollisionSystem2D} update. */
+@FunctionalInterface
+public interface CollisionListener2D {
+
+    void onCollisions(CollisionReport2D report);
+}
@@ -0,0 +1,106 @@
+package hu.mudlee.core.physics;
+
+import java.util.Arrays;
+
+/**
+ * The collisions of one {@link CollisionSystem2D} update, grouped into pairs that started touching
+ * (enter), are still touching (stay) and stopped touching (exit). Valid only during the listener
+ * call; the arrays are reused for the next update. An exit pair can name a collider that has been
+ * removed since the previous update.
+ *
+ * <pre>
+ * collisions.addListener(report -&gt; {
+ *     for (int i = 0; i &lt; report.getEnterCount(); i++) {
+ *         onHit(report.getEnterA(i), report.getEnterB(i));
+ *     }
+ * });
+ * </pre>
+ */
+public final class CollisionReport2D {
+
+    private Collider2D[] enter = new Collider2D[32];
+    private int enterCount;
+    private Collider2D[] stay = new Collider2D[32];
+    private int stayCount;
+    private Collider2D[] exit = new Collider2D[32];
+    private int exitCount;
+
+    CollisionReport2D() {}
+
+    public int getEnterCount() {
+        return enterCount;
+    }
+
+    public Collider2D getEnterA(int index) {
+        return enter[checkIndex(index, enterCount) * 2];
+    }
+
+    public Collider2D getEnterB(int index) {
+        return enter[checkIndex(index, enterCount) * 2 + 1];
+    }
+
+    public int getStayCount() {
+        return stayCount;
+    }
+
+    public Collider2D getStayA(int index) {
+        return stay[checkIndex(index, stayCount) * 2];
+    }
+
+    public Collider2D getStayB(int index) {
+        return stay[checkIndex(index, stayCount) * 2 + 1];
+    }
+
+    public int getExitCount() {
+        return exitCount;
+    }
+
+    public Collider2D getExitA(int index) {
+        return exit[checkIndex(index, exitCount) * 2];
+    }
+
+    public Collider2D getExitB(int index) {
+        return exit[checkIndex(index, exitCount) * 2 + 1];
+    }
+
+    public boolean isEmpty() {
+        return enterCount == 0 && stayCount == 0 && exitCount == 0;
+    }
+
+    void addEnter(Collider2D a, Collider2D b) {
+        enter = add(enter, enterCount++, a, b);
+    }
+
+    void addStay(Collider2D a, Collider2D b) {
+        stay = add(stay, stayCount++, a, b);
+    }
+
+    void addExit(Collider2D a, Collider2D b) {
+        exit = add(exit, exitCount++, a, b);
+    }
+
+    void clear() {
+        Arrays.fill(enter, 0, enterCount * 2, null);
+        Arrays.fill(stay, 0, stayCount * 2, null);
+        Arrays.fill(exit, 0, exitCount * 2, null);
+        enterCount = 0;
+        stayCount = 0;
+        exitCount = 0;
+    }
+
+    private static Collider2D[] add(Collider2D[] pairs, int index, Collider2D a, Collider2D b) {
+        if (index * 2 == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        }
+        pairs[index * 2] = a;
+        pairs[index * 2 + 1] = b;
+        return pairs;
+    }
+
+    private static int checkIndex(int index, int count) {
+        if (index >= count) {
+            throw new IndexOutOfBoundsException("Pair " + index + " of " + count);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,580 @@
+package hu.mudlee.core.physics;
+
+import java.util.Arrays;
+
+/**
+ * Finds which {@link Collider2D}s overlap, every update, and reports pairs that start, keep and stop
+ * touching to its {@link CollisionListener2D}s in one {@link CollisionReport2D}.
+ *
+ * <p>The broadphase is sort-and-sweep on primitive arrays: colliders are kept ordered by the left
+ * edge of their bounds, and the order is repaired with an insertion sort each update. Objects move
+ * little between frames, so the order is nearly sorted and the repair is close to linear. The sweep
+ * then only pairs colliders whose bounds overlap on the x axis and checks y and the layers, before
+ * the narrowphase tests the exact shapes. Touching pairs are kept in a hash set stamped with the
+ * update they were last seen in, which is how enter, stay and exit are told apart.
+ *
+ * <p>Ray, shape-cast and overlap queries go through an {@link AabbTree2D} over the same bounds,
+ * refreshed with the sweep, so they see the colliders as of the last update. Queries fill
+ * caller-supplied results and do not allocate:
+ *
+ * <pre>
+ * private final RaycastHit2D hit = new RaycastHit2D();
+ *
+ * if (collisions.raycast(eyeX, eyeY, dirX, dirY, 400f, WALLS, hit)) {
+ *     sightDistance = hit.distance;
+ * }
+ * </pre>
+ *
+ * <p>A {@link hu.mudlee.core.gameobject.GameScene2D} registers the colliders of its objects and
+ * updates its collision system after the transforms, see {@link
+ * hu.mudlee.core.gameobject.GameScene2D#getCollisions()}.
+ */
+public final class CollisionSystem2D {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final float TREE_MARGIN = 4f;
+    private static final CollisionListener2D[] NO_LISTENERS = new CollisionListener2D[0];
+
+    private Collider2D[] colliders = new Collider2D[INITIAL_CAPACITY];
+    private float[] minX = new float[INITIAL_CAPACITY];
+    private float[] minY = new float[INITIAL_CAPACITY];
+    private float[] maxX = new float[INITIAL_CAPACITY];
+    private float[] maxY = new float[INITIAL_CAPACITY];
+    private int[] layers = new int[INITIAL_CAPACITY];
+    private int[] layerMasks = new int[INITIAL_CAPACITY];
+    private boolean[] active = new boolean[INITIAL_CAPACITY];
+    private boolean[] removed = new boolean[INITIAL_CAPACITY];
+    private int idCount;
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    // Ids of removed colliders, reusable once their exits have been reported
+    private int[] retired = new int[INITIAL_CAPACITY];
+    private int retiredCount;
+    private int colliderCount;
+
+    // Proxy ids ordered by minX; removed ones are dropped at the next update
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int orderSize;
+
+    private final PairSet pairs = new PairSet(INITIAL_CAPACITY);
+    private long[] exits = new long[INITIAL_CAPACITY];
+    private long[] candidates = new long[INITIAL_CAPACITY];
+    private int stamp;
+    private final CollisionReport2D report = new CollisionReport2D();
+    private CollisionListener2D[] listeners = NO_LISTENERS;
+
+    private final AabbTree2D tree = new AabbTree2D(TREE_MARGIN);
+    // Tree proxy by collider id
+    private int[] leaves = new int[INITIAL_CAPACITY];
+    private int[] found = new int[INITIAL_CAPACITY];
+    // Boxes added or reinserted since the tree was last rebuilt
+    private int treeInserts;
+    private final ShapeCast2D shapeCast = new ShapeCast2D();
+    private final AabbTree2D.RayCallback castLeaf = this::castLeaf;
+    private float castX;
+    private float castY;
+    private float castDx;
+    private float castDy;
+    private float castHalfWidth;
+    private float castHalfHeight;
+    private float castRadius;
+    private int castHit;
+    private float castFraction;
+    private float castNormalX;
+    private float castNormalY;
+
+    public void add(Collider2D collider) {
+        if (collider.proxy >= 0) {
+            throw new IllegalStateException("Collider is already in a collision system");
+        }
+        if (collider.getGameObject() == null) {
+            throw new IllegalArgumentException("Collider is not attached to a GameObject");
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (idCount == colliders.length) {
+                grow(idCount * 2);
+            }
+            id = idCount++;
+        }
+        collider.proxy = id;
+        colliders[id] = collider;
+        removed[id] = false;
+        refresh(id);
+        leaves[id] = tree.add(minX[id], minY[id], maxX[id], maxY[id], layers[id], id);
+        treeInserts++;
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, orderSize * 2);
+        }
+        order[orderSize++] = id;
+        colliderCount++;
+    }
+
+    /** Removes {@code collider}; pairs it was part of are reported as exits at the next update. */
+    public void remove(Collider2D collider) {
+        var id = collider.proxy;
+        if (id < 0) {
+            return;
+        }
+        collider.proxy = -1;
+        removed[id] = true;
+        active[id] = false;
+        tree.remove(leaves[id]);
+        if (retiredCount == retired.length) {
+            retired = Arrays.copyOf(retired, retiredCount * 2);
+        }
+        retired[retiredCount++] = id;
+        colliderCount--;
+    }
+
+    public void addListener(CollisionListener2D listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    public void removeListener(CollisionListener2D listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                var shrunk = new CollisionListener2D[listeners.length - 1];
+                System.arraycopy(listeners, 0, shrunk, 0, i);
+                System.arraycopy(listeners, i + 1, shrunk, i, listeners.length - i - 1);
+                listeners = shrunk;
+                return;
+            }
+        }
+    }
+
+    public int getColliderCount() {
+        return colliderCount;
+    }
+
+    /** Pairs touching as of the last update. */
+    public int getPairCount() {
+        return pairs.size();
+    }
+
+    /**
+     * The nearest collider on a layer in {@code layerMask} that the ray from ({@code originX}, {@code
+     * originY}) along ({@code directionX}, {@code directionY}) hits within {@code maxDistance}.
+     * Returns {@code false} if there is none; a collider the ray starts in is hit at distance 0.
+     */
+    public boolean raycast(
+            float originX,
+            float originY,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(originX, originY, 0f, 0f, 0f, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /** Like {@link #raycast}, sweeping a circle of {@code radius} centred on the origin. */
+    public boolean circleCast(
+            float originX,
+            float originY,
+            float radius,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(originX, originY, 0f, 0f, radius, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /** Like {@link #raycast}, sweeping a {@code width} × {@code height} box centred on the origin. */
+    public boolean boxCast(
+            float originX,
+            float originY,
+            float width,
+            float height,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(
+                originX, originY, width * 0.5f, height * 0.5f, 0f, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /**
+     * Colliders on a layer in {@code layerMask} that overlap the {@code width} × {@code height} box
+     * centred on ({@code x}, {@code y}). Returns the number found, capped at the array length.
+     */
+    public int overlapBox(float x, float y, float width, float height, int layerMask, Collider2D[] result) {
+        return overlap(x, y, width * 0.5f, height * 0.5f, 0f, layerMask, result);
+    }
+
+    /** Colliders on a layer in {@code layerMask} within {@code radius} of ({@code x}, {@code y}). */
+    public int overlapCircle(float x, float y, float radius, int layerMask, Collider2D[] result) {
+        return overlap(x, y, 0f, 0f, radius, layerMask, result);
+    }
+
+    /** Refreshes every collider's bounds, finds the touching pairs and notifies the listeners. */
+    public void update() {
+        stamp++;
+        // Ids removed by the listeners below are still in the order and pairs until the next update
+        var retiring = retiredCount;
+        refreshBounds();
+        sortOrder();
+        sweep();
+        reportExits();
+        if (!report.isEmpty()) {
+            for (var listener : listeners) {
+                listener.onCollisions(report);
+            }
+            report.clear();
+        }
+        for (int i = 0; i < retiring; i++) {
+            var id = retired[i];
+            colliders[id] = null;
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+        retiredCount -= retiring;
+        System.arraycopy(retired, retiring, retired, 0, retiredCount);
+    }
+
+    /** Removes every collider without reporting exits. */
+    public void clear() {
+        for (int i = 0; i < orderSize; i++) {
+            var id = order[i];
+            if (!removed[id]) {
+                colliders[id].proxy = -1;
+            }
+        }
+        Arrays.fill(colliders, null);
+        orderSize = 0;
+        idCount = 0;
+        freeCount = 0;
+        retiredCount = 0;
+        colliderCount = 0;
+        pairs.clear();
+        tree.clear();
+        treeInserts = 0;
+    }
+
+    /** Drops removed colliders and reads every collider's bounds from its transform. */
+    void refreshBounds() {
+        var kept = 0;
+        for (int i = 0; i < orderSize; i++) {
+            var id = order[i];
+            if (!removed[id]) {
+                refresh(id);
+                if (tree.move(leaves[id], minX[id], minY[id], maxX[id], maxY[id])) {
+                    treeInserts++;
+                }
+                tree.setLayers(leaves[id], layers[id]);
+                order[kept++] = id;
+            }
+        }
+        orderSize = kept;
+        // Amortised over the inserts that wore it down, a rebuild costs about as much as one insert
+        if (treeInserts > tree.size()) {
+            tree.rebuild();
+            treeInserts = 0;
+        }
+    }
+
+    /** Centres collider {@code id}'s bounds on {@code (x, y)} plus its offset, for a body between transform updates. */
+    void moveTo(int id, float x, float y) {
+        var collider = colliders[id];
+        var halfWidth = (maxX[id] - minX[id]) * 0.5f;
+        var halfHeight = (maxY[id] - minY[id]) * 0.5f;
+        x += collider.offset.x;
+        y += collider.offset.y;
+        minX[id] = x - halfWidth;
+        maxX[id] = x + halfWidth;
+        minY[id] = y - halfHeight;
+        maxY[id] = y + halfHeight;
+    }
+
+    /**
+     * Collects the pairs whose current bounds overlap and whose layers match, without narrowphase or
+     * reporting, into {@link #candidates()}. Used by the physics step after {@link #refreshBounds()}
+     * and {@link #moveTo(int, float, float)}.
+     */
+    int findCandidates() {
+        sortOrder();
+        var count = 0;
+        for (int i = 0; i < orderSize; i++) {
+            var a = order[i];
+            if (!active[a]) {
+                continue;
+            }
+            var right = maxX[a];
+            for (int j = i + 1; j < orderSize; j++) {
+                var b = order[j];
+                if (minX[b] > right) {
+                    break;
+                }
+                if (!active[b] || !boundsAndLayersMatch(a, b)) {
+                    continue;
+                }
+                if (count == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, count * 2);
+                }
+                candidates[count++] = PairSet.key(a, b);
+            }
+        }
+        return count;
+    }
+
+    long[] candidates() {
+        return candidates;
+    }
+
+    Collider2D collider(int id) {
+        return colliders[id];
+    }
+
+    float minX(int id) {
+        return minX[id];
+    }
+
+    float minY(int id) {
+        return minY[id];
+    }
+
+    float maxX(int id) {
+        return maxX[id];
+    }
+
+    float maxY(int id) {
+        return maxY[id];
+    }
+
+    private boolean boundsAndLayersMatch(int a, int b) {
+        return minY[b] <= maxY[a]
+                && maxY[b] >= minY[a]
+                && (layerMasks[a] & layers[b]) != 0
+                && (layerMasks[b] & layers[a]) != 0;
+    }
+
+    private void refresh(int id) {
+        var collider = colliders[id];
+        var go = collider.getGameObject();
+        active[id] = collider.isEnabled() && go.isEnabled();
+        var m = go.transform.getWorldMatrix();
+        var x = m.m20() + collider.offset.x;
+        var y = m.m21() + collider.offset.y;
+        float halfWidth;
+        float halfHeight;
+        if (collider.getShape() == Collider2D.Shape.CIRCLE) {
+            halfWidth = collider.radius;
+            halfHeight = collider.radius;
+        } else {
+            halfWidth = collider.width * 0.5f;
+            halfHeight = collider.height * 0.5f;
+        }
+        minX[id] = x - halfWidth;
+        maxX[id] = x + halfWidth;
+        minY[id] = y - halfHeight;
+        maxY[id] = y + halfHeight;
+        layers[id] = 1 << collider.layer;
+        layerMasks[id] = collider.layerMask;
+    }
+
+    // Insertion sort: with frame-to-frame coherence only a few entries move, and only a little
+    private void sortOrder() {
+        for (int i = 1; i < orderSize; i++) {
+            var id = order[i];
+            var key = minX[id];
+            var j = i - 1;
+            while (j >= 0 && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = id;
+        }
+    }
+
+    private void sweep() {
+        for (int i = 0; i < orderSize; i++) {
+            var a = order[i];
+            if (!active[a]) {
+                continue;
+            }
+            var right = maxX[a];
+            for (int j = i + 1; j < orderSize; j++) {
+                var b = order[j];
+                if (minX[b] > right) {
+                    break;
+                }
+                if (!active[b] || !boundsAndLayersMatch(a, b) || !shapesOverlap(a, b)) {
+                    continue;
+                }
+                var key = PairSet.key(a, b);
+                var first = colliders[PairSet.first(key)];
+                var second = colliders[PairSet.second(key)];
+                if (pairs.touch(key, stamp)) {
+                    report.addEnter(first, second);
+                } else {
+                    report.addStay(first, second);
+                }
+            }
+        }
+    }
+
+    private void reportExits() {
+        var exitCount = 0;
+        for (int slot = 0; slot < pairs.capacity(); slot++) {
+            var key = pairs.keyAt(slot);
+            if (key != -1L && pairs.stampAt(slot) != stamp) {
+                if (exitCount == exits.length) {
+                    exits = Arrays.copyOf(exits, exitCount * 2);
+                }
+                exits[exitCount++] = key;
+            }
+        }
+        for (int i = 0; i < exitCount; i++) {
+            var key = exits[i];
+            pairs.remove(key);
+            report.addExit(colliders[PairSet.first(key)], colliders[PairSet.second(key)]);
+        }
+    }
+
+    private boolean cast(
+            float originX,
+            float originY,
+            float halfWidth,
+            float halfHeight,
+            float radius,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        var length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0f) {
+            throw new IllegalArgumentException("Cast direction must not be zero");
+        }
+        directionX /= length;
+        directionY /= length;
+        castX = originX;
+        castY = originY;
+        castDx = directionX * maxDistance;
+        castDy = directionY * maxDistance;
+        castHalfWidth = halfWidth;
+        castHalfHeight = halfHeight;
+        castRadius = radius;
+        castHit = -1;
+        tree.raycast(
+                originX,
+                originY,
+                originX + castDx,
+                originY + castDy,
+                halfWidth + radius,
+                halfHeight + radius,
+                layerMask,
+                castLeaf);
+        if (castHit < 0) {
+            return false;
+        }
+        hit.set(originX, originY, directionX, directionY, castFraction * maxDistance, castNormalX, castNormalY);
+        hit.collider = colliders[castHit];
+        return true;
+    }
+
+    private float castLeaf(int id, float maxFraction) {
+        if (!active[id]) {
+            return maxFraction;
+        }
+        var halfWidth = (maxX[id] - minX[id]) * 0.5f;
+        var halfHeight = (maxY[id] - minY[id]) * 0.5f;
+        var circle = colliders[id].getShape() == Collider2D.Shape.CIRCLE;
+        var hit = shapeCast.cast(
+                castX - (minX[id] + halfWidth),
+                castY - (minY[id] + halfHeight),
+                castDx,
+                castDy,
+                (circle ? 0f : halfWidth) + castHalfWidth,
+                (circle ? 0f : halfHeight) + castHalfHeight,
+                (circle ? halfWidth : 0f) + castRadius,
+                maxFraction);
+        if (!hit || shapeCast.fraction >= maxFraction) {
+            return maxFraction;
+        }
+        castHit = id;
+        castFraction = shapeCast.fraction;
+        castNormalX = shapeCast.normalX;
+        castNormalY = shapeCast.normalY;
+        return castFraction;
+    }
+
+    private int overlap(
+            float x, float y, float halfWidth, float halfHeight, float radius, int layerMask, Collider2D[] result) {
+        var reach = radius;
+        int candidates;
+        // The tree reports fat boxes, so collect them all before the exact test caps the result
+        while ((candidates = tree.query(
+                        x - halfWidth - reach,
+                        y - halfHeight - reach,
+                        x + halfWidth + reach,
+                        y + halfHeight + reach,
+                        layerMask,
+                        found))
+                == found.length) {
+            found = new int[found.length * 2];
+        }
+        var count = 0;
+        for (int i = 0; i < candidates && count < result.length; i++) {
+            var id = found[i];
+            if (!active[id]) {
+                continue;
+            }
+            var colliderHalfWidth = (maxX[id] - minX[id]) * 0.5f;
+            var colliderHalfHeight = (maxY[id] - minY[id]) * 0.5f;
+            var circle = colliders[id].getShape() == Collider2D.Shape.CIRCLE;
+            if (ShapeCast2D.contains(
+                    x - (minX[id] + colliderHalfWidth),
+                    y - (minY[id] + colliderHalfHeight),
+                    (circle ? 0f : colliderHalfWidth) + halfWidth,
+                    (circle ? 0f : colliderHalfHeight) + halfHeight,
+                    (circle ? colliderHalfWidth : 0f) + radius)) {
+                result[count++] = colliders[id];
+            }
+        }
+        return count;
+    }
+
+    private boolean shapesOverlap(int a, int b) {
+        var circleA = colliders[a].getShape() == Collider2D.Shape.CIRCLE;
+        var circleB = colliders[b].getShape() == Collider2D.Shape.CIRCLE;
+        if (!circleA && !circleB) {
+            return true; // the bounds are the boxes
+        }
+        if (circleA && circleB) {
+            var dx = (minX[a] + maxX[a]) - (minX[b] + maxX[b]);
+            var dy = (minY[a] + maxY[a]) - (minY[b] + maxY[b]);
+            var radii = (maxX[a] - minX[a]) + (maxX[b] - minX[b]);
+            // Doubled centres and radii, so no halving is needed
+            return dx * dx + dy * dy <= radii * radii;
+        }
+        var circle = circleA ? a : b;
+        var box = circleA ? b : a;
+        var cx = (minX[circle] + maxX[circle]) * 0.5f;
+        var cy = (minY[circle] + maxY[circle]) * 0.5f;
+        var r = (maxX[circle] - minX[circle]) * 0.5f;
+        var dx = cx - Math.max(minX[box], Math.min(cx, maxX[box]));
+        var dy = cy - Math.max(minY[box], Math.min(cy, maxY[box]));
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    private void grow(int capacity) {
+        colliders = Arrays.copyOf(colliders, capacity);
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        layerMasks = Arrays.copyOf(layerMasks, capacity);
+        active = Arrays.copyOf(active, capacity);
+        leaves = Arrays.copyOf(leaves, capacity);
+        removed = Arrays.copyOf(removed, capacity);
+    }
+}
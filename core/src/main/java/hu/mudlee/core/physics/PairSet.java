@@ -0,0 +1,132 @@
+package hu.mudlee.core.physics;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of collider pairs, each packed into a {@code long} as (lower id, higher
+ * id), with an {@code int} value: the number of the last update that saw the pair touching, or the
+ * index of the pair's contact in the physics step. Linear probing; removal shifts the rest of the
+ * cluster back, so there are no tombstones.
+ */
+final class PairSet {
+
+    private static final long EMPTY = -1L;
+
+    private long[] keys;
+    private int[] stamps;
+    private int mask;
+    private int size;
+
+    PairSet(int capacity) {
+        var length = Integer.highestOneBit(Math.max(16, capacity) - 1) << 1;
+        keys = new long[length];
+        stamps = new int[length];
+        Arrays.fill(keys, EMPTY);
+        mask = length - 1;
+    }
+
+    static long key(int a, int b) {
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    static int first(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int second(long key) {
+        return (int) key;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    int stampAt(int slot) {
+        return stamps[slot];
+    }
+
+    /** The value stored for {@code key}, or {@code -1} if absent. */
+    int get(long key) {
+        var slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return stamps[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Stamps {@code key}, adding it if absent. Returns {@code true} if it was added. */
+    boolean touch(long key, int stamp) {
+        var slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                stamps[slot] = stamp;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        stamps[slot] = stamp;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    void remove(long key) {
+        var slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // Backward-shift the entries after it that would no longer be reachable
+        var hole = slot;
+        for (var next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            var home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                stamps[hole] = stamps[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldStamps = stamps;
+        keys = new long[oldKeys.length * 2];
+        stamps = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                touch(oldKeys[i], oldStamps[i]);
+            }
+        }
+    }
+}
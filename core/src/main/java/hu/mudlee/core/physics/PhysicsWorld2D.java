@@ -0,0 +1,632 @@
+package hu.mudlee.core.physics;
+
+import hu.mudlee.core.jobs.JobSystem;
+import hu.mudlee.core.jobs.RangeJob;
+import java.util.Arrays;
+import org.joml.Vector2f;
+
+/**
+ * Moves the {@link Rigidbody2D}s of a scene in fixed time steps and resolves their contacts with the
+ * {@link Collider2D}s of its {@link CollisionSystem2D}.
+ *
+ * <p>Body state is kept in parallel primitive arrays indexed by body. Each step integrates gravity
+ * and forces, takes the candidate pairs from the collision system's sort-and-sweep, builds one
+ * contact per touching pair and solves the contacts with sequential impulses: a few velocity
+ * iterations, friction clamped by the normal impulse, a position bias for the penetration beyond a
+ * small slop. Contacts start from the impulses the same pair reached in the previous step, which is
+ * what keeps stacks from jittering.
+ *
+ * <p>Dynamic bodies joined by contacts form islands that share no dynamic body, so the islands are
+ * solved on the {@link JobSystem} workers in parallel when there is enough work and the job system
+ * is running; static and kinematic bodies are only read by the solver.
+ *
+ * <p>A {@link hu.mudlee.core.gameobject.GameScene2D} registers the bodies of its objects and steps
+ * its world after the object updates, see {@link hu.mudlee.core.gameobject.GameScene2D#getPhysics()}.
+ */
+public final class PhysicsWorld2D {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final float DEFAULT_TIME_STEP = 1f / 60f;
+    private static final int DEFAULT_MAX_STEPS = 4;
+    private static final int DEFAULT_ITERATIONS = 8;
+    private static final float BAUMGARTE = 0.2f;
+    private static final float SLOP = 0.5f;
+    private static final float RESTITUTION_THRESHOLD = 30f;
+    private static final int PARALLEL_MIN_CONTACTS = 256;
+    // Rigidbody2D.Type ordinals
+    private static final int TYPE_DYNAMIC = 0;
+    private static final int TYPE_STATIC = 2;
+
+    private final CollisionSystem2D collisions;
+    private float gravityX;
+    private float gravityY;
+    private float timeStep = DEFAULT_TIME_STEP;
+    private int maxSteps = DEFAULT_MAX_STEPS;
+    private int iterations = DEFAULT_ITERATIONS;
+    private float accumulator;
+
+    private Rigidbody2D[] bodies = new Rigidbody2D[INITIAL_CAPACITY];
+    private float[] posX = new float[INITIAL_CAPACITY];
+    private float[] posY = new float[INITIAL_CAPACITY];
+    private float[] velX = new float[INITIAL_CAPACITY];
+    private float[] velY = new float[INITIAL_CAPACITY];
+    private float[] forceX = new float[INITIAL_CAPACITY];
+    private float[] forceY = new float[INITIAL_CAPACITY];
+    private float[] invMass = new float[INITIAL_CAPACITY];
+    private float[] restitution = new float[INITIAL_CAPACITY];
+    private float[] friction = new float[INITIAL_CAPACITY];
+    private float[] damping = new float[INITIAL_CAPACITY];
+    private float[] gravityScale = new float[INITIAL_CAPACITY];
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] proxies = new int[INITIAL_CAPACITY];
+    // Union-find parent, then island index of the root
+    private int[] islandOf = new int[INITIAL_CAPACITY];
+    private int bodyCount;
+    // Body index by collider proxy id, -1 for colliders without a body
+    private int[] bodyOfProxy = new int[INITIAL_CAPACITY];
+
+    private int contactCount;
+    private int[] contactA = new int[INITIAL_CAPACITY];
+    private int[] contactB = new int[INITIAL_CAPACITY];
+    private long[] contactKey = new long[INITIAL_CAPACITY];
+    private float[] normalX = new float[INITIAL_CAPACITY];
+    private float[] normalY = new float[INITIAL_CAPACITY];
+    private float[] penetration = new float[INITIAL_CAPACITY];
+    private float[] normalMass = new float[INITIAL_CAPACITY];
+    private float[] bias = new float[INITIAL_CAPACITY];
+    private float[] contactFriction = new float[INITIAL_CAPACITY];
+    private float[] impulseN = new float[INITIAL_CAPACITY];
+    private float[] impulseT = new float[INITIAL_CAPACITY];
+    // The previous step's contacts by pair, for warm starting
+    private final PairSet previous = new PairSet(INITIAL_CAPACITY);
+    private float[] previousImpulseN = new float[INITIAL_CAPACITY];
+    private float[] previousImpulseT = new float[INITIAL_CAPACITY];
+
+    // Contacts ordered by island; island i owns [islandStart[i], islandStart[i + 1])
+    private int[] contactOrder = new int[INITIAL_CAPACITY];
+    private int[] islandStart = new int[INITIAL_CAPACITY + 1];
+    private int islandCount;
+    private float stepInverse;
+
+    private final RangeJob solveIslands = this::solveIslands;
+
+    public PhysicsWorld2D(CollisionSystem2D collisions) {
+        this.collisions = collisions;
+        Arrays.fill(bodyOfProxy, -1);
+    }
+
+    public void setGravity(float x, float y) {
+        gravityX = x;
+        gravityY = y;
+    }
+
+    public Vector2f getGravity(Vector2f dest) {
+        return dest.set(gravityX, gravityY);
+    }
+
+    /**
+     * Seconds simulated per step, and the most steps one update may run; time beyond that is dropped
+     * so a slow frame does not snowball into slower ones.
+     */
+    public void setTimeStep(float seconds, int maxSteps) {
+        if (!(seconds > 0f)) {
+            throw new IllegalArgumentException("Time step must be positive: " + seconds);
+        }
+        if (maxSteps < 1) {
+            throw new IllegalArgumentException("Max steps must be at least 1: " + maxSteps);
+        }
+        this.timeStep = seconds;
+        this.maxSteps = maxSteps;
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /** Velocity iterations per step; more make stacks stiffer. */
+    public void setIterations(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("Iterations must be at least 1: " + iterations);
+        }
+        this.iterations = iterations;
+    }
+
+    public void add(Rigidbody2D body) {
+        if (body.body >= 0) {
+            throw new IllegalStateException("Rigidbody is already in a physics world");
+        }
+        if (body.getGameObject() == null) {
+            throw new IllegalArgumentException("Rigidbody is not attached to a GameObject");
+        }
+        if (bodyCount == bodies.length) {
+            growBodies(bodyCount * 2);
+        }
+        var i = bodyCount++;
+        bodies[i] = body;
+        body.world = this;
+        body.body = i;
+        velX[i] = body.storedVelocityX();
+        velY[i] = body.storedVelocityY();
+        forceX[i] = 0f;
+        forceY[i] = 0f;
+        proxies[i] = -1;
+    }
+
+    public void remove(Rigidbody2D body) {
+        var i = body.body;
+        if (i < 0 || body.world != this) {
+            return;
+        }
+        body.storeVelocity(velX[i], velY[i]);
+        body.world = null;
+        body.body = -1;
+        if (proxies[i] >= 0 && bodyOfProxy[proxies[i]] == i) {
+            bodyOfProxy[proxies[i]] = -1;
+        }
+        var last = --bodyCount;
+        if (i != last) {
+            bodies[i] = bodies[last];
+            bodies[i].body = i;
+            posX[i] = posX[last];
+            posY[i] = posY[last];
+            velX[i] = velX[last];
+            velY[i] = velY[last];
+            forceX[i] = forceX[last];
+            forceY[i] = forceY[last];
+            proxies[i] = proxies[last];
+            if (proxies[i] >= 0) {
+                bodyOfProxy[proxies[i]] = i;
+            }
+        }
+        bodies[last] = null;
+    }
+
+    public int getBodyCount() {
+        return bodyCount;
+    }
+
+    /** Contacts solved in the last step. */
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    /**
+     * Runs as many fixed steps as {@code elapsedSeconds} adds up to. Reads every body's position
+     * and settings first, and writes the positions of moving bodies back to their transforms after.
+     */
+    public void update(float elapsedSeconds) {
+        accumulator += elapsedSeconds;
+        if (accumulator < timeStep) {
+            return;
+        }
+        collisions.refreshBounds();
+        readBodies();
+        stepInverse = 1f / timeStep;
+        var steps = 0;
+        while (accumulator >= timeStep && steps < maxSteps) {
+            step(timeStep);
+            accumulator -= timeStep;
+            steps++;
+        }
+        if (accumulator >= timeStep) {
+            accumulator = 0f;
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            forceX[i] = 0f;
+            forceY[i] = 0f;
+            if (types[i] != TYPE_STATIC) {
+                bodies[i].getGameObject().transform.position.set(posX[i], posY[i]);
+            }
+        }
+    }
+
+    /** Removes every body, keeping their velocities in the components. */
+    public void clear() {
+        for (int i = bodyCount - 1; i >= 0; i--) {
+            remove(bodies[i]);
+        }
+        previous.clear();
+        contactCount = 0;
+        accumulator = 0f;
+    }
+
+    Vector2f velocity(int i, Vector2f dest) {
+        return dest.set(velX[i], velY[i]);
+    }
+
+    void setVelocity(int i, float x, float y) {
+        velX[i] = x;
+        velY[i] = y;
+    }
+
+    void addVelocity(int i, float x, float y) {
+        velX[i] += x;
+        velY[i] += y;
+    }
+
+    void addForce(int i, float x, float y) {
+        forceX[i] += x;
+        forceY[i] += y;
+    }
+
+    private void readBodies() {
+        for (int i = 0; i < bodyCount; i++) {
+            var body = bodies[i];
+            var go = body.getGameObject();
+            var position = go.transform.position;
+            posX[i] = position.x;
+            posY[i] = position.y;
+            if (body.type == Rigidbody2D.Type.STATIC) {
+                velX[i] = 0f;
+                velY[i] = 0f;
+            }
+            // A disabled body keeps its velocity but stays put; its collider is inactive too
+            var type = body.isEnabled() && go.isEnabled() ? body.type : Rigidbody2D.Type.STATIC;
+            types[i] = type.ordinal();
+            invMass[i] = type == Rigidbody2D.Type.DYNAMIC && body.mass > 0f ? 1f / body.mass : 0f;
+            restitution[i] = body.restitution;
+            friction[i] = body.friction;
+            damping[i] = body.linearDamping;
+            gravityScale[i] = body.gravityScale;
+            if (proxies[i] >= 0 && proxies[i] < bodyOfProxy.length && bodyOfProxy[proxies[i]] == i) {
+                bodyOfProxy[proxies[i]] = -1;
+            }
+            var collider = go.getComponent(Collider2D.class);
+            var proxy = collider != null ? collider.proxy : -1;
+            proxies[i] = proxy;
+            if (proxy >= 0) {
+                if (proxy >= bodyOfProxy.length) {
+                    var old = bodyOfProxy.length;
+                    bodyOfProxy = Arrays.copyOf(bodyOfProxy, Math.max(proxy + 1, old * 2));
+                    Arrays.fill(bodyOfProxy, old, bodyOfProxy.length, -1);
+                }
+                bodyOfProxy[proxy] = i;
+            }
+        }
+    }
+
+    private void step(float dt) {
+        for (int i = 0; i < bodyCount; i++) {
+            if (types[i] != TYPE_DYNAMIC) {
+                continue;
+            }
+            var vx = velX[i] + (gravityX * gravityScale[i] + forceX[i] * invMass[i]) * dt;
+            var vy = velY[i] + (gravityY * gravityScale[i] + forceY[i] * invMass[i]) * dt;
+            var d = 1f / (1f + dt * damping[i]);
+            velX[i] = vx * d;
+            velY[i] = vy * d;
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            if (proxies[i] >= 0) {
+                collisions.moveTo(proxies[i], posX[i], posY[i]);
+            }
+        }
+        buildContacts(collisions.findCandidates());
+        buildIslands();
+        if (islandCount > 1 && contactCount >= PARALLEL_MIN_CONTACTS && JobSystem.isRunning()) {
+            JobSystem.complete(JobSystem.parallelFor(islandCount, 1, solveIslands));
+        } else {
+            solveIslands(0, islandCount);
+        }
+        for (int i = 0; i < bodyCount; i++) {
+            if (types[i] != TYPE_STATIC) {
+                posX[i] += velX[i] * dt;
+                posY[i] += velY[i] * dt;
+            }
+        }
+        storeImpulses();
+    }
+
+    private void buildContacts(int candidateCount) {
+        var candidates = collisions.candidates();
+        contactCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            var key = candidates[i];
+            var proxyA = PairSet.first(key);
+            var proxyB = PairSet.second(key);
+            var a = bodyOf(proxyA);
+            var b = bodyOf(proxyB);
+            if ((a < 0 || types[a] != TYPE_DYNAMIC) && (b < 0 || types[b] != TYPE_DYNAMIC)) {
+                continue;
+            }
+            if (contactCount == contactA.length) {
+                growContacts(contactCount * 2);
+            }
+            if (!manifold(proxyA, proxyB, contactCount)) {
+                continue;
+            }
+            var c = contactCount++;
+            contactA[c] = a;
+            contactB[c] = b;
+            contactKey[c] = key;
+            prepare(c, a, b);
+        }
+    }
+
+    private int bodyOf(int proxy) {
+        return proxy < bodyOfProxy.length ? bodyOfProxy[proxy] : -1;
+    }
+
+    /** Fills the normal (from A to B) and penetration of contact {@code c}, or returns {@code false}. */
+    private boolean manifold(int a, int b, int c) {
+        var circleA = isCircle(a);
+        var circleB = isCircle(b);
+        var ax = (collisions.minX(a) + collisions.maxX(a)) * 0.5f;
+        var ay = (collisions.minY(a) + collisions.maxY(a)) * 0.5f;
+        var bx = (collisions.minX(b) + collisions.maxX(b)) * 0.5f;
+        var by = (collisions.minY(b) + collisions.maxY(b)) * 0.5f;
+        if (!circleA && !circleB) {
+            var overlapX =
+                    Math.min(collisions.maxX(a), collisions.maxX(b)) - Math.max(collisions.minX(a), collisions.minX(b));
+            var overlapY =
+                    Math.min(collisions.maxY(a), collisions.maxY(b)) - Math.max(collisions.minY(a), collisions.minY(b));
+            if (overlapX < overlapY) {
+                setNormal(c, bx >= ax ? 1f : -1f, 0f, overlapX);
+            } else {
+                setNormal(c, 0f, by >= ay ? 1f : -1f, overlapY);
+            }
+            return true;
+        }
+        if (circleA && circleB) {
+            var dx = bx - ax;
+            var dy = by - ay;
+            var radii = (collisions.maxX(a) - collisions.minX(a) + collisions.maxX(b) - collisions.minX(b)) * 0.5f;
+            var distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared > radii * radii) {
+                return false;
+            }
+            var distance = (float) Math.sqrt(distanceSquared);
+            if (distance == 0f) {
+                setNormal(c, 0f, 1f, radii);
+            } else {
+                setNormal(c, dx / distance, dy / distance, radii - distance);
+            }
+            return true;
+        }
+        var box = circleA ? b : a;
+        var cx = circleA ? ax : bx;
+        var cy = circleA ? ay : by;
+        var r = circleA ? (collisions.maxX(a) - ax) : (collisions.maxX(b) - bx);
+        var flip = circleA ? -1f : 1f;
+        var boxMinX = collisions.minX(box);
+        var boxMinY = collisions.minY(box);
+        var boxMaxX = collisions.maxX(box);
+        var boxMaxY = collisions.maxY(box);
+        if (cx > boxMinX && cx < boxMaxX && cy > boxMinY && cy < boxMaxY) {
+            // Centre inside the box: push out through the nearest side
+            var left = cx - boxMinX;
+            var right = boxMaxX - cx;
+            var down = cy - boxMinY;
+            var up = boxMaxY - cy;
+            var nearest = Math.min(Math.min(left, right), Math.min(down, up));
+            if (nearest == left) {
+                setNormal(c, -flip, 0f, left + r);
+            } else if (nearest == right) {
+                setNormal(c, flip, 0f, right + r);
+            } else if (nearest == down) {
+                setNormal(c, 0f, -flip, down + r);
+            } else {
+                setNormal(c, 0f, flip, up + r);
+            }
+            return true;
+        }
+        var dx = cx - Math.max(boxMinX, Math.min(cx, boxMaxX));
+        var dy = cy - Math.max(boxMinY, Math.min(cy, boxMaxY));
+        var distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared > r * r) {
+            return false;
+        }
+        var distance = (float) Math.sqrt(distanceSquared);
+        setNormal(c, dx / distance * flip, dy / distance * flip, r - distance);
+        return true;
+    }
+
+    private boolean isCircle(int proxy) {
+        return collisions.collider(proxy).getShape() == Collider2D.Shape.CIRCLE;
+    }
+
+    private void setNormal(int c, float x, float y, float depth) {
+        normalX[c] = x;
+        normalY[c] = y;
+        penetration[c] = depth;
+    }
+
+    private void prepare(int c, int a, int b) {
+        var invA = a >= 0 ? invMass[a] : 0f;
+        var invB = b >= 0 ? invMass[b] : 0f;
+        normalMass[c] = 1f / (invA + invB);
+        var e = Math.max(a >= 0 ? restitution[a] : 0f, b >= 0 ? restitution[b] : 0f);
+        // A collider without a body takes the friction of the body it touches
+        if (a < 0 || b < 0) {
+            contactFriction[c] = a >= 0 ? friction[a] : friction[b];
+        } else {
+            contactFriction[c] = (float) Math.sqrt(friction[a] * friction[b]);
+        }
+        var relative = (velX(b) - velX(a)) * normalX[c] + (velY(b) - velY(a)) * normalY[c];
+        var b0 = BAUMGARTE * stepInverse * Math.max(0f, penetration[c] - SLOP);
+        if (relative < -RESTITUTION_THRESHOLD) {
+            b0 = Math.max(b0, -e * relative);
+        }
+        bias[c] = b0;
+        var last = previous.get(contactKey[c]);
+        if (last >= 0) {
+            impulseN[c] = previousImpulseN[last];
+            impulseT[c] = previousImpulseT[last];
+        } else {
+            impulseN[c] = 0f;
+            impulseT[c] = 0f;
+        }
+    }
+
+    /** Union-finds the dynamic bodies joined by contacts and orders the contacts by island. */
+    private void buildIslands() {
+        for (int i = 0; i < bodyCount; i++) {
+            islandOf[i] = i;
+        }
+        for (int c = 0; c < contactCount; c++) {
+            var a = contactA[c];
+            var b = contactB[c];
+            if (a >= 0 && b >= 0 && types[a] == TYPE_DYNAMIC && types[b] == TYPE_DYNAMIC) {
+                var rootA = find(a);
+                var rootB = find(b);
+                if (rootA != rootB) {
+                    islandOf[rootA] = rootB;
+                }
+            }
+        }
+        // Number the roots that own contacts, counting contacts per island
+        islandCount = 0;
+        for (int c = 0; c < contactCount; c++) {
+            var root = find(dynamicBodyOf(c));
+            if (islandOf[root] == root) {
+                // Encode the island as -(index + 2), so roots stay told apart from numbered ones
+                if (islandCount + 1 >= islandStart.length) {
+                    islandStart = Arrays.copyOf(islandStart, islandStart.length * 2);
+                }
+                islandOf[root] = -(islandCount + 2);
+                islandStart[islandCount++] = 0;
+            }
+            islandStart[-islandOf[root] - 2]++;
+        }
+        var offset = 0;
+        for (int i = 0; i < islandCount; i++) {
+            var size = islandStart[i];
+            islandStart[i] = offset;
+            offset += size;
+        }
+        islandStart[islandCount] = offset;
+        for (int c = 0; c < contactCount; c++) {
+            var island = -islandOf[find(dynamicBodyOf(c))] - 2;
+            contactOrder[islandStart[island]++] = c;
+        }
+        for (int i = islandCount; i > 0; i--) {
+            islandStart[i] = islandStart[i - 1];
+        }
+        islandStart[0] = 0;
+    }
+
+    private int dynamicBodyOf(int c) {
+        var a = contactA[c];
+        return a >= 0 && types[a] == TYPE_DYNAMIC ? a : contactB[c];
+    }
+
+    private int find(int i) {
+        while (islandOf[i] >= 0 && islandOf[i] != i) {
+            var parent = islandOf[i];
+            if (islandOf[parent] >= 0) {
+                islandOf[i] = islandOf[parent];
+            }
+            i = parent;
+        }
+        return i;
+    }
+
+    private void solveIslands(int start, int end) {
+        for (int island = start; island < end; island++) {
+            var from = islandStart[island];
+            var to = islandStart[island + 1];
+            for (int k = from; k < to; k++) {
+                var c = contactOrder[k];
+                apply(c, impulseN[c], impulseT[c]);
+            }
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                for (int k = from; k < to; k++) {
+                    solveContact(contactOrder[k]);
+                }
+            }
+        }
+    }
+
+    private void solveContact(int c) {
+        var a = contactA[c];
+        var b = contactB[c];
+        var nx = normalX[c];
+        var ny = normalY[c];
+        var rvx = velX(b) - velX(a);
+        var rvy = velY(b) - velY(a);
+
+        var lambda = normalMass[c] * (bias[c] - (rvx * nx + rvy * ny));
+        var oldN = impulseN[c];
+        var newN = Math.max(oldN + lambda, 0f);
+        impulseN[c] = newN;
+        var dn = newN - oldN;
+
+        // The normal impulse leaves the tangential velocity unchanged
+        var vt = rvx * -ny + rvy * nx;
+        var maxFriction = contactFriction[c] * newN;
+        var oldT = impulseT[c];
+        var newT = Math.max(-maxFriction, Math.min(oldT - normalMass[c] * vt, maxFriction));
+        impulseT[c] = newT;
+        apply(c, dn, newT - oldT);
+    }
+
+    /** Applies normal impulse {@code n} and tangent impulse {@code t} to the bodies of contact {@code c}. */
+    private void apply(int c, float n, float t) {
+        var px = normalX[c] * n - normalY[c] * t;
+        var py = normalY[c] * n + normalX[c] * t;
+        var a = contactA[c];
+        var b = contactB[c];
+        if (a >= 0 && invMass[a] > 0f) {
+            velX[a] -= px * invMass[a];
+            velY[a] -= py * invMass[a];
+        }
+        if (b >= 0 && invMass[b] > 0f) {
+            velX[b] += px * invMass[b];
+            velY[b] += py * invMass[b];
+        }
+    }
+
+    private float velX(int body) {
+        return body >= 0 ? velX[body] : 0f;
+    }
+
+    private float velY(int body) {
+        return body >= 0 ? velY[body] : 0f;
+    }
+
+    private void storeImpulses() {
+        previous.clear();
+        if (previousImpulseN.length < contactCount) {
+            previousImpulseN = new float[contactA.length];
+            previousImpulseT = new float[contactA.length];
+        }
+        for (int c = 0; c < contactCount; c++) {
+            previous.touch(contactKey[c], c);
+            previousImpulseN[c] = impulseN[c];
+            previousImpulseT[c] = impulseT[c];
+        }
+    }
+
+    private void growBodies(int capacity) {
+        bodies = Arrays.copyOf(bodies, capacity);
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        forceX = Arrays.copyOf(forceX, capacity);
+        forceY = Arrays.copyOf(forceY, capacity);
+        invMass = Arrays.copyOf(invMass, capacity);
+        restitution = Arrays.copyOf(restitution, capacity);
+        friction = Arrays.copyOf(friction, capacity);
+        damping = Arrays.copyOf(damping, capacity);
+        gravityScale = Arrays.copyOf(gravityScale, capacity);
+        types = Arrays.copyOf(types, capacity);
+        proxies = Arrays.copyOf(proxies, capacity);
+        islandOf = Arrays.copyOf(islandOf, capacity);
+    }
+
+    private void growContacts(int capacity) {
+        contactA = Arrays.copyOf(contactA, capacity);
+        contactB = Arrays.copyOf(contactB, capacity);
+        contactKey = Arrays.copyOf(contactKey, capacity);
+        normalX = Arrays.copyOf(normalX, capacity);
+        normalY = Arrays.copyOf(normalY, capacity);
+        penetration = Arrays.copyOf(penetration, capacity);
+        normalMass = Arrays.copyOf(normalMass, capacity);
+        bias = Arrays.copyOf(bias, capacity);
+        contactFriction = Arrays.copyOf(contactFriction, capacity);
+        impulseN = Arrays.copyOf(impulseN, capacity);
+        impulseT = Arrays.copyOf(impulseT, capacity);
+        contactOrder = Arrays.copyOf(contactOrder, capacity);
+    }
+}
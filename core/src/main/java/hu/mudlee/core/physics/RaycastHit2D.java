@@ -0,0 +1,39 @@
+package hu.mudlee.core.physics;
+
+import org.joml.Vector2f;
+
+/**
+ * Result of a ray or shape cast, filled in by the query so one instance can be reused for every
+ * cast.
+ */
+public final class RaycastHit2D {
+
+    /** Where the ray hit; for shape casts, the centre of the cast shape when it hit. */
+    public final Vector2f point = new Vector2f();
+    /** Surface normal at the hit, pointing back towards the caster. */
+    public final Vector2f normal = new Vector2f();
+
+    public float distance;
+    /** The collider hit, or {@code null} for a tile. */
+    public Collider2D collider;
+    /** The tile hit, or -1 for a collider. */
+    public int tileX = -1;
+
+    public int tileY = -1;
+
+    void set(
+            float originX,
+            float originY,
+            float directionX,
+            float directionY,
+            float distance,
+            float normalX,
+            float normalY) {
+        this.distance = distance;
+        point.set(originX + directionX * distance, originY + directionY * distance);
+        normal.set(normalX, normalY);
+        collider = null;
+        tileX = -1;
+        tileY = -1;
+    }
+}
@@ -0,0 +1,105 @@
+package hu.mudlee.core.physics;
+
+import hu.mudlee.core.gameobject.Component;
+import org.joml.Vector2f;
+
+/**
+ * Makes a {@link hu.mudlee.core.gameobject.GameObject} move under the {@link PhysicsWorld2D} of its
+ * scene. The body collides through the {@link Collider2D} on the same object; colliders without a
+ * body are static.
+ *
+ * <p>The component is a handle: position and velocity live in the world's arrays while the body is
+ * in a world. The transform's position is the body's position, read before and written after every
+ * step, so moving the transform teleports the body. Bodies should be root transforms. Bodies do not
+ * rotate, matching the axis-aligned shapes of {@link Collider2D}.
+ *
+ * <pre>
+ * var ball = new GameObject("Ball")
+ *         .addComponent(Collider2D.circle(8f))
+ *         .addComponent(new Rigidbody2D());
+ * ball.getComponent(Rigidbody2D.class).setVelocity(120f, 0f);
+ * </pre>
+ */
+public final class Rigidbody2D extends Component {
+
+    public enum Type {
+        /** Moved by forces, gravity and contacts. */
+        DYNAMIC,
+        /** Moved only by its velocity; pushes dynamic bodies but is not pushed back. */
+        KINEMATIC,
+        /** Never moves. */
+        STATIC
+    }
+
+    public Type type = Type.DYNAMIC;
+    public float mass = 1f;
+    /** Bounciness, 0 to 1; the larger of the two bodies' values is used. */
+    public float restitution;
+    /** Coulomb friction coefficient; the geometric mean of the two bodies' values is used. */
+    public float friction = 0.4f;
+
+    public float linearDamping;
+    public float gravityScale = 1f;
+
+    // Index in the world's arrays, or -1
+    PhysicsWorld2D world;
+    int body = -1;
+    private float velocityX;
+    private float velocityY;
+
+    public Vector2f getVelocity(Vector2f dest) {
+        if (body >= 0) {
+            return world.velocity(body, dest);
+        }
+        return dest.set(velocityX, velocityY);
+    }
+
+    public void setVelocity(float x, float y) {
+        if (body >= 0) {
+            world.setVelocity(body, x, y);
+        } else {
+            velocityX = x;
+            velocityY = y;
+        }
+    }
+
+    /** Adds a force applied over the next world update. */
+    public void addForce(float x, float y) {
+        if (body >= 0) {
+            world.addForce(body, x, y);
+        }
+    }
+
+    /** Changes the velocity at once by {@code impulse / mass}. */
+    public void addImpulse(float x, float y) {
+        if (type != Type.DYNAMIC || !(mass > 0f)) {
+            return;
+        }
+        if (body >= 0) {
+            world.addVelocity(body, x / mass, y / mass);
+        } else {
+            velocityX += x / mass;
+            velocityY += y / mass;
+        }
+    }
+
+    @Override
+    public void reset() {
+        velocityX = 0f;
+        velocityY = 0f;
+    }
+
+    /** Velocity to start with when added to a world, and to keep when removed. */
+    void storeVelocity(float x, float y) {
+        velocityX = x;
+        velocityY = y;
+    }
+
+    float storedVelocityX() {
+        return velocityX;
+    }
+
+    float storedVelocityY() {
+        return velocityY;
+    }
+}
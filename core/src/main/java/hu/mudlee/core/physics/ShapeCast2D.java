@@ -0,0 +1,103 @@
+package hu.mudlee.core.physics;
+
+/**
+ * Exact ray test against a rounded box: a box of half size ({@code hx}, {@code hy}) grown by radius
+ * {@code r}. Boxes ({@code r} = 0), circles ({@code hx} = {@code hy} = 0) and the Minkowski sums
+ * of a cast box or circle with a box or circle target are all rounded boxes, so one test serves
+ * rays and shape casts alike. Results are left in the fields, so casting does not allocate.
+ */
+final class ShapeCast2D {
+
+    float fraction;
+    float normalX;
+    float normalY;
+
+    /** Whether the point ({@code px}, {@code py}), relative to the box centre, is in the rounded box. */
+    static boolean contains(float px, float py, float hx, float hy, float r) {
+        var outsideX = Math.max(Math.abs(px) - hx, 0f);
+        var outsideY = Math.max(Math.abs(py) - hy, 0f);
+        return outsideX * outsideX + outsideY * outsideY <= r * r;
+    }
+
+    /**
+     * Casts from ({@code px}, {@code py}), relative to the box centre, along ({@code dx}, {@code dy})
+     * up to {@code maxFraction} of it. A start inside the shape hits at fraction 0 with the normal
+     * facing back along the ray.
+     */
+    boolean cast(float px, float py, float dx, float dy, float hx, float hy, float r, float maxFraction) {
+        if (contains(px, py, hx, hy, r)) {
+            var length = (float) Math.sqrt(dx * dx + dy * dy);
+            fraction = 0f;
+            normalX = length > 0f ? -dx / length : 0f;
+            normalY = length > 0f ? -dy / length : 0f;
+            return true;
+        }
+        var ex = hx + r;
+        var ey = hy + r;
+        var enter = 0f;
+        var exit = maxFraction;
+        var axisX = false;
+        if (dx == 0f) {
+            if (Math.abs(px) > ex) {
+                return false;
+            }
+        } else {
+            var t1 = (-ex - px) / dx;
+            var t2 = (ex - px) / dx;
+            var near = Math.min(t1, t2);
+            if (near > enter) {
+                enter = near;
+                axisX = true;
+            }
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (dy == 0f) {
+            if (Math.abs(py) > ey) {
+                return false;
+            }
+        } else {
+            var t1 = (-ey - py) / dy;
+            var t2 = (ey - py) / dy;
+            var near = Math.min(t1, t2);
+            if (near > enter) {
+                enter = near;
+                axisX = false;
+            }
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+        if (enter > exit) {
+            return false;
+        }
+        var hitX = px + dx * enter;
+        var hitY = py + dy * enter;
+        if (r > 0f && Math.abs(hitX) > hx && Math.abs(hitY) > hy) {
+            // Entered the grown box at a corner: the shape there is the circle around the box corner
+            var mx = px - Math.copySign(hx, hitX);
+            var my = py - Math.copySign(hy, hitY);
+            var a = dx * dx + dy * dy;
+            var b = mx * dx + my * dy;
+            var c = mx * mx + my * my - r * r;
+            var discriminant = b * b - a * c;
+            if (discriminant < 0f) {
+                return false;
+            }
+            var t = (-b - (float) Math.sqrt(discriminant)) / a;
+            if (t < 0f || t > maxFraction) {
+                return false;
+            }
+            fraction = t;
+            normalX = (mx + dx * t) / r;
+            normalY = (my + dy * t) / r;
+            return true;
+        }
+        fraction = enter;
+        if (axisX) {
+            normalX = -Math.signum(dx);
+            normalY = 0f;
+        } else {
+            normalX = 0f;
+            normalY = -Math.signum(dy);
+        }
+        return true;
+    }
+}
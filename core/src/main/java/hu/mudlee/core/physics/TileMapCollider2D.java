@@ -0,0 +1,264 @@
+package hu.mudlee.core.physics;
+
+import hu.mudlee.core.render.tilemap.TileMap2D;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Ray, shape-cast and overlap queries against the solid tiles of a {@link TileMap2D}, with the same
+ * shapes and results as the {@link CollisionSystem2D} queries.
+ *
+ * <p>Runs of adjacent solid tiles in a row are merged into one box, and the boxes are kept in an
+ * {@link AabbTree2D}, so a long wall costs one test instead of one per tile. Queries are in world
+ * space and follow the map's {@link TileMap2D#position}; call {@link #rebuild()} after changing
+ * tiles. Hits report the tile in {@link RaycastHit2D#tileX}/{@link RaycastHit2D#tileY}.
+ *
+ * <pre>
+ * var walls = new TileMapCollider2D(map, id -&gt; id &gt;= FIRST_WALL_TILE);
+ * if (walls.raycast(x, y, dirX, dirY, 300f, -1, hit)) {
+ *     map.setTile(hit.tileX, hit.tileY, CRACKED_WALL_TILE);
+ *     walls.rebuild();
+ * }
+ * </pre>
+ */
+public final class TileMapCollider2D {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Layer index of every tile, 0 to 31; queries whose mask leaves it out find nothing. */
+    public int layer;
+
+    private final TileMap2D map;
+    private final IntPredicate solid;
+    private final AabbTree2D tree = new AabbTree2D(0f);
+    private int[] runX = new int[INITIAL_CAPACITY];
+    private int[] runY = new int[INITIAL_CAPACITY];
+    private int[] runLength = new int[INITIAL_CAPACITY];
+    private int runCount;
+    private int[] found = new int[INITIAL_CAPACITY];
+
+    private final ShapeCast2D shapeCast = new ShapeCast2D();
+    private final AabbTree2D.RayCallback castRun = this::castRun;
+    private float castX;
+    private float castY;
+    private float castDx;
+    private float castDy;
+    private float castHalfWidth;
+    private float castHalfHeight;
+    private float castRadius;
+    private int castHit;
+    private float castFraction;
+    private float castNormalX;
+    private float castNormalY;
+
+    /** {@code solid} tells which tile ids block; {@link TileMap2D#EMPTY} cells never do. */
+    public TileMapCollider2D(TileMap2D map, IntPredicate solid) {
+        this.map = map;
+        this.solid = solid;
+        rebuild();
+    }
+
+    public TileMap2D getMap() {
+        return map;
+    }
+
+    /** Re-reads the map's tiles. */
+    public void rebuild() {
+        tree.clear();
+        runCount = 0;
+        var tileWidth = (float) map.getTileWidth();
+        var tileHeight = (float) map.getTileHeight();
+        for (int y = 0; y < map.getHeight(); y++) {
+            var x = 0;
+            while (x < map.getWidth()) {
+                if (!isSolid(x, y)) {
+                    x++;
+                    continue;
+                }
+                var start = x;
+                while (x < map.getWidth() && isSolid(x, y)) {
+                    x++;
+                }
+                if (runCount == runX.length) {
+                    runX = Arrays.copyOf(runX, runCount * 2);
+                    runY = Arrays.copyOf(runY, runCount * 2);
+                    runLength = Arrays.copyOf(runLength, runCount * 2);
+                }
+                runX[runCount] = start;
+                runY[runCount] = y;
+                runLength[runCount] = x - start;
+                tree.add(start * tileWidth, y * tileHeight, x * tileWidth, (y + 1) * tileHeight, -1, runCount);
+                runCount++;
+            }
+        }
+        tree.rebuild();
+    }
+
+    public boolean isSolid(int x, int y) {
+        var id = map.getTile(x, y);
+        return id != TileMap2D.EMPTY && solid.test(id);
+    }
+
+    /** See {@link CollisionSystem2D#raycast}. */
+    public boolean raycast(
+            float originX,
+            float originY,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(originX, originY, 0f, 0f, 0f, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /** See {@link CollisionSystem2D#circleCast}. */
+    public boolean circleCast(
+            float originX,
+            float originY,
+            float radius,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(originX, originY, 0f, 0f, radius, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /** See {@link CollisionSystem2D#boxCast}. */
+    public boolean boxCast(
+            float originX,
+            float originY,
+            float width,
+            float height,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        return cast(
+                originX, originY, width * 0.5f, height * 0.5f, 0f, directionX, directionY, maxDistance, layerMask, hit);
+    }
+
+    /**
+     * Solid tiles overlapping the {@code width} × {@code height} box centred on ({@code x}, {@code
+     * y}), written as {@code y * mapWidth + x}. Returns the number found, capped at the array length.
+     */
+    public int overlapBox(float x, float y, float width, float height, int layerMask, int[] result) {
+        return overlap(x, y, width * 0.5f, height * 0.5f, 0f, layerMask, result);
+    }
+
+    /** Solid tiles within {@code radius} of ({@code x}, {@code y}), as in {@link #overlapBox}. */
+    public int overlapCircle(float x, float y, float radius, int layerMask, int[] result) {
+        return overlap(x, y, 0f, 0f, radius, layerMask, result);
+    }
+
+    private boolean cast(
+            float originX,
+            float originY,
+            float halfWidth,
+            float halfHeight,
+            float radius,
+            float directionX,
+            float directionY,
+            float maxDistance,
+            int layerMask,
+            RaycastHit2D hit) {
+        var length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0f) {
+            throw new IllegalArgumentException("Cast direction must not be zero");
+        }
+        if ((layerMask & (1 << layer)) == 0) {
+            return false;
+        }
+        directionX /= length;
+        directionY /= length;
+        // Runs are stored relative to the map's corner
+        castX = originX - map.position.x;
+        castY = originY - map.position.y;
+        castDx = directionX * maxDistance;
+        castDy = directionY * maxDistance;
+        castHalfWidth = halfWidth;
+        castHalfHeight = halfHeight;
+        castRadius = radius;
+        castHit = -1;
+        tree.raycast(
+                castX, castY, castX + castDx, castY + castDy, halfWidth + radius, halfHeight + radius, -1, castRun);
+        if (castHit < 0) {
+            return false;
+        }
+        hit.set(originX, originY, directionX, directionY, castFraction * maxDistance, castNormalX, castNormalY);
+        // The tile of the run nearest to where the cast ended up
+        var localX = castX + castDx * castFraction;
+        var tileX = (int) Math.floor(localX / map.getTileWidth());
+        hit.tileX = Math.max(runX[castHit], Math.min(tileX, runX[castHit] + runLength[castHit] - 1));
+        hit.tileY = runY[castHit];
+        return true;
+    }
+
+    private float castRun(int run, float maxFraction) {
+        var tileWidth = (float) map.getTileWidth();
+        var tileHeight = (float) map.getTileHeight();
+        var halfWidth = runLength[run] * tileWidth * 0.5f;
+        var halfHeight = tileHeight * 0.5f;
+        var hit = shapeCast.cast(
+                castX - (runX[run] * tileWidth + halfWidth),
+                castY - (runY[run] * tileHeight + halfHeight),
+                castDx,
+                castDy,
+                halfWidth + castHalfWidth,
+                halfHeight + castHalfHeight,
+                castRadius,
+                maxFraction);
+        if (!hit || shapeCast.fraction >= maxFraction) {
+            return maxFraction;
+        }
+        castHit = run;
+        castFraction = shapeCast.fraction;
+        castNormalX = shapeCast.normalX;
+        castNormalY = shapeCast.normalY;
+        return castFraction;
+    }
+
+    private int overlap(
+            float x, float y, float halfWidth, float halfHeight, float radius, int layerMask, int[] result) {
+        if ((layerMask & (1 << layer)) == 0) {
+            return 0;
+        }
+        x -= map.position.x;
+        y -= map.position.y;
+        int candidates;
+        while ((candidates = tree.query(
+                        x - halfWidth - radius,
+                        y - halfHeight - radius,
+                        x + halfWidth + radius,
+                        y + halfHeight + radius,
+                        -1,
+                        found))
+                == found.length) {
+            found = new int[found.length * 2];
+        }
+        var tileWidth = (float) map.getTileWidth();
+        var tileHeight = (float) map.getTileHeight();
+        var tileHalfWidth = tileWidth * 0.5f;
+        var tileHalfHeight = tileHeight * 0.5f;
+        var count = 0;
+        for (int i = 0; i < candidates; i++) {
+            var run = found[i];
+            var centreY = runY[run] * tileHeight + tileHalfHeight;
+            for (int tx = runX[run]; tx < runX[run] + runLength[run]; tx++) {
+                if (count == result.length) {
+                    return count;
+                }
+                if (ShapeCast2D.contains(
+                        x - (tx * tileWidth + tileHalfWidth),
+                        y - centreY,
+                        tileHalfWidth + halfWidth,
+                        tileHalfHeight + halfHeight,
+                        radius)) {
+                    result[count++] = runY[run] * map.getWidth() + tx;
+                }
+            }
+        }
+        return count;
+    }
+}
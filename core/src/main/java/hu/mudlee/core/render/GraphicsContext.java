@@ -26,4 +26,9 @@ public interface GraphicsContext extends Disposable {
 
     /** Block until the GPU has finished all in-flight work. No-op for stateless backends. */
     default void waitIdle() {}
+
+    /** Number of frames the CPU may record ahead of the GPU. Resources used by a frame stay busy this long. */
+    default int framesInFlight() {
+        return 1;
+    }
 }
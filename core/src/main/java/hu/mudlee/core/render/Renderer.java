@@ -1,6 +1,7 @@
 package hu.mudlee.core.render;
 
 import hu.mudlee.core.render.opengl.OpenGLGraphicsContext;
+import hu.mudlee.core.render.texture.TextureResidency;
 import hu.mudlee.core.render.types.PolygonMode;
 import hu.mudlee.core.render.types.RenderMode;
 import hu.mudlee.core.render.vulkan.VulkanContext;
@@ -11,6 +12,7 @@ public class Renderer implements WindowEventListener {
     private final GraphicsContext context;
     private static Renderer instance;
     private static RenderBackend backend = RenderBackend.OPENGL;
+    private static long frameCount;
 
     private Renderer() {
         context = switch (backend) {
@@ -75,6 +77,18 @@ public class Renderer implements WindowEventListener {
 
     public static void swapBuffers(float frameTime) {
         get().context.swapBuffers(frameTime);
+        frameCount++;
+        TextureResidency.enforceBudget();
+    }
+
+    /** Number of frames presented so far. */
+    public static long frameCount() {
+        return frameCount;
+    }
+
+    /** How many frames the GPU may still be working on when the CPU starts a new one. */
+    public static int framesInFlight() {
+        return get().context.framesInFlight();
     }
 
     public static void clear() {
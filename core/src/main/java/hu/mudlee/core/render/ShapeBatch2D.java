@@ -0,0 +1,278 @@
+package hu.mudlee.core.render;
+
+import hu.mudlee.core.Color;
+import hu.mudlee.core.Disposable;
+import hu.mudlee.core.Rectangle;
+import hu.mudlee.core.render.types.PolygonMode;
+import hu.mudlee.core.render.types.RenderMode;
+import hu.mudlee.core.render.types.ShaderProps;
+import hu.mudlee.core.render.types.ShaderTypes;
+import hu.mudlee.core.window.Window;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+
+/**
+ * Batches untextured lines and filled shapes, e.g. for collision or navigation debug overlays.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * shapeBatch.begin(camera.getProjectionMatrix(), camera.getViewMatrix());
+ * shapeBatch.drawRectangle(bounds, Color.GREEN);
+ * shapeBatch.drawLine(from, to, Color.RED);
+ * shapeBatch.fillCircle(center, 4f, Color.WHITE);
+ * shapeBatch.end();
+ * </pre>
+ *
+ * <p>Vertices are position + colour only. Outlines go into a {@link RenderMode#LINES} buffer and
+ * filled shapes into a {@link RenderMode#TRIANGLES} buffer, so a whole overlay costs two draw calls
+ * regardless of how many shapes it contains. On {@link #end()} the filled shapes are drawn first and
+ * the outlines on top of them. A buffer is only flushed early when it fills up.
+ */
+public class ShapeBatch2D implements Disposable {
+
+    private static final int FLOATS_PER_VERTEX = 7; // vec3 pos + vec4 color
+    private static final int MAX_LINE_VERTICES = 32_768; // 16k segments
+    private static final int MAX_TRIANGLE_VERTICES = 49_152; // 16k triangles
+    private static final int DEFAULT_CIRCLE_SEGMENTS = 24;
+
+    private final Shader shader;
+    private final VertexArray lineArray;
+    private final VertexBuffer lineVbo;
+    private final VertexArray triangleArray;
+    private final VertexBuffer triangleVbo;
+    private final Matrix4f identityMatrix = new Matrix4f();
+    private final Matrix4f screenProjection = new Matrix4f();
+
+    private final float[] lineData = new float[MAX_LINE_VERTICES * FLOATS_PER_VERTEX];
+    private final float[] triangleData = new float[MAX_TRIANGLE_VERTICES * FLOATS_PER_VERTEX];
+    private int lineVertices;
+    private int triangleVertices;
+    private boolean begun;
+
+    public ShapeBatch2D() {
+        var stride = FLOATS_PER_VERTEX * Float.BYTES;
+        var layout = new VertexBufferLayout(
+                new VertexLayoutAttribute(0, 3, ShaderTypes.FLOAT, false, stride, 0),
+                new VertexLayoutAttribute(1, 4, ShaderTypes.FLOAT, false, stride, 3 * Float.BYTES));
+
+        lineVbo = VertexBuffer.createDynamic(layout, lineData.length);
+        lineArray = VertexArray.create();
+        lineArray.addVBO(lineVbo);
+        triangleVbo = VertexBuffer.createDynamic(layout, triangleData.length);
+        triangleArray = VertexArray.create();
+        triangleArray.addVBO(triangleVbo);
+
+        var shaderDir =
+                switch (Renderer.activeBackend()) {
+                    case OPENGL -> "opengl/shape";
+                    case VULKAN -> "vulkan/shape";
+                };
+        shader = Shader.create(shaderDir + "/vert.glsl", shaderDir + "/frag.glsl");
+        shader.createUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_PROJECTION_MATRIX.glslName);
+        shader.createUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_VIEW_MATRIX.glslName);
+        shader.setUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_VIEW_MATRIX.glslName, identityMatrix);
+    }
+
+    public void begin() {
+        var size = Window.getSize();
+        begin(screenProjection.setOrtho(0f, size.x, 0f, size.y, -1f, 1f), identityMatrix);
+    }
+
+    public void begin(Matrix4f transformMatrix) {
+        begin(transformMatrix, identityMatrix);
+    }
+
+    public void begin(Matrix4f projection, Matrix4f view) {
+        if (begun) {
+            throw new IllegalStateException("ShapeBatch2D.begin() called without a matching end()");
+        }
+        begun = true;
+        lineVertices = 0;
+        triangleVertices = 0;
+        shader.setUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_PROJECTION_MATRIX.glslName, projection);
+        shader.setUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_VIEW_MATRIX.glslName, view);
+    }
+
+    public void drawLine(Vector2f from, Vector2f to, Color color) {
+        drawLine(from.x, from.y, to.x, to.y, color.r, color.g, color.b, color.a);
+    }
+
+    public void drawLine(float x1, float y1, float x2, float y2, Color color) {
+        drawLine(x1, y1, x2, y2, color.r, color.g, color.b, color.a);
+    }
+
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        ensureBegun();
+        if (lineVertices + 2 > MAX_LINE_VERTICES) {
+            flushLines();
+        }
+        putVertex(lineData, lineVertices++, x1, y1, r, g, b, a);
+        putVertex(lineData, lineVertices++, x2, y2, r, g, b, a);
+    }
+
+    public void drawRectangle(Rectangle rect, Color color) {
+        drawRectangle(rect.x, rect.y, rect.width, rect.height, color);
+    }
+
+    /** Draws the outline of the rectangle whose bottom-left corner is at ({@code x}, {@code y}). */
+    public void drawRectangle(float x, float y, float width, float height, Color color) {
+        var r = color.r;
+        var g = color.g;
+        var b = color.b;
+        var a = color.a;
+        drawLine(x, y, x + width, y, r, g, b, a);
+        drawLine(x + width, y, x + width, y + height, r, g, b, a);
+        drawLine(x + width, y + height, x, y + height, r, g, b, a);
+        drawLine(x, y + height, x, y, r, g, b, a);
+    }
+
+    public void fillRectangle(Rectangle rect, Color color) {
+        fillRectangle(rect.x, rect.y, rect.width, rect.height, color);
+    }
+
+    public void fillRectangle(float x, float y, float width, float height, Color color) {
+        var r = color.r;
+        var g = color.g;
+        var b = color.b;
+        var a = color.a;
+        fillTriangle(x, y, x + width, y, x + width, y + height, r, g, b, a);
+        fillTriangle(x, y, x + width, y + height, x, y + height, r, g, b, a);
+    }
+
+    public void fillTriangle(float x1, float y1, float x2, float y2, float x3, float y3, Color color) {
+        fillTriangle(x1, y1, x2, y2, x3, y3, color.r, color.g, color.b, color.a);
+    }
+
+    public void fillTriangle(
+            float x1, float y1, float x2, float y2, float x3, float y3, float r, float g, float b, float a) {
+        ensureBegun();
+        if (triangleVertices + 3 > MAX_TRIANGLE_VERTICES) {
+            flushTriangles();
+        }
+        putVertex(triangleData, triangleVertices++, x1, y1, r, g, b, a);
+        putVertex(triangleData, triangleVertices++, x2, y2, r, g, b, a);
+        putVertex(triangleData, triangleVertices++, x3, y3, r, g, b, a);
+    }
+
+    public void drawCircle(Vector2f center, float radius, Color color) {
+        drawCircle(center.x, center.y, radius, DEFAULT_CIRCLE_SEGMENTS, color);
+    }
+
+    public void drawCircle(float cx, float cy, float radius, int segments, Color color) {
+        var r = color.r;
+        var g = color.g;
+        var b = color.b;
+        var a = color.a;
+        var step = (float) (Math.PI * 2 / segments);
+        var cos = (float) Math.cos(step);
+        var sin = (float) Math.sin(step);
+        var dx = radius;
+        var dy = 0f;
+        for (int i = 0; i < segments; i++) {
+            // Rotating the previous offset avoids a sin/cos pair per segment
+            var nx = dx * cos - dy * sin;
+            var ny = dx * sin + dy * cos;
+            drawLine(cx + dx, cy + dy, cx + nx, cy + ny, r, g, b, a);
+            dx = nx;
+            dy = ny;
+        }
+    }
+
+    public void fillCircle(Vector2f center, float radius, Color color) {
+        fillCircle(center.x, center.y, radius, DEFAULT_CIRCLE_SEGMENTS, color);
+    }
+
+    public void fillCircle(float cx, float cy, float radius, int segments, Color color) {
+        var r = color.r;
+        var g = color.g;
+        var b = color.b;
+        var a = color.a;
+        var step = (float) (Math.PI * 2 / segments);
+        var cos = (float) Math.cos(step);
+        var sin = (float) Math.sin(step);
+        var dx = radius;
+        var dy = 0f;
+        for (int i = 0; i < segments; i++) {
+            var nx = dx * cos - dy * sin;
+            var ny = dx * sin + dy * cos;
+            fillTriangle(cx, cy, cx + dx, cy + dy, cx + nx, cy + ny, r, g, b, a);
+            dx = nx;
+            dy = ny;
+        }
+    }
+
+    /**
+     * Draws connected segments through {@code pointCount} points stored as interleaved x, y pairs
+     * in {@code points}. With {@code closed} the last point is joined back to the first.
+     */
+    public void drawPolyline(float[] points, int pointCount, boolean closed, Color color) {
+        if (pointCount * 2 > points.length) {
+            throw new IllegalArgumentException(
+                    "Polyline needs " + pointCount * 2 + " coordinates but only " + points.length + " were given");
+        }
+        var r = color.r;
+        var g = color.g;
+        var b = color.b;
+        var a = color.a;
+        for (int i = 1; i < pointCount; i++) {
+            var p = (i - 1) * 2;
+            drawLine(points[p], points[p + 1], points[p + 2], points[p + 3], r, g, b, a);
+        }
+        if (closed && pointCount > 2) {
+            var last = (pointCount - 1) * 2;
+            drawLine(points[last], points[last + 1], points[0], points[1], r, g, b, a);
+        }
+    }
+
+    public void end() {
+        if (!begun) {
+            throw new IllegalStateException("ShapeBatch2D.end() called without a matching begin()");
+        }
+        flushTriangles();
+        flushLines();
+        begun = false;
+    }
+
+    @Override
+    public void dispose() {
+        shader.dispose();
+        lineArray.dispose();
+        triangleArray.dispose();
+    }
+
+    private void ensureBegun() {
+        if (!begun) {
+            throw new IllegalStateException("ShapeBatch2D.draw called outside begin()/end()");
+        }
+    }
+
+    private void flushLines() {
+        if (lineVertices == 0) {
+            return;
+        }
+        lineVbo.update(lineData, lineVertices * FLOATS_PER_VERTEX);
+        Renderer.renderRaw(lineArray, shader, RenderMode.LINES, PolygonMode.FILL);
+        lineVertices = 0;
+    }
+
+    private void flushTriangles() {
+        if (triangleVertices == 0) {
+            return;
+        }
+        triangleVbo.update(triangleData, triangleVertices * FLOATS_PER_VERTEX);
+        Renderer.renderRaw(triangleArray, shader, RenderMode.TRIANGLES, PolygonMode.FILL);
+        triangleVertices = 0;
+    }
+
+    private static void putVertex(float[] data, int vertex, float x, float y, float r, float g, float b, float a) {
+        var offset = vertex * FLOATS_PER_VERTEX;
+        data[offset] = x;
+        data[offset + 1] = y;
+        data[offset + 2] = 0f;
+        data[offset + 3] = r;
+        data[offset + 4] = g;
+        data[offset + 5] = b;
+        data[offset + 6] = a;
+    }
+}
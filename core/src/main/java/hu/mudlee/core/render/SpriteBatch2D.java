@@ -3,6 +3,10 @@ package hu.mudlee.core.render;
 import hu.mudlee.core.Color;
 import hu.mudlee.core.Disposable;
 import hu.mudlee.core.Rectangle;
+import hu.mudlee.core.diagnostics.JfrEvents;
+import hu.mudlee.core.diagnostics.SpriteBatchFlushEvent;
+import hu.mudlee.core.render.font.SpriteFont;
+import hu.mudlee.core.render.font.TextLayout;
 import hu.mudlee.core.render.texture.Texture2D;
 import hu.mudlee.core.render.texture.TextureRegion;
 import hu.mudlee.core.render.types.PolygonMode;
@@ -10,6 +14,7 @@ import hu.mudlee.core.render.types.RenderMode;
 import hu.mudlee.core.render.types.ShaderProps;
 import hu.mudlee.core.render.types.ShaderTypes;
 import hu.mudlee.core.window.Window;
+import org.joml.Matrix3x2fc;
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
 
@@ -39,6 +44,7 @@ public class SpriteBatch2D implements Disposable {
     private final VertexArray vertexArray;
     private final VertexBuffer dynamicVbo;
     private final Matrix4f identityMatrix = new Matrix4f();
+    private final Matrix4f screenProjection = new Matrix4f();
 
     private final float[] vertexData = new float[MAX_FLOATS];
     private int spriteCount;
@@ -71,8 +77,7 @@ public class SpriteBatch2D implements Disposable {
 
     public void begin() {
         var size = Window.getSize();
-        var ortho = new Matrix4f().setOrtho(0f, size.x, 0f, size.y, -1f, 1f);
-        begin(ortho, identityMatrix);
+        begin(screenProjection.setOrtho(0f, size.x, 0f, size.y, -1f, 1f), identityMatrix);
     }
 
     public void begin(Matrix4f transformMatrix) {
@@ -150,6 +155,48 @@ public class SpriteBatch2D implements Disposable {
                 region.v1());
     }
 
+    /**
+     * Draws {@code region} stretched to the given rectangle with a tint passed as components, so
+     * callers that compute colours per sprite (e.g. particles) need no {@link Color} instance.
+     */
+    public void draw(
+            TextureRegion region, float x, float y, float width, float height, float r, float g, float b, float a) {
+        draw(region.texture, x, y, width, height, region.u0(), region.v0(), region.u1(), region.v1(), r, g, b, a);
+    }
+
+    /** Draws an arbitrary UV rectangle of {@code texture}; the allocation-free path used by fonts. */
+    public void draw(
+            Texture2D texture,
+            float x,
+            float y,
+            float width,
+            float height,
+            float u0,
+            float v0,
+            float u1,
+            float v1,
+            float r,
+            float g,
+            float b,
+            float a) {
+        if (!begun) {
+            throw new IllegalStateException("SpriteBatch2D.draw() called outside begin()/end()");
+        }
+        prepare(texture);
+        writeQuad(x, y, width, height, r, g, b, a, u0, v0, u1, v1);
+        spriteCount++;
+    }
+
+    /** Draws {@code text} with its top-left corner at {@code position}. */
+    public void drawString(SpriteFont font, CharSequence text, Vector2f position, Color color) {
+        font.draw(this, text, position.x, position.y, color);
+    }
+
+    /** Draws a pre-laid-out {@link TextLayout} with its top-left corner at {@code position}. */
+    public void drawString(TextLayout layout, Vector2f position, Color color) {
+        layout.draw(this, position.x, position.y, color);
+    }
+
     public void draw(
             TextureRegion region,
             Vector2f position,
@@ -168,11 +215,42 @@ public class SpriteBatch2D implements Disposable {
         draw(region.texture, position.x, position.y, w, h, color, u0, v0, u1, v1, rotation, origin.x, origin.y);
     }
 
+    /**
+     * Draws {@code region} as the quad from {@code (0, 0)} to {@code (region.width, region.height)}
+     * mapped through {@code transform}, e.g. a {@link hu.mudlee.core.gameobject.Transform2D}'s world
+     * matrix, so translation, rotation, non-uniform scale and parent transforms all apply.
+     */
+    public void draw(TextureRegion region, Matrix3x2fc transform, Color color, boolean flipX, boolean flipY) {
+        draw(region, transform, color.r, color.g, color.b, color.a, flipX, flipY);
+    }
+
+    /** Like {@link #draw(TextureRegion, Matrix3x2fc, Color, boolean, boolean)} with the tint as components. */
+    public void draw(
+            TextureRegion region,
+            Matrix3x2fc transform,
+            float r,
+            float g,
+            float b,
+            float a,
+            boolean flipX,
+            boolean flipY) {
+        if (!begun) {
+            throw new IllegalStateException("SpriteBatch2D.draw() called outside begin()/end()");
+        }
+        prepare(region.texture);
+        var u0 = flipX ? region.u1() : region.u0();
+        var u1 = flipX ? region.u0() : region.u1();
+        var v0 = flipY ? region.v1() : region.v0();
+        var v1 = flipY ? region.v0() : region.v1();
+        writeQuadTransformed(region.width, region.height, transform, r, g, b, a, u0, v0, u1, v1);
+        spriteCount++;
+    }
+
     public void end() {
         if (!begun) {
             throw new IllegalStateException("SpriteBatch2D.end() called without a matching begin()");
         }
-        flush();
+        flush(SpriteBatchFlushEvent.REASON_END);
         begun = false;
     }
 
@@ -196,13 +274,8 @@ public class SpriteBatch2D implements Disposable {
         if (!begun) {
             throw new IllegalStateException("SpriteBatch2D.draw() called outside begin()/end()");
         }
-        if (spriteCount >= MAX_SPRITES || (currentTexture != null && currentTexture != texture)) {
-            flush();
-        }
-        if (currentTexture == null) {
-            currentTexture = texture;
-        }
-        writeQuad(x, y, w, h, color, u0, v0, u1, v1);
+        prepare(texture);
+        writeQuad(x, y, w, h, color.r, color.g, color.b, color.a, u0, v0, u1, v1);
         spriteCount++;
     }
 
@@ -223,34 +296,58 @@ public class SpriteBatch2D implements Disposable {
         if (!begun) {
             throw new IllegalStateException("SpriteBatch2D.draw() called outside begin()/end()");
         }
-        if (spriteCount >= MAX_SPRITES || (currentTexture != null && currentTexture != texture)) {
-            flush();
+        prepare(texture);
+        writeQuadRotated(x, y, w, h, color, u0, v0, u1, v1, rotation, ox, oy);
+        spriteCount++;
+    }
+
+    /** Flushes first if {@code texture} cannot join the pending batch. */
+    private void prepare(Texture2D texture) {
+        if (spriteCount >= MAX_SPRITES) {
+            flush(SpriteBatchFlushEvent.REASON_FULL);
+        } else if (currentTexture != null && currentTexture != texture) {
+            flush(SpriteBatchFlushEvent.REASON_TEXTURE);
         }
         if (currentTexture == null) {
             currentTexture = texture;
         }
-        writeQuadRotated(x, y, w, h, color, u0, v0, u1, v1, rotation, ox, oy);
-        spriteCount++;
     }
 
-    private void flush() {
+    private void flush(String reason) {
         if (spriteCount == 0) {
             return;
         }
+        var event = JfrEvents.ENABLED ? new SpriteBatchFlushEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         var floatCount = spriteCount * FLOATS_PER_SPRITE;
         dynamicVbo.update(vertexData, floatCount);
         currentTexture.bind();
         Renderer.renderRaw(vertexArray, shader, RenderMode.TRIANGLES, PolygonMode.FILL);
+        if (event != null) {
+            event.sprites = spriteCount;
+            event.reason = reason;
+            event.commit();
+        }
         spriteCount = 0;
         currentTexture = null;
     }
 
-    private void writeQuad(float x, float y, float w, float h, Color color, float u0, float v0, float u1, float v1) {
+    private void writeQuad(
+            float x,
+            float y,
+            float w,
+            float h,
+            float r,
+            float g,
+            float b,
+            float a,
+            float u0,
+            float v0,
+            float u1,
+            float v1) {
         var base = spriteCount * FLOATS_PER_SPRITE;
-        var r = color.r;
-        var g = color.g;
-        var b = color.b;
-        var a = color.a;
 
         // Triangle 1: BL, BR, TR
         writeVertex(base, x, y, r, g, b, a, u0, v1);
@@ -309,6 +406,39 @@ public class SpriteBatch2D implements Disposable {
         writeVertex(base + FLOATS_PER_VERTEX * 5, tlX, tlY, r, g, b, a, u0, v0);
     }
 
+    private void writeQuadTransformed(
+            float w,
+            float h,
+            Matrix3x2fc m,
+            float r,
+            float g,
+            float b,
+            float a,
+            float u0,
+            float v0,
+            float u1,
+            float v1) {
+        var base = spriteCount * FLOATS_PER_SPRITE;
+        // Local corners (0,0), (w,0), (w,h), (0,h) through the affine matrix
+        var blX = m.m20();
+        var blY = m.m21();
+        var brX = m.m00() * w + m.m20();
+        var brY = m.m01() * w + m.m21();
+        var tlX = m.m10() * h + m.m20();
+        var tlY = m.m11() * h + m.m21();
+        var trX = brX + tlX - blX;
+        var trY = brY + tlY - blY;
+
+        // Triangle 1: BL, BR, TR
+        writeVertex(base, blX, blY, r, g, b, a, u0, v1);
+        writeVertex(base + FLOATS_PER_VERTEX, brX, brY, r, g, b, a, u1, v1);
+        writeVertex(base + FLOATS_PER_VERTEX * 2, trX, trY, r, g, b, a, u1, v0);
+        // Triangle 2: BL, TR, TL
+        writeVertex(base + FLOATS_PER_VERTEX * 3, blX, blY, r, g, b, a, u0, v1);
+        writeVertex(base + FLOATS_PER_VERTEX * 4, trX, trY, r, g, b, a, u1, v0);
+        writeVertex(base + FLOATS_PER_VERTEX * 5, tlX, tlY, r, g, b, a, u0, v0);
+    }
+
     private void writeVertex(int offset, float x, float y, float r, float g, float b, float a, float u, float v) {
         vertexData[offset] = x;
         vertexData[offset + 1] = y;
@@ -2,6 +2,7 @@ package hu.mudlee.core.render.camera;
 
 import org.joml.Matrix4f;
 import org.joml.Vector2f;
+import org.joml.Vector4f;
 
 /**
  * Base class for all 2D cameras.
@@ -23,4 +24,10 @@ public abstract class Camera2D {
      * Pass it directly to {@link hu.mudlee.core.render.SpriteBatch2D#begin(Matrix4f)}.
      */
     public abstract Matrix4f getTransformMatrix();
+
+    /**
+     * Writes the world-space axis-aligned rectangle visible through this camera into {@code dest} as
+     * ({@code minX}, {@code minY}, {@code maxX}, {@code maxY}) and returns it. Used for culling.
+     */
+    public abstract Vector4f getViewBounds(Vector4f dest);
 }
@@ -2,6 +2,7 @@ package hu.mudlee.core.render.camera;
 
 import hu.mudlee.core.window.Window;
 import org.joml.Matrix4f;
+import org.joml.Vector4f;
 
 /**
  * A screen-sized orthographic 2D camera.
@@ -31,4 +32,17 @@ public final class OrthographicCamera2D extends Camera2D {
                 .rotateZ(rotation)
                 .translate(-position.x, -position.y, 0f);
     }
+
+    @Override
+    public Vector4f getViewBounds(Vector4f dest) {
+        var size = Window.getSize();
+        var hw = size.x / 2f / zoom;
+        var hh = size.y / 2f / zoom;
+        // Extents of the rotated view rectangle's bounding box
+        var cos = Math.abs((float) Math.cos(rotation));
+        var sin = Math.abs((float) Math.sin(rotation));
+        var ex = hw * cos + hh * sin;
+        var ey = hw * sin + hh * cos;
+        return dest.set(position.x - ex, position.y - ey, position.x + ex, position.y + ey);
+    }
 }
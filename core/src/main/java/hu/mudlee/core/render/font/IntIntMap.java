@@ -0,0 +1,79 @@
+package hu.mudlee.core.render.font;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity open-addressing map from non-negative {@code int} keys to {@code int} values.
+ *
+ * <p>Linear probing with backward-shift deletion, so removals leave no tombstones and lookups never
+ * box. The table is sized once for the maximum number of entries and never grows.
+ */
+final class IntIntMap {
+
+    private static final int FREE = -1;
+
+    private final int[] keys;
+    private final int[] values;
+    private final int mask;
+
+    IntIntMap(int maxEntries) {
+        var capacity = Integer.highestOneBit(Math.max(4, maxEntries * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, FREE);
+    }
+
+    /** Returns the value mapped to {@code key}, or {@code missing} if there is none. */
+    int get(int key, int missing) {
+        var i = index(key);
+        while (keys[i] != FREE) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return missing;
+    }
+
+    void put(int key, int value) {
+        var i = index(key);
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    void remove(int key) {
+        var i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        // Shift later entries of the probe run back so every key stays reachable from its home slot
+        var hole = i;
+        var j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == FREE) {
+                break;
+            }
+            var home = index(keys[j]);
+            var movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = FREE;
+    }
+
+    private int index(int key) {
+        return ((key * 0x9E3779B9) >>> 16) & mask;
+    }
+}
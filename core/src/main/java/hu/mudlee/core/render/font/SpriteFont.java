@@ -0,0 +1,360 @@
+package hu.mudlee.core.render.font;
+
+import static org.lwjgl.stb.STBTruetype.*;
+import static org.lwjgl.system.MemoryUtil.*;
+
+import hu.mudlee.core.Color;
+import hu.mudlee.core.Disposable;
+import hu.mudlee.core.io.ResourceLoader;
+import hu.mudlee.core.render.Renderer;
+import hu.mudlee.core.render.SpriteBatch2D;
+import hu.mudlee.core.render.texture.Texture2D;
+import hu.mudlee.core.render.texture.TextureData;
+import java.nio.ByteBuffer;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A TrueType font rendered at a fixed pixel height through {@link SpriteBatch2D}.
+ *
+ * <p>Glyphs are rasterised with stb_truetype the first time they are drawn and stored in a single
+ * atlas page divided into equally sized cells. When every cell is taken, the least recently drawn
+ * glyph gives up its cell. Glyph metrics, UVs and cell ownership are kept in parallel primitive
+ * arrays, and codepoints are looked up through a primitive hash map, so drawing text allocates
+ * nothing once its glyphs are cached.
+ *
+ * <p>Text is positioned by its top-left corner in the y-up world space; further lines go downwards.
+ * For labels whose text rarely changes, a {@link TextLayout} skips the per-character layout work.
+ *
+ * <pre>
+ * var font = content.loadFont("fonts/roboto", 24f);
+ * spriteBatch.drawString(font, "Score: 42", position, Color.WHITE);
+ * </pre>
+ */
+public final class SpriteFont implements Disposable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpriteFont.class);
+    private static final int DEFAULT_PAGE_SIZE = 512;
+    private static final int PADDING = 1;
+    static final int NO_SLOT = -1;
+
+    private final String path;
+    private final ByteBuffer fontData;
+    private final STBTTFontinfo info;
+    private final float scale;
+    private final float ascent;
+    private final float lineHeight;
+
+    private final int pageWidth;
+    private final int pageHeight;
+    private final ByteBuffer pagePixels;
+    private final Texture2D page;
+    private final ByteBuffer glyphBitmap;
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int columns;
+    private final int slotCount;
+
+    private final IntIntMap slotByCodepoint;
+    private final int[] slotCodepoint;
+    private final int[] slotGlyph;
+    private final int[] slotGeneration;
+    private final long[] slotLastUsed;
+    private final float[] slotAdvance;
+    private final int[] slotOffsetX;
+    private final int[] slotOffsetY;
+    private final int[] slotWidth;
+    private final int[] slotHeight;
+    private final float[] slotU0;
+    private final float[] slotV0;
+    private final float[] slotU1;
+    private final float[] slotV1;
+    private int usedSlots;
+    private int dirtyMinY = Integer.MAX_VALUE;
+    private int dirtyMaxY = -1;
+    private boolean fullWarned;
+
+    private final int[] out0 = new int[1];
+    private final int[] out1 = new int[1];
+    private final int[] out2 = new int[1];
+    private final int[] out3 = new int[1];
+
+    public SpriteFont(String resourcePath, float pixelHeight) {
+        this(resourcePath, pixelHeight, DEFAULT_PAGE_SIZE);
+    }
+
+    /** @param pageSize width and height of the glyph cache page in pixels */
+    public SpriteFont(String resourcePath, float pixelHeight, int pageSize) {
+        this.path = resourcePath;
+        this.fontData = ResourceLoader.loadToDirectBuffer(resourcePath);
+        this.info = STBTTFontinfo.malloc();
+        if (!stbtt_InitFont(info, fontData)) {
+            info.free();
+            memFree(fontData);
+            throw new RuntimeException("Failed to parse font '" + resourcePath + "'");
+        }
+
+        scale = stbtt_ScaleForPixelHeight(info, pixelHeight);
+        stbtt_GetFontVMetrics(info, out0, out1, out2);
+        ascent = out0[0] * scale;
+        lineHeight = (float) Math.ceil((out0[0] - out1[0] + out2[0]) * scale);
+
+        // Every cell fits the font's largest glyph, so any glyph can reuse any cell
+        stbtt_GetFontBoundingBox(info, out0, out1, out2, out3);
+        cellWidth = (int) Math.ceil((out2[0] - out0[0]) * scale) + PADDING * 2;
+        cellHeight = (int) Math.ceil((out3[0] - out1[0]) * scale) + PADDING * 2;
+        pageWidth = pageSize;
+        pageHeight = pageSize;
+        columns = pageWidth / cellWidth;
+        slotCount = columns * (pageHeight / cellHeight);
+        if (slotCount == 0) {
+            info.free();
+            memFree(fontData);
+            throw new IllegalArgumentException("Glyph cache page of " + pageSize + "px cannot hold a " + pixelHeight
+                    + "px glyph of '" + resourcePath + "'");
+        }
+
+        slotByCodepoint = new IntIntMap(slotCount);
+        slotCodepoint = new int[slotCount];
+        slotGlyph = new int[slotCount];
+        slotGeneration = new int[slotCount];
+        slotLastUsed = new long[slotCount];
+        slotAdvance = new float[slotCount];
+        slotOffsetX = new int[slotCount];
+        slotOffsetY = new int[slotCount];
+        slotWidth = new int[slotCount];
+        slotHeight = new int[slotCount];
+        slotU0 = new float[slotCount];
+        slotV0 = new float[slotCount];
+        slotU1 = new float[slotCount];
+        slotV1 = new float[slotCount];
+
+        glyphBitmap = memAlloc(cellWidth * cellHeight);
+        pagePixels = memCalloc(pageWidth * pageHeight * 4);
+        page = Texture2D.create(new TextureData(pageWidth, pageHeight, pagePixels, 4));
+
+        log.debug(
+                "SpriteFont loaded: {} @ {}px, {} glyph cells of {}x{}",
+                path,
+                pixelHeight,
+                slotCount,
+                cellWidth,
+                cellHeight);
+    }
+
+    /** Vertical distance between the baselines of two lines. */
+    public float getLineHeight() {
+        return lineHeight;
+    }
+
+    /** Distance from the top of a line to its baseline. */
+    public float getAscent() {
+        return ascent;
+    }
+
+    /** The glyph cache page, e.g. for debugging the cache contents. */
+    public Texture2D getTexture() {
+        return page;
+    }
+
+    /** Width of the widest line of {@code text}. */
+    public float measureWidth(CharSequence text) {
+        var width = 0f;
+        var lineWidth = 0f;
+        var prev = NO_SLOT;
+        for (int i = 0; i < text.length(); ) {
+            var codepoint = Character.codePointAt(text, i);
+            i += Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                width = Math.max(width, lineWidth);
+                lineWidth = 0f;
+                prev = NO_SLOT;
+                continue;
+            }
+            var slot = slot(codepoint);
+            lineWidth += kerning(prev, slot) + slotAdvance[slot];
+            prev = slot;
+        }
+        return Math.max(width, lineWidth);
+    }
+
+    /** Height of {@code text}: one {@link #getLineHeight()} per line. */
+    public float measureHeight(CharSequence text) {
+        var lines = 1;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines * lineHeight;
+    }
+
+    /** Draws {@code text} with its top-left corner at ({@code x}, {@code y}). */
+    public void draw(SpriteBatch2D batch, CharSequence text, float x, float y, Color color) {
+        // Bake and upload missing glyphs first: the batch may flush while quads are emitted below
+        for (int i = 0; i < text.length(); ) {
+            var codepoint = Character.codePointAt(text, i);
+            i += Character.charCount(codepoint);
+            if (codepoint != '\n') {
+                slot(codepoint);
+            }
+        }
+        flushPage();
+
+        var penX = x;
+        var baseline = Math.round(y - ascent);
+        var prev = NO_SLOT;
+        for (int i = 0; i < text.length(); ) {
+            var codepoint = Character.codePointAt(text, i);
+            i += Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                penX = x;
+                // Whole pixels already, see the constructor
+                baseline -= (int) lineHeight;
+                prev = NO_SLOT;
+                continue;
+            }
+            var slot = slot(codepoint);
+            penX += kerning(prev, slot);
+            drawGlyph(batch, slot, penX, baseline, color.r, color.g, color.b, color.a);
+            penX += slotAdvance[slot];
+            prev = slot;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        page.dispose();
+        memFree(pagePixels);
+        memFree(glyphBitmap);
+        info.free();
+        memFree(fontData);
+    }
+
+    /** Returns the cache slot holding {@code codepoint}, rasterising it if needed, and marks it used. */
+    int slot(int codepoint) {
+        var slot = slotByCodepoint.get(codepoint, NO_SLOT);
+        if (slot == NO_SLOT) {
+            slot = claimSlot();
+            bake(slot, codepoint);
+        }
+        slotLastUsed[slot] = Renderer.frameCount();
+        return slot;
+    }
+
+    /** Marks a slot resolved earlier as used this frame. */
+    void touch(int slot) {
+        slotLastUsed[slot] = Renderer.frameCount();
+    }
+
+    int generation(int slot) {
+        return slotGeneration[slot];
+    }
+
+    float advance(int slot) {
+        return slotAdvance[slot];
+    }
+
+    float kerning(int prevSlot, int slot) {
+        if (prevSlot == NO_SLOT) {
+            return 0f;
+        }
+        return stbtt_GetGlyphKernAdvance(info, slotGlyph[prevSlot], slotGlyph[slot]) * scale;
+    }
+
+    /** Draws the glyph in {@code slot} with its pen position at ({@code penX}, {@code baseline}). */
+    void drawGlyph(SpriteBatch2D batch, int slot, float penX, float baseline, float r, float g, float b, float a) {
+        var w = slotWidth[slot];
+        var h = slotHeight[slot];
+        if (w == 0 || h == 0) {
+            return;
+        }
+        // Bitmap offsets are y-down relative to the baseline; snap to whole pixels for crisp sampling
+        var gx = Math.round(penX) + slotOffsetX[slot];
+        var gy = baseline - slotOffsetY[slot] - h;
+        batch.draw(page, gx, gy, w, h, slotU0[slot], slotV0[slot], slotU1[slot], slotV1[slot], r, g, b, a);
+    }
+
+    /** Uploads the page rows touched by newly baked glyphs. */
+    void flushPage() {
+        if (dirtyMaxY < dirtyMinY) {
+            return;
+        }
+        var rowBytes = pageWidth * 4;
+        var rows = dirtyMaxY - dirtyMinY;
+        page.setData(0, dirtyMinY, pageWidth, rows, pagePixels.slice(dirtyMinY * rowBytes, rows * rowBytes));
+        dirtyMinY = Integer.MAX_VALUE;
+        dirtyMaxY = -1;
+    }
+
+    private int claimSlot() {
+        if (usedSlots < slotCount) {
+            return usedSlots++;
+        }
+
+        var victim = 0;
+        for (int s = 1; s < slotCount; s++) {
+            if (slotLastUsed[s] < slotLastUsed[victim]) {
+                victim = s;
+            }
+        }
+        if (!fullWarned && slotLastUsed[victim] >= Renderer.frameCount() - Renderer.framesInFlight()) {
+            log.warn("Glyph cache of '{}' is too small for the text drawn per frame; use a larger page size", path);
+            fullWarned = true;
+        }
+        slotByCodepoint.remove(slotCodepoint[victim]);
+        slotGeneration[victim]++;
+        return victim;
+    }
+
+    private void bake(int slot, int codepoint) {
+        var glyph = stbtt_FindGlyphIndex(info, codepoint);
+        stbtt_GetGlyphBitmapBox(info, glyph, scale, scale, out0, out1, out2, out3);
+        var x0 = out0[0];
+        var y0 = out1[0];
+        var w = Math.min(out2[0] - x0, cellWidth - PADDING * 2);
+        var h = Math.min(out3[0] - y0, cellHeight - PADDING * 2);
+        stbtt_GetGlyphHMetrics(info, glyph, out0, out1);
+
+        slotCodepoint[slot] = codepoint;
+        slotGlyph[slot] = glyph;
+        slotAdvance[slot] = out0[0] * scale;
+        slotOffsetX[slot] = x0;
+        slotOffsetY[slot] = y0;
+        slotWidth[slot] = Math.max(0, w);
+        slotHeight[slot] = Math.max(0, h);
+        slotByCodepoint.put(codepoint, slot);
+
+        var cellX = (slot % columns) * cellWidth;
+        var cellY = (slot / columns) * cellHeight;
+        var gx = cellX + PADDING;
+        var gy = cellY + PADDING;
+        slotU0[slot] = (float) gx / pageWidth;
+        slotV0[slot] = (float) gy / pageHeight;
+        slotU1[slot] = (float) (gx + w) / pageWidth;
+        slotV1[slot] = (float) (gy + h) / pageHeight;
+
+        // Clear the whole cell so no pixels of the previous owner survive
+        var base = memAddress(pagePixels, 0);
+        var cellRowBytes = (long) cellWidth * 4;
+        for (int row = 0; row < cellHeight; row++) {
+            memSet(base + ((long) (cellY + row) * pageWidth + cellX) * 4, 0, cellRowBytes);
+        }
+
+        if (w > 0 && h > 0) {
+            stbtt_MakeGlyphBitmap(info, glyphBitmap, w, h, w, scale, scale, glyph);
+            for (int row = 0; row < h; row++) {
+                var dst = base + ((long) (gy + row) * pageWidth + gx) * 4;
+                for (int col = 0; col < w; col++) {
+                    var coverage = glyphBitmap.get(row * w + col) & 0xFF;
+                    // White texel with coverage as alpha, so the vertex colour tints the glyph
+                    memPutInt(dst + col * 4L, 0x00FFFFFF | (coverage << 24));
+                }
+            }
+        }
+
+        dirtyMinY = Math.min(dirtyMinY, cellY);
+        dirtyMaxY = Math.max(dirtyMaxY, cellY + cellHeight);
+    }
+}
@@ -0,0 +1,144 @@
+package hu.mudlee.core.render.font;
+
+import hu.mudlee.core.Color;
+import hu.mudlee.core.render.SpriteBatch2D;
+import java.util.Arrays;
+
+/**
+ * Pre-computed glyph positions of a string in a {@link SpriteFont}, for labels that are drawn far
+ * more often than their text changes.
+ *
+ * <p>{@link #setText(CharSequence)} does the kerning and line layout once and only when the text
+ * actually differs. Drawing then just emits one quad per glyph. If the font's glyph cache reused a
+ * cell in the meantime, only the affected glyphs are looked up again.
+ *
+ * <pre>
+ * var title = new TextLayout(font).setText("Press START");
+ * spriteBatch.drawString(title, position, Color.WHITE);
+ * </pre>
+ */
+public final class TextLayout {
+
+    private final SpriteFont font;
+
+    private char[] text = new char[0];
+    private int textLength;
+    private int[] codepoints = new int[16];
+    private int[] slots = new int[16];
+    private int[] generations = new int[16];
+    private float[] penX = new float[16];
+    private float[] baselineOffset = new float[16];
+    private int glyphCount;
+    private float width;
+    private float height;
+
+    public TextLayout(SpriteFont font) {
+        this.font = font;
+    }
+
+    /** Lays out {@code value}. Does nothing if it equals the current text. */
+    public TextLayout setText(CharSequence value) {
+        if (sameText(value)) {
+            return this;
+        }
+        if (text.length < value.length()) {
+            text = new char[value.length()];
+        }
+        for (int i = 0; i < value.length(); i++) {
+            text[i] = value.charAt(i);
+        }
+        textLength = value.length();
+        layout(value);
+        return this;
+    }
+
+    public SpriteFont getFont() {
+        return font;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    /** Draws the laid out text with its top-left corner at ({@code x}, {@code y}). */
+    public void draw(SpriteBatch2D batch, float x, float y, Color color) {
+        // Refresh glyphs whose cache cells were reused before any quad reaches the batch
+        for (int i = 0; i < glyphCount; i++) {
+            if (font.generation(slots[i]) != generations[i]) {
+                slots[i] = font.slot(codepoints[i]);
+                generations[i] = font.generation(slots[i]);
+            } else {
+                font.touch(slots[i]);
+            }
+        }
+        font.flushPage();
+
+        var baseline = Math.round(y - font.getAscent());
+        for (int i = 0; i < glyphCount; i++) {
+            font.drawGlyph(
+                    batch, slots[i], x + penX[i], baseline + baselineOffset[i], color.r, color.g, color.b, color.a);
+        }
+    }
+
+    private void layout(CharSequence value) {
+        glyphCount = 0;
+        width = 0f;
+        var lines = 1;
+        var pen = 0f;
+        var lineOffset = 0f;
+        var prev = SpriteFont.NO_SLOT;
+        for (int i = 0; i < value.length(); ) {
+            var codepoint = Character.codePointAt(value, i);
+            i += Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                width = Math.max(width, pen);
+                pen = 0f;
+                lineOffset -= font.getLineHeight();
+                lines++;
+                prev = SpriteFont.NO_SLOT;
+                continue;
+            }
+            var slot = font.slot(codepoint);
+            pen += font.kerning(prev, slot);
+            ensureCapacity(glyphCount + 1);
+            codepoints[glyphCount] = codepoint;
+            slots[glyphCount] = slot;
+            generations[glyphCount] = font.generation(slot);
+            penX[glyphCount] = pen;
+            baselineOffset[glyphCount] = lineOffset;
+            glyphCount++;
+            pen += font.advance(slot);
+            prev = slot;
+        }
+        width = Math.max(width, pen);
+        height = lines * font.getLineHeight();
+    }
+
+    private boolean sameText(CharSequence value) {
+        if (value.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= slots.length) {
+            return;
+        }
+        var newLength = Math.max(capacity, slots.length * 2);
+        codepoints = Arrays.copyOf(codepoints, newLength);
+        slots = Arrays.copyOf(slots, newLength);
+        generations = Arrays.copyOf(generations, newLength);
+        penX = Arrays.copyOf(penX, newLength);
+        baselineOffset = Arrays.copyOf(baselineOffset, newLength);
+    }
+}
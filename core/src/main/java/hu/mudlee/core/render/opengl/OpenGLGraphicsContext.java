@@ -59,6 +59,10 @@ public class OpenGLGraphicsContext implements GraphicsContext {
         log.debug("\tVsync: {}", vSync);
 
         glfwSwapInterval(vSync ? GLFW_TRUE : GLFW_FALSE);
+
+        // Standard alpha blending, matching the Vulkan pipeline state
+        glEnable(GL_BLEND);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
     }
 
     @Override
@@ -91,8 +95,7 @@ public class OpenGLGraphicsContext implements GraphicsContext {
                         renderMode.glRef, vao.getEBO().get().getLength(), GL_UNSIGNED_INT, 0, vao.getInstanceCount());
             } else {
                 for (VertexBuffer buffer : vao.getVBOs()) {
-                    // NOTE: we suppose that vertex coordinates always passed as vec3
-                    glDrawArraysInstanced(renderMode.glRef, 0, buffer.getLength() / 3, vao.getInstanceCount());
+                    glDrawArraysInstanced(renderMode.glRef, 0, vertexCount(buffer), vao.getInstanceCount());
                 }
             }
         } else {
@@ -100,8 +103,7 @@ public class OpenGLGraphicsContext implements GraphicsContext {
                 glDrawElements(renderMode.glRef, vao.getEBO().get().getLength(), GL_UNSIGNED_INT, 0);
             } else {
                 for (VertexBuffer buffer : vao.getVBOs()) {
-                    // NOTE: we suppose that vertex coordinates always passed as vec3
-                    glDrawArrays(renderMode.glRef, 0, buffer.getLength() / 3);
+                    glDrawArrays(renderMode.glRef, 0, vertexCount(buffer));
                 }
             }
         }
@@ -127,4 +129,15 @@ public class OpenGLGraphicsContext implements GraphicsContext {
 
     @Override
     public void dispose() {}
+
+    /** Derives the vertex count from the buffer length and the stride of its interleaved layout. */
+    private static int vertexCount(VertexBuffer buffer) {
+        var attributes = buffer.getLayout().attributes();
+        // Tightly packed layouts declare a stride of 0; fall back to the old vec3 assumption
+        var stride = attributes.length > 0 ? attributes[0].getStride() : 0;
+        if (stride == 0) {
+            return buffer.getLength() / 3;
+        }
+        return buffer.getLength() * Float.BYTES / stride;
+    }
 }
@@ -4,16 +4,18 @@ import static org.lwjgl.opengl.GL41.*;
 import static org.lwjgl.stb.STBImage.stbi_image_free;
 
 import hu.mudlee.core.render.texture.Texture2D;
+import hu.mudlee.core.render.texture.TextureData;
 import hu.mudlee.core.render.texture.TextureLoader;
+import java.nio.ByteBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class OpenGLTexture2D extends Texture2D {
     private static final Logger LOG = LoggerFactory.getLogger(OpenGLTexture2D.class);
     private final String path;
-    private final int textureId;
-    private final int width;
-    private final int height;
+    private int textureId;
+    private int width;
+    private int height;
 
     public OpenGLTexture2D(String path) {
         this.path = path;
@@ -21,32 +23,18 @@ public class OpenGLTexture2D extends Texture2D {
         final var data = TextureLoader.loadFromResources(path);
         this.width = data.width();
         this.height = data.height();
-
-        textureId = glGenTextures();
-        glBindTexture(GL_TEXTURE_2D, textureId);
-        glTexImage2D(
-                GL_TEXTURE_2D,
-                0,
-                mapChannelsToColorFormat(data.channels()),
-                data.width(),
-                data.height(),
-                0,
-                GL_RGBA,
-                GL_UNSIGNED_BYTE,
-                data.image());
-
-        // Repeat texture in both directions
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
-
-        // When stretch, pixelate
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
-        // When shrinking, pixelate
-        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+        textureId = upload(data, mapChannelsToColorFormat(data.channels()));
 
         // Free memory
         stbi_image_free(data.image());
-        unBind();
+    }
+
+    /** Creates the texture from decoded RGBA pixels, e.g. a packed atlas page. */
+    public OpenGLTexture2D(TextureData data) {
+        this.path = null;
+        this.width = data.width();
+        this.height = data.height();
+        textureId = upload(data, GL_RGBA);
     }
 
     @Override
@@ -60,7 +48,7 @@ public class OpenGLTexture2D extends Texture2D {
     }
 
     @Override
-    public void bind() {
+    protected void bindResident() {
         glActiveTexture(GL_TEXTURE0); // TODO: we should not use it here, and deactive somewhere else...
         glBindTexture(GL_TEXTURE_2D, textureId);
     }
@@ -71,8 +59,50 @@ public class OpenGLTexture2D extends Texture2D {
     }
 
     @Override
-    public void dispose() {
+    protected void upload(TextureData data) {
+        width = data.width();
+        height = data.height();
+        textureId = upload(data, GL_RGBA);
+    }
+
+    @Override
+    protected void uploadRegion(int x, int y, int width, int height, ByteBuffer pixels) {
+        glBindTexture(GL_TEXTURE_2D, textureId);
+        glTexSubImage2D(GL_TEXTURE_2D, 0, x, y, width, height, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+        glBindTexture(GL_TEXTURE_2D, 0);
+    }
+
+    @Override
+    protected void release() {
         glDeleteTextures(textureId);
+        textureId = 0;
+    }
+
+    private int upload(TextureData data, int internalFormat) {
+        final var id = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D, id);
+        glTexImage2D(
+                GL_TEXTURE_2D,
+                0,
+                internalFormat,
+                data.width(),
+                data.height(),
+                0,
+                GL_RGBA,
+                GL_UNSIGNED_BYTE,
+                data.image());
+
+        // Repeat texture in both directions
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_S, GL_REPEAT);
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_WRAP_T, GL_REPEAT);
+
+        // When stretch, pixelate
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_NEAREST);
+        // When shrinking, pixelate
+        glTexParameteri(GL_TEXTURE_2D, GL_TEXTURE_MAG_FILTER, GL_NEAREST);
+
+        glBindTexture(GL_TEXTURE_2D, 0);
+        return id;
     }
 
     private int mapChannelsToColorFormat(int channels) {
@@ -101,5 +101,11 @@ public class OpenGLVertexArray extends VertexArray {
     public void dispose() {
         log.trace("Dispose vertex array ID:{}", id);
         glDeleteVertexArrays(id);
+        for (VertexBuffer buffer : vertexBuffers) {
+            buffer.dispose();
+        }
+        if (elementBuffer != null) {
+            elementBuffer.dispose();
+        }
     }
 }
@@ -1,10 +1,12 @@
 package hu.mudlee.core.render.opengl;
 
 import static org.lwjgl.opengl.GL41.*;
-import static org.lwjgl.system.MemoryStack.stackPush;
+import static org.lwjgl.system.MemoryUtil.memAllocFloat;
+import static org.lwjgl.system.MemoryUtil.memFree;
 
 import hu.mudlee.core.render.VertexBuffer;
 import hu.mudlee.core.render.VertexBufferLayout;
+import java.nio.FloatBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,24 +14,28 @@ public class OpenGLVertexBuffer extends VertexBuffer {
     private static final Logger log = LoggerFactory.getLogger(OpenGLVertexBuffer.class);
     private final int id;
     private final VertexBufferLayout layout;
+    private final FloatBuffer uploadBuffer;
     private int length;
 
     public OpenGLVertexBuffer(float[] vertices, VertexBufferLayout layout, int bufferUsage) {
-        try (final var stack = stackPush()) {
-            this.layout = layout;
-            length = vertices.length;
-            id = glGenBuffers();
-            bind();
-            final var buffer = stack.callocFloat(vertices.length).put(vertices).flip();
-            glBufferData(GL_ARRAY_BUFFER, buffer, bufferUsage);
-            unbind();
-            log.debug("VertexBuffer created ID:{}", id);
-        }
+        this.layout = layout;
+        this.uploadBuffer = null;
+        length = vertices.length;
+        id = glGenBuffers();
+        bind();
+        // The array overload copies through a heap buffer, so large meshes do not overflow the MemoryStack
+        glBufferData(GL_ARRAY_BUFFER, vertices, bufferUsage);
+        unbind();
+        log.debug("VertexBuffer created ID:{}", id);
     }
 
-    /** Dynamic constructor: allocates a DYNAMIC_DRAW buffer of {@code maxFloats} capacity. */
+    /**
+     * Dynamic constructor: allocates a DYNAMIC_DRAW buffer of {@code maxFloats} capacity, plus an
+     * off-heap staging buffer of the same size that is reused by every {@link #update}.
+     */
     public OpenGLVertexBuffer(VertexBufferLayout layout, int maxFloats) {
         this.layout = layout;
+        this.uploadBuffer = memAllocFloat(maxFloats);
         this.length = 0;
         id = glGenBuffers();
         bind();
@@ -41,11 +47,10 @@ public class OpenGLVertexBuffer extends VertexBuffer {
     @Override
     public void update(float[] data, int floatCount) {
         this.length = floatCount;
+        uploadBuffer.clear();
+        uploadBuffer.put(data, 0, floatCount).flip();
         bind();
-        try (var stack = stackPush()) {
-            var buffer = stack.mallocFloat(floatCount).put(data, 0, floatCount).flip();
-            glBufferSubData(GL_ARRAY_BUFFER, 0L, buffer);
-        }
+        glBufferSubData(GL_ARRAY_BUFFER, 0L, uploadBuffer);
         unbind();
     }
 
@@ -80,5 +85,8 @@ public class OpenGLVertexBuffer extends VertexBuffer {
     public void dispose() {
         log.trace("Bind vertex buffer ID:{}", id);
         glDeleteBuffers(id);
+        if (uploadBuffer != null) {
+            memFree(uploadBuffer);
+        }
     }
 }
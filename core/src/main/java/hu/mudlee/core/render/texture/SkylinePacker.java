@@ -0,0 +1,152 @@
+package hu.mudlee.core.render.texture;
+
+import java.util.Arrays;
+
+/**
+ * Skyline bottom-left rectangle packer for a single atlas page.
+ *
+ * <p>The skyline is the upper contour of everything placed so far, stored as parallel primitive
+ * arrays of segments ({@code x}, {@code y}, {@code width}). Each insertion picks the segment that
+ * results in the lowest top edge (ties broken by the narrowest waste), then merges the new
+ * rectangle into the contour.
+ */
+final class SkylinePacker {
+
+    private final int pageWidth;
+    private final int pageHeight;
+
+    private int[] segX = new int[16];
+    private int[] segY = new int[16];
+    private int[] segWidth = new int[16];
+    private int segCount;
+
+    private int packedX;
+    private int packedY;
+
+    SkylinePacker(int pageWidth, int pageHeight) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        segX[0] = 0;
+        segY[0] = 0;
+        segWidth[0] = pageWidth;
+        segCount = 1;
+    }
+
+    /**
+     * Tries to place a {@code width × height} rectangle. On success returns {@code true} and the
+     * position is available via {@link #packedX()} / {@link #packedY()}.
+     */
+    boolean pack(int width, int height) {
+        var bestIndex = -1;
+        var bestTop = Integer.MAX_VALUE;
+        var bestWidth = Integer.MAX_VALUE;
+        var bestY = 0;
+
+        for (int i = 0; i < segCount; i++) {
+            var y = fit(i, width, height);
+            if (y < 0) {
+                continue;
+            }
+            var top = y + height;
+            if (top < bestTop || (top == bestTop && segWidth[i] < bestWidth)) {
+                bestIndex = i;
+                bestTop = top;
+                bestWidth = segWidth[i];
+                bestY = y;
+            }
+        }
+
+        if (bestIndex < 0) {
+            return false;
+        }
+
+        packedX = segX[bestIndex];
+        packedY = bestY;
+        addSegment(bestIndex, packedX, bestY + height, width);
+        return true;
+    }
+
+    int packedX() {
+        return packedX;
+    }
+
+    int packedY() {
+        return packedY;
+    }
+
+    /** Returns the lowest y at which the rectangle fits when its left edge starts at segment {@code index}. */
+    private int fit(int index, int width, int height) {
+        var x = segX[index];
+        if (x + width > pageWidth) {
+            return -1;
+        }
+        var remaining = width;
+        var y = 0;
+        var i = index;
+        while (remaining > 0) {
+            if (i >= segCount) {
+                return -1;
+            }
+            y = Math.max(y, segY[i]);
+            if (y + height > pageHeight) {
+                return -1;
+            }
+            remaining -= segWidth[i];
+            i++;
+        }
+        return y;
+    }
+
+    private void addSegment(int index, int x, int y, int width) {
+        ensureCapacity(segCount + 1);
+        System.arraycopy(segX, index, segX, index + 1, segCount - index);
+        System.arraycopy(segY, index, segY, index + 1, segCount - index);
+        System.arraycopy(segWidth, index, segWidth, index + 1, segCount - index);
+        segX[index] = x;
+        segY[index] = y;
+        segWidth[index] = width;
+        segCount++;
+
+        // Shrink or remove the segments now covered by the new one
+        for (int i = index + 1; i < segCount; i++) {
+            var prevEnd = segX[i - 1] + segWidth[i - 1];
+            if (segX[i] >= prevEnd) {
+                break;
+            }
+            var shrink = prevEnd - segX[i];
+            segX[i] += shrink;
+            segWidth[i] -= shrink;
+            if (segWidth[i] > 0) {
+                break;
+            }
+            removeSegment(i);
+            i--;
+        }
+
+        // Merge neighbours at the same height
+        for (int i = 0; i < segCount - 1; i++) {
+            if (segY[i] == segY[i + 1]) {
+                segWidth[i] += segWidth[i + 1];
+                removeSegment(i + 1);
+                i--;
+            }
+        }
+    }
+
+    private void removeSegment(int index) {
+        System.arraycopy(segX, index + 1, segX, index, segCount - index - 1);
+        System.arraycopy(segY, index + 1, segY, index, segCount - index - 1);
+        System.arraycopy(segWidth, index + 1, segWidth, index, segCount - index - 1);
+        segCount--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= segX.length) {
+            return;
+        }
+        var newLength = Math.max(capacity, segX.length * 2);
+        segX = Arrays.copyOf(segX, newLength);
+        segY = Arrays.copyOf(segY, newLength);
+        segWidth = Arrays.copyOf(segWidth, newLength);
+    }
+}
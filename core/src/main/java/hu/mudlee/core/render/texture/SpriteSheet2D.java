@@ -43,6 +43,28 @@ public final class SpriteSheet2D {
         return this;
     }
 
+    public Texture2D getTexture() {
+        return texture;
+    }
+
+    public int getFrameWidth() {
+        return frameWidth;
+    }
+
+    public int getFrameHeight() {
+        return frameHeight;
+    }
+
+    /** Number of whole frames that fit horizontally into the texture. */
+    public int getColumns() {
+        return (texture.getWidth() - marginX + spacingX) / (frameWidth + spacingX);
+    }
+
+    /** Number of whole frames that fit vertically into the texture. */
+    public int getRows() {
+        return (texture.getHeight() - marginY + spacingY) / (frameHeight + spacingY);
+    }
+
     /** Returns the {@link TextureRegion} at the given column and row (both 0-based). */
     public TextureRegion getRegion(int col, int row) {
         int x = marginX + col * (frameWidth + spacingX);
@@ -1,25 +1,157 @@
 package hu.mudlee.core.render.texture;
 
+import static org.lwjgl.system.MemoryUtil.*;
+
 import hu.mudlee.core.Disposable;
 import hu.mudlee.core.render.Renderer;
 import hu.mudlee.core.render.opengl.OpenGLTexture2D;
 import hu.mudlee.core.render.vulkan.VulkanTexture2D;
+import java.nio.ByteBuffer;
 
+/**
+ * A GPU texture. Every texture created through the {@code create} factories is tracked by
+ * {@link TextureResidency}: when a memory budget is set, textures that have not been bound for a while
+ * may have their GPU storage released, and are re-uploaded transparently on the next {@link #bind()}.
+ */
 public abstract class Texture2D implements Disposable {
+    // Residency bookkeeping, maintained by TextureResidency
+    Texture2D lruPrev;
+    Texture2D lruNext;
+    long lastBoundFrame;
+    boolean registered;
+    boolean resident = true;
+
+    private String sourcePath;
+    private TextureData retainedPixels;
+
     public static Texture2D create(String path) {
-        return switch (Renderer.activeBackend()) {
-            case OPENGL -> new OpenGLTexture2D(path);
-            case VULKAN -> new VulkanTexture2D(path);
-        };
+        var texture =
+                switch (Renderer.activeBackend()) {
+                    case OPENGL -> new OpenGLTexture2D(path);
+                    case VULKAN -> new VulkanTexture2D(path);
+                };
+        texture.sourcePath = path;
+        TextureResidency.register(texture);
+        return texture;
+    }
+
+    /**
+     * Creates a texture from already decoded RGBA pixels (4 bytes per pixel). The caller keeps
+     * ownership of {@code data} and may free it once this method returns.
+     *
+     * <p>If a {@link TextureResidency} budget is active, a CPU copy of the pixels is kept so the
+     * texture can be re-uploaded after eviction. Without a budget the texture is never evicted.
+     */
+    public static Texture2D create(TextureData data) {
+        if (data.channels() != 4) {
+            throw new IllegalArgumentException(
+                    "Texture2D.create(TextureData) expects RGBA pixels, got " + data.channels() + " channels");
+        }
+        var texture =
+                switch (Renderer.activeBackend()) {
+                    case OPENGL -> new OpenGLTexture2D(data);
+                    case VULKAN -> new VulkanTexture2D(data);
+                };
+        if (TextureResidency.isBudgetActive()) {
+            var copy = memAlloc(data.width() * data.height() * 4);
+            memCopy(data.image().duplicate().rewind(), copy);
+            texture.retainedPixels = new TextureData(data.width(), data.height(), copy, 4);
+        }
+        TextureResidency.register(texture);
+        return texture;
     }
 
     public abstract int getWidth();
 
     public abstract int getHeight();
 
-    public abstract void bind();
+    /** Makes this texture current for the next draw call, re-uploading it first if it was evicted. */
+    public final void bind() {
+        if (!resident) {
+            TextureResidency.restore(this);
+        }
+        TextureResidency.touch(this);
+        bindResident();
+    }
 
     public abstract void unBind();
 
-    public abstract void dispose();
+    /**
+     * Replaces a {@code width × height} rectangle at ({@code x}, {@code y}) with tightly packed RGBA
+     * pixels. Regions still sampled by frames in flight must not be overwritten.
+     */
+    public final void setData(int x, int y, int width, int height, ByteBuffer pixels) {
+        if (x < 0 || y < 0 || x + width > getWidth() || y + height > getHeight()) {
+            throw new IllegalArgumentException("Region " + width + "x" + height + " at (" + x + ", " + y
+                    + ") is outside the " + getWidth() + "x" + getHeight() + " texture");
+        }
+        if (!resident) {
+            TextureResidency.restore(this);
+        }
+        if (retainedPixels != null) {
+            var src = memAddress(pixels);
+            var dst = memAddress(retainedPixels.image(), 0);
+            var rowBytes = (long) width * 4;
+            for (int row = 0; row < height; row++) {
+                memCopy(src + row * rowBytes, dst + ((long) (y + row) * getWidth() + x) * 4, rowBytes);
+            }
+        }
+        uploadRegion(x, y, width, height, pixels);
+    }
+
+    /** Whether the pixels currently live on the GPU. */
+    public boolean isResident() {
+        return resident;
+    }
+
+    /** GPU memory accounted for this texture, assuming 4 bytes per pixel. */
+    public long getGpuBytes() {
+        return (long) getWidth() * getHeight() * 4;
+    }
+
+    @Override
+    public final void dispose() {
+        TextureResidency.unregister(this);
+        if (resident) {
+            release();
+            resident = false;
+        }
+        if (retainedPixels != null) {
+            memFree(retainedPixels.image());
+            retainedPixels = null;
+        }
+    }
+
+    /** Binds the already resident GPU texture. */
+    protected abstract void bindResident();
+
+    /** Recreates the GPU storage from RGBA pixels after a {@link #release()}. */
+    protected abstract void upload(TextureData data);
+
+    /** Writes tightly packed RGBA pixels into a sub-rectangle of the resident GPU texture. */
+    protected abstract void uploadRegion(int x, int y, int width, int height, ByteBuffer pixels);
+
+    /** Frees the GPU storage while keeping the object usable for a later {@link #upload}. */
+    protected abstract void release();
+
+    boolean canReload() {
+        return sourcePath != null || retainedPixels != null;
+    }
+
+    void reload() {
+        if (retainedPixels != null) {
+            upload(retainedPixels);
+            return;
+        }
+        var data = TextureLoader.loadRgbaFromResources(sourcePath);
+        try {
+            upload(data);
+        } finally {
+            TextureLoader.free(data);
+        }
+    }
+
+    String label() {
+        return sourcePath != null ? sourcePath : "<memory " + getWidth() + "x" + getHeight() + ">";
+    }
 }
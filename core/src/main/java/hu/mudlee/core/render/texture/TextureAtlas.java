@@ -0,0 +1,58 @@
+package hu.mudlee.core.render.texture;
+
+import hu.mudlee.core.Disposable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of large {@link Texture2D} pages with named {@link TextureRegion}s packed into them.
+ *
+ * <p>Sprites drawn from the same page share a texture, so {@link hu.mudlee.core.render.SpriteBatch2D}
+ * can batch them into a single draw call. Build one with {@link TextureAtlasBuilder} or load one via
+ * {@link hu.mudlee.core.content.ContentManager#loadAtlas}.
+ *
+ * <pre>
+ * var atlas = content.loadAtlas("ui", "icons/sword", "icons/shield");
+ * spriteRenderer.setRegion(atlas.findRegion("icons/sword"));
+ * </pre>
+ */
+public final class TextureAtlas implements Disposable {
+
+    private final List<Texture2D> pages;
+    private final Map<String, TextureRegion> regions;
+
+    TextureAtlas(List<Texture2D> pages, Map<String, TextureRegion> regions) {
+        this.pages = Collections.unmodifiableList(pages);
+        this.regions = Collections.unmodifiableMap(regions);
+    }
+
+    /** Returns the region packed under {@code name}, or {@code null} if there is none. */
+    public TextureRegion findRegion(String name) {
+        return regions.get(name);
+    }
+
+    /** Returns the region packed under {@code name}, throwing if there is none. */
+    public TextureRegion getRegion(String name) {
+        var region = regions.get(name);
+        if (region == null) {
+            throw new IllegalArgumentException("No region named '" + name + "' in texture atlas");
+        }
+        return region;
+    }
+
+    public Map<String, TextureRegion> getRegions() {
+        return regions;
+    }
+
+    public List<Texture2D> getPages() {
+        return pages;
+    }
+
+    @Override
+    public void dispose() {
+        for (var page : pages) {
+            page.dispose();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package hu.mudlee.core.render.texture;
+
+import static org.lwjgl.system.MemoryUtil.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Packs many small images into a few large atlas pages at load time.
+ *
+ * <p>Images are sorted by height and placed with a skyline bottom-left packer. Every image is
+ * surrounded by {@link #extrude(int)} pixels that repeat its outermost edge (so bilinear filtering and
+ * sub-pixel sprite positions never sample a neighbour) plus {@link #padding(int)} empty pixels.
+ *
+ * <pre>
+ * var atlas = new TextureAtlasBuilder()
+ *         .pageSize(1024, 1024)
+ *         .add("sword", "/textures/icons/sword.png")
+ *         .add("shield", "/textures/icons/shield.png")
+ *         .build();
+ * </pre>
+ */
+public final class TextureAtlasBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(TextureAtlasBuilder.class);
+    private static final int DEFAULT_PAGE_SIZE = 2048;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final Map<String, String> paths = new LinkedHashMap<>();
+    private final Map<String, TextureData> pixels = new LinkedHashMap<>();
+    private int pageWidth = DEFAULT_PAGE_SIZE;
+    private int pageHeight = DEFAULT_PAGE_SIZE;
+    private int padding = 2;
+    private int extrude = 1;
+
+    public TextureAtlasBuilder pageSize(int width, int height) {
+        this.pageWidth = width;
+        this.pageHeight = height;
+        return this;
+    }
+
+    /** Empty pixels left between neighbouring images. */
+    public TextureAtlasBuilder padding(int padding) {
+        this.padding = padding;
+        return this;
+    }
+
+    /** Number of times the outermost pixel ring of every image is repeated around it. */
+    public TextureAtlasBuilder extrude(int extrude) {
+        this.extrude = extrude;
+        return this;
+    }
+
+    /** Queues an image resource (absolute classpath path) to be packed under {@code name}. */
+    public TextureAtlasBuilder add(String name, String resourcePath) {
+        paths.put(name, resourcePath);
+        return this;
+    }
+
+    /**
+     * Queues already decoded RGBA pixels to be packed under {@code name}. The caller keeps ownership
+     * of {@code data}; it is only read during {@link #build()}.
+     */
+    public TextureAtlasBuilder add(String name, TextureData data) {
+        if (data.channels() != BYTES_PER_PIXEL) {
+            throw new IllegalArgumentException("Atlas image '" + name + "' must be RGBA");
+        }
+        pixels.put(name, data);
+        return this;
+    }
+
+    public TextureAtlas build() {
+        var entries = new ArrayList<Entry>(paths.size() + pixels.size());
+        try {
+            for (var e : paths.entrySet()) {
+                entries.add(new Entry(e.getKey(), TextureLoader.loadRgbaFromResources(e.getValue()), true));
+            }
+            for (var e : pixels.entrySet()) {
+                entries.add(new Entry(e.getKey(), e.getValue(), false));
+            }
+            return pack(entries);
+        } finally {
+            for (var entry : entries) {
+                if (entry.owned()) {
+                    TextureLoader.free(entry.data());
+                }
+            }
+        }
+    }
+
+    private TextureAtlas pack(List<Entry> entries) {
+        entries.sort(Comparator.comparingInt((Entry e) -> e.data().height())
+                .thenComparingInt(e -> e.data().width())
+                .reversed());
+
+        var packers = new ArrayList<SkylinePacker>();
+        var buffers = new ArrayList<ByteBuffer>();
+        var pageOf = new int[entries.size()];
+        var xs = new int[entries.size()];
+        var ys = new int[entries.size()];
+
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                var data = entries.get(i).data();
+                var cellWidth = data.width() + extrude * 2 + padding;
+                var cellHeight = data.height() + extrude * 2 + padding;
+                if (cellWidth > pageWidth || cellHeight > pageHeight) {
+                    throw new IllegalArgumentException(
+                            "Image '" + entries.get(i).name() + "' (" + data.width() + "x"
+                                    + data.height() + ") does not fit into a " + pageWidth + "x" + pageHeight
+                                    + " atlas page");
+                }
+
+                var page = -1;
+                for (int p = 0; p < packers.size(); p++) {
+                    if (packers.get(p).pack(cellWidth, cellHeight)) {
+                        page = p;
+                        break;
+                    }
+                }
+                if (page < 0) {
+                    var packer = new SkylinePacker(pageWidth, pageHeight);
+                    packer.pack(cellWidth, cellHeight);
+                    packers.add(packer);
+                    buffers.add(memCalloc(pageWidth * pageHeight * BYTES_PER_PIXEL));
+                    page = packers.size() - 1;
+                }
+
+                var packer = packers.get(page);
+                pageOf[i] = page;
+                xs[i] = packer.packedX() + extrude;
+                ys[i] = packer.packedY() + extrude;
+                blit(data, buffers.get(page), xs[i], ys[i]);
+            }
+
+            var pages = new ArrayList<Texture2D>(buffers.size());
+            for (var buffer : buffers) {
+                pages.add(Texture2D.create(new TextureData(pageWidth, pageHeight, buffer, BYTES_PER_PIXEL)));
+            }
+
+            var regions = new HashMap<String, TextureRegion>(entries.size() * 2);
+            for (int i = 0; i < entries.size(); i++) {
+                var data = entries.get(i).data();
+                regions.put(
+                        entries.get(i).name(),
+                        new TextureRegion(pages.get(pageOf[i]), xs[i], ys[i], data.width(), data.height()));
+            }
+
+            log.debug(
+                    "Packed {} images into {} atlas page(s) of {}x{}",
+                    entries.size(),
+                    pages.size(),
+                    pageWidth,
+                    pageHeight);
+            return new TextureAtlas(pages, regions);
+        } finally {
+            for (var buffer : buffers) {
+                memFree(buffer);
+            }
+        }
+    }
+
+    /** Copies {@code data} into the page at ({@code x}, {@code y}) and extrudes its edges. */
+    private void blit(TextureData data, ByteBuffer page, int x, int y) {
+        var w = data.width();
+        var h = data.height();
+        var src = memAddress(data.image(), 0);
+        var dst = memAddress(page, 0);
+        var rowBytes = (long) w * BYTES_PER_PIXEL;
+
+        for (int row = 0; row < h; row++) {
+            var dstRow = dst + pixelOffset(x, y + row);
+            memCopy(src + row * rowBytes, dstRow, rowBytes);
+            var left = memGetInt(dstRow);
+            var right = memGetInt(dstRow + rowBytes - BYTES_PER_PIXEL);
+            for (int e = 1; e <= extrude; e++) {
+                memPutInt(dst + pixelOffset(x - e, y + row), left);
+                memPutInt(dst + pixelOffset(x + w - 1 + e, y + row), right);
+            }
+        }
+
+        // Top and bottom rows are copied including the already extruded corners
+        var extrudedRowBytes = (long) (w + extrude * 2) * BYTES_PER_PIXEL;
+        var firstRow = dst + pixelOffset(x - extrude, y);
+        var lastRow = dst + pixelOffset(x - extrude, y + h - 1);
+        for (int e = 1; e <= extrude; e++) {
+            memCopy(firstRow, dst + pixelOffset(x - extrude, y - e), extrudedRowBytes);
+            memCopy(lastRow, dst + pixelOffset(x - extrude, y + h - 1 + e), extrudedRowBytes);
+        }
+    }
+
+    private long pixelOffset(int x, int y) {
+        return ((long) y * pageWidth + x) * BYTES_PER_PIXEL;
+    }
+
+    private record Entry(String name, TextureData data, boolean owned) {}
+}
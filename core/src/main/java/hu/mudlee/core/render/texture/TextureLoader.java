@@ -2,6 +2,8 @@ package hu.mudlee.core.render.texture;
 
 import static org.lwjgl.stb.STBImage.stbi_failure_reason;
 
+import hu.mudlee.core.diagnostics.JfrEvents;
+import hu.mudlee.core.diagnostics.TextureLoadEvent;
 import hu.mudlee.core.io.ResourceLoader;
 import java.nio.ByteBuffer;
 import org.lwjgl.stb.STBImage;
@@ -17,17 +19,40 @@ public class TextureLoader {
     public static TextureData loadFromResources(String filePath) {
         LOG.debug("Loading Texture {}...", filePath);
         try (MemoryStack stack = MemoryStack.stackPush()) {
-            return loadFromByteBuffer(ResourceLoader.loadToByteBuffer(filePath, stack), stack, filePath);
+            return loadFromByteBuffer(ResourceLoader.loadToByteBuffer(filePath, stack), stack, filePath, 0);
         }
     }
 
-    private static TextureData loadFromByteBuffer(ByteBuffer byteBuffer, MemoryStack stack, String path) {
+    /**
+     * Decodes the image with forced RGBA output (4 channels), regardless of the channel count in the
+     * file. The returned pixels must be released with {@link #free(TextureData)}.
+     */
+    public static TextureData loadRgbaFromResources(String filePath) {
+        LOG.debug("Loading RGBA Texture {}...", filePath);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            return loadFromByteBuffer(
+                    ResourceLoader.loadToByteBuffer(filePath, stack), stack, filePath, STBImage.STBI_rgb_alpha);
+        }
+    }
+
+    /** Releases pixel memory returned by one of the {@code load*} methods. */
+    public static void free(TextureData data) {
+        STBImage.stbi_image_free(data.image().rewind());
+    }
+
+    private static TextureData loadFromByteBuffer(
+            ByteBuffer byteBuffer, MemoryStack stack, String path, int desiredChannels) {
         LOG.debug("Loading Texture from ByteBuffer...");
         final var w = stack.mallocInt(1);
         final var h = stack.mallocInt(1);
         final var channelsInFile = stack.mallocInt(1);
 
-        final var image = STBImage.stbi_load_from_memory(byteBuffer, w, h, channelsInFile, 0);
+        var event = JfrEvents.ENABLED ? new TextureLoadEvent() : null;
+        if (event != null) {
+            event.fileBytes = byteBuffer.remaining();
+            event.begin();
+        }
+        final var image = STBImage.stbi_load_from_memory(byteBuffer, w, h, channelsInFile, desiredChannels);
         if (image == null) {
             LOG.error("Failed to load texture from ByteBuffer, reason: {}", stbi_failure_reason());
             throw new RuntimeException("Failed to load texture from ByteBuffer");
@@ -35,7 +60,14 @@ public class TextureLoader {
 
         final var width = w.get();
         final var height = h.get();
-        final var channels = channelsInFile.get();
+        final var channels = desiredChannels != 0 ? desiredChannels : channelsInFile.get();
+        if (event != null) {
+            event.path = path;
+            event.width = width;
+            event.height = height;
+            event.decodedBytes = (long) width * height * channels;
+            event.commit();
+        }
 
         LOG.debug("Texture '{}' loaded, {}x{}, channels: {}", path, width, height, channels);
 
@@ -0,0 +1,165 @@
+package hu.mudlee.core.render.texture;
+
+import hu.mudlee.core.render.Renderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the GPU memory used by {@link Texture2D}s under a configurable budget.
+ *
+ * <p>Textures are kept in an intrusive least-recently-bound list, so a bind costs two pointer
+ * updates. When the resident total exceeds the budget, textures are evicted from the cold end. A
+ * texture bound in one of the last {@link Renderer#framesInFlight()} frames may still be referenced by
+ * in-flight GPU work and is skipped. Evicted textures are re-uploaded on their next bind, either
+ * from the source file or from the pixels retained at creation time.
+ *
+ * <p>Set the budget before loading content: textures created from memory while no budget is active
+ * keep no CPU copy and are never evicted. All methods must be called from the render thread.
+ */
+public final class TextureResidency {
+
+    private static final Logger log = LoggerFactory.getLogger(TextureResidency.class);
+
+    private static long budgetBytes;
+    private static long residentBytes;
+    private static int residentCount;
+    private static long evictionCount;
+    private static long reloadCount;
+    private static Texture2D head;
+    private static Texture2D tail;
+
+    private TextureResidency() {}
+
+    /** Sets the GPU memory budget in bytes. {@code 0} disables eviction. */
+    public static void setBudget(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("Texture memory budget must not be negative: " + bytes);
+        }
+        budgetBytes = bytes;
+        enforceBudget();
+    }
+
+    public static long getBudget() {
+        return budgetBytes;
+    }
+
+    public static boolean isBudgetActive() {
+        return budgetBytes > 0;
+    }
+
+    public static long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public static int getResidentCount() {
+        return residentCount;
+    }
+
+    public static long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public static long getReloadCount() {
+        return reloadCount;
+    }
+
+    /**
+     * Evicts least-recently-bound textures until the resident total fits the budget or no more
+     * textures can be evicted safely. Called by the {@link Renderer} once per frame.
+     */
+    public static void enforceBudget() {
+        if (budgetBytes <= 0 || residentBytes <= budgetBytes) {
+            return;
+        }
+        var safeBefore = Renderer.frameCount() - Renderer.framesInFlight();
+        var texture = tail;
+        while (texture != null && residentBytes > budgetBytes) {
+            var prev = texture.lruPrev;
+            if (texture.resident && texture.lastBoundFrame < safeBefore && texture.canReload()) {
+                evict(texture);
+            }
+            texture = prev;
+        }
+    }
+
+    static void register(Texture2D texture) {
+        texture.registered = true;
+        texture.lastBoundFrame = Renderer.frameCount();
+        linkFirst(texture);
+        residentBytes += texture.getGpuBytes();
+        residentCount++;
+        enforceBudget();
+    }
+
+    static void unregister(Texture2D texture) {
+        if (!texture.registered) {
+            return;
+        }
+        unlink(texture);
+        texture.registered = false;
+        if (texture.resident) {
+            residentBytes -= texture.getGpuBytes();
+            residentCount--;
+        }
+    }
+
+    static void touch(Texture2D texture) {
+        if (!texture.registered) {
+            return;
+        }
+        texture.lastBoundFrame = Renderer.frameCount();
+        if (head != texture) {
+            unlink(texture);
+            linkFirst(texture);
+        }
+    }
+
+    static void restore(Texture2D texture) {
+        texture.reload();
+        texture.resident = true;
+        residentBytes += texture.getGpuBytes();
+        residentCount++;
+        reloadCount++;
+        log.debug("Texture re-uploaded: {}", texture.label());
+
+        // Mark it as used before trimming so the texture we are about to bind is not evicted again
+        touch(texture);
+        enforceBudget();
+    }
+
+    private static void evict(Texture2D texture) {
+        texture.release();
+        texture.resident = false;
+        residentBytes -= texture.getGpuBytes();
+        residentCount--;
+        evictionCount++;
+        log.debug("Texture evicted: {} ({} bytes)", texture.label(), texture.getGpuBytes());
+    }
+
+    private static void linkFirst(Texture2D texture) {
+        texture.lruPrev = null;
+        texture.lruNext = head;
+        if (head != null) {
+            head.lruPrev = texture;
+        }
+        head = texture;
+        if (tail == null) {
+            tail = texture;
+        }
+    }
+
+    private static void unlink(Texture2D texture) {
+        if (texture.lruPrev != null) {
+            texture.lruPrev.lruNext = texture.lruNext;
+        } else {
+            head = texture.lruNext;
+        }
+        if (texture.lruNext != null) {
+            texture.lruNext.lruPrev = texture.lruPrev;
+        } else {
+            tail = texture.lruPrev;
+        }
+        texture.lruPrev = null;
+        texture.lruNext = null;
+    }
+}
@@ -0,0 +1,321 @@
+package hu.mudlee.core.render.tilemap;
+
+import hu.mudlee.core.Disposable;
+import hu.mudlee.core.render.Renderer;
+import hu.mudlee.core.render.Shader;
+import hu.mudlee.core.render.VertexArray;
+import hu.mudlee.core.render.VertexBuffer;
+import hu.mudlee.core.render.VertexBufferLayout;
+import hu.mudlee.core.render.VertexLayoutAttribute;
+import hu.mudlee.core.render.camera.Camera2D;
+import hu.mudlee.core.render.texture.SpriteSheet2D;
+import hu.mudlee.core.render.texture.Texture2D;
+import hu.mudlee.core.render.types.BufferUsage;
+import hu.mudlee.core.render.types.PolygonMode;
+import hu.mudlee.core.render.types.RenderMode;
+import hu.mudlee.core.render.types.ShaderProps;
+import hu.mudlee.core.render.types.ShaderTypes;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import org.joml.Matrix4f;
+import org.joml.Vector2f;
+import org.joml.Vector4f;
+
+/**
+ * A grid of tiles drawn from a {@link SpriteSheet2D} tileset.
+ *
+ * <p>Tile ids are stored in a flat {@code int[]} and index the tileset row-major ({@code id = row *
+ * columns + col}); {@link #EMPTY} leaves a cell blank. The grid is split into square chunks, each
+ * baked into its own static vertex buffer. {@link #draw(Camera2D)} only issues draw calls for chunks
+ * that intersect the camera view and only re-bakes chunks whose tiles changed since they were last
+ * drawn, so a static map costs one draw call per visible chunk and no per-tile CPU work.
+ *
+ * <p>Cell (0, 0) is the bottom-left tile, matching the y-up world space. Draw the map outside of a
+ * {@link hu.mudlee.core.render.SpriteBatch2D} begin/end pair, usually before the sprites.
+ *
+ * <pre>
+ * var map = new TileMap2D(new SpriteSheet2D(tiles, 16, 16), 512, 256);
+ * map.setTile(3, 4, 17);
+ * map.draw(camera);
+ * </pre>
+ */
+public final class TileMap2D implements Disposable {
+
+    public static final int EMPTY = -1;
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    private static final int FLOATS_PER_VERTEX = 9; // vec3 pos + vec4 color + vec2 uv
+    private static final int FLOATS_PER_TILE = 6 * FLOATS_PER_VERTEX;
+
+    /** World-space offset of the map's bottom-left corner. Moving the map never re-bakes chunks. */
+    public final Vector2f position = new Vector2f();
+
+    private final int width;
+    private final int height;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int chunkSize;
+    private final int chunksX;
+    private final int chunksY;
+    private final int[] tiles;
+
+    private final Texture2D texture;
+    private final int tileCount;
+    private final float[] tileU0;
+    private final float[] tileV0;
+    private final float[] tileU1;
+    private final float[] tileV1;
+
+    private final VertexBufferLayout layout;
+    private final Shader shader;
+    private final VertexArray[] chunkArrays;
+    private final boolean[] chunkDirty;
+    private final float[] bakeBuffer;
+    private final ArrayDeque<RetiredChunk> retired = new ArrayDeque<>();
+
+    private final Matrix4f viewMatrix = new Matrix4f();
+    private final Vector4f viewBounds = new Vector4f();
+
+    public TileMap2D(SpriteSheet2D tileset, int width, int height) {
+        this(tileset, width, height, DEFAULT_CHUNK_SIZE);
+    }
+
+    public TileMap2D(SpriteSheet2D tileset, int width, int height, int chunkSize) {
+        if (width <= 0 || height <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid tile map dimensions: " + width + "x" + height + ", chunk size " + chunkSize);
+        }
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileset.getFrameWidth();
+        this.tileHeight = tileset.getFrameHeight();
+        this.chunkSize = chunkSize;
+        this.chunksX = (width + chunkSize - 1) / chunkSize;
+        this.chunksY = (height + chunkSize - 1) / chunkSize;
+        this.tiles = new int[width * height];
+        Arrays.fill(tiles, EMPTY);
+
+        // UVs are resolved once per tileset cell so baking is pure array arithmetic
+        this.texture = tileset.getTexture();
+        var columns = tileset.getColumns();
+        this.tileCount = columns * tileset.getRows();
+        this.tileU0 = new float[tileCount];
+        this.tileV0 = new float[tileCount];
+        this.tileU1 = new float[tileCount];
+        this.tileV1 = new float[tileCount];
+        for (int id = 0; id < tileCount; id++) {
+            var region = tileset.getRegion(id % columns, id / columns);
+            tileU0[id] = region.u0();
+            tileV0[id] = region.v0();
+            tileU1[id] = region.u1();
+            tileV1[id] = region.v1();
+        }
+
+        this.chunkArrays = new VertexArray[chunksX * chunksY];
+        this.chunkDirty = new boolean[chunksX * chunksY];
+        this.bakeBuffer = new float[chunkSize * chunkSize * FLOATS_PER_TILE];
+
+        var stride = FLOATS_PER_VERTEX * Float.BYTES;
+        layout = new VertexBufferLayout(
+                new VertexLayoutAttribute(0, 3, ShaderTypes.FLOAT, false, stride, 0),
+                new VertexLayoutAttribute(1, 4, ShaderTypes.FLOAT, false, stride, 3 * Float.BYTES),
+                new VertexLayoutAttribute(2, 2, ShaderTypes.FLOAT, false, stride, 7 * Float.BYTES));
+
+        var shaderDir =
+                switch (Renderer.activeBackend()) {
+                    case OPENGL -> "opengl/2d";
+                    case VULKAN -> "vulkan/2d";
+                };
+        shader = Shader.create(shaderDir + "/vert.glsl", shaderDir + "/frag.glsl");
+        shader.createUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_PROJECTION_MATRIX.glslName);
+        shader.createUniform(shader.getVertexProgramId(), ShaderProps.UNIFORM_VIEW_MATRIX.glslName);
+        shader.createUniform(shader.getFragmentProgramId(), "TEX_SAMPLER");
+        shader.setUniform(shader.getFragmentProgramId(), "TEX_SAMPLER", 0);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public int getTile(int x, int y) {
+        checkBounds(x, y);
+        return tiles[y * width + x];
+    }
+
+    public void setTile(int x, int y, int id) {
+        checkBounds(x, y);
+        if (id < EMPTY || id >= tileCount) {
+            throw new IllegalArgumentException(
+                    "Tile id " + id + " is outside the tileset (0.." + (tileCount - 1) + ")");
+        }
+        var index = y * width + x;
+        if (tiles[index] != id) {
+            tiles[index] = id;
+            chunkDirty[(y / chunkSize) * chunksX + x / chunkSize] = true;
+        }
+    }
+
+    /** Replaces the whole grid with {@code ids} (row-major, {@code width * height} entries). */
+    public void setTiles(int[] ids) {
+        if (ids.length != tiles.length) {
+            throw new IllegalArgumentException("Expected " + tiles.length + " tile ids, got " + ids.length);
+        }
+        for (var id : ids) {
+            if (id < EMPTY || id >= tileCount) {
+                throw new IllegalArgumentException("Tile id " + id + " is outside the tileset");
+            }
+        }
+        System.arraycopy(ids, 0, tiles, 0, tiles.length);
+        Arrays.fill(chunkDirty, true);
+    }
+
+    public void fill(int id) {
+        if (id < EMPTY || id >= tileCount) {
+            throw new IllegalArgumentException("Tile id " + id + " is outside the tileset");
+        }
+        Arrays.fill(tiles, id);
+        Arrays.fill(chunkDirty, true);
+    }
+
+    public void draw(Camera2D camera) {
+        releaseRetiredChunks();
+
+        camera.getViewBounds(viewBounds);
+        var chunkWorldWidth = (float) chunkSize * tileWidth;
+        var chunkWorldHeight = (float) chunkSize * tileHeight;
+        var minCx = Math.max(0, (int) Math.floor((viewBounds.x - position.x) / chunkWorldWidth));
+        var minCy = Math.max(0, (int) Math.floor((viewBounds.y - position.y) / chunkWorldHeight));
+        var maxCx = Math.min(chunksX - 1, (int) Math.floor((viewBounds.z - position.x) / chunkWorldWidth));
+        var maxCy = Math.min(chunksY - 1, (int) Math.floor((viewBounds.w - position.y) / chunkWorldHeight));
+        if (minCx > maxCx || minCy > maxCy) {
+            return;
+        }
+
+        shader.setUniform(
+                shader.getVertexProgramId(),
+                ShaderProps.UNIFORM_PROJECTION_MATRIX.glslName,
+                camera.getTransformMatrix());
+        shader.setUniform(
+                shader.getVertexProgramId(),
+                ShaderProps.UNIFORM_VIEW_MATRIX.glslName,
+                viewMatrix.translation(position.x, position.y, 0f));
+        texture.bind();
+
+        for (int cy = minCy; cy <= maxCy; cy++) {
+            for (int cx = minCx; cx <= maxCx; cx++) {
+                var chunk = cy * chunksX + cx;
+                if (chunkDirty[chunk]) {
+                    bake(cx, cy);
+                }
+                if (chunkArrays[chunk] != null) {
+                    Renderer.renderRaw(chunkArrays[chunk], shader, RenderMode.TRIANGLES, PolygonMode.FILL);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < chunkArrays.length; i++) {
+            if (chunkArrays[i] != null) {
+                chunkArrays[i].dispose();
+                chunkArrays[i] = null;
+            }
+        }
+        while (!retired.isEmpty()) {
+            retired.poll().vertexArray().dispose();
+        }
+        shader.dispose();
+    }
+
+    private void bake(int cx, int cy) {
+        var chunk = cy * chunksX + cx;
+        chunkDirty[chunk] = false;
+        var x0 = cx * chunkSize;
+        var y0 = cy * chunkSize;
+        var x1 = Math.min(width, x0 + chunkSize);
+        var y1 = Math.min(height, y0 + chunkSize);
+
+        var floats = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                var id = tiles[y * width + x];
+                if (id != EMPTY) {
+                    writeTile(floats, x * tileWidth, y * tileHeight, id);
+                    floats += FLOATS_PER_TILE;
+                }
+            }
+        }
+
+        // The previous buffer may still be read by frames in flight, so it is disposed later
+        if (chunkArrays[chunk] != null) {
+            retired.add(new RetiredChunk(chunkArrays[chunk], Renderer.frameCount()));
+            chunkArrays[chunk] = null;
+        }
+        if (floats == 0) {
+            return;
+        }
+
+        var buffer = VertexBuffer.create(Arrays.copyOf(bakeBuffer, floats), layout, BufferUsage.STATIC_DRAW);
+        var vertexArray = VertexArray.create();
+        vertexArray.addVBO(buffer);
+        chunkArrays[chunk] = vertexArray;
+    }
+
+    private void writeTile(int offset, float x, float y, int id) {
+        var u0 = tileU0[id];
+        var v0 = tileV0[id];
+        var u1 = tileU1[id];
+        var v1 = tileV1[id];
+        var w = tileWidth;
+        var h = tileHeight;
+
+        // Same winding and UV orientation as SpriteBatch2D: BL, BR, TR / BL, TR, TL
+        writeVertex(offset, x, y, u0, v1);
+        writeVertex(offset + FLOATS_PER_VERTEX, x + w, y, u1, v1);
+        writeVertex(offset + FLOATS_PER_VERTEX * 2, x + w, y + h, u1, v0);
+        writeVertex(offset + FLOATS_PER_VERTEX * 3, x, y, u0, v1);
+        writeVertex(offset + FLOATS_PER_VERTEX * 4, x + w, y + h, u1, v0);
+        writeVertex(offset + FLOATS_PER_VERTEX * 5, x, y + h, u0, v0);
+    }
+
+    private void writeVertex(int offset, float x, float y, float u, float v) {
+        bakeBuffer[offset] = x;
+        bakeBuffer[offset + 1] = y;
+        bakeBuffer[offset + 2] = 0f;
+        bakeBuffer[offset + 3] = 1f;
+        bakeBuffer[offset + 4] = 1f;
+        bakeBuffer[offset + 5] = 1f;
+        bakeBuffer[offset + 6] = 1f;
+        bakeBuffer[offset + 7] = u;
+        bakeBuffer[offset + 8] = v;
+    }
+
+    private void releaseRetiredChunks() {
+        var safeBefore = Renderer.frameCount() - Renderer.framesInFlight();
+        while (!retired.isEmpty() && retired.peek().retiredFrame() < safeBefore) {
+            retired.poll().vertexArray().dispose();
+        }
+    }
+
+    private void checkBounds(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            throw new IndexOutOfBoundsException(
+                    "Tile (" + x + ", " + y + ") is outside the " + width + "x" + height + " map");
+        }
+    }
+
+    private record RetiredChunk(VertexArray vertexArray, long retiredFrame) {}
+}
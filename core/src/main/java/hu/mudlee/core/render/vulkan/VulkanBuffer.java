@@ -19,6 +19,7 @@ class VulkanBuffer implements Disposable {
     private final long handle;
     private final long memory;
     final long size;
+    private ByteBuffer persistentMapping;
 
     VulkanBuffer(VulkanDevice device, long size, int usage, int memoryPropertyFlags) {
         this.device = device;
@@ -73,6 +74,23 @@ class VulkanBuffer implements Disposable {
         }
     }
 
+    /**
+     * Maps the whole buffer once and keeps it mapped until {@link #dispose()}. Repeated calls return
+     * the same view, so per-frame writes need no map/unmap round trip. Host-visible buffers only.
+     */
+    ByteBuffer mapPersistent() {
+        if (persistentMapping == null) {
+            try (MemoryStack stack = stackPush()) {
+                var ppData = stack.mallocPointer(1);
+                if (vkMapMemory(device.device(), memory, 0, size, 0, ppData) != VK_SUCCESS) {
+                    throw new RuntimeException("Failed to map Vulkan buffer memory");
+                }
+                persistentMapping = ppData.getByteBuffer(0, (int) size);
+            }
+        }
+        return persistentMapping;
+    }
+
     /**
      * Copies contents of {@code src} into this buffer via a single-use command buffer. {@code src}
      * must be host-visible (staging), {@code this} can be device-local.
@@ -91,6 +109,10 @@ class VulkanBuffer implements Disposable {
 
     @Override
     public void dispose() {
+        if (persistentMapping != null) {
+            vkUnmapMemory(device.device(), memory);
+            persistentMapping = null;
+        }
         vkDestroyBuffer(device.device(), handle, null);
         vkFreeMemory(device.device(), memory, null);
     }
@@ -7,6 +7,8 @@ import static org.lwjgl.system.MemoryStack.stackPush;
 import static org.lwjgl.vulkan.KHRSwapchain.*;
 import static org.lwjgl.vulkan.VK12.*;
 
+import hu.mudlee.core.diagnostics.JfrEvents;
+import hu.mudlee.core.diagnostics.SwapchainRecreateEvent;
 import hu.mudlee.core.render.GraphicsContext;
 import hu.mudlee.core.render.Shader;
 import hu.mudlee.core.render.VertexArray;
@@ -306,7 +308,8 @@ public class VulkanContext implements GraphicsContext {
 
         // Create the VkPipeline lazily with the actual vertex layout (now known)
         var firstVbo = va.getVBOs().get(0);
-        var pipeline = vs.getOrCreatePipeline(firstVbo.getLayout(), renderPass.handle(), swapChain.extent());
+        var pipeline =
+                vs.getOrCreatePipeline(firstVbo.getLayout(), renderMode, renderPass.handle(), swapChain.extent());
 
         vkCmdBindPipeline(cmdBuf, VK_PIPELINE_BIND_POINT_GRAPHICS, pipeline);
 
@@ -396,6 +399,11 @@ public class VulkanContext implements GraphicsContext {
         swapchainOutOfDate = true;
     }
 
+    @Override
+    public int framesInFlight() {
+        return FRAMES_IN_FLIGHT;
+    }
+
     @Override
     public void waitIdle() {
         device.waitIdle();
@@ -432,9 +440,18 @@ public class VulkanContext implements GraphicsContext {
     // -------------------------------------------------------------------------
 
     private void recreateSwapChain() {
+        var event = JfrEvents.ENABLED ? new SwapchainRecreateEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         device.waitIdle();
         swapChain.recreate(renderPass.handle(), vSync);
         swapchainOutOfDate = false;
+        if (event != null) {
+            event.width = swapChain.extent().width();
+            event.height = swapChain.extent().height();
+            event.commit();
+        }
         log.debug(
                 "Swap chain recreated ({}x{})",
                 swapChain.extent().width(),
@@ -3,9 +3,12 @@ package hu.mudlee.core.render.vulkan;
 import static org.lwjgl.system.MemoryStack.stackPush;
 import static org.lwjgl.vulkan.VK12.*;
 
+import hu.mudlee.core.diagnostics.JfrEvents;
+import hu.mudlee.core.diagnostics.PipelineCreateEvent;
 import hu.mudlee.core.io.ResourceLoader;
 import hu.mudlee.core.render.Shader;
 import hu.mudlee.core.render.VertexBufferLayout;
+import hu.mudlee.core.render.types.RenderMode;
 import org.joml.Matrix4f;
 import org.joml.Vector4f;
 import org.lwjgl.system.MemoryStack;
@@ -21,8 +24,9 @@ import org.slf4j.LoggerFactory;
  * "vulkan/2d/frag.glsl") → loads /shaders/vulkan/2d/vert.spv and /shaders/vulkan/2d/frag.spv
  *
  * <p>Pipeline creation is DEFERRED to the first renderRaw() call so that the vertex layout, render
- * pass, and swap chain extent are available (they aren't known at shader construction time). The
- * pipeline is cached and recreated only if the vertex layout changes.
+ * pass, and swap chain extent are available (they aren't known at shader construction time). One
+ * pipeline is cached per {@link RenderMode} (primitive topology is baked into a VkPipeline) and
+ * recreated only if the vertex layout changes.
  *
  * <p>Uniforms: "uProjection" and "uView" mat4 values are stored locally and uploaded as push
  * constants (VK_SHADER_STAGE_VERTEX_BIT, 128 bytes total) in renderRaw(). This is the Vulkan best
@@ -47,15 +51,16 @@ public class VulkanShader extends Shader {
     private static final Logger log = LoggerFactory.getLogger(VulkanShader.class);
 
     private final VulkanDevice device;
+    private final String name;
     private final long vertShaderModule;
     private final long fragShaderModule;
 
     private long descriptorSetLayout = VK_NULL_HANDLE;
     private long pipelineLayout = VK_NULL_HANDLE;
 
-    // Lazily created on first draw; recreated if the vertex layout changes
-    private long pipeline = VK_NULL_HANDLE;
-    private VertexBufferLayout cachedLayout;
+    // Lazily created on first draw per RenderMode; recreated if the vertex layout changes
+    private final long[] pipelines = new long[RenderMode.values().length];
+    private final VertexBufferLayout[] cachedLayouts = new VertexBufferLayout[RenderMode.values().length];
 
     // Cached matrix values written to push constants in VulkanContext.renderRaw()
     private final float[] projectionData = new float[16];
@@ -68,6 +73,7 @@ public class VulkanShader extends Shader {
         // Derive SPIR-V paths from the GLSL names
         var vertPath = "/shaders/" + vertexShaderName.replace(".glsl", ".spv");
         var fragPath = "/shaders/" + fragmentShaderName.replace(".glsl", ".spv");
+        name = vertexShaderName + " + " + fragmentShaderName;
 
         vertShaderModule = createShaderModule(vertPath);
         fragShaderModule = createShaderModule(fragPath);
@@ -84,16 +90,29 @@ public class VulkanShader extends Shader {
     // -------------------------------------------------------------------------
 
     /**
-     * Returns the VkPipeline for the given vertex layout. Creates or recreates the pipeline if the
-     * layout changed.
+     * Returns the VkPipeline for the given vertex layout and topology. Creates or recreates the
+     * pipeline if the layout changed.
      */
-    long getOrCreatePipeline(VertexBufferLayout layout, long renderPass, VkExtent2D extent) {
-        if (pipeline == VK_NULL_HANDLE || cachedLayout != layout) {
+    long getOrCreatePipeline(VertexBufferLayout layout, RenderMode renderMode, long renderPass, VkExtent2D extent) {
+        var slot = renderMode.ordinal();
+        var pipeline = pipelines[slot];
+        if (pipeline == VK_NULL_HANDLE || cachedLayouts[slot] != layout) {
             if (pipeline != VK_NULL_HANDLE) {
                 vkDestroyPipeline(device.device(), pipeline, null);
             }
-            pipeline = createGraphicsPipeline(layout, renderPass, extent);
-            cachedLayout = layout;
+            var event = JfrEvents.ENABLED ? new PipelineCreateEvent() : null;
+            if (event != null) {
+                event.begin();
+            }
+            pipeline = createGraphicsPipeline(layout, toVulkanTopology(renderMode), renderPass, extent);
+            if (event != null) {
+                event.shader = name;
+                event.topology = renderMode.name();
+                event.vertexStride = layout.attributes().length > 0 ? layout.attributes()[0].getStride() : 0;
+                event.commit();
+            }
+            pipelines[slot] = pipeline;
+            cachedLayouts[slot] = layout;
         }
         return pipeline;
     }
@@ -177,8 +196,10 @@ public class VulkanShader extends Shader {
 
     @Override
     public void dispose() {
-        if (pipeline != VK_NULL_HANDLE) {
-            vkDestroyPipeline(device.device(), pipeline, null);
+        for (var pipeline : pipelines) {
+            if (pipeline != VK_NULL_HANDLE) {
+                vkDestroyPipeline(device.device(), pipeline, null);
+            }
         }
         if (pipelineLayout != VK_NULL_HANDLE) {
             vkDestroyPipelineLayout(device.device(), pipelineLayout, null);
@@ -240,10 +261,10 @@ public class VulkanShader extends Shader {
     }
 
     /**
-     * Compiles the full VkPipeline for the given vertex layout and render pass. Dynamic viewport and
+     * Compiles the full VkPipeline for the given vertex layout, topology and render pass. Dynamic viewport and
      * scissor allow the pipeline to work across swapchain recreations.
      */
-    private long createGraphicsPipeline(VertexBufferLayout layout, long renderPass, VkExtent2D extent) {
+    private long createGraphicsPipeline(VertexBufferLayout layout, int topology, long renderPass, VkExtent2D extent) {
         try (MemoryStack stack = stackPush()) {
             var mainName = stack.UTF8("main");
 
@@ -286,7 +307,7 @@ public class VulkanShader extends Shader {
 
             var inputAssembly = VkPipelineInputAssemblyStateCreateInfo.calloc(stack)
                     .sType(VK_STRUCTURE_TYPE_PIPELINE_INPUT_ASSEMBLY_STATE_CREATE_INFO)
-                    .topology(VK_PRIMITIVE_TOPOLOGY_TRIANGLE_LIST)
+                    .topology(topology)
                     .primitiveRestartEnable(false);
 
             // Viewport and scissor are dynamic — set each frame in VulkanContext.clear()
@@ -355,11 +376,19 @@ public class VulkanShader extends Shader {
                 throw new RuntimeException("Failed to create VkPipeline");
             }
 
-            log.debug("VkPipeline created for layout {}", layout);
+            log.debug("VkPipeline created for layout {} with topology {}", layout, topology);
             return pPipeline.get(0);
         }
     }
 
+    private static int toVulkanTopology(RenderMode renderMode) {
+        return switch (renderMode) {
+            case TRIANGLES -> VK_PRIMITIVE_TOPOLOGY_TRIANGLE_LIST;
+            case LINES -> VK_PRIMITIVE_TOPOLOGY_LINE_LIST;
+            case POINTS -> VK_PRIMITIVE_TOPOLOGY_POINT_LIST;
+        };
+    }
+
     /**
      * Converts a GL_FLOAT-typed VertexLayoutAttribute component count to the corresponding VkFormat.
      */
@@ -6,6 +6,8 @@ import static org.lwjgl.vulkan.VK12.*;
 
 import hu.mudlee.core.io.ResourceLoader;
 import hu.mudlee.core.render.texture.Texture2D;
+import hu.mudlee.core.render.texture.TextureData;
+import java.nio.ByteBuffer;
 import org.lwjgl.system.MemoryStack;
 import org.lwjgl.vulkan.*;
 import org.slf4j.Logger;
@@ -51,6 +53,22 @@ public class VulkanTexture2D extends Texture2D {
         log.debug("VulkanTexture2D created: {}", path);
     }
 
+    /** Creates the texture from decoded RGBA pixels, e.g. a packed atlas page. */
+    public VulkanTexture2D(TextureData data) {
+        this.path = "<memory " + data.width() + "x" + data.height() + ">";
+        var ctx = VulkanContext.get();
+        this.device = ctx.device();
+
+        width = data.width();
+        height = data.height();
+        uploadPixels(ctx, data.image());
+        createImageView();
+        createSampler();
+        allocateAndWriteDescriptorSet(ctx);
+
+        log.debug("VulkanTexture2D created: {}", path);
+    }
+
     @Override
     public int getWidth() {
         return width;
@@ -63,7 +81,7 @@ public class VulkanTexture2D extends Texture2D {
 
     /** Informs VulkanContext that this is the texture to bind for the next draw call(s). */
     @Override
-    public void bind() {
+    protected void bindResident() {
         VulkanContext.get().setActiveTexture(this);
     }
 
@@ -76,20 +94,65 @@ public class VulkanTexture2D extends Texture2D {
         return descriptorSet;
     }
 
-    public void dispose() {
+    /** Recreates image, view and sampler and points the existing descriptor set at them. */
+    @Override
+    protected void upload(TextureData data) {
+        width = data.width();
+        height = data.height();
+        uploadPixels(VulkanContext.get(), data.image());
+        createImageView();
+        createSampler();
+        writeDescriptorSet();
+    }
+
+    /**
+     * Copies the pixels through a staging buffer. The barrier back to TRANSFER_DST waits for fragment
+     * reads submitted earlier, so frames still in flight finish sampling before the copy lands.
+     */
+    @Override
+    protected void uploadRegion(int x, int y, int width, int height, ByteBuffer pixels) {
+        var ctx = VulkanContext.get();
+        var staging = new VulkanBuffer(
+                device,
+                (long) width * height * 4,
+                VK_BUFFER_USAGE_TRANSFER_SRC_BIT,
+                VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
+        staging.map(dst -> {
+            dst.put(pixels.duplicate());
+            dst.flip();
+        });
+
+        transitionImageLayout(
+                ctx.commandPool(), VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL, VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL);
+        copyBufferToImage(staging, x, y, width, height, ctx.commandPool());
+        transitionImageLayout(
+                ctx.commandPool(), VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL, VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL);
+        staging.dispose();
+    }
+
+    /**
+     * Destroys the GPU-side image. The descriptor set is kept and rewritten on the next upload; the
+     * residency manager only calls this once no in-flight frame can reference the texture.
+     */
+    @Override
+    protected void release() {
         if (sampler != VK_NULL_HANDLE) {
             vkDestroySampler(device.device(), sampler, null);
+            sampler = VK_NULL_HANDLE;
         }
         if (imageView != VK_NULL_HANDLE) {
             vkDestroyImageView(device.device(), imageView, null);
+            imageView = VK_NULL_HANDLE;
         }
         if (image != VK_NULL_HANDLE) {
             vkDestroyImage(device.device(), image, null);
+            image = VK_NULL_HANDLE;
         }
         if (imageMemory != VK_NULL_HANDLE) {
             vkFreeMemory(device.device(), imageMemory, null);
+            imageMemory = VK_NULL_HANDLE;
         }
-        log.debug("VulkanTexture2D disposed: {}", path);
+        log.debug("VulkanTexture2D released: {}", path);
     }
 
     // -------------------------------------------------------------------------
@@ -111,42 +174,46 @@ public class VulkanTexture2D extends Texture2D {
 
             width = w.get(0);
             height = h.get(0);
-            var imageSizeBytes = (long) width * height * 4; // RGBA = 4 bytes per pixel
-
-            // Staging buffer: CPU-writable
-            var staging = new VulkanBuffer(
-                    device,
-                    imageSizeBytes,
-                    VK_BUFFER_USAGE_TRANSFER_SRC_BIT,
-                    VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
-
-            staging.map(dst -> {
-                dst.put(pixels);
-                dst.flip();
-            });
+            uploadPixels(ctx, pixels);
 
             // rewind() resets position to 0 so that memAddress() resolves to the base allocation address
             stbi_image_free(pixels.rewind());
+        }
+    }
 
-            // Create the device-local VkImage
-            createImage(
-                    width,
-                    height,
-                    VK_FORMAT_R8G8B8A8_SRGB,
-                    VK_IMAGE_TILING_OPTIMAL,
-                    VK_IMAGE_USAGE_TRANSFER_DST_BIT | VK_IMAGE_USAGE_SAMPLED_BIT,
-                    VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT);
+    private void uploadPixels(VulkanContext ctx, ByteBuffer pixels) {
+        var imageSizeBytes = (long) width * height * 4; // RGBA = 4 bytes per pixel
 
-            // Transition: UNDEFINED → TRANSFER_DST_OPTIMAL, copy pixels, then SHADER_READ_ONLY
-            transitionImageLayout(ctx.commandPool(), VK_IMAGE_LAYOUT_UNDEFINED, VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL);
+        // Staging buffer: CPU-writable
+        var staging = new VulkanBuffer(
+                device,
+                imageSizeBytes,
+                VK_BUFFER_USAGE_TRANSFER_SRC_BIT,
+                VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
 
-            copyBufferToImage(staging, width, height, ctx.commandPool());
+        staging.map(dst -> {
+            dst.put(pixels.duplicate().rewind());
+            dst.flip();
+        });
 
-            transitionImageLayout(
-                    ctx.commandPool(), VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL, VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL);
+        // Create the device-local VkImage
+        createImage(
+                width,
+                height,
+                VK_FORMAT_R8G8B8A8_SRGB,
+                VK_IMAGE_TILING_OPTIMAL,
+                VK_IMAGE_USAGE_TRANSFER_DST_BIT | VK_IMAGE_USAGE_SAMPLED_BIT,
+                VK_MEMORY_PROPERTY_DEVICE_LOCAL_BIT);
 
-            staging.dispose();
-        }
+        // Transition: UNDEFINED → TRANSFER_DST_OPTIMAL, copy pixels, then SHADER_READ_ONLY
+        transitionImageLayout(ctx.commandPool(), VK_IMAGE_LAYOUT_UNDEFINED, VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL);
+
+        copyBufferToImage(staging, 0, 0, width, height, ctx.commandPool());
+
+        transitionImageLayout(
+                ctx.commandPool(), VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL, VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL);
+
+        staging.dispose();
     }
 
     private void createImage(int width, int height, int format, int tiling, int usage, int memoryProps) {
@@ -214,6 +281,12 @@ public class VulkanTexture2D extends Texture2D {
                 barrier.dstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT);
                 srcStage = VK_PIPELINE_STAGE_TOP_OF_PIPE_BIT;
                 dstStage = VK_PIPELINE_STAGE_TRANSFER_BIT;
+            } else if (oldLayout == VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL
+                    && newLayout == VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL) {
+                barrier.srcAccessMask(VK_ACCESS_SHADER_READ_BIT);
+                barrier.dstAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT);
+                srcStage = VK_PIPELINE_STAGE_FRAGMENT_SHADER_BIT;
+                dstStage = VK_PIPELINE_STAGE_TRANSFER_BIT;
             } else if (oldLayout == VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL
                     && newLayout == VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL) {
                 barrier.srcAccessMask(VK_ACCESS_TRANSFER_WRITE_BIT);
@@ -229,7 +302,8 @@ public class VulkanTexture2D extends Texture2D {
         }
     }
 
-    private void copyBufferToImage(VulkanBuffer buffer, int width, int height, VulkanCommandPool commandPool) {
+    private void copyBufferToImage(
+            VulkanBuffer buffer, int x, int y, int width, int height, VulkanCommandPool commandPool) {
         try (MemoryStack stack = stackPush()) {
             var cmdBuf = commandPool.beginSingleUse(stack);
 
@@ -242,7 +316,7 @@ public class VulkanTexture2D extends Texture2D {
                     .mipLevel(0)
                     .baseArrayLayer(0)
                     .layerCount(1);
-            region.imageOffset().x(0).y(0).z(0);
+            region.imageOffset().x(x).y(y).z(0);
             region.imageExtent().width(width).height(height).depth(1);
 
             vkCmdCopyBufferToImage(cmdBuf, buffer.handle(), image, VK_IMAGE_LAYOUT_TRANSFER_DST_OPTIMAL, region);
@@ -309,7 +383,10 @@ public class VulkanTexture2D extends Texture2D {
     private void allocateAndWriteDescriptorSet(VulkanContext ctx) {
         // Allocates from the shared pool using the global layout owned by VulkanContext
         descriptorSet = ctx.allocateTextureDescriptorSet();
+        writeDescriptorSet();
+    }
 
+    private void writeDescriptorSet() {
         try (MemoryStack stack = stackPush()) {
             var imageInfo = VkDescriptorImageInfo.calloc(1, stack)
                     .imageLayout(VK_IMAGE_LAYOUT_SHADER_READ_ONLY_OPTIMAL)
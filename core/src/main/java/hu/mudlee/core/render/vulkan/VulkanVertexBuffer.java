@@ -3,8 +3,12 @@ package hu.mudlee.core.render.vulkan;
 import static hu.mudlee.core.render.vulkan.VulkanCommandPool.FRAMES_IN_FLIGHT;
 import static org.lwjgl.vulkan.VK12.*;
 
+import hu.mudlee.core.render.Renderer;
 import hu.mudlee.core.render.VertexBuffer;
 import hu.mudlee.core.render.VertexBufferLayout;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,19 +18,25 @@ import org.slf4j.LoggerFactory;
  * <p><b>Static mode</b> (float[] constructor): device-local GPU memory uploaded once via a staging
  * buffer. Read-only after creation.
  *
- * <p><b>Dynamic mode</b> (layout + maxFloats constructor): {@code FRAMES_IN_FLIGHT} host-visible,
- * host-coherent buffers — one per frame slot. {@link #update} writes into the slot that matches the
- * current in-flight frame index, so the GPU never reads a buffer while the CPU is writing it.
+ * <p><b>Dynamic mode</b> (layout + maxFloats constructor): host-visible, host-coherent, persistently
+ * mapped pages, kept per frame slot so the GPU never reads a page while the CPU is writing it. Every
+ * {@link #update} within the same frame moves to the next page of the slot, because the draw recorded
+ * after the previous update still reads the previous page when the command buffer executes. Pages
+ * are created on demand and reused in later frames.
  */
 public class VulkanVertexBuffer extends VertexBuffer {
 
     private static final Logger log = LoggerFactory.getLogger(VulkanVertexBuffer.class);
 
     private final VulkanBuffer gpuBuffer;
-    private final VulkanBuffer[] perFrameBuffers;
+    private final List<List<Page>> framePages;
     private final VertexBufferLayout layout;
     private final boolean dynamic;
+    private final long pageSizeBytes;
     private int length;
+    private Page currentPage;
+    private int pageCursor;
+    private long lastUpdateFrame = -1;
 
     /** Convenience constructor — resolves device and command pool from the active VulkanContext. */
     public VulkanVertexBuffer(float[] vertices, VertexBufferLayout layout) {
@@ -38,7 +48,8 @@ public class VulkanVertexBuffer extends VertexBuffer {
         this.layout = layout;
         this.length = vertices.length;
         this.dynamic = false;
-        this.perFrameBuffers = null;
+        this.framePages = null;
+        this.pageSizeBytes = 0;
 
         var sizeBytes = (long) vertices.length * Float.BYTES;
 
@@ -66,8 +77,8 @@ public class VulkanVertexBuffer extends VertexBuffer {
     }
 
     /**
-     * Dynamic constructor: allocates {@code FRAMES_IN_FLIGHT} host-visible buffers so each
-     * in-flight frame reads from its own slot, eliminating the CPU/GPU write race on dynamic data
+     * Dynamic constructor: allocates one page of {@code maxFloats} per in-flight frame slot so each
+     * in-flight frame reads from its own memory, eliminating the CPU/GPU write race on dynamic data
      * (e.g. SpriteBatch).
      */
     public VulkanVertexBuffer(VertexBufferLayout layout, int maxFloats) {
@@ -75,17 +86,15 @@ public class VulkanVertexBuffer extends VertexBuffer {
         this.length = 0;
         this.dynamic = true;
         this.gpuBuffer = null;
+        this.pageSizeBytes = (long) maxFloats * Float.BYTES;
 
-        var sizeBytes = (long) maxFloats * Float.BYTES;
-        var device = VulkanContext.get().device();
-        perFrameBuffers = new VulkanBuffer[FRAMES_IN_FLIGHT];
+        framePages = new ArrayList<>(FRAMES_IN_FLIGHT);
         for (int i = 0; i < FRAMES_IN_FLIGHT; i++) {
-            perFrameBuffers[i] = new VulkanBuffer(
-                    device,
-                    sizeBytes,
-                    VK_BUFFER_USAGE_VERTEX_BUFFER_BIT,
-                    VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
+            var pages = new ArrayList<Page>();
+            pages.add(createPage());
+            framePages.add(pages);
         }
+        currentPage = framePages.get(0).get(0);
 
         log.debug(
                 "VulkanVertexBuffer (dynamic) created (capacity {} floats, {} frame slots)",
@@ -98,14 +107,33 @@ public class VulkanVertexBuffer extends VertexBuffer {
         if (!dynamic) {
             throw new UnsupportedOperationException("Cannot update a static VulkanVertexBuffer");
         }
+        if ((long) floatCount * Float.BYTES > pageSizeBytes) {
+            throw new IllegalArgumentException(
+                    "Dynamic vertex buffer update of " + floatCount + " floats exceeds capacity");
+        }
+
+        var frame = Renderer.frameCount();
+        if (frame != lastUpdateFrame) {
+            lastUpdateFrame = frame;
+            pageCursor = 0;
+        } else {
+            pageCursor++;
+        }
+        var pages = framePages.get(VulkanContext.get().currentFrame());
+        if (pageCursor == pages.size()) {
+            pages.add(createPage());
+            log.debug("VulkanVertexBuffer (dynamic) grew to {} pages per frame", pages.size());
+        }
+
+        currentPage = pages.get(pageCursor);
+        currentPage.floats.clear();
+        currentPage.floats.put(data, 0, floatCount);
         this.length = floatCount;
-        perFrameBuffers[VulkanContext.get().currentFrame()].map(
-                dst -> dst.asFloatBuffer().put(data, 0, floatCount));
     }
 
     /** Returns the raw VkBuffer handle for use in vkCmdBindVertexBuffers. */
     long bufferHandle() {
-        return dynamic ? perFrameBuffers[VulkanContext.get().currentFrame()].handle() : gpuBuffer.handle();
+        return dynamic ? currentPage.buffer.handle() : gpuBuffer.handle();
     }
 
     @Override
@@ -132,12 +160,25 @@ public class VulkanVertexBuffer extends VertexBuffer {
     @Override
     public void dispose() {
         if (dynamic) {
-            for (var buf : perFrameBuffers) {
-                buf.dispose();
+            for (var pages : framePages) {
+                for (var page : pages) {
+                    page.buffer.dispose();
+                }
             }
         } else {
             gpuBuffer.dispose();
         }
         log.debug("VulkanVertexBuffer disposed");
     }
+
+    private Page createPage() {
+        var buffer = new VulkanBuffer(
+                VulkanContext.get().device(),
+                pageSizeBytes,
+                VK_BUFFER_USAGE_VERTEX_BUFFER_BIT,
+                VK_MEMORY_PROPERTY_HOST_VISIBLE_BIT | VK_MEMORY_PROPERTY_HOST_COHERENT_BIT);
+        return new Page(buffer, buffer.mapPersistent().asFloatBuffer());
+    }
+
+    private record Page(VulkanBuffer buffer, FloatBuffer floats) {}
 }
@@ -0,0 +1,63 @@
+package hu.mudlee.core.tween;
+
+/** Easing curves: each maps the linear progress 0 to 1 of a tween to the eased progress. */
+public enum Ease {
+    LINEAR,
+    QUAD_IN,
+    QUAD_OUT,
+    QUAD_IN_OUT,
+    CUBIC_IN,
+    CUBIC_OUT,
+    CUBIC_IN_OUT,
+    SINE_IN,
+    SINE_OUT,
+    SINE_IN_OUT,
+    BACK_IN,
+    BACK_OUT,
+    ELASTIC_OUT,
+    BOUNCE_OUT;
+
+    private static final float BACK = 1.70158f;
+    private static final float HALF_PI = (float) (Math.PI / 2);
+
+    public float apply(float t) {
+        return switch (this) {
+            case LINEAR -> t;
+            case QUAD_IN -> t * t;
+            case QUAD_OUT -> t * (2f - t);
+            case QUAD_IN_OUT -> t < 0.5f ? 2f * t * t : 1f - 2f * (1f - t) * (1f - t);
+            case CUBIC_IN -> t * t * t;
+            case CUBIC_OUT -> 1f - (1f - t) * (1f - t) * (1f - t);
+            case CUBIC_IN_OUT -> t < 0.5f ? 4f * t * t * t : 1f - 4f * (1f - t) * (1f - t) * (1f - t);
+            case SINE_IN -> 1f - (float) Math.cos(t * HALF_PI);
+            case SINE_OUT -> (float) Math.sin(t * HALF_PI);
+            case SINE_IN_OUT -> 0.5f - 0.5f * (float) Math.cos(t * Math.PI);
+            case BACK_IN -> t * t * ((BACK + 1f) * t - BACK);
+            case BACK_OUT -> {
+                var u = t - 1f;
+                yield 1f + u * u * ((BACK + 1f) * u + BACK);
+            }
+            case ELASTIC_OUT ->
+                t == 0f || t == 1f
+                        ? t
+                        : (float) (Math.pow(2, -10 * t) * Math.sin((t * 10 - 0.75) * (2 * Math.PI / 3)) + 1);
+            case BOUNCE_OUT -> bounceOut(t);
+        };
+    }
+
+    private static float bounceOut(float t) {
+        if (t < 1f / 2.75f) {
+            return 7.5625f * t * t;
+        }
+        if (t < 2f / 2.75f) {
+            t -= 1.5f / 2.75f;
+            return 7.5625f * t * t + 0.75f;
+        }
+        if (t < 2.5f / 2.75f) {
+            t -= 2.25f / 2.75f;
+            return 7.5625f * t * t + 0.9375f;
+        }
+        t -= 2.625f / 2.75f;
+        return 7.5625f * t * t + 0.984375f;
+    }
+}
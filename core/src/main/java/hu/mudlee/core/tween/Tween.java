@@ -0,0 +1,75 @@
+package hu.mudlee.core.tween;
+
+/**
+ * Handle to one tween of a {@link TweenManager}, for configuring it right after it was created. The
+ * tween's state lives in the manager's arrays; the handle only names its slot.
+ *
+ * <p>Handles are pooled: once a tween completes or is killed, its handle is reused for a later
+ * tween. To refer to a tween beyond the frame it was created in, keep its {@link #getId()} and use
+ * {@link TweenManager#isActive(long)} and {@link TweenManager#kill(long)}.
+ */
+public final class Tween {
+
+    private final TweenManager manager;
+    final int slot;
+
+    Tween(TweenManager manager, int slot) {
+        this.manager = manager;
+        this.slot = slot;
+    }
+
+    /** Identifies this tween until it completes or is killed; never reused. */
+    public long getId() {
+        return manager.id(slot);
+    }
+
+    public Tween ease(Ease ease) {
+        manager.setEase(slot, ease);
+        return this;
+    }
+
+    /** Waits {@code seconds} before starting; in a sequence, after the previous tween completes. */
+    public Tween delay(float seconds) {
+        manager.setDelay(slot, seconds);
+        return this;
+    }
+
+    /**
+     * Plays {@code count} more times, or forever with -1. With {@code yoyo}, every other run plays
+     * backwards.
+     */
+    public Tween repeat(int count, boolean yoyo) {
+        manager.setRepeat(slot, count, yoyo);
+        return this;
+    }
+
+    /** Treats the given values as offsets from the value the property has when the tween starts. */
+    public Tween relative() {
+        manager.addFlag(slot, TweenManager.FLAG_RELATIVE);
+        return this;
+    }
+
+    /** Plays from the given values to the value the property has when the tween starts. */
+    public Tween from() {
+        manager.addFlag(slot, TweenManager.FLAG_FROM);
+        return this;
+    }
+
+    public Tween onComplete(TweenCallback callback) {
+        manager.setCallback(slot, callback);
+        return this;
+    }
+
+    /**
+     * Starts {@code next}, a tween that has not started yet, when this one completes, and returns it,
+     * so sequences chain: {@code a.then(b).then(c)}. Killing a tween kills the rest of its sequence.
+     */
+    public Tween then(Tween next) {
+        manager.chain(slot, next.slot);
+        return next;
+    }
+
+    public void kill() {
+        manager.kill(slot);
+    }
+}
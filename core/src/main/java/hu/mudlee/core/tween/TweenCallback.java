@@ -0,0 +1,9 @@
+package hu.mudlee.core.tween;
+
+/** Called when a tween completes; keep instances in fields so starting tweens does not allocate. */
+@FunctionalInterface
+public interface TweenCallback {
+
+    /** {@code tween} is valid during the call only: its handle is recycled right after. */
+    void onComplete(Tween tween);
+}
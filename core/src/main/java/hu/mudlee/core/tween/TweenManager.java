@@ -0,0 +1,437 @@
+package hu.mudlee.core.tween;
+
+import java.util.Arrays;
+
+/**
+ * Runs tweens: animations of a {@link TweenProperty} of a target from its current value to given
+ * values over a duration, with an {@link Ease}.
+ *
+ * <p>Tweens are slots in parallel primitive arrays holding start and end values, duration, elapsed
+ * time and easing, and {@link #update(float)} advances the running ones in one loop over a compact
+ * list. Targets are written through shared {@link TweenProperty} instances, such as the ones in
+ * {@link TweenProperties}. Slots and their {@link Tween} handles are recycled, sequences are links
+ * between slots, and callbacks are plain interfaces, so once the arrays have grown to the number of
+ * concurrent tweens nothing allocates, neither per tick nor per tween started.
+ *
+ * <pre>
+ * private final TweenCallback removeToast = tween -&gt; toast.destroy();
+ *
+ * tweens.to(toast.transform, TweenProperties.POSITION, 0.3f, 0f, 40f)
+ *         .relative()
+ *         .ease(Ease.BACK_OUT)
+ *         .then(tweens.to(sprite, TweenProperties.SPRITE_ALPHA, 0.5f, 0f).delay(2f))
+ *         .onComplete(removeToast);
+ * </pre>
+ *
+ * <p>A {@link hu.mudlee.core.gameobject.GameScene2D} updates its own manager after the object
+ * updates, see {@link hu.mudlee.core.gameobject.GameScene2D#getTweens()}. Kill the tweens of
+ * objects that are destroyed, e.g. with {@link #killTweensOf(Object)}.
+ */
+public final class TweenManager {
+
+    static final int FLAG_RELATIVE = 1;
+    static final int FLAG_FROM = 1 << 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_COMPONENTS = 4;
+    private static final Ease[] EASES = Ease.values();
+    private static final int FREE = 0;
+    // Chained after a tween that has not completed yet
+    private static final int WAITING = 1;
+    private static final int RUNNING = 2;
+    // Removed from the active list, its callback about to run
+    private static final int COMPLETING = 3;
+    private static final int FLAG_YOYO = 1 << 2;
+    private static final int FLAG_STARTED = 1 << 3;
+    private static final int FLAG_BACKWARDS = 1 << 4;
+
+    private Tween[] handles = new Tween[INITIAL_CAPACITY];
+    private Object[] targets = new Object[INITIAL_CAPACITY];
+    private TweenProperty<?>[] properties = new TweenProperty<?>[INITIAL_CAPACITY];
+    private TweenCallback[] callbacks = new TweenCallback[INITIAL_CAPACITY];
+    private float[] start = new float[INITIAL_CAPACITY * MAX_COMPONENTS];
+    private float[] end = new float[INITIAL_CAPACITY * MAX_COMPONENTS];
+    private float[] duration = new float[INITIAL_CAPACITY];
+    // Negative while delayed
+    private float[] elapsed = new float[INITIAL_CAPACITY];
+    private int[] components = new int[INITIAL_CAPACITY];
+    private int[] ease = new int[INITIAL_CAPACITY];
+    private int[] state = new int[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+    private int[] repeats = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    // Generation of the successor when it was chained
+    private int[] nextGeneration = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int[] generation = new int[INITIAL_CAPACITY];
+    private int[] activeIndex = new int[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+
+    // Running slots, in no particular order
+    private int[] active = new int[INITIAL_CAPACITY];
+    private int activeCount;
+    private int[] finished = new int[INITIAL_CAPACITY];
+    private int[] finishedGeneration = new int[INITIAL_CAPACITY];
+    private final float[] values = new float[MAX_COMPONENTS];
+
+    public <T> Tween to(T target, TweenProperty<? super T> property, float duration, float value) {
+        var slot = create(target, property, duration, 1);
+        end[slot * MAX_COMPONENTS] = value;
+        return handles[slot];
+    }
+
+    public <T> Tween to(T target, TweenProperty<? super T> property, float duration, float x, float y) {
+        var slot = create(target, property, duration, 2);
+        var base = slot * MAX_COMPONENTS;
+        end[base] = x;
+        end[base + 1] = y;
+        return handles[slot];
+    }
+
+    public <T> Tween to(T target, TweenProperty<? super T> property, float duration, float x, float y, float z) {
+        var slot = create(target, property, duration, 3);
+        var base = slot * MAX_COMPONENTS;
+        end[base] = x;
+        end[base + 1] = y;
+        end[base + 2] = z;
+        return handles[slot];
+    }
+
+    public <T> Tween to(
+            T target, TweenProperty<? super T> property, float duration, float x, float y, float z, float w) {
+        var slot = create(target, property, duration, 4);
+        var base = slot * MAX_COMPONENTS;
+        end[base] = x;
+        end[base + 1] = y;
+        end[base + 2] = z;
+        end[base + 3] = w;
+        return handles[slot];
+    }
+
+    /** A tween that animates nothing for {@code seconds}, for pauses in sequences. */
+    public Tween interval(float seconds) {
+        return handles[create(null, null, seconds, 0)];
+    }
+
+    /** A tween that completes at once and calls {@code callback}, for actions in sequences. */
+    public Tween call(TweenCallback callback) {
+        var slot = create(null, null, 0f, 0);
+        callbacks[slot] = callback;
+        return handles[slot];
+    }
+
+    /** Whether the tween with {@code id} is running or waiting in a sequence. */
+    public boolean isActive(long id) {
+        var slot = (int) id;
+        return slot >= 0
+                && slot < slotCount
+                && generation[slot] == (int) (id >>> 32)
+                && (state[slot] == RUNNING || state[slot] == WAITING);
+    }
+
+    /** Stops the tween with {@code id}, if still active, and the rest of its sequence, without callbacks. */
+    public void kill(long id) {
+        if (isActive(id)) {
+            kill((int) id);
+        }
+    }
+
+    /** Kills every active tween of {@code target}. Returns how many there were. */
+    public int killTweensOf(Object target) {
+        var count = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (targets[slot] == target && (state[slot] == RUNNING || state[slot] == WAITING)) {
+                kill(slot);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Running tweens, not counting those waiting in sequences. */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /** Advances the running tweens, writes their targets, then completes the finished ones. */
+    public void update(float deltaSeconds) {
+        var finishedCount = 0;
+        for (int i = 0; i < activeCount; i++) {
+            var slot = active[i];
+            var time = elapsed[slot] + deltaSeconds;
+            elapsed[slot] = time;
+            if (time < 0f) {
+                continue;
+            }
+            if ((flags[slot] & FLAG_STARTED) == 0) {
+                begin(slot);
+            }
+            var length = duration[slot];
+            if (time < length) {
+                apply(slot, time / length);
+                continue;
+            }
+            apply(slot, 1f);
+            if (repeats[slot] == 0) {
+                if (finishedCount == finished.length) {
+                    finished = Arrays.copyOf(finished, finishedCount * 2);
+                    finishedGeneration = Arrays.copyOf(finishedGeneration, finishedCount * 2);
+                }
+                finishedGeneration[finishedCount] = generation[slot];
+                finished[finishedCount++] = slot;
+                continue;
+            }
+            if (repeats[slot] > 0) {
+                repeats[slot]--;
+            }
+            elapsed[slot] = length > 0f ? (time - length) % length : 0f;
+            if ((flags[slot] & FLAG_YOYO) != 0) {
+                flags[slot] ^= FLAG_BACKWARDS;
+            }
+        }
+        for (int i = 0; i < finishedCount; i++) {
+            var slot = finished[i];
+            // Callbacks of the earlier ones may have killed it, or killed it and reused the slot
+            if (state[slot] == RUNNING && generation[slot] == finishedGeneration[i]) {
+                complete(slot);
+            }
+        }
+    }
+
+    /** Kills every tween without callbacks. */
+    public void clear() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (state[slot] != FREE) {
+                release(slot);
+            }
+        }
+        activeCount = 0;
+    }
+
+    long id(int slot) {
+        return ((long) generation[slot] << 32) | slot;
+    }
+
+    void setEase(int slot, Ease ease) {
+        checkConfigurable(slot);
+        this.ease[slot] = ease.ordinal();
+    }
+
+    void setDelay(int slot, float seconds) {
+        checkConfigurable(slot);
+        if (seconds < 0f) {
+            throw new IllegalArgumentException("Delay must not be negative: " + seconds);
+        }
+        elapsed[slot] = -seconds;
+    }
+
+    void setRepeat(int slot, int count, boolean yoyo) {
+        checkConfigurable(slot);
+        if (count < -1) {
+            throw new IllegalArgumentException("Repeat count must be -1 (forever) or more: " + count);
+        }
+        repeats[slot] = count;
+        flags[slot] = yoyo ? flags[slot] | FLAG_YOYO : flags[slot] & ~FLAG_YOYO;
+    }
+
+    void addFlag(int slot, int flag) {
+        checkConfigurable(slot);
+        flags[slot] |= flag;
+    }
+
+    void setCallback(int slot, TweenCallback callback) {
+        checkActive(slot);
+        callbacks[slot] = callback;
+    }
+
+    void chain(int slot, int successor) {
+        checkActive(slot);
+        checkConfigurable(successor);
+        if (successor == slot || state[successor] != RUNNING) {
+            throw new IllegalStateException("Tween is already part of a sequence");
+        }
+        if (next[slot] >= 0) {
+            throw new IllegalStateException("Tween already has a successor");
+        }
+        removeActive(successor);
+        state[successor] = WAITING;
+        next[slot] = successor;
+        nextGeneration[slot] = generation[successor];
+        prev[successor] = slot;
+    }
+
+    void kill(int slot) {
+        if (state[slot] == COMPLETING || state[slot] == FREE) {
+            return;
+        }
+        if (prev[slot] >= 0) {
+            next[prev[slot]] = -1;
+        }
+        while (slot >= 0) {
+            if (state[slot] == RUNNING) {
+                removeActive(slot);
+            }
+            var successor = next[slot];
+            release(slot);
+            slot = successor;
+        }
+    }
+
+    private int create(Object target, TweenProperty<?> property, float duration, int componentCount) {
+        if (duration < 0f) {
+            throw new IllegalArgumentException("Tween duration must not be negative: " + duration);
+        }
+        if (property != null && property.components() != componentCount) {
+            throw new IllegalArgumentException(
+                    "Property has " + property.components() + " components, got " + componentCount + " values");
+        }
+        var slot = allocate();
+        targets[slot] = target;
+        properties[slot] = property;
+        callbacks[slot] = null;
+        this.duration[slot] = duration;
+        elapsed[slot] = 0f;
+        components[slot] = componentCount;
+        ease[slot] = Ease.LINEAR.ordinal();
+        flags[slot] = 0;
+        repeats[slot] = 0;
+        next[slot] = -1;
+        prev[slot] = -1;
+        state[slot] = RUNNING;
+        addActive(slot);
+        return slot;
+    }
+
+    /** Reads the current value and resolves the start and end values. */
+    private void begin(int slot) {
+        flags[slot] |= FLAG_STARTED;
+        var property = property(slot);
+        if (property == null) {
+            return;
+        }
+        property.get(targets[slot], values, 0);
+        var base = slot * MAX_COMPONENTS;
+        var relative = (flags[slot] & FLAG_RELATIVE) != 0;
+        var from = (flags[slot] & FLAG_FROM) != 0;
+        for (int c = 0; c < components[slot]; c++) {
+            var given = relative ? values[c] + end[base + c] : end[base + c];
+            start[base + c] = from ? given : values[c];
+            end[base + c] = from ? values[c] : given;
+        }
+    }
+
+    private void apply(int slot, float t) {
+        var property = property(slot);
+        if (property == null) {
+            return;
+        }
+        if ((flags[slot] & FLAG_BACKWARDS) != 0) {
+            t = 1f - t;
+        }
+        var k = EASES[ease[slot]].apply(t);
+        var base = slot * MAX_COMPONENTS;
+        for (int c = 0; c < components[slot]; c++) {
+            var from = start[base + c];
+            values[c] = from + (end[base + c] - from) * k;
+        }
+        property.set(targets[slot], values, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TweenProperty<Object> property(int slot) {
+        return (TweenProperty<Object>) properties[slot];
+    }
+
+    private void complete(int slot) {
+        removeActive(slot);
+        state[slot] = COMPLETING;
+        var callback = callbacks[slot];
+        if (callback != null) {
+            callback.onComplete(handles[slot]);
+        }
+        // Read after the callback, which may still chain a successor
+        var successor = next[slot];
+        var successorGeneration = nextGeneration[slot];
+        release(slot);
+        if (successor >= 0 && state[successor] == WAITING && generation[successor] == successorGeneration) {
+            prev[successor] = -1;
+            state[successor] = RUNNING;
+            addActive(successor);
+        }
+    }
+
+    private void checkActive(int slot) {
+        if (state[slot] == FREE) {
+            throw new IllegalStateException("Tween has already completed or been killed");
+        }
+    }
+
+    private void checkConfigurable(int slot) {
+        checkActive(slot);
+        if ((flags[slot] & FLAG_STARTED) != 0) {
+            throw new IllegalStateException("Tween has already started");
+        }
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == handles.length) {
+            grow(slotCount * 2);
+        }
+        var slot = slotCount++;
+        handles[slot] = new Tween(this, slot);
+        return slot;
+    }
+
+    private void release(int slot) {
+        state[slot] = FREE;
+        generation[slot]++;
+        targets[slot] = null;
+        properties[slot] = null;
+        callbacks[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void addActive(int slot) {
+        if (activeCount == active.length) {
+            active = Arrays.copyOf(active, activeCount * 2);
+        }
+        activeIndex[slot] = activeCount;
+        active[activeCount++] = slot;
+    }
+
+    private void removeActive(int slot) {
+        var index = activeIndex[slot];
+        var last = active[--activeCount];
+        active[index] = last;
+        activeIndex[last] = index;
+    }
+
+    private void grow(int capacity) {
+        handles = Arrays.copyOf(handles, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        properties = Arrays.copyOf(properties, capacity);
+        callbacks = Arrays.copyOf(callbacks, capacity);
+        start = Arrays.copyOf(start, capacity * MAX_COMPONENTS);
+        end = Arrays.copyOf(end, capacity * MAX_COMPONENTS);
+        duration = Arrays.copyOf(duration, capacity);
+        elapsed = Arrays.copyOf(elapsed, capacity);
+        components = Arrays.copyOf(components, capacity);
+        ease = Arrays.copyOf(ease, capacity);
+        state = Arrays.copyOf(state, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        repeats = Arrays.copyOf(repeats, capacity);
+        next = Arrays.copyOf(next, capacity);
+        nextGeneration = Arrays.copyOf(nextGeneration, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        activeIndex = Arrays.copyOf(activeIndex, capacity);
+    }
+}
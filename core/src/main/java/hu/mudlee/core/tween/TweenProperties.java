@@ -0,0 +1,123 @@
+package hu.mudlee.core.tween;
+
+import hu.mudlee.core.gameobject.Transform2D;
+import hu.mudlee.core.gameobject.components.SpriteRenderer2D;
+
+/** The properties of the engine's own components that tweens can animate. */
+public final class TweenProperties {
+
+    /** Local position, x and y. */
+    public static final TweenProperty<Transform2D> POSITION = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 2;
+        }
+
+        @Override
+        public void get(Transform2D target, float[] values, int offset) {
+            values[offset] = target.position.x;
+            values[offset + 1] = target.position.y;
+        }
+
+        @Override
+        public void set(Transform2D target, float[] values, int offset) {
+            target.position.set(values[offset], values[offset + 1]);
+        }
+    };
+
+    /** Local rotation in radians. */
+    public static final TweenProperty<Transform2D> ROTATION = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 1;
+        }
+
+        @Override
+        public void get(Transform2D target, float[] values, int offset) {
+            values[offset] = target.rotation;
+        }
+
+        @Override
+        public void set(Transform2D target, float[] values, int offset) {
+            target.rotation = values[offset];
+        }
+    };
+
+    /** Local scale, x and y. */
+    public static final TweenProperty<Transform2D> SCALE = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 2;
+        }
+
+        @Override
+        public void get(Transform2D target, float[] values, int offset) {
+            values[offset] = target.scale.x;
+            values[offset + 1] = target.scale.y;
+        }
+
+        @Override
+        public void set(Transform2D target, float[] values, int offset) {
+            target.scale.set(values[offset], values[offset + 1]);
+        }
+    };
+
+    /** {@link SpriteRenderer2D#tint}, red, green, blue and alpha. */
+    public static final TweenProperty<SpriteRenderer2D> SPRITE_TINT = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 4;
+        }
+
+        @Override
+        public void get(SpriteRenderer2D target, float[] values, int offset) {
+            values[offset] = target.tint.x;
+            values[offset + 1] = target.tint.y;
+            values[offset + 2] = target.tint.z;
+            values[offset + 3] = target.tint.w;
+        }
+
+        @Override
+        public void set(SpriteRenderer2D target, float[] values, int offset) {
+            target.tint.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+        }
+    };
+
+    /** Alpha of {@link SpriteRenderer2D#tint}, for fades. */
+    public static final TweenProperty<SpriteRenderer2D> SPRITE_ALPHA = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 1;
+        }
+
+        @Override
+        public void get(SpriteRenderer2D target, float[] values, int offset) {
+            values[offset] = target.tint.w;
+        }
+
+        @Override
+        public void set(SpriteRenderer2D target, float[] values, int offset) {
+            target.tint.w = values[offset];
+        }
+    };
+
+    /** {@link SpriteRenderer2D#scale}. */
+    public static final TweenProperty<SpriteRenderer2D> SPRITE_SCALE = new TweenProperty<>() {
+        @Override
+        public int components() {
+            return 1;
+        }
+
+        @Override
+        public void get(SpriteRenderer2D target, float[] values, int offset) {
+            values[offset] = target.scale;
+        }
+
+        @Override
+        public void set(SpriteRenderer2D target, float[] values, int offset) {
+            target.scale = values[offset];
+        }
+    };
+
+    private TweenProperties() {}
+}
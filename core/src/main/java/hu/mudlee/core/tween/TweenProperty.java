@@ -0,0 +1,26 @@
+package hu.mudlee.core.tween;
+
+/**
+ * Reads and writes one animatable property of a target type as 1 to 4 floats. Properties are
+ * created once and shared by every tween of them, see {@link TweenProperties}; a tween stores the
+ * property and its target, so animating needs no lambda or boxing per tween.
+ *
+ * <pre>
+ * public static final TweenProperty&lt;Health&gt; SHOWN_HEALTH = new TweenProperty&lt;&gt;() {
+ *     public int components() { return 1; }
+ *     public void get(Health target, float[] values, int offset) { values[offset] = target.shown; }
+ *     public void set(Health target, float[] values, int offset) { target.shown = values[offset]; }
+ * };
+ * </pre>
+ */
+public interface TweenProperty<T> {
+
+    /** Number of floats, 1 to 4. */
+    int components();
+
+    /** Writes the current value into {@code values} from {@code offset}. */
+    void get(T target, float[] values, int offset);
+
+    /** Applies the value in {@code values} from {@code offset}. */
+    void set(T target, float[] values, int offset);
+}
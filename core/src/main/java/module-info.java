@@ -11,19 +11,29 @@ module hu.mudlee.core {
     requires org.lwjgl.stb.natives;
     requires org.lwjgl.vulkan;
     requires transitive org.joml;
+    requires jdk.jfr;
+    requires jdk.management;
 
     exports hu.mudlee.core;
     exports hu.mudlee.core.content;
+    exports hu.mudlee.core.diagnostics;
+    exports hu.mudlee.core.ecs;
+    exports hu.mudlee.core.events;
     exports hu.mudlee.core.gameobject;
     exports hu.mudlee.core.gameobject.components;
     exports hu.mudlee.core.input;
+    exports hu.mudlee.core.jobs;
+    exports hu.mudlee.core.physics;
     exports hu.mudlee.core.render;
     exports hu.mudlee.core.render.camera;
+    exports hu.mudlee.core.render.font;
     exports hu.mudlee.core.render.animation;
     exports hu.mudlee.core.render.texture;
+    exports hu.mudlee.core.render.tilemap;
     exports hu.mudlee.core.render.types;
     exports hu.mudlee.core.scene;
     exports hu.mudlee.core.settings;
+    exports hu.mudlee.core.tween;
     exports hu.mudlee.core.window;
     exports hu.mudlee.core.render.vulkan;
 }
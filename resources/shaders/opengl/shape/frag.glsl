@@ -0,0 +1,9 @@
+#version 410 core
+
+layout (location=0) in vec4 fColor;
+layout (location=0) out vec4 FINAL_COLOR;
+
+void main()
+{
+	FINAL_COLOR = fColor;
+}
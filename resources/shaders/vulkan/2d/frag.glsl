@@ -10,7 +10,8 @@ layout(location = 1) in vec2 fragTexCoords;
 layout(location = 0) out vec4 outColor;
 
 void main() {
-    outColor = texture(texSampler, fragTexCoords);
+    // Vertex colour tints the texel, e.g. SpriteFont glyphs (white + coverage alpha) or particles
+    outColor = texture(texSampler, fragTexCoords) * fragColor;
 }
 
 // Compile to SPIR-V:
@@ -0,0 +1,12 @@
+#version 450
+
+layout(location = 0) in vec4 fragColor;
+
+layout(location = 0) out vec4 outColor;
+
+void main() {
+    outColor = fragColor;
+}
+
+// Compile to SPIR-V:
+//   glslc -fshader-stage=fragment frag.glsl -o frag.spv
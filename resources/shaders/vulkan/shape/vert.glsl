@@ -0,0 +1,23 @@
+#version 450
+
+// Same push constant block as the 2d shader: projection + view, 128 bytes.
+layout(push_constant) uniform PushConstants {
+    mat4 projection;
+    mat4 view;
+} pc;
+
+// Untextured layout used by ShapeBatch2D: position(vec3) + color(vec4), stride = 28 bytes.
+layout(location = 0) in vec3 aPosition;
+layout(location = 1) in vec4 aColor;
+
+layout(location = 0) out vec4 fragColor;
+
+void main() {
+    gl_Position = pc.projection * pc.view * vec4(aPosition, 1.0);
+    // Remap OpenGL-style NDC z from [-w, w] to Vulkan's [0, w]
+    gl_Position.z = (gl_Position.z + gl_Position.w) * 0.5;
+    fragColor = aColor;
+}
+
+// Compile to SPIR-V:
+//   glslc -fshader-stage=vertex vert.glsl -o vert.spv
@@ -8,6 +8,7 @@ plugins {
 
 dependencies {
 	implementation(project(":core"))
+	implementation("org.slf4j", "slf4j-api", "2.0.17")
 }
 
 val currentOs: DefaultOperatingSystem = DefaultNativePlatform.getCurrentOperatingSystem()
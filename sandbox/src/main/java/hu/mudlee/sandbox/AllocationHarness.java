@@ -0,0 +1,74 @@
+package hu.mudlee.sandbox;
+
+import hu.mudlee.core.Game;
+import hu.mudlee.core.GameService;
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.diagnostics.AllocationMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks that the running scene reaches a zero-garbage steady state. After a warm-up that lets the
+ * JIT settle, every frame must allocate 0 bytes on the game loop thread; offending frames are
+ * logged per stage by {@link AllocationMonitor}'s strict mode. The game exits when the check is
+ * done, and the process exit status reports the result.
+ *
+ * <p>Run with {@code ./gradlew run --args="alloc-check"} or {@code --args="alloc-check particles"}.
+ */
+public class AllocationHarness extends GameService {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationHarness.class);
+    private static final int WARMUP_FRAMES = 600;
+    private static final int CHECKED_FRAMES = 600;
+
+    private final Game game;
+    private int frames;
+    private int allocatingFrames;
+    private long worstFrameBytes;
+    private boolean passed;
+
+    public AllocationHarness(Game game) {
+        this.game = game;
+        AllocationMonitor.setEnabled(true);
+        AllocationMonitor.setFrameBudget(0);
+    }
+
+    // Draw runs once per frame, while fixed time steps may run update zero or several times
+    @Override
+    public void draw(GameTime gameTime) {
+        frames++;
+        if (frames <= WARMUP_FRAMES) {
+            if (frames == WARMUP_FRAMES) {
+                AllocationMonitor.reset();
+                AllocationMonitor.setStrict(true);
+            }
+            return;
+        }
+
+        // Reports the previous, fully completed frame
+        var bytes = AllocationMonitor.getLastFrameBytes();
+        if (bytes > 0) {
+            allocatingFrames++;
+            worstFrameBytes = Math.max(worstFrameBytes, bytes);
+        }
+
+        if (frames == WARMUP_FRAMES + CHECKED_FRAMES) {
+            passed = allocatingFrames == 0;
+            if (passed) {
+                log.info("Allocation check passed: 0 bytes/frame over {} frames", CHECKED_FRAMES);
+            } else {
+                log.error(
+                        "Allocation check failed: {} of {} frames allocated, worst {} bytes, {} bytes total",
+                        allocatingFrames,
+                        CHECKED_FRAMES,
+                        worstFrameBytes,
+                        AllocationMonitor.getTotalBytes());
+            }
+            game.exit();
+        }
+    }
+
+    public boolean passed() {
+        return passed;
+    }
+}
@@ -0,0 +1,149 @@
+package hu.mudlee.sandbox;
+
+import static hu.mudlee.core.ecs.Components2D.POSITION;
+import static hu.mudlee.core.ecs.Components2D.POSITION_X;
+import static hu.mudlee.core.ecs.Components2D.POSITION_Y;
+import static hu.mudlee.core.ecs.Components2D.SPRITE;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_G;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_HEIGHT;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_REGION;
+import static hu.mudlee.core.ecs.Components2D.SPRITE_WIDTH;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY_X;
+import static hu.mudlee.core.ecs.Components2D.VELOCITY_Y;
+
+import hu.mudlee.core.Game;
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.GraphicsDevice;
+import hu.mudlee.core.content.ContentManager;
+import hu.mudlee.core.ecs.EntitySystem;
+import hu.mudlee.core.ecs.MovementSystem;
+import hu.mudlee.core.ecs.Query;
+import hu.mudlee.core.ecs.SpriteRenderSystem;
+import hu.mudlee.core.ecs.World;
+import hu.mudlee.core.gameobject.GameScene2D;
+import hu.mudlee.core.input.InputActionMap;
+import hu.mudlee.core.input.Keys;
+import hu.mudlee.core.render.texture.SpriteSheet2D;
+import hu.mudlee.core.render.texture.Texture2D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Moves 50k ECS sprites that bounce off the screen edges and logs, once per second, the CPU time of
+ * the scene update and draw.
+ *
+ * <p>Run with {@code ./gradlew run --args=ecs}.
+ */
+public class EcsBenchmarkScene extends GameScene2D {
+
+    private static final Logger log = LoggerFactory.getLogger(EcsBenchmarkScene.class);
+    private static final int ENTITIES = 50_000;
+    private static final float WIDTH = 1920f;
+    private static final float HEIGHT = 1080f;
+    private static final float SIZE = 8f;
+
+    private ContentManager content;
+    private InputActionMap actions;
+    private long stageNanos;
+    private int frames;
+    private float reportTimer;
+
+    public EcsBenchmarkScene(Game game, GraphicsDevice graphicsDevice) {
+        super(game, graphicsDevice);
+    }
+
+    @Override
+    protected void onShow() {
+        content = new ContentManager("textures");
+        var texture = content.load(Texture2D.class, "sprites/player");
+        var region = new SpriteSheet2D(texture, 48, 48).getRegion(0, 0);
+
+        world.addSystem(new MovementSystem());
+        world.addSystem(new BounceSystem());
+        world.addSystem(new SpriteRenderSystem());
+
+        var archetype = world.archetype(POSITION, VELOCITY, SPRITE);
+        var seed = 0x2545F491;
+        for (int i = 0; i < ENTITIES; i++) {
+            var entity = world.create(archetype);
+            seed = seed * 1_103_515_245 + 12_345;
+            world.setFloat(entity, POSITION, POSITION_X, (seed >>> 8) % (int) WIDTH);
+            world.setFloat(entity, POSITION, POSITION_Y, (seed >>> 4) % (int) HEIGHT);
+            world.setFloat(entity, VELOCITY, VELOCITY_X, ((seed >>> 12) % 400) - 200f);
+            world.setFloat(entity, VELOCITY, VELOCITY_Y, ((seed >>> 16) % 400) - 200f);
+            world.setObject(entity, SPRITE, SPRITE_REGION, region);
+            world.setFloat(entity, SPRITE, SPRITE_WIDTH, SIZE);
+            world.setFloat(entity, SPRITE, SPRITE_HEIGHT, SIZE);
+            world.setFloat(entity, SPRITE, SPRITE_G, (i % 256) / 255f);
+        }
+        camera.position.set(WIDTH / 2f, HEIGHT / 2f);
+
+        actions = new InputActionMap("Benchmark");
+        actions.addAction("Exit").addBinding(Keys.ESCAPE).onPerformed(ctx -> game.exit());
+        actions.enable();
+    }
+
+    @Override
+    public void update(GameTime gameTime) {
+        var start = System.nanoTime();
+        super.update(gameTime);
+        stageNanos += System.nanoTime() - start;
+
+        reportTimer += gameTime.elapsedSeconds();
+        if (reportTimer >= 1f && frames > 0) {
+            log.info(
+                    "{} entities | update+draw {} ms/frame",
+                    world.getEntityCount(),
+                    String.format("%.3f", stageNanos / 1_000_000.0 / frames));
+            stageNanos = 0;
+            frames = 0;
+            reportTimer = 0f;
+        }
+    }
+
+    @Override
+    public void draw(GameTime gameTime) {
+        var start = System.nanoTime();
+        super.draw(gameTime);
+        stageNanos += System.nanoTime() - start;
+        frames++;
+    }
+
+    @Override
+    public void dispose() {
+        actions.disable();
+        content.unload();
+        super.dispose();
+    }
+
+    /** Reflects the velocity of entities that left the screen. */
+    private static final class BounceSystem extends EntitySystem {
+
+        private Query query;
+
+        @Override
+        public void start(World world) {
+            query = world.query(POSITION, VELOCITY);
+        }
+
+        @Override
+        public void update(World world, GameTime gameTime) {
+            for (int a = 0; a < query.archetypeCount(); a++) {
+                var archetype = query.archetype(a);
+                var x = archetype.floats(POSITION, POSITION_X);
+                var y = archetype.floats(POSITION, POSITION_Y);
+                var vx = archetype.floats(VELOCITY, VELOCITY_X);
+                var vy = archetype.floats(VELOCITY, VELOCITY_Y);
+                for (int row = 0, n = archetype.size(); row < n; row++) {
+                    if ((x[row] < 0f && vx[row] < 0f) || (x[row] > WIDTH - SIZE && vx[row] > 0f)) {
+                        vx[row] = -vx[row];
+                    }
+                    if ((y[row] < 0f && vy[row] < 0f) || (y[row] > HEIGHT - SIZE && vy[row] > 0f)) {
+                        vy[row] = -vy[row];
+                    }
+                }
+            }
+        }
+    }
+}
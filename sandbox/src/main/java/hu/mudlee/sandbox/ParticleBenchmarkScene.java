@@ -0,0 +1,119 @@
+package hu.mudlee.sandbox;
+
+import com.sun.management.ThreadMXBean;
+import hu.mudlee.core.Color;
+import hu.mudlee.core.Game;
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.GraphicsDevice;
+import hu.mudlee.core.content.ContentManager;
+import hu.mudlee.core.gameobject.GameObject;
+import hu.mudlee.core.gameobject.GameScene2D;
+import hu.mudlee.core.gameobject.components.ParticleSystem2D;
+import hu.mudlee.core.input.InputActionMap;
+import hu.mudlee.core.input.Keys;
+import hu.mudlee.core.render.texture.SpriteSheet2D;
+import hu.mudlee.core.render.texture.Texture2D;
+import java.lang.management.ManagementFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps ~100k particles alive and logs, once per second, the CPU time spent in the particle update
+ * and draw (including SpriteBatch2D flushes) and the bytes allocated by those stages per frame.
+ *
+ * <p>Run with {@code ./gradlew run --args=particles}. The target is well under 16 ms per frame with
+ * 0 bytes allocated per frame once the system has warmed up.
+ */
+public class ParticleBenchmarkScene extends GameScene2D {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticleBenchmarkScene.class);
+    private static final int PARTICLES = 100_000;
+    private static final float LIFETIME = 2f;
+
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().threadId();
+
+    private ContentManager content;
+    private InputActionMap actions;
+    private ParticleSystem2D particles;
+
+    private long stageNanos;
+    private long stageBytes;
+    private int frames;
+    private float reportTimer;
+
+    public ParticleBenchmarkScene(Game game, GraphicsDevice graphicsDevice) {
+        super(game, graphicsDevice);
+    }
+
+    @Override
+    protected void onShow() {
+        content = new ContentManager("textures");
+        var texture = content.load(Texture2D.class, "sprites/player");
+        var sheet = new SpriteSheet2D(texture, 48, 48);
+
+        particles = new ParticleSystem2D(PARTICLES);
+        particles.region = sheet.getRegion(0, 0);
+        particles.emissionRate = PARTICLES / LIFETIME;
+        particles.minLifetime = LIFETIME * 0.75f;
+        particles.maxLifetime = LIFETIME * 1.25f;
+        particles.minSpeed = 20f;
+        particles.maxSpeed = 400f;
+        particles.gravity.set(0f, -60f);
+        particles.startSize = 12f;
+        particles.endSize = 2f;
+        particles.startColor = new Color(1f, 0.8f, 0.3f, 1f);
+        particles.endColor = new Color(1f, 0.1f, 0f, 0f);
+
+        var emitter = new GameObject("Emitter");
+        emitter.transform.position.set(960, 540);
+        emitter.addComponent(particles);
+        addGameObject(emitter);
+        particles.burst(PARTICLES);
+
+        camera.position.set(960, 540);
+
+        actions = new InputActionMap("Benchmark");
+        actions.addAction("Exit").addBinding(Keys.ESCAPE).onPerformed(ctx -> game.exit());
+        actions.enable();
+    }
+
+    @Override
+    public void update(GameTime gameTime) {
+        var bytes = threadBean.getThreadAllocatedBytes(threadId);
+        var start = System.nanoTime();
+        super.update(gameTime);
+        stageNanos += System.nanoTime() - start;
+        stageBytes += threadBean.getThreadAllocatedBytes(threadId) - bytes;
+
+        reportTimer += gameTime.elapsedSeconds();
+        if (reportTimer >= 1f && frames > 0) {
+            log.info(
+                    "{} particles | update+draw {} ms/frame | {} bytes/frame",
+                    particles.getCount(),
+                    String.format("%.3f", stageNanos / 1_000_000.0 / frames),
+                    stageBytes / frames);
+            stageNanos = 0;
+            stageBytes = 0;
+            frames = 0;
+            reportTimer = 0f;
+        }
+    }
+
+    @Override
+    public void draw(GameTime gameTime) {
+        var bytes = threadBean.getThreadAllocatedBytes(threadId);
+        var start = System.nanoTime();
+        super.draw(gameTime);
+        stageNanos += System.nanoTime() - start;
+        stageBytes += threadBean.getThreadAllocatedBytes(threadId) - bytes;
+        frames++;
+    }
+
+    @Override
+    public void dispose() {
+        actions.disable();
+        content.unload();
+        super.dispose();
+    }
+}
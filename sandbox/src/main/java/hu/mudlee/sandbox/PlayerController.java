@@ -2,6 +2,7 @@ package hu.mudlee.sandbox;
 
 import hu.mudlee.core.GameTime;
 import hu.mudlee.core.gameobject.Component;
+import hu.mudlee.core.gameobject.ComponentId;
 import hu.mudlee.core.gameobject.components.Animator2D;
 import hu.mudlee.core.gameobject.components.SpriteRenderer2D;
 import hu.mudlee.core.input.Keyboard;
@@ -9,6 +10,9 @@ import hu.mudlee.core.input.Keys;
 
 public class PlayerController extends Component {
 
+    private static final ComponentId<Animator2D> ANIMATOR = ComponentId.of(Animator2D.class);
+    private static final ComponentId<SpriteRenderer2D> SPRITE_RENDERER = ComponentId.of(SpriteRenderer2D.class);
+
     private final float moveSpeed;
     private Direction direction = Direction.RIGHT;
     private State state = State.IDLE;
@@ -22,8 +26,8 @@ public class PlayerController extends Component {
         var ks = Keyboard.getState();
         var dt = gameTime.elapsedSeconds();
         var transform = getGameObject().transform;
-        var Animator2D = getComponent(Animator2D.class);
-        var sr = getComponent(SpriteRenderer2D.class);
+        var Animator2D = getComponent(ANIMATOR);
+        var sr = getComponent(SPRITE_RENDERER);
 
         if (state == State.DIE) {
             return;
@@ -3,8 +3,10 @@ package hu.mudlee.sandbox;
 import hu.mudlee.core.Game;
 import hu.mudlee.core.GraphicsDevice;
 import hu.mudlee.core.content.ContentManager;
+import hu.mudlee.core.diagnostics.FrameProfiler;
 import hu.mudlee.core.gameobject.GameObject;
 import hu.mudlee.core.gameobject.GameScene2D;
+import hu.mudlee.core.gameobject.UpdateStage;
 import hu.mudlee.core.gameobject.components.Animator2D;
 import hu.mudlee.core.gameobject.components.SpriteRenderer2D;
 import hu.mudlee.core.input.InputActionMap;
@@ -12,9 +14,14 @@ import hu.mudlee.core.input.Keys;
 import hu.mudlee.core.render.animation.PlayMode;
 import hu.mudlee.core.render.texture.SpriteSheet2D;
 import hu.mudlee.core.render.texture.Texture2D;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class PlayerScene extends GameScene2D {
 
+    private static final Logger log = LoggerFactory.getLogger(PlayerScene.class);
+
     private ContentManager content;
     private InputActionMap actions;
 
@@ -48,15 +55,29 @@ public class PlayerScene extends GameScene2D {
         player.transform.position.set(960, 540);
         player.addComponent(animator).addComponent(spriteRenderer).addComponent(new PlayerController(300f));
 
+        // Animations advance before the controller reads them, as they did in component order
+        setBatchedUpdates(true);
+        setUpdateStage(Animator2D.class, UpdateStage.PRE_UPDATE, 0);
         addGameObject(player);
 
         camera.position.set(960, 540);
 
         actions = new InputActionMap("Player");
         actions.addAction("Exit").addBinding(Keys.ESCAPE).onPerformed(ctx -> game.exit());
+        actions.addAction("DumpProfile").addBinding(Keys.F2).onPerformed(ctx -> dumpProfile());
         actions.enable();
     }
 
+    private void dumpProfile() {
+        FrameProfiler.dumpCsv(Path.of("frame-profile.csv"));
+        FrameProfiler.dumpSummaryCsv(Path.of("frame-profile-summary.csv"));
+        log.info(
+                "Frame p50 {} ms, p99 {} ms, max {} ms; written to frame-profile*.csv",
+                FrameProfiler.getPercentileNanos(FrameProfiler.FRAME, 50) / 1e6,
+                FrameProfiler.getPercentileNanos(FrameProfiler.FRAME, 99) / 1e6,
+                FrameProfiler.getMaxNanos(FrameProfiler.FRAME) / 1e6);
+    }
+
     @Override
     public void dispose() {
         actions.disable();
@@ -2,12 +2,19 @@ package hu.mudlee.sandbox;
 
 import hu.mudlee.core.Game;
 import hu.mudlee.core.GraphicsDeviceManager;
+import hu.mudlee.core.Screen;
 import hu.mudlee.core.ScreenManager;
+import hu.mudlee.core.diagnostics.FrameProfiler;
 import hu.mudlee.core.render.RenderBackend;
 
 public class SandboxApplication extends Game {
 
-    public SandboxApplication() {
+    private final String scene;
+    private final AllocationHarness allocationHarness;
+
+    public SandboxApplication(String scene, boolean allocationCheck) {
+        this.scene = scene;
+        this.allocationHarness = allocationCheck ? new AllocationHarness(this) : null;
         gdm = new GraphicsDeviceManager()
                 .setTitle("TESTING")
                 .setPreferredBackBufferWidth(1920)
@@ -15,16 +22,41 @@ public class SandboxApplication extends Game {
                 .setVSync(true)
                 .setFullscreen(false)
                 .setPreferredBackend(RenderBackend.VULKAN);
+        setFixedTimeStep(true);
+        FrameProfiler.setEnabled(true);
     }
 
     @Override
     protected void loadContent() {
         var screenManager = new ScreenManager();
         components.add(screenManager);
-        screenManager.set(new PlayerScene(this, graphicsDevice));
+        screenManager.set(createScene());
+        if (allocationHarness != null) {
+            components.add(allocationHarness);
+        }
+    }
+
+    private Screen createScene() {
+        return switch (scene) {
+            case "particles" -> new ParticleBenchmarkScene(this, graphicsDevice);
+            case "shapes" -> new ShapeBenchmarkScene(this, graphicsDevice);
+            case "ecs" -> new EcsBenchmarkScene(this, graphicsDevice);
+            default -> new PlayerScene(this, graphicsDevice);
+        };
     }
 
+    /**
+     * The first argument selects the scene: {@code particles} runs the particle benchmark, {@code
+     * shapes} the shape batch benchmark, {@code ecs} the ECS benchmark. With {@code alloc-check} first, the scene named by the next
+     * argument runs under {@link AllocationHarness} and the exit status reports the result.
+     */
     public static void main(String[] args) {
-        new SandboxApplication().run();
+        var allocationCheck = args.length > 0 && args[0].equals("alloc-check");
+        var sceneIndex = allocationCheck ? 1 : 0;
+        var app = new SandboxApplication(args.length > sceneIndex ? args[sceneIndex] : "player", allocationCheck);
+        app.run();
+        if (allocationCheck && !app.allocationHarness.passed()) {
+            System.exit(1);
+        }
     }
 }
@@ -0,0 +1,107 @@
+package hu.mudlee.sandbox;
+
+import hu.mudlee.core.Color;
+import hu.mudlee.core.Game;
+import hu.mudlee.core.GameTime;
+import hu.mudlee.core.GraphicsDevice;
+import hu.mudlee.core.gameobject.GameScene2D;
+import hu.mudlee.core.input.InputActionMap;
+import hu.mudlee.core.input.Keys;
+import hu.mudlee.core.render.ShapeBatch2D;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Draws a debug-overlay sized load through {@link ShapeBatch2D}: a dense grid, thousands of
+ * outlined and filled circles and a closed polyline, and logs the CPU time of the shape pass once
+ * per second.
+ *
+ * <p>Run with {@code ./gradlew run --args=shapes}.
+ */
+public class ShapeBenchmarkScene extends GameScene2D {
+
+    private static final Logger log = LoggerFactory.getLogger(ShapeBenchmarkScene.class);
+    private static final int GRID_STEP = 16;
+    private static final int CIRCLES = 4000;
+    private static final int POLYLINE_POINTS = 512;
+    private static final Color GRID_COLOR = new Color(0.3f, 0.3f, 0.3f, 0.5f);
+    private static final Color FILL_COLOR = new Color(0.2f, 0.6f, 1f, 0.25f);
+
+    private final float[] circleX = new float[CIRCLES];
+    private final float[] circleY = new float[CIRCLES];
+    private final float[] polyline = new float[POLYLINE_POINTS * 2];
+
+    private ShapeBatch2D shapes;
+    private InputActionMap actions;
+    private float time;
+    private long stageNanos;
+    private int frames;
+    private float reportTimer;
+
+    public ShapeBenchmarkScene(Game game, GraphicsDevice graphicsDevice) {
+        super(game, graphicsDevice);
+    }
+
+    @Override
+    protected void onShow() {
+        shapes = new ShapeBatch2D();
+        for (int i = 0; i < CIRCLES; i++) {
+            circleX[i] = (i * 97) % 1920;
+            circleY[i] = (i * 53) % 1080;
+        }
+        camera.position.set(960, 540);
+
+        actions = new InputActionMap("Benchmark");
+        actions.addAction("Exit").addBinding(Keys.ESCAPE).onPerformed(ctx -> game.exit());
+        actions.enable();
+    }
+
+    @Override
+    public void update(GameTime gameTime) {
+        super.update(gameTime);
+        time += gameTime.elapsedSeconds();
+
+        reportTimer += gameTime.elapsedSeconds();
+        if (reportTimer >= 1f && frames > 0) {
+            log.info("shape pass {} ms/frame", String.format("%.3f", stageNanos / 1_000_000.0 / frames));
+            stageNanos = 0;
+            frames = 0;
+            reportTimer = 0f;
+        }
+    }
+
+    @Override
+    public void draw(GameTime gameTime) {
+        super.draw(gameTime);
+
+        var start = System.nanoTime();
+        shapes.begin(camera.getTransformMatrix());
+        for (int x = 0; x <= 1920; x += GRID_STEP) {
+            shapes.drawLine(x, 0, x, 1080, GRID_COLOR);
+        }
+        for (int y = 0; y <= 1080; y += GRID_STEP) {
+            shapes.drawLine(0, y, 1920, y, GRID_COLOR);
+        }
+        for (int i = 0; i < CIRCLES; i++) {
+            shapes.fillCircle(circleX[i], circleY[i], 6f, 8, FILL_COLOR);
+            shapes.drawCircle(circleX[i], circleY[i], 6f, 8, Color.WHITE);
+        }
+        for (int i = 0; i < POLYLINE_POINTS; i++) {
+            var angle = (float) (i * Math.PI * 2 / POLYLINE_POINTS);
+            var radius = 400f + 60f * (float) Math.sin(angle * 8 + time * 2);
+            polyline[i * 2] = 960 + radius * (float) Math.cos(angle);
+            polyline[i * 2 + 1] = 540 + radius * (float) Math.sin(angle);
+        }
+        shapes.drawPolyline(polyline, POLYLINE_POINTS, true, Color.RED);
+        shapes.end();
+        stageNanos += System.nanoTime() - start;
+        frames++;
+    }
+
+    @Override
+    public void dispose() {
+        actions.disable();
+        shapes.dispose();
+        super.dispose();
+    }
+}
@@ -1,3 +1,5 @@
 module hu.mudlee.sandbox {
     requires hu.mudlee.core;
+    requires jdk.management;
+    requires org.slf4j;
 }